@@ -50,24 +50,126 @@ const StyleDefs: Record<Style, StyleDef> = {
 
 const charLimit = 500;
 
+// the text between start and end is replaced with text, version is the version of the document the positions are in
+type Edit = {
+	version: number;
+	start: number;
+	end: number;
+	text: string;
+	senderId: number | null;
+}
+
+const applyEdit = (text: string, edit: Edit) => text.slice(0, edit.start) + edit.text + text.slice(edit.end);
+
+// one edit that turns before into after, everything in between the parts they start and end with
+const diffText = (before: string, after: string, version: number, senderId: number | null): Edit => {
+	const maxLength = Math.min(before.length, after.length);
+	let start = 0;
+	while (start < maxLength && before.charCodeAt(start) === after.charCodeAt(start)) start++;
+	let sameEnd = 0;
+	while (sameEnd < maxLength - start && before.charCodeAt(before.length - 1 - sameEnd) === after.charCodeAt(after.length - 1 - sameEnd)) sameEnd++;
+
+	return { version, start, end: before.length - sameEnd, text: after.slice(start, after.length - sameEnd), senderId };
+}
+
+// moves the edit so it does the same thing after the other edit was applied first, the same as SharedDocument.transform() on the server
+const transformEdit = (edit: Edit, other: Edit, first: boolean): Edit => {
+	const shift = other.text.length - (other.end - other.start);
+	const samePlace = edit.start === edit.end && other.start === other.end && edit.start === other.start;
+
+	if (!samePlace && edit.end <= other.start) {
+		return { ...edit, version: edit.version + 1 };
+	}
+	if (!samePlace && other.end <= edit.start) {
+		return { ...edit, version: edit.version + 1, start: edit.start + shift, end: edit.end + shift };
+	}
+
+	// overlapping edits both replace everything either of them replaced with both texts
+	return {
+		...edit,
+		version: edit.version + 1,
+		start: Math.min(edit.start, other.start),
+		end: edit.end > other.end ? edit.end + shift : other.start + other.text.length,
+		text: first ? edit.text + other.text : other.text + edit.text
+	};
+}
+
+// where a position in the text ends up after the edit, for keeping the cursor in place
+const movePosition = (position: number, edit: Edit) => {
+	if (position <= edit.start) return position;
+	if (position >= edit.end) return position + edit.text.length - (edit.end - edit.start);
+	return edit.start + edit.text.length;
+}
+
 export default function Editor() {
     const editorRef = useRef<HTMLTextAreaElement>(null);
     const [isSidebarOpen, setSidebarOpen] = useState(false);
     const [currentPage, setCurrentPage] = useState('main');
-	const [text, setText] = useState("");
 	const [html, setHtml] = useState("");
 	const [userId, setUserId] = useState<number | null>(null);
 	const stompClient = useStompClient();
+	// the text the server has at the version, the version is -1 until the initial text came in
+	const confirmed = useRef({ text: "", version: -1 });
+	// the edit that was sent and hasn't come back from the server yet, only one is sent at a time
+	const sentEdit = useRef<Edit | null>(null);
+	// version of the document the html is from
+	const htmlVersion = useRef(-1);
 
 
 	useSubscription("/broadcasts/updates", (message) => {
 		const data = JSON.parse(message.body);
-		if (editorRef.current) {
-			editorRef.current.value = data.original.content
-			setHtml(data.html);
-		} else {
+		const edit: Edit = data.edit;
+		if (!editorRef.current) {
 			console.warn("editorRef.current is NULL!");
+			return;
+		}
+		if (confirmed.current.version < 0 || data.version <= confirmed.current.version) {
+			return;	// the initial text isn't there yet or already has this edit
+		}
+		if (data.version !== confirmed.current.version + 1) {
+			getInitialText();	// missed an edit, start over from the server's text
+			return;
+		}
+
+		const editor = editorRef.current;
+		// everything typed here that the server doesn't have yet, as one edit
+		const unconfirmed = diffText(confirmed.current.text, editor.value, confirmed.current.version, userId);
+		confirmed.current = { text: applyEdit(confirmed.current.text, edit), version: data.version };
+
+		if (sentEdit.current !== null && edit.senderId === userId) {
+			// our own edit came back, the text already has it, send whatever was typed in the meantime
+			sentEdit.current = null;
+			sendPendingEdit();
+			return;
+		}
+
+		// someone else's edit goes in front of what was typed here, the server does the same with the edit we sent
+		if (sentEdit.current !== null) {
+			sentEdit.current = transformEdit(sentEdit.current, edit, false);
+		}
+		const shown = transformEdit(edit, unconfirmed, true);
+		const { selectionStart, selectionEnd } = editor;
+		editor.value = applyEdit(editor.value, shown);
+		editor.setSelectionRange(movePosition(selectionStart, shown), movePosition(selectionEnd, shown));
+		updateStats(editor.value);
+	});
+
+	// the server dropped our edit, it was made on a version it can't move anymore, start over from the server's text
+	useSubscription("/broadcasts/resync", (message) => {
+		const data = JSON.parse(message.body);
+		if (data.senderId === userId) {
+			getInitialText();
+		}
+	});
+
+	// the html comes separately and not for every version, the server skips versions while it's rendering
+	useSubscription("/broadcasts/html", (message) => {
+		const data = JSON.parse(message.body);
+		if (data.version < htmlVersion.current) {
+			return;	// the initial text came with newer html
 		}
+		htmlVersion.current = data.version;
+		setHtml(data.html);
 	});
 
 	useEffect(() => {
@@ -84,35 +186,43 @@ export default function Editor() {
 		getUserId();
 	}, []);
 
-	useEffect(() => {
-		sendTextToServer(text);
-	}, [text]);
-
-	useEffect(() => {
+	const getInitialText = async () => {
 		if (userId === null) {
 			return;
 		}
+		if (!editorRef.current) {
+			console.error("editor reference is NULL!!");
+			return;
+		}
 
-		const getInitialText = async (userId: number) => {
-			if (!editorRef.current) {
-				console.error("editor reference is NULL!!");
-				return;
-			}
-
-			const response = await PresenceManager.getInitialText(userId);
+		let response;
+		try {
+			response = await PresenceManager.getInitialText(userId);
+		} catch (error) {
+			// the server was too busy to render the document, ask again in a second
+			console.warn("Unable to load the text, trying again", error);
+			setTimeout(getInitialText, 1000);
+			return;
+		}
 
-			if (!response || !response.original || !response.html) {	// guard against invalid response
-				console.error("Unable to get initial text + parser response from PresenceManager!!");
-				return;
-			}
+		if (!response || !response.original || response.html === undefined) {	// guard against invalid response
+			console.error("Unable to get initial text + parser response from PresenceManager!!");
+			return;
+		}
 
-			handleTextChange(response.original.content!);
-			setHtml(response.html);
+		const content = response.original.content || "";
+		confirmed.current = { text: content, version: response.version };
+		sentEdit.current = null;
+		htmlVersion.current = response.version;
+		setHtml(response.html);
 
-			editorRef.current.value = response.original.content || "";
-		}
+		editorRef.current.value = content;
+		updateStats(content);
+		handleCursorMove();
+	}
 
-		getInitialText(userId);
+	useEffect(() => {
+		getInitialText();
 	}, [userId]);	// only run this when userId gets set... should be on the first connect
 
 	const editor = (
@@ -131,20 +241,25 @@ export default function Editor() {
 		<div className="html-render" dangerouslySetInnerHTML={{__html: html}} />
 	)
 
-	const sendTextToServer = (text: string) => {
+	// sends what changed since the text the server has, nothing is sent while an edit is still on its way
+	const sendPendingEdit = () => {
 		if (!stompClient) {
 			console.warn('no stomp client');
 			return;
 		}
+		if (!editorRef.current || sentEdit.current !== null || confirmed.current.version < 0) {
+			return;
+		}
 
-		const content: string = JSON.stringify({
-			content: text,
-			senderId: userId
-		});
+		const edit = diffText(confirmed.current.text, editorRef.current.value, confirmed.current.version, userId);
+		if (edit.start === edit.end && edit.text.length === 0) {
+			return;
+		}
 
+		sentEdit.current = edit;
 		stompClient.publish({
-			destination: '/app/update',
-			body: content
+			destination: '/app/edit',
+			body: JSON.stringify(edit)
 		});
 	}
 
@@ -311,9 +426,9 @@ export default function Editor() {
     };
 
     const handleTextChange = (newText: string) => {
-        setText(newText);
         updateStats(newText);
         handleCursorMove();
+        sendPendingEdit();
     };
 
     const handleCursorMove = () => {
@@ -352,7 +467,7 @@ export default function Editor() {
         if (editorRef.current) {
             editorRef.current.value = ''; // clear the text area
         }
-        setText('');  // reset the text state
+        handleTextChange('');  // send the edit that deletes everything
         setHtml('');  // reset the HTML state
     };
 
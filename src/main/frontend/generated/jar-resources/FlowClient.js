@@ -0,0 +1,1054 @@
+export function init() {
+function client(){var Jb='',Kb=0,Lb='gwt.codesvr=',Mb='gwt.hosted=',Nb='gwt.hybrid',Ob='client',Pb='#',Qb='?',Rb='/',Sb=1,Tb='img',Ub='clear.cache.gif',Vb='baseUrl',Wb='script',Xb='client.nocache.js',Yb='base',Zb='//',$b='meta',_b='name',ac='gwt:property',bc='content',cc='=',dc='gwt:onPropertyErrorFn',ec='Bad handler "',fc='" for "gwt:onPropertyErrorFn"',gc='gwt:onLoadErrorFn',hc='" for "gwt:onLoadErrorFn"',ic='user.agent',jc='webkit',kc='safari',lc='msie',mc=10,nc=11,oc='ie10',pc=9,qc='ie9',rc=8,sc='ie8',tc='gecko',uc='gecko1_8',vc=2,wc=3,xc=4,yc='Single-script hosted mode not yet implemented. See issue ',zc='http://code.google.com/p/google-web-toolkit/issues/detail?id=2079',Ac='BF24ABCE6D5CD8551E3AF6413CBB492B',Bc=':1',Cc=':',Dc='DOMContentLoaded',Ec=50;var l=Jb,m=Kb,n=Lb,o=Mb,p=Nb,q=Ob,r=Pb,s=Qb,t=Rb,u=Sb,v=Tb,w=Ub,A=Vb,B=Wb,C=Xb,D=Yb,F=Zb,G=$b,H=_b,I=ac,J=bc,K=cc,L=dc,M=ec,N=fc,O=gc,P=hc,Q=ic,R=jc,S=kc,T=lc,U=mc,V=nc,W=oc,X=pc,Y=qc,Z=rc,$=sc,_=tc,ab=uc,bb=vc,cb=wc,db=xc,eb=yc,fb=zc,gb=Ac,hb=Bc,ib=Cc,jb=Dc,kb=Ec;var lb=window,mb=document,nb,ob,pb=l,qb={},rb=[],sb=[],tb=[],ub=m,vb,wb;if(!lb.__gwt_stylesLoaded){lb.__gwt_stylesLoaded={}}if(!lb.__gwt_scriptsLoaded){lb.__gwt_scriptsLoaded={}}function xb(){var b=false;try{var c=lb.location.search;return (c.indexOf(n)!=-1||(c.indexOf(o)!=-1||lb.external&&lb.external.gwtOnLoad))&&c.indexOf(p)==-1}catch(a){}xb=function(){return b};return b}
+function yb(){if(nb&&ob){nb(vb,q,pb,ub)}}
+function zb(){function e(a){var b=a.lastIndexOf(r);if(b==-1){b=a.length}var c=a.indexOf(s);if(c==-1){c=a.length}var d=a.lastIndexOf(t,Math.min(c,b));return d>=m?a.substring(m,d+u):l}
+function f(a){if(a.match(/^\w+:\/\//)){}else{var b=mb.createElement(v);b.src=a+w;a=e(b.src)}return a}
+function g(){var a=Cb(A);if(a!=null){return a}return l}
+function h(){var a=mb.getElementsByTagName(B);for(var b=m;b<a.length;++b){if(a[b].src.indexOf(C)!=-1){return e(a[b].src)}}return l}
+function i(){var a=mb.getElementsByTagName(D);if(a.length>m){return a[a.length-u].href}return l}
+function j(){var a=mb.location;return a.href==a.protocol+F+a.host+a.pathname+a.search+a.hash}
+var k=g();if(k==l){k=h()}if(k==l){k=i()}if(k==l&&j()){k=e(mb.location.href)}k=f(k);return k}
+function Ab(){var b=document.getElementsByTagName(G);for(var c=m,d=b.length;c<d;++c){var e=b[c],f=e.getAttribute(H),g;if(f){if(f==I){g=e.getAttribute(J);if(g){var h,i=g.indexOf(K);if(i>=m){f=g.substring(m,i);h=g.substring(i+u)}else{f=g;h=l}qb[f]=h}}else if(f==L){g=e.getAttribute(J);if(g){try{wb=eval(g)}catch(a){alert(M+g+N)}}}else if(f==O){g=e.getAttribute(J);if(g){try{vb=eval(g)}catch(a){alert(M+g+P)}}}}}}
+var Bb=function(a,b){return b in rb[a]};var Cb=function(a){var b=qb[a];return b==null?null:b};function Db(a,b){var c=tb;for(var d=m,e=a.length-u;d<e;++d){c=c[a[d]]||(c[a[d]]=[])}c[a[e]]=b}
+function Eb(a){var b=sb[a](),c=rb[a];if(b in c){return b}var d=[];for(var e in c){d[c[e]]=e}if(wb){wb(a,d,b)}throw null}
+sb[Q]=function(){var a=navigator.userAgent.toLowerCase();var b=mb.documentMode;if(function(){return a.indexOf(R)!=-1}())return S;if(function(){return a.indexOf(T)!=-1&&(b>=U&&b<V)}())return W;if(function(){return a.indexOf(T)!=-1&&(b>=X&&b<V)}())return Y;if(function(){return a.indexOf(T)!=-1&&(b>=Z&&b<V)}())return $;if(function(){return a.indexOf(_)!=-1||b>=V}())return ab;return S};rb[Q]={'gecko1_8':m,'ie10':u,'ie8':bb,'ie9':cb,'safari':db};client.onScriptLoad=function(a){client=null;nb=a;yb()};if(xb()){alert(eb+fb);return}zb();Ab();try{var Fb;Db([ab],gb);Db([S],gb+hb);Fb=tb[Eb(Q)];var Gb=Fb.indexOf(ib);if(Gb!=-1){ub=Number(Fb.substring(Gb+u))}}catch(a){return}var Hb;function Ib(){if(!ob){ob=true;yb();if(mb.removeEventListener){mb.removeEventListener(jb,Ib,false)}if(Hb){clearInterval(Hb)}}}
+if(mb.addEventListener){mb.addEventListener(jb,function(){Ib()},false)}var Hb=setInterval(function(){if(/loaded|complete/.test(mb.readyState)){Ib()}},kb)}
+client();(function () {var $gwt_version = "2.9.0";var $wnd = window;var $doc = $wnd.document;var $moduleName, $moduleBase;var $stats = $wnd.__gwtStatsEvent ? function(a) {$wnd.__gwtStatsEvent(a)} : null;var $strongName = 'BF24ABCE6D5CD8551E3AF6413CBB492B';function I(){}
+function Ti(){}
+function Pi(){}
+function Zi(){}
+function nc(){}
+function uc(){}
+function uk(){}
+function wk(){}
+function wj(){}
+function Jj(){}
+function Nj(){}
+function yk(){}
+function Tk(){}
+function Yk(){}
+function bl(){}
+function dl(){}
+function nl(){}
+function vm(){}
+function xm(){}
+function zm(){}
+function Xm(){}
+function Zm(){}
+function Zq(){}
+function _q(){}
+function $n(){}
+function io(){}
+function Tp(){}
+function br(){}
+function dr(){}
+function Cr(){}
+function Gr(){}
+function Rs(){}
+function Vs(){}
+function Ys(){}
+function rt(){}
+function au(){}
+function Vu(){}
+function Zu(){}
+function mv(){}
+function vv(){}
+function cx(){}
+function Bx(){}
+function Dx(){}
+function py(){}
+function ty(){}
+function yz(){}
+function gA(){}
+function nB(){}
+function PB(){}
+function PF(){}
+function $F(){}
+function eD(){}
+function KE(){}
+function aG(){}
+function cG(){}
+function tG(){}
+function ez(){bz()}
+function T(a){S=a;Jb()}
+function _j(a){throw a}
+function mj(a,b){a.c=b}
+function nj(a,b){a.d=b}
+function oj(a,b){a.e=b}
+function qj(a,b){a.g=b}
+function rj(a,b){a.h=b}
+function sj(a,b){a.i=b}
+function tj(a,b){a.j=b}
+function uj(a,b){a.k=b}
+function vj(a,b){a.l=b}
+function Bt(a,b){a.b=b}
+function sG(a,b){a.a=b}
+function bc(a){this.a=a}
+function dc(a){this.a=a}
+function Lj(a){this.a=a}
+function ek(a){this.a=a}
+function gk(a){this.a=a}
+function Rk(a){this.a=a}
+function Wk(a){this.a=a}
+function _k(a){this.a=a}
+function hl(a){this.a=a}
+function jl(a){this.a=a}
+function ll(a){this.a=a}
+function pl(a){this.a=a}
+function rl(a){this.a=a}
+function Vl(a){this.a=a}
+function Vn(a){this.a=a}
+function zn(a){this.a=a}
+function Cn(a){this.a=a}
+function Dn(a){this.a=a}
+function Jn(a){this.a=a}
+function Xn(a){this.a=a}
+function Bm(a){this.a=a}
+function Fm(a){this.a=a}
+function Rm(a){this.a=a}
+function _m(a){this.a=a}
+function ao(a){this.a=a}
+function co(a){this.a=a}
+function fo(a){this.a=a}
+function jo(a){this.a=a}
+function po(a){this.a=a}
+function Jo(a){this.a=a}
+function $o(a){this.a=a}
+function Cp(a){this.a=a}
+function Rp(a){this.a=a}
+function Vp(a){this.a=a}
+function Xp(a){this.a=a}
+function Jp(a){this.b=a}
+function Eq(a){this.a=a}
+function Gq(a){this.a=a}
+function Iq(a){this.a=a}
+function Rq(a){this.a=a}
+function Uq(a){this.a=a}
+function Ir(a){this.a=a}
+function Pr(a){this.a=a}
+function Rr(a){this.a=a}
+function ds(a){this.a=a}
+function hs(a){this.a=a}
+function qs(a){this.a=a}
+function ys(a){this.a=a}
+function As(a){this.a=a}
+function Cs(a){this.a=a}
+function Es(a){this.a=a}
+function Gs(a){this.a=a}
+function Hs(a){this.a=a}
+function Ps(a){this.a=a}
+function bs(a){this.c=a}
+function Ct(a){this.c=a}
+function gt(a){this.a=a}
+function pt(a){this.a=a}
+function tt(a){this.a=a}
+function Ft(a){this.a=a}
+function Ht(a){this.a=a}
+function Ut(a){this.a=a}
+function $t(a){this.a=a}
+function tu(a){this.a=a}
+function xu(a){this.a=a}
+function Xu(a){this.a=a}
+function Bv(a){this.a=a}
+function Fv(a){this.a=a}
+function Jv(a){this.a=a}
+function Lv(a){this.a=a}
+function Nv(a){this.a=a}
+function Sv(a){this.a=a}
+function Hx(a){this.a=a}
+function Jx(a){this.a=a}
+function Xx(a){this.a=a}
+function _x(a){this.a=a}
+function Gx(a){this.b=a}
+function dy(a){this.a=a}
+function ry(a){this.a=a}
+function xy(a){this.a=a}
+function zy(a){this.a=a}
+function Dy(a){this.a=a}
+function Jy(a){this.a=a}
+function Ly(a){this.a=a}
+function Ny(a){this.a=a}
+function Py(a){this.a=a}
+function Ry(a){this.a=a}
+function Yy(a){this.a=a}
+function $y(a){this.a=a}
+function pz(a){this.a=a}
+function sz(a){this.a=a}
+function Az(a){this.a=a}
+function Cz(a){this.e=a}
+function eA(a){this.a=a}
+function iA(a){this.a=a}
+function kA(a){this.a=a}
+function GA(a){this.a=a}
+function WA(a){this.a=a}
+function YA(a){this.a=a}
+function $A(a){this.a=a}
+function jB(a){this.a=a}
+function lB(a){this.a=a}
+function BB(a){this.a=a}
+function VB(a){this.a=a}
+function aD(a){this.a=a}
+function cD(a){this.a=a}
+function fD(a){this.a=a}
+function WD(a){this.a=a}
+function sF(a){this.a=a}
+function fF(a){this.c=a}
+function UE(a){this.b=a}
+function wG(a){this.a=a}
+function R(){this.a=xb()}
+function ij(){this.a=++hj}
+function Ui(){Ro();Vo()}
+function Ro(){Ro=Pi;Qo=[]}
+function Rw(a,b){Dw(b,a)}
+function Hw(a,b){$w(b,a)}
+function Nw(a,b){Zw(b,a)}
+function Qz(a,b){Ou(b,a)}
+function qu(a,b){b.hb(a)}
+function OC(b,a){b.log(a)}
+function PC(b,a){b.warn(a)}
+function IC(b,a){b.data=a}
+function Ls(a,b){KB(a.a,b)}
+function yB(a){Zz(a.a,a.b)}
+function Gi(a){return a.e}
+function Yb(a){return a.B()}
+function um(a){return _l(a)}
+function hc(a){gc();fc.D(a)}
+function Xr(a){Wr(a)&&Zr(a)}
+function hr(a){a.i||ir(a.a)}
+function hp(a,b){a.push(b)}
+function Z(a,b){a.e=b;W(a,b)}
+function pj(a,b){a.f=b;Xj=!b}
+function MC(b,a){b.debug(a)}
+function NC(b,a){b.error(a)}
+function Ml(a,b,c){Hl(a,c,b)}
+function $z(a,b,c){a.Pb(c,b)}
+function kb(){ab.call(this)}
+function lD(){ab.call(this)}
+function jD(){kb.call(this)}
+function bE(){kb.call(this)}
+function mF(){kb.call(this)}
+function bz(){bz=Pi;az=nz()}
+function pb(){pb=Pi;ob=new I}
+function Qb(){Qb=Pi;Pb=new io}
+function kt(){kt=Pi;jt=new rt}
+function Hz(){Hz=Pi;Gz=new gA}
+function IE(){IE=Pi;HE=new eD}
+function bk(a){S=a;!!a&&Jb()}
+function Nk(a){Ek();this.a=a}
+function bA(a){aA.call(this,a)}
+function DA(a){aA.call(this,a)}
+function TA(a){aA.call(this,a)}
+function hD(a){lb.call(this,a)}
+function iD(a){hD.call(this,a)}
+function UD(a){lb.call(this,a)}
+function VD(a){lb.call(this,a)}
+function cE(a){nb.call(this,a)}
+function dE(a){lb.call(this,a)}
+function fE(a){UD.call(this,a)}
+function DE(){fD.call(this,'')}
+function EE(){fD.call(this,'')}
+function GE(a){hD.call(this,a)}
+function ME(a){lb.call(this,a)}
+function sx(a,b){b.forEach(a)}
+function nG(a,b,c){b.fb(JE(c))}
+function sm(a,b,c){a.set(b,c)}
+function Nl(a,b){a.a.add(b.d)}
+function Ty(a){Tw(a.b,a.a,a.c)}
+function vD(a){uD(a);return a.i}
+function qD(a){return FG(a),a}
+function RD(a){return FG(a),a}
+function Q(a){return xb()-a.a}
+function ZC(a){return Object(a)}
+function Wc(a,b){return $c(a,b)}
+function xc(a,b){return DD(a,b)}
+function Bq(a,b){return a.a>b.a}
+function $C(b,a){return a in b}
+function JE(a){return Ic(a,5).e}
+function nm(a,b){tB(new Pm(b,a))}
+function Kw(a,b){tB(new Zx(b,a))}
+function Lw(a,b){tB(new by(b,a))}
+function Lk(a,b){++Dk;b.bb(a,Ak)}
+function mn(a,b){a.d?on(b):Ok()}
+function du(a,b){a.c.forEach(b)}
+function fB(a,b){a.e||a.c.add(b)}
+function hG(a,b){dG(a);a.a.gc(b)}
+function ZF(a,b){Ic(a,103).$b(b)}
+function xF(a,b){while(a.hc(b));}
+function ox(a,b,c){hB(ex(a,c,b))}
+function IF(a,b,c){b.fb(a.a[c])}
+function CC(b,a){b.display=a}
+function cw(b,a){Xv();delete b[a]}
+function Vi(b,a){return b.exec(a)}
+function Pw(a,b){return pw(b.a,a)}
+function Iz(a,b){return Wz(a.a,b)}
+function IA(a,b){return Wz(a.a,b)}
+function uA(a,b){return Wz(a.a,b)}
+function rx(a,b){return tl(a.b,b)}
+function Ub(a){return !!a.b||!!a.g}
+function Lz(a){_z(a.a);return a.g}
+function Pz(a){_z(a.a);return a.c}
+function Pj(a,b){this.b=a;this.a=b}
+function fl(a,b){this.a=a;this.b=b}
+function Al(a,b){this.a=a;this.b=b}
+function Cl(a,b){this.a=a;this.b=b}
+function Rl(a,b){this.a=a;this.b=b}
+function Tl(a,b){this.a=a;this.b=b}
+function Hm(a,b){this.a=a;this.b=b}
+function Jm(a,b){this.a=a;this.b=b}
+function Lm(a,b){this.a=a;this.b=b}
+function Nm(a,b){this.a=a;this.b=b}
+function Pm(a,b){this.a=a;this.b=b}
+function Gn(a,b){this.a=a;this.b=b}
+function Ln(a,b){this.b=a;this.a=b}
+function Nn(a,b){this.b=a;this.a=b}
+function Dm(a,b){this.b=a;this.a=b}
+function to(a,b){this.b=a;this.c=b}
+function Do(a,b){to.call(this,a,b)}
+function Pp(a,b){to.call(this,a,b)}
+function ND(){lb.call(this,null)}
+function Db(){Db=Pi;!!(gc(),fc)}
+function Ji(){Hi==null&&(Hi=[])}
+function Ob(){yb!=0&&(yb=0);Cb=-1}
+function OB(){this.c=new $wnd.Map}
+function Mt(){this.a=new $wnd.Map}
+function Wt(a,b){this.a=a;this.b=b}
+function Yt(a,b){this.a=a;this.b=b}
+function Lr(a,b){this.a=a;this.b=b}
+function Nr(a,b){this.a=a;this.b=b}
+function ru(a,b){this.a=a;this.b=b}
+function vu(a,b){this.a=a;this.b=b}
+function zu(a,b){this.a=a;this.b=b}
+function Dv(a,b){this.a=a;this.b=b}
+function fr(a,b){this.b=a;this.a=b}
+function It(a,b){this.b=a;this.a=b}
+function Lx(a,b){this.b=a;this.a=b}
+function Nx(a,b){this.b=a;this.a=b}
+function Tx(a,b){this.b=a;this.a=b}
+function Zx(a,b){this.b=a;this.a=b}
+function by(a,b){this.b=a;this.a=b}
+function kz(a,b){this.b=a;this.a=b}
+function iz(a,b){this.a=a;this.b=b}
+function ly(a,b){this.a=a;this.b=b}
+function ny(a,b){this.a=a;this.b=b}
+function Fy(a,b){this.a=a;this.b=b}
+function Wy(a,b){this.a=a;this.b=b}
+function mA(a,b){this.a=a;this.b=b}
+function aB(a,b){this.a=a;this.b=b}
+function zB(a,b){this.a=a;this.b=b}
+function CB(a,b){this.a=a;this.b=b}
+function tA(a,b){this.d=a;this.e=b}
+function YF(a,b){this.a=a;this.b=b}
+function qG(a,b){this.a=a;this.b=b}
+function xG(a,b){this.b=a;this.a=b}
+function lC(a,b){to.call(this,a,b)}
+function tC(a,b){to.call(this,a,b)}
+function WF(a,b){to.call(this,a,b)}
+function jq(a,b){bq(a,(Aq(),yq),b)}
+function Jw(a,b,c){Xw(a,b);yw(c.e)}
+function at(a,b,c,d){_s(a,b.d,c,d)}
+function zG(a,b,c){a.splice(b,0,c)}
+function Io(a,b){return Go(b,Ho(a))}
+function El(a,b){return Nc(a.b[b])}
+function Yc(a){return typeof a===WG}
+function SD(a){return ad((FG(a),a))}
+function uE(a,b){return a.substr(b)}
+function dz(a,b){iB(b);az.delete(a)}
+function RC(b,a){b.clearTimeout(a)}
+function Nb(a){$wnd.clearTimeout(a)}
+function _i(a){$wnd.clearTimeout(a)}
+function QC(b,a){b.clearInterval(a)}
+function mz(a){a.length=0;return a}
+function AE(a,b){a.a+=''+b;return a}
+function BE(a,b){a.a+=''+b;return a}
+function CE(a,b){a.a+=''+b;return a}
+function bd(a){IG(a==null);return a}
+function lG(a,b,c){ZF(b,c);return b}
+function qq(a,b){bq(a,(Aq(),zq),b.a)}
+function Ll(a,b){return a.a.has(b.d)}
+function H(a,b){return _c(a)===_c(b)}
+function nE(a,b){return a.indexOf(b)}
+function XC(a){return a&&a.valueOf()}
+function YC(a){return a&&a.valueOf()}
+function oF(a){return a!=null?O(a):0}
+function _c(a){return a==null?null:a}
+function qF(){qF=Pi;pF=new sF(null)}
+function ov(){ov=Pi;nv=new $wnd.Map}
+function Xv(){Xv=Pi;Wv=new $wnd.Map}
+function pD(){pD=Pi;nD=false;oD=true}
+function $i(a){$wnd.clearInterval(a)}
+function $j(a){Xj&&NC($wnd.console,a)}
+function Yj(a){Xj&&MC($wnd.console,a)}
+function ck(a){Xj&&OC($wnd.console,a)}
+function dk(a){Xj&&PC($wnd.console,a)}
+function Pn(a){Xj&&NC($wnd.console,a)}
+function U(a){a.h=zc($h,ZG,28,0,0,1)}
+function mG(a,b,c){sG(a,vG(b,a.a,c))}
+function px(a,b,c){return ex(a,c.a,b)}
+function iu(a,b){return a.h.delete(b)}
+function ku(a,b){return a.b.delete(b)}
+function Zz(a,b){return a.a.delete(b)}
+function vG(a,b,c){return lG(a.a,b,c)}
+function nz(){return new $wnd.WeakMap}
+function Os(a){this.a=new OB;this.c=a}
+function os(a){this.a=a;Zi.call(this)}
+function Pq(a){this.a=a;Zi.call(this)}
+function Er(a){this.a=a;Zi.call(this)}
+function ab(){U(this);V(this);this.w()}
+function PG(){PG=Pi;MG=new I;OG=new I}
+function kr(a){return TH in a?a[TH]:-1}
+function qx(a,b){return fm(a.b.root,b)}
+function zE(a){return a==null?aH:Si(a)}
+function Ow(a,b){var c;c=pw(b,a);hB(c)}
+function fq(a){!!a.b&&oq(a,(Aq(),xq))}
+function kq(a){!!a.b&&oq(a,(Aq(),yq))}
+function tq(a){!!a.b&&oq(a,(Aq(),zq))}
+function FE(a){fD.call(this,(FG(a),a))}
+function Ik(a){ho((Qb(),Pb),new ll(a))}
+function Zo(a){ho((Qb(),Pb),new $o(a))}
+function mp(a){ho((Qb(),Pb),new Cp(a))}
+function sr(a){ho((Qb(),Pb),new Rr(a))}
+function ux(a){ho((Qb(),Pb),new Ry(a))}
+function CG(a){if(!a){throw Gi(new jD)}}
+function IG(a){if(!a){throw Gi(new ND)}}
+function DG(a){if(!a){throw Gi(new mF)}}
+function ls(a){if(a.a){Wi(a.a);a.a=null}}
+function wA(a,b){_z(a.a);a.c.forEach(b)}
+function JA(a,b){_z(a.a);a.b.forEach(b)}
+function js(a,b){b.a.b==(Co(),Bo)&&ls(a)}
+function Sc(a,b){return a!=null&&Hc(a,b)}
+function rF(a,b){return a.a!=null?a.a:b}
+function FC(a,b){return a.appendChild(b)}
+function GC(b,a){return b.appendChild(a)}
+function pE(a,b){return a.lastIndexOf(b)}
+function oE(a,b,c){return a.indexOf(b,c)}
+function EC(a,b,c,d){return wC(a,b,c,d)}
+function Pk(a,b,c){Ek();return a.set(c,b)}
+function LG(a){return a.$H||(a.$H=++KG)}
+function Vm(a){return ''+Wm(Tm.kb()-a,3)}
+function Uc(a){return typeof a==='number'}
+function Xc(a){return typeof a==='string'}
+function tb(a){return a==null?null:a.name}
+function vE(a,b,c){return a.substr(b,c-b)}
+function DC(d,a,b,c){d.setProperty(a,b,c)}
+function _E(){this.a=zc(Yh,ZG,1,0,5,1)}
+function _z(a){var b;b=pB;!!b&&cB(b,a.b)}
+function gB(a){if(a.d||a.e){return}eB(a)}
+function uD(a){if(a.i!=null){return}HD(a)}
+function Jc(a){IG(a==null||Tc(a));return a}
+function Kc(a){IG(a==null||Uc(a));return a}
+function Lc(a){IG(a==null||Yc(a));return a}
+function Pc(a){IG(a==null||Xc(a));return a}
+function Qk(a){Ek();Dk==0?a.C():Ck.push(a)}
+function kc(a){gc();return parseInt(a)||-1}
+function JC(b,a){return b.createElement(a)}
+function so(a){return a.b!=null?a.b:''+a.c}
+function Tc(a){return typeof a==='boolean'}
+function rD(a,b){return FG(a),_c(a)===_c(b)}
+function lE(a,b){return FG(a),_c(a)===_c(b)}
+function $c(a,b){return a&&b&&a instanceof b}
+function sb(a){return a==null?null:a.message}
+function Eb(a,b,c){return a.apply(b,c);var d}
+function Xb(a,b){a.b=Zb(a.b,[b,false]);Vb(a)}
+function Kq(a,b){b.a.b==(Co(),Bo)&&Nq(a,-1)}
+function no(){this.b=(Co(),zo);this.a=new OB}
+function Gl(){this.a=new $wnd.Map;this.b=[]}
+function aA(a){this.a=new $wnd.Set;this.b=a}
+function oA(a,b){Cz.call(this,a);this.a=b}
+function kG(a,b){fG.call(this,a);this.a=b}
+function Rn(a,b){Sn(a,b,Ic(ik(a.a,td),8).j)}
+function rr(a,b){Nt(Ic(ik(a.i,Sf),84),b[VH])}
+function dj(a,b){return $wnd.setTimeout(a,b)}
+function cj(a,b){return $wnd.setInterval(a,b)}
+function qE(a,b,c){return a.lastIndexOf(b,c)}
+function Ep(a,b,c){this.a=a;this.c=b;this.b=c}
+function rv(a,b,c){this.c=a;this.d=b;this.j=c}
+function Uv(a,b,c){this.b=a;this.a=b;this.c=c}
+function Rx(a,b,c){this.b=a;this.c=b;this.a=c}
+function Px(a,b,c){this.c=a;this.b=b;this.a=c}
+function Vx(a,b,c){this.a=a;this.b=b;this.c=c}
+function fy(a,b,c){this.a=a;this.b=b;this.c=c}
+function hy(a,b,c){this.a=a;this.b=b;this.c=c}
+function jy(a,b,c){this.a=a;this.b=b;this.c=c}
+function vy(a,b,c){this.c=a;this.b=b;this.a=c}
+function Hy(a,b,c){this.b=a;this.c=b;this.a=c}
+function By(a,b,c){this.b=a;this.a=b;this.c=c}
+function Uy(a,b,c){this.b=a;this.a=b;this.c=c}
+function Cq(a,b,c){to.call(this,a,b);this.a=c}
+function Xq(a,b,c){a.fb($D(Mz(Ic(c.e,13),b)))}
+function xs(a,b,c){a.set(c,(_z(b.a),Pc(b.g)))}
+function xv(a){a.c?QC($wnd,a.d):RC($wnd,a.d)}
+function tB(a){qB==null&&(qB=[]);qB.push(a)}
+function uB(a){sB==null&&(sB=[]);sB.push(a)}
+function UC(a){if(a==null){return 0}return +a}
+function Ic(a,b){IG(a==null||Hc(a,b));return a}
+function Oc(a,b){IG(a==null||$c(a,b));return a}
+function XE(a,b){a.a[a.a.length]=b;return true}
+function bu(a,b){a.b.add(b);return new zu(a,b)}
+function cu(a,b){a.h.add(b);return new vu(a,b)}
+function cs(a,b){$wnd.navigator.sendBeacon(a,b)}
+function HC(c,a,b){return c.insertBefore(a,b)}
+function BC(b,a){return b.getPropertyValue(a)}
+function aj(a,b){return TG(function(){a.H(b)})}
+function Pv(a,b){return Qv(new Sv(a),b,19,true)}
+function vF(a){qF();return !a?pF:new sF(FG(a))}
+function Sz(a,b){a.d=true;Jz(a,b);uB(new iA(a))}
+function iB(a){a.e=true;eB(a);a.c.clear();dB(a)}
+function Uo(a){return $wnd.Vaadin.Flow.getApp(a)}
+function Ql(a,b,c){return a.set(c,(_z(b.a),b.g))}
+function mk(a,b,c){lk(a,b,c.ab());a.b.set(b,c)}
+function fs(a,b){var c;c=ad(RD(Kc(b.a)));ks(a,c)}
+function BD(a,b){var c;c=yD(a,b);c.e=2;return c}
+function YE(a,b){EG(b,a.a.length);return a.a[b]}
+function vq(a,b){this.a=a;this.b=b;Zi.call(this)}
+function zt(a,b){this.a=a;this.b=b;Zi.call(this)}
+function lb(a){U(this);this.g=a;V(this);this.w()}
+function ot(a){kt();this.c=[];this.a=jt;this.d=a}
+function Ek(){Ek=Pi;Ck=[];Ak=new Tk;Bk=new Yk}
+function aE(){aE=Pi;_D=zc(Th,ZG,25,256,0,1)}
+function Mk(a){++Dk;mn(Ic(ik(a.a,se),56),new dl)}
+function HB(a,b){a.a==null&&(a.a=[]);a.a.push(b)}
+function JB(a,b,c,d){var e;e=LB(a,b,c);e.push(d)}
+function zC(a,b,c,d){a.removeEventListener(b,c,d)}
+function jk(a,b,c){a.a.delete(c);a.a.set(c,b.ab())}
+function Du(a,b){var c;c=b;return Ic(a.a.get(c),6)}
+function kF(a){return new kG(null,jF(a,a.length))}
+function Vc(a){return a!=null&&Zc(a)&&!(a.kc===Ti)}
+function Bc(a){return Array.isArray(a)&&a.kc===Ti}
+function Rc(a){return !Array.isArray(a)&&a.kc===Ti}
+function Zc(a){return typeof a===UG||typeof a===WG}
+function AC(b,a){return b.getPropertyPriority(a)}
+function jF(a,b){return yF(b,a.length),new JF(a,b)}
+function pm(a,b,c){return a.push(Iz(c,new Nm(c,b)))}
+function zD(a,b,c){var d;d=yD(a,b);LD(c,d);return d}
+function yD(a,b){var c;c=new wD;c.f=a;c.d=b;return c}
+function Zb(a,b){!a&&(a=[]);a[a.length]=b;return a}
+function FG(a){if(a==null){throw Gi(new bE)}return a}
+function Mc(a){IG(a==null||Array.isArray(a));return a}
+function ej(a){a.onreadystatechange=function(){}}
+function Zj(a){$wnd.setTimeout(function(){a.I()},0)}
+function Lb(a){$wnd.setTimeout(function(){throw a},0)}
+function Jb(){Db();if(zb){return}zb=true;Kb(false)}
+function iG(a,b){eG(a);return new kG(a,new oG(b,a.a))}
+function DF(a,b){FG(b);while(a.c<a.d){IF(a,b,a.c++)}}
+function yw(a){var b;b=a.a;lu(a,null);lu(a,b);lv(a)}
+function ww(a){var b;b=new $wnd.Map;a.push(b);return b}
+function Pl(a){this.a=new $wnd.Set;this.b=[];this.c=a}
+function qA(a,b,c){Cz.call(this,a);this.b=b;this.a=c}
+function Cc(a,b,c){CG(c==null||wc(a,c));return a[b]=c}
+function kE(a,b){HG(b,a.length);return a.charCodeAt(b)}
+function Wm(a,b){return +(Math.round(a+'e+'+b)+'e-'+b)}
+function lo(a,b){return IB(a.a,(!oo&&(oo=new ij),oo),b)}
+function Js(a,b){return IB(a.a,(!Us&&(Us=new ij),Us),b)}
+function nF(a,b){return _c(a)===_c(b)||a!=null&&K(a,b)}
+function RB(a,b){return TB(new $wnd.XMLHttpRequest,a,b)}
+function wx(a){return rD((pD(),nD),Lz(KA(gu(a,0),gI)))}
+function kk(a){a.b.forEach(Qi(_m.prototype.bb,_m,[a]))}
+function dG(a){if(!a.b){eG(a);a.c=true}else{dG(a.b)}}
+function fG(a){if(!a){this.b=null;new _E}else{this.b=a}}
+function Jr(a,b,c,d){this.a=a;this.d=b;this.b=c;this.c=d}
+function CF(a,b){this.d=a;this.c=(b&64)!=0?b|16384:b}
+function ms(a){this.b=a;lo(Ic(ik(a,De),12),new qs(this))}
+function Wq(a,b,c,d){var e;e=KA(a,b);Iz(e,new fr(c,d))}
+function dt(a,b){var c;c=Ic(ik(a.a,Hf),34);lt(c,b);nt(c)}
+function cB(a,b){var c;if(!a.e){c=b.Ob(a);a.b.push(c)}}
+function ks(a,b){ls(a);if(b>=0){a.a=new os(a);Yi(a.a,b)}}
+function wB(a,b){var c;c=pB;pB=a;try{b.C()}finally{pB=c}}
+function JF(a,b){this.c=0;this.d=b;this.b=17488;this.a=a}
+function QB(a,b,c){this.a=a;this.d=b;this.c=null;this.b=c}
+function KC(a,b,c,d){this.b=a;this.c=b;this.a=c;this.d=d}
+function Lu(a,b,c,d){Gu(a,b)&&at(Ic(ik(a.c,Df),32),b,c,d)}
+function aq(a,b){Tn(Ic(ik(a.c,ye),22),'',b,'',null,null)}
+function Sn(a,b,c){Tn(a,c.caption,c.message,b,c.url,null)}
+function V(a){if(a.j){a.e!==$G&&a.w();a.h=null}return a}
+function Nc(a){IG(a==null||Zc(a)&&!(a.kc===Ti));return a}
+function gm(a){var b;b=a.f;while(!!b&&!b.a){b=b.f}return b}
+function $(a,b){var c;c=vD(a.ic);return b==null?c:c+': '+b}
+function tn(a,b,c){this.b=a;this.d=b;this.c=c;this.a=new R}
+function tm(a,b,c,d,e){a.splice.apply(a,[b,c,d].concat(e))}
+function ju(a,b){_c(b.U(a))===_c((pD(),oD))&&a.b.delete(b)}
+function Hv(a,b){rz(b).forEach(Qi(Lv.prototype.fb,Lv,[a]))}
+function yC(a,b){Rc(a)?a.T(b):(a.handleEvent(b),undefined)}
+function Yq(a){Vj('applyDefaultTheme',(pD(),a?true:false))}
+function Dq(){Aq();return Dc(xc(Qe,1),ZG,62,0,[xq,yq,zq])}
+function Eo(){Co();return Dc(xc(Ce,1),ZG,59,0,[zo,Ao,Bo])}
+function uC(){sC();return Dc(xc(wh,1),ZG,42,0,[qC,pC,rC])}
+function XF(){VF();return Dc(xc(si,1),ZG,47,0,[SF,TF,UF])}
+function TC(c,a,b){return c.setTimeout(TG(a.Tb).bind(a),b)}
+function Qc(a){return a.ic||Array.isArray(a)&&xc(ed,1)||ed}
+function SC(c,a,b){return c.setInterval(TG(a.Tb).bind(a),b)}
+function gG(a,b){var c;return jG(a,new _E,(c=new wG(b),c))}
+function GG(a,b){if(a<0||a>b){throw Gi(new hD(TI+a+UI+b))}}
+function EG(a,b){if(a<0||a>=b){throw Gi(new hD(TI+a+UI+b))}}
+function HG(a,b){if(a<0||a>=b){throw Gi(new GE(TI+a+UI+b))}}
+function SG(){if(NG==256){MG=OG;OG=new I;NG=0}++NG}
+function gc(){gc=Pi;var a,b;b=!mc();a=new uc;fc=b?new nc:a}
+function vn(a,b,c){this.a=a;this.c=b;this.b=c;Zi.call(this)}
+function xn(a,b,c){this.a=a;this.c=b;this.b=c;Zi.call(this)}
+function kD(a,b){U(this);this.f=b;this.g=a;V(this);this.w()}
+function Yl(a,b){a.updateComplete.then(TG(function(){b.I()}))}
+function mt(a){a.a=jt;if(!a.b){return}Zr(Ic(ik(a.d,nf),19))}
+function xz(a){if(!vz){return a}return $wnd.Polymer.dom(a)}
+function FD(a){if(a.Zb()){return null}var b=a.h;return Mi[b]}
+function Ri(a){function b(){}
+;b.prototype=a||{};return new b}
+function Ev(a,b){rz(b).forEach(Qi(Jv.prototype.fb,Jv,[a.a]))}
+function Jz(a,b){if(!a.b&&a.c&&nF(b,a.g)){return}Tz(a,b,true)}
+function DD(a,b){var c=a.a=a.a||[];return c[b]||(c[b]=a.Ub(b))}
+function Sw(a,b,c){return a.set(c,Kz(KA(gu(b.e,1),c),b.b[c]))}
+function uz(a,b,c,d){return a.splice.apply(a,[b,c].concat(d))}
+function Hp(a,b,c){return vE(a.b,b,$wnd.Math.min(a.b.length,c))}
+function SB(a,b,c,d){return UB(new $wnd.XMLHttpRequest,a,b,c,d)}
+function Qp(){Op();return Dc(xc(Je,1),ZG,51,0,[Lp,Kp,Np,Mp])}
+function mC(){kC();return Dc(xc(vh,1),ZG,43,0,[jC,hC,iC,gC])}
+function ZB(a){if(a.length>2){bC(a[0],'OS major');bC(a[1],GI)}}
+function Rz(a){if(a.c){a.d=true;Tz(a,null,false);uB(new kA(a))}}
+function rp(a){$wnd.vaadinPush.atmosphere.unsubscribeUrl(a)}
+function tp(){return $wnd.vaadinPush&&$wnd.vaadinPush.atmosphere}
+function Mo(a){a?($wnd.location=a):$wnd.location.reload(false)}
+function xB(a){this.a=a;this.b=[];this.c=new $wnd.Set;eB(this)}
+function zA(a,b){tA.call(this,a,b);this.c=[];this.a=new DA(this)}
+function rb(a){pb();nb.call(this,a);this.a='';this.b=a;this.a=''}
+function eF(a){DG(a.a<a.c.a.length);a.b=a.a++;return a.c.a[a.b]}
+function ir(a){a&&a.afterServerUpdate&&a.afterServerUpdate()}
+function on(a){$wnd.HTMLImports.whenReady(TG(function(){a.I()}))}
+function Nt(a,b){var c,d;for(c=0;c<b.length;c++){d=b[c];Pt(a,d)}}
+function zl(a,b){var c;if(b.length!=0){c=new zz(b);a.e.set(Og,c)}}
+function Tz(a,b,c){var d;d=a.g;a.c=c;a.g=b;Yz(a.a,new qA(a,d,b))}
+function im(a,b,c){var d;d=[];c!=null&&d.push(c);return am(a,b,d)}
+function AD(a,b,c,d){var e;e=yD(a,b);LD(c,e);e.e=d?8:0;return e}
+function LA(a){var b;b=[];JA(a,Qi(YA.prototype.bb,YA,[b]));return b}
+function Hk(a,b,c,d){Fk(a,d,c).forEach(Qi(hl.prototype.bb,hl,[b]))}
+function NA(a,b,c){_z(b.a);b.c&&(a[c]=sA((_z(b.a),b.g)),undefined)}
+function ho(a,b){++a.a;a.b=Zb(a.b,[b,false]);Vb(a);Xb(a,new jo(a))}
+function Yr(a,b){!!a.b&&jp(a.b)?op(a.b,b):wt(Ic(ik(a.c,Nf),71),b)}
+function Fl(a,b){var c;c=Nc(a.b[b]);if(c){a.b[b]=null;a.a.delete(c)}}
+function dw(a){Xv();var b;b=a[nI];if(!b){b={};aw(b);a[nI]=b}return b}
+function cb(b){if(!('stack' in b)){try{throw b}catch(a){}}return b}
+function Kl(a,b){if(Ll(a,b.e.e)){a.b.push(b);return true}return false}
+function RF(a,b,c,d){FG(a);FG(b);FG(c);FG(d);return new YF(b,new PF)}
+function Fu(a,b){var c;c=Hu(b);if(!c||!b.f){return c}return Fu(a,b.f)}
+function Yo(a){var b=TG(Zo);$wnd.Vaadin.Flow.registerWidgetset(a,b)}
+function fj(c,a){var b=c;c.onreadystatechange=TG(function(){a.J(b)})}
+function Lo(a){var b;b=$doc.createElement('a');b.href=a;return b.href}
+function qm(a){return $wnd.customElements&&a.localName.indexOf('-')>-1}
+function ad(a){return Math.max(Math.min(a,2147483647),-2147483648)|0}
+function dB(a){while(a.b.length!=0){Ic(a.b.splice(0,1)[0],44).Eb()}}
+function hB(a){if(a.d&&!a.e){try{wB(a,new lB(a))}finally{a.d=false}}}
+function Wi(a){if(!a.f){return}++a.d;a.e?$i(a.f.a):_i(a.f.a);a.f=null}
+function mD(a){kD.call(this,a==null?aH:Si(a),Sc(a,5)?Ic(a,5):null)}
+function dq(a,b){$j('Heartbeat exception: '+b.v());bq(a,(Aq(),xq),null)}
+function MF(a,b){!a.a?(a.a=new FE(a.d)):CE(a.a,a.b);AE(a.a,b);return a}
+function Uz(a,b,c){Hz();this.a=new bA(this);this.f=a;this.e=b;this.b=c}
+function oG(a,b){CF.call(this,b.fc(),b.ec()&-6);FG(a);this.a=a;this.b=b}
+function xA(a,b){var c;c=a.c.splice(0,b);Yz(a.a,new Ez(a,0,c,[],false))}
+function Wn(a,b){var c;c=b.keyCode;if(c==27){b.preventDefault();Mo(a)}}
+function sE(a,b,c){var d;c=yE(c);d=new RegExp(b);return a.replace(d,c)}
+function om(a,b,c){var d;d=c.a;a.push(Iz(d,new Jm(d,b)));tB(new Dm(d,b))}
+function SA(a,b,c,d){var e;_z(c.a);if(c.c){e=um((_z(c.a),c.g));b[d]=e}}
+function sA(a){var b;if(Sc(a,6)){b=Ic(a,6);return eu(b)}else{return a}}
+function rz(a){var b;b=[];a.forEach(Qi(sz.prototype.bb,sz,[b]));return b}
+function Gb(b){Db();return function(){return Hb(b,this,arguments);var a}}
+function xb(){if(Date.now){return Date.now()}return (new Date).getTime()}
+function Xz(a,b){if(!b){debugger;throw Gi(new lD)}return Wz(a,a.Qb(b))}
+function Jt(a,b){if(b==null){debugger;throw Gi(new lD)}return a.a.get(b)}
+function Kt(a,b){if(b==null){debugger;throw Gi(new lD)}return a.a.has(b)}
+function rE(a,b){b=yE(b);return a.replace(new RegExp('[^0-9].*','g'),b)}
+function MA(a,b){if(!a.b.has(b)){return false}return Pz(Ic(a.b.get(b),13))}
+function EF(a,b){FG(b);if(a.c<a.d){IF(a,b,a.c++);return true}return false}
+function gs(a,b){var c,d;c=gu(a,8);d=KA(c,'pollInterval');Iz(d,new hs(b))}
+function Iw(a,b){var c;c=b.f;Ax(Ic(ik(b.e.e.g.c,td),8),a,c,(_z(b.a),b.g))}
+function oC(){oC=Pi;nC=uo((kC(),Dc(xc(vh,1),ZG,43,0,[jC,hC,iC,gC])))}
+function Tt(a){Ic(ik(a.a,De),12).b==(Co(),Bo)||mo(Ic(ik(a.a,De),12),Bo)}
+function hq(a){Nq(Ic(ik(a.c,Ye),55),Ic(ik(a.c,td),8).d);bq(a,(Aq(),xq),null)}
+function mb(a){U(this);this.g=!a?null:$(a,a.v());this.f=a;V(this);this.w()}
+function nb(a){U(this);V(this);this.e=a;W(this,a);this.g=a==null?aH:Si(a)}
+function OA(a,b){tA.call(this,a,b);this.b=new $wnd.Map;this.a=new TA(this)}
+function NF(){this.b=', ';this.d='[';this.e=']';this.c=this.d+(''+this.e)}
+function xr(a){this.j=new $wnd.Set;this.g=[];this.c=new Er(this);this.i=a}
+function zz(a){this.a=new $wnd.Set;a.forEach(Qi(Az.prototype.fb,Az,[this.a]))}
+function Vw(a){var b;b=xz(a);while(b.firstChild){b.removeChild(b.firstChild)}}
+function ws(a){var b;if(a==null){return false}b=Pc(a);return !lE('DISABLED',b)}
+function _u(a,b){var c,d,e;e=ad(YC(a[oI]));d=gu(b,e);c=a['key'];return KA(d,c)}
+function jG(a,b,c){var d;dG(a);d=new tG;d.a=b;a.a.gc(new xG(d,c));return d.a}
+function zc(a,b,c,d,e,f){var g;g=Ac(e,d);e!=10&&Dc(xc(a,f),b,c,e,g);return g}
+function yA(a,b,c,d){var e,f;e=d;f=uz(a.c,b,c,e);Yz(a.a,new Ez(a,b,f,d,false))}
+function hu(a,b,c,d){var e;e=c.Sb();!!e&&(b[Cu(a.g,ad((FG(d),d)))]=e,undefined)}
+function ZE(a,b,c){for(;c<a.a.length;++c){if(nF(b,a.a[c])){return c}}return -1}
+function Oo(a,b,c){c==null?xz(a).removeAttribute(b):xz(a).setAttribute(b,c)}
+function km(a,b){$wnd.customElements.whenDefined(a).then(function(){b.I()})}
+function Wo(a){Ro();!$wnd.WebComponents||$wnd.WebComponents.ready?To(a):So(a)}
+function Wj(a){$wnd.Vaadin.connectionState&&($wnd.Vaadin.connectionState.state=a)}
+function yc(a){return a.__elementTypeCategory$==null?10:a.__elementTypeCategory$}
+function AG(a,b){return yc(b)!=10&&Dc(M(b),b.jc,b.__elementTypeId$,yc(b),a),a}
+function M(a){return Xc(a)?bi:Uc(a)?Mh:Tc(a)?Jh:Rc(a)?a.ic:Bc(a)?a.ic:Qc(a)}
+function as(a,b){b&&!a.b?(a.b=new qp(a.c)):!b&&!!a.b&&ip(a.b)&&fp(a.b,new ds(a))}
+function vx(a){var b;b=Ic(a.e.get(eg),76);!!b&&(!!b.a&&Ty(b.a),b.b.e.delete(eg))}
+function oz(a){var b;b=new $wnd.Set;a.forEach(Qi(pz.prototype.fb,pz,[b]));return b}
+function yo(a,b){var c;FG(b);c=a[':'+b];BG(!!c,Dc(xc(Yh,1),ZG,1,5,[b]));return c}
+function Fo(a,b,c){lE(c.substr(0,a.length),a)&&(c=b+(''+uE(c,a.length)));return c}
+function Qw(a,b,c){var d,e;e=(_z(a.a),a.c);d=b.d.has(c);e!=d&&(e?iw(c,b):Ww(c,b))}
+function Ew(a,b,c,d){var e,f,g;g=c[hI];e="id='"+g+"'";f=new ny(a,g);xw(a,b,d,f,g,e)}
+function Rb(a){var b,c;if(a.c){c=null;do{b=a.c;a.c=null;c=$b(b,c)}while(a.c);a.c=c}}
+function Sb(a){var b,c;if(a.d){c=null;do{b=a.d;a.d=null;c=$b(b,c)}while(a.d);a.d=c}}
+function eC(a,b){var c,d;d=a.substr(b);c=d.indexOf(' ');c==-1&&(c=d.length);return c}
+function Wz(a,b){var c,d;a.a.add(b);d=new zB(a,b);c=pB;!!c&&fB(c,new BB(d));return d}
+function LD(a,b){var c;if(!a){return}b.h=a;var d=FD(b);if(!d){Mi[a]=[b];return}d.ic=b}
+function qr(a){var b;b=a['meta'];if(!b||!('async' in b)){return true}return false}
+function ip(a){switch(a.f.c){case 0:case 1:return true;default:return false;}}
+function ap(){if(tp()){return $wnd.vaadinPush.atmosphere.version}else{return null}}
+function BG(a,b){if(!a){throw Gi(new UD(JG('Enum constant undefined: %s',b)))}}
+function iv(){var a;iv=Pi;hv=(a=[],a.push(new cx),a.push(new ez),a);gv=new mv}
+function Ii(){Ji();var a=Hi;for(var b=0;b<arguments.length;b++){a.push(arguments[b])}}
+function Qi(a,b,c){var d=function(){return a.apply(d,arguments)};b.apply(d,c);return d}
+function vA(a){var b;a.b=true;b=a.c.splice(0,a.c.length);Yz(a.a,new Ez(a,0,b,[],true))}
+function ak(a){var b;b=S;T(new gk(b));if(Sc(a,31)){_j(Ic(a,31).A())}else{throw Gi(a)}}
+function us(a,b){var c,d;d=ws(b.b);c=ws(b.a);!d&&c?tB(new As(a)):d&&!c&&tB(new Cs(a))}
+function kp(a,b){if(b.a.b==(Co(),Bo)){if(a.f==(Op(),Np)||a.f==Mp){return}fp(a,new Tp)}}
+function vs(a){this.a=a;Iz(KA(gu(Ic(ik(this.a,Xf),10).e,5),'pushMode'),new ys(this))}
+function Ru(a){this.a=new $wnd.Map;this.e=new nu(1,this);this.c=a;Ku(this,this.e)}
+function Fx(a,b,c){this.c=new $wnd.Map;this.d=new $wnd.Map;this.e=a;this.b=b;this.a=c}
+function Vj(a,b){$wnd.Vaadin.connectionIndicator&&($wnd.Vaadin.connectionIndicator[a]=b)}
+function Li(a,b){typeof window===UG&&typeof window['$gwt']===UG&&(window['$gwt'][a]=b)}
+function wl(a,b){return !!(a[tH]&&a[tH][uH]&&a[tH][uH][b])&&typeof a[tH][uH][b][vH]!=cH}
+function vt(a){return vC(vC(Ic(ik(a.a,td),8).h,'v-r=uidl'),KH+(''+Ic(ik(a.a,td),8).k))}
+function tv(a,b,c){ov();b==(Hz(),Gz)&&a!=null&&c!=null&&a.has(c)?Ic(a.get(c),14).I():b.I()}
+function Tb(a){var b;if(a.b){b=a.b;a.b=null;!a.g&&(a.g=[]);$b(b,a.g)}!!a.g&&(a.g=Wb(a.g))}
+function eu(a){var b;b=$wnd.Object.create(null);du(a,Qi(ru.prototype.bb,ru,[a,b]));return b}
+function Sj(){try{document.createEvent('TouchEvent');return true}catch(a){return false}}
+function fx(a,b){var c;c=a;while(true){c=c.f;if(!c){return false}if(K(b,c.a)){return true}}}
+function Mw(a,b){var c,d;c=a.a;if(c.length!=0){for(d=0;d<c.length;d++){jw(b,Ic(c[d],6))}}}
+function Tw(a,b,c){var d,e,f,g;for(e=a,f=0,g=e.length;f<g;++f){d=e[f];Fw(d,new Wy(b,d),c)}}
+function wC(e,a,b,c){var d=!b?null:xC(b);e.addEventListener(a,d,c);return new KC(e,a,d,c)}
+function So(a){var b=function(){To(a)};$wnd.addEventListener('WebComponentsReady',TG(b))}
+function jc(a){var b=/function(?:\s+([\w$]+))?\s*\(/;var c=b.exec(a);return c&&c[1]||eH}
+function dp(c,a){var b=c.getConfig(a);if(b===null||b===undefined){return null}else{return b+''}}
+function yF(a,b){if(0>a||a>b){throw Gi(new iD('fromIndex: 0, toIndex: '+a+', length: '+b))}}
+function Yi(a,b){if(b<=0){throw Gi(new UD(iH))}!!a.f&&Wi(a);a.e=true;a.f=$D(cj(aj(a,a.d),b))}
+function Xi(a,b){if(b<0){throw Gi(new UD(hH))}!!a.f&&Wi(a);a.e=false;a.f=$D(dj(aj(a,a.d),b))}
+function gE(a,b,c){if(a==null){debugger;throw Gi(new lD)}this.a=gH;this.d=a;this.b=b;this.c=c}
+function Nu(a,b,c,d,e){if(!Bu(a,b)){debugger;throw Gi(new lD)}ct(Ic(ik(a.c,Df),32),b,c,d,e)}
+function Mu(a,b,c,d,e,f){if(!Bu(a,b)){debugger;throw Gi(new lD)}bt(Ic(ik(a.c,Df),32),b,c,d,e,f)}
+function Gw(a,b,c,d){var e,f,g;g=c[hI];e="path='"+wb(g)+"'";f=new ly(a,g);xw(a,b,d,f,null,e)}
+function Iu(a,b){var c;if(b!=a.e){c=b.a;!!c&&(Xv(),!!c[nI])&&bw((Xv(),c[nI]));Qu(a,b);b.f=null}}
+function Nq(a,b){Xj&&OC($wnd.console,'Setting heartbeat interval to '+b+'sec.');a.a=b;Lq(a)}
+function iq(a,b,c){jp(b)&&Ks(Ic(ik(a.c,zf),16));nq(c)||cq(a,'Invalid JSON from server: '+c,null)}
+function Ww(a,b){var c;c=Ic(b.d.get(a),44);b.d.delete(a);if(!c){debugger;throw Gi(new lD)}c.Eb()}
+function qw(a,b,c,d){var e;e=gu(d,a);JA(e,Qi(Lx.prototype.bb,Lx,[b,c]));return IA(e,new Nx(b,c))}
+function EB(b,c,d){return TG(function(){var a=Array.prototype.slice.call(arguments);d.Ab(b,c,a)})}
+function _b(b,c){Qb();function d(){var a=TG(Yb)(b);a&&$wnd.setTimeout(d,c)}
+$wnd.setTimeout(d,c)}
+function sC(){sC=Pi;qC=new tC('INLINE',0);pC=new tC('EAGER',1);rC=new tC('LAZY',2)}
+function Aq(){Aq=Pi;xq=new Cq('HEARTBEAT',0,0);yq=new Cq('PUSH',1,1);zq=new Cq('XHR',2,2)}
+function Co(){Co=Pi;zo=new Do('INITIALIZING',0);Ao=new Do('RUNNING',1);Bo=new Do('TERMINATED',2)}
+function jn(a,b){var c,d;c=new Cn(a);d=new $wnd.Function(a);sn(a,new Jn(d),new Ln(b,c),new Nn(b,c))}
+function nt(a){if(jt!=a.a||a.c.length==0){return}a.b=true;a.a=new pt(a);ho((Qb(),Pb),new tt(a))}
+function xt(a){this.a=a;wC($wnd,'beforeunload',new Ft(this),false);Js(Ic(ik(a,zf),16),new Ht(this))}
+function Vb(a){if(!a.i){a.i=true;!a.f&&(a.f=new bc(a));_b(a.f,1);!a.h&&(a.h=new dc(a));_b(a.h,50)}}
+function yt(b){if(b.readyState!=1){return false}try{b.send();return true}catch(a){return false}}
+function pr(a,b){if(b==-1){return true}if(b==a.f+1){return true}if(a.f==-1){return true}return false}
+function cp(c,a){var b=c.getConfig(a);if(b===null||b===undefined){return null}else{return $D(b)}}
+function WC(c){return $wnd.JSON.stringify(c,function(a,b){if(a=='$H'){return undefined}return b},0)}
+function xC(b){var c=b.handler;if(!c){c=TG(function(a){yC(b,a)});c.listener=b;b.handler=c}return c}
+function Go(a,b){var c;if(a==null){return null}c=Fo('context://',b,a);c=Fo('base://','',c);return c}
+function Fi(a){var b;if(Sc(a,5)){return a}b=a&&a.__java$exception;if(!b){b=new rb(a);hc(b)}return b}
+function Tu(a,b){var c;if(Sc(a,27)){c=Ic(a,27);ad((FG(b),b))==2?xA(c,(_z(c.a),c.c.length)):vA(c)}}
+function Y(a){var b,c,d,e;for(b=(a.h==null&&(a.h=(gc(),e=fc.F(a),ic(e))),a.h),c=0,d=b.length;c<d;++c);}
+function fC(a,b,c){var d,e;b<0?(e=0):(e=b);c<0||c>a.length?(d=a.length):(d=c);return a.substr(e,d-e)}
+function _s(a,b,c,d){var e;e={};e[nH]=bI;e[cI]=Object(b);e[bI]=c;!!d&&(e['data']=d,undefined);dt(a,e)}
+function Dc(a,b,c,d,e){e.ic=a;e.jc=b;e.kc=Ti;e.__elementTypeId$=c;e.__elementTypeCategory$=d;return e}
+function lp(a,b,c){mE(b,'true')||mE(b,'false')?(a.a[c]=mE(b,'true'),undefined):(a.a[c]=b,undefined)}
+function lq(a,b){Xj&&($wnd.console.log('Reopening push connection'),undefined);jp(b)&&bq(a,(Aq(),yq),null)}
+function mq(a,b){Tn(Ic(ik(a.c,ye),22),'',b+' could not be loaded. Push will not work.','',null,null)}
+function Ms(a){var b,c;c=Ic(ik(a.c,De),12).b==(Co(),Bo);b=a.b||Ic(ik(a.c,Hf),34).b;(c||!b)&&Wj('connected')}
+function $r(a){var b,c,d;b=[];c={};c['UNLOAD']=Object(true);d=Vr(a,b,c);cs(vt(Ic(ik(a.c,Nf),71)),WC(d))}
+function Kk(a,b){var c;c=new $wnd.Map;b.forEach(Qi(fl.prototype.bb,fl,[a,c]));c.size==0||Qk(new jl(c))}
+function lj(a,b){var c;c='/'.length;if(!lE(b.substr(b.length-c,c),'/')){debugger;throw Gi(new lD)}a.b=b}
+function Rt(a,b){var c;c=!!b.a&&!rD((pD(),nD),Lz(KA(gu(b,0),gI)));if(!c||!b.f){return c}return Rt(a,b.f)}
+function Mz(a,b){var c;_z(a.a);if(a.c){c=(_z(a.a),a.g);if(c==null){return b}return SD(Kc(c))}else{return b}}
+function iw(a,b){var c;if(b.d.has(a)){debugger;throw Gi(new lD)}c=EC(b.b,a,new Dy(b),false);b.d.set(a,c)}
+function Hu(a){var b,c;if(!a.c.has(0)){return true}c=gu(a,0);b=Jc(Lz(KA(c,'visible')));return !rD((pD(),nD),b)}
+function bp(c,a){var b=c.getConfig(a);if(b===null||b===undefined){return false}else{return pD(),b?true:false}}
+function zx(a,b,c,d){if(d==null){!!c&&(delete c['for'],undefined)}else{!c&&(c={});c['for']=d}Lu(a.g,a,b,c)}
+function ac(b,c){Qb();var d=$wnd.setInterval(function(){var a=TG(Yb)(b);!a&&$wnd.clearInterval(d)},c)}
+function yv(a,b){if(b<0){throw Gi(new UD(hH))}a.c?QC($wnd,a.d):RC($wnd,a.d);a.c=false;a.d=TC($wnd,new aD(a),b)}
+function zv(a,b){if(b<=0){throw Gi(new UD(iH))}a.c?QC($wnd,a.d):RC($wnd,a.d);a.c=true;a.d=SC($wnd,new cD(a),b)}
+function lF(a){var b,c,d;d=1;for(c=new fF(a);c.a<c.c.a.length;){b=eF(c);d=31*d+(b!=null?O(b):0);d=d|0}return d}
+function iF(a){var b,c,d,e,f;f=1;for(c=a,d=0,e=c.length;d<e;++d){b=c[d];f=31*f+(b!=null?O(b):0);f=f|0}return f}
+function uo(a){var b,c,d,e,f;b={};for(d=a,e=0,f=d.length;e<f;++e){c=d[e];b[':'+(c.b!=null?c.b:''+c.c)]=c}return b}
+function lv(a){var b,c;c=kv(a);b=a.a;if(!a.a){b=c.Ib(a);if(!b){debugger;throw Gi(new lD)}lu(a,b)}jv(a,b);return b}
+function Oz(a){var b;_z(a.a);if(a.c){b=(_z(a.a),a.g);if(b==null){return true}return qD(Jc(b))}else{return true}}
+function ib(a){var b;if(a!=null){b=a.__java$exception;if(b){return b}}return Wc(a,TypeError)?new cE(a):new nb(a)}
+function $D(a){var b,c;if(a>-129&&a<128){b=a+128;c=(aE(),_D)[b];!c&&(c=_D[b]=new WD(a));return c}return new WD(a)}
+function tw(a){var b,c;b=fu(a.e,24);for(c=0;c<(_z(b.a),b.c.length);c++){jw(a,Ic(b.c[c],6))}return uA(b,new _x(a))}
+function To(a){var b,c,d,e;b=(e=new wj,e.a=a,Xo(e,Uo(a)),e);c=new Bj(b);Qo.push(c);d=Uo(a).getConfig('uidl');Aj(c,d)}
+function VF(){VF=Pi;SF=new WF('CONCURRENT',0);TF=new WF('IDENTITY_FINISH',1);UF=new WF('UNORDERED',2)}
+function wD(){++tD;this.i=null;this.g=null;this.f=null;this.d=null;this.b=null;this.h=null;this.a=null}
+function nu(a,b){this.c=new $wnd.Map;this.h=new $wnd.Set;this.b=new $wnd.Set;this.e=new $wnd.Map;this.d=a;this.g=b}
+function $l(a,b){var c;Zl==null&&(Zl=nz());c=Oc(Zl.get(a),$wnd.Set);if(c==null){c=new $wnd.Set;Zl.set(a,c)}c.add(b)}
+function pw(a,b){var c,d;d=a.f;if(b.c.has(d)){debugger;throw Gi(new lD)}c=new xB(new By(a,b,d));b.c.set(d,c);return c}
+function Yz(a,b){var c;if(b.Nb()!=a.b){debugger;throw Gi(new lD)}c=oz(a.a);c.forEach(Qi(CB.prototype.fb,CB,[a,b]))}
+function ow(a){if(!a.b){debugger;throw Gi(new mD('Cannot bind client delegate methods to a Node'))}return Pv(a.b,a.e)}
+function eG(a){if(a.b){eG(a.b)}else if(a.c){throw Gi(new VD("Stream already terminated, can't be modified or used"))}}
+function Ns(a){if(a.b){throw Gi(new VD('Trying to start a new request while another is active'))}a.b=true;Ls(a,new Rs)}
+function nq(a){var b;b=Vi(new RegExp('Vaadin-Refresh(:\\s*(.*?))?(\\s|$)'),a);if(b){Mo(b[2]);return true}return false}
+function lm(a){while(a.parentNode&&(a=a.parentNode)){if(a.toString()==='[object ShadowRoot]'){return true}}return false}
+function Eu(a,b){var c,d,e;e=rz(a.a);for(c=0;c<e.length;c++){d=Ic(e[c],6);if(b.isSameNode(d.a)){return d}}return null}
+function Nz(a){var b;_z(a.a);if(a.c){b=(_z(a.a),a.g);if(b==null){return null}return _z(a.a),Pc(a.g)}else{return null}}
+function ts(a){if(MA(gu(Ic(ik(a.a,Xf),10).e,5),aI)){return Pc(Lz(KA(gu(Ic(ik(a.a,Xf),10).e,5),aI)))}return null}
+function Jl(a){var b;if(!Ic(ik(a.c,Xf),10).f){b=new $wnd.Map;a.a.forEach(Qi(Rl.prototype.fb,Rl,[a,b]));uB(new Tl(a,b))}}
+function rq(a,b){var c;Ks(Ic(ik(a.c,zf),16));c=b.b.responseText;nq(c)||cq(a,'Invalid JSON response from server: '+c,b)}
+function _p(a){a.b=null;Ic(ik(a.c,zf),16).b&&Ks(Ic(ik(a.c,zf),16));Wj('connection-lost');Nq(Ic(ik(a.c,Ye),55),0)}
+function cq(a,b,c){var d,e;c&&(e=c.b);Tn(Ic(ik(a.c,ye),22),'',b,'',null,null);d=Ic(ik(a.c,De),12);d.b!=(Co(),Bo)&&mo(d,Bo)}
+function gq(a,b){var c;if(b.a.b==(Co(),Bo)){if(a.b){_p(a);c=Ic(ik(a.c,De),12);c.b!=Bo&&mo(c,Bo)}!!a.d&&!!a.d.f&&Wi(a.d)}}
+function Il(a,b){var c;a.a.clear();while(a.b.length>0){c=Ic(a.b.splice(0,1)[0],13);Ol(c,b)||Ou(Ic(ik(a.c,Xf),10),c);vB()}}
+function NB(a){var b,c;if(a.a!=null){try{for(c=0;c<a.a.length;c++){b=Ic(a.a[c],328);JB(b.a,b.d,b.c,b.b)}}finally{a.a=null}}}
+function Ok(){Ek();var a,b;--Dk;if(Dk==0&&Ck.length!=0){try{for(b=0;b<Ck.length;b++){a=Ic(Ck[b],26);a.C()}}finally{mz(Ck)}}}
+function Mb(a,b){Db();var c;c=S;if(c){if(c==Ab){return}c.q(a);return}if(b){Lb(Sc(a,31)?Ic(a,31).A():a)}else{IE();X(a,HE,'')}}
+function pn(a,b,c){var d;d=Mc(c.get(a));if(d==null){d=[];d.push(b);c.set(a,d);return true}else{d.push(b);return false}}
+function ew(a){var b;b=Lc(Wv.get(a));if(b==null){b=Lc(new $wnd.Function(bI,uI,'return ('+a+')'));Wv.set(a,b)}return b}
+function MB(a,b){var c,d;d=Oc(a.c.get(b),$wnd.Map);if(d==null){return []}c=Mc(d.get(null));if(c==null){return []}return c}
+function Ol(a,b){var c,d;c=Oc(b.get(a.e.e.d),$wnd.Map);if(c!=null&&c.has(a.f)){d=c.get(a.f);Sz(a,d);return true}return false}
+function nw(a,b){var c,d;c=fu(b,11);for(d=0;d<(_z(c.a),c.c.length);d++){xz(a).classList.add(Pc(c.c[d]))}return uA(c,new Jy(a))}
+function Si(a){var b;if(Array.isArray(a)&&a.kc===Ti){return vD(M(a))+'@'+(b=O(a)>>>0,b.toString(16))}return a.toString()}
+function _C(c){var a=[];for(var b in c){Object.prototype.hasOwnProperty.call(c,b)&&b!='$H'&&a.push(b)}return a}
+function Ho(a){var b,c;b=Ic(ik(a.a,td),8).b;c='/'.length;if(!lE(b.substr(b.length-c,c),'/')){debugger;throw Gi(new lD)}return b}
+function _v(a,b){if(typeof a.get===WG){var c=a.get(b);if(typeof c===UG&&typeof c[yH]!==cH){return {nodeId:c[yH]}}}return null}
+function Ij(a,b,c){var d;if(a==c.d){d=new $wnd.Function('callback','callback();');d.call(null,b);return pD(),true}return pD(),false}
+function bw(c){Xv();var b=c['}p'].promises;b!==undefined&&b.forEach(function(a){a[1](Error('Client is resynchronizing'))})}
+function Cv(a){if(a.a.b){uv(sI,a.a.b,a.a.a,null);if(a.b.has(rI)){a.a.g=a.a.b;a.a.h=a.a.a}a.a.b=null;a.a.a=null}else{qv(a.a)}}
+function Av(a){if(a.a.b){uv(rI,a.a.b,a.a.a,a.a.i);a.a.b=null;a.a.a=null;a.a.i=null}else !!a.a.g&&uv(rI,a.a.g,a.a.h,null);qv(a.a)}
+function Uj(){return /iPad|iPhone|iPod/.test(navigator.platform)||navigator.platform==='MacIntel'&&navigator.maxTouchPoints>1}
+function Tj(){this.a=new dC($wnd.navigator.userAgent);this.a.b?'ontouchstart' in window:this.a.f?!!navigator.msMaxTouchPoints:Sj()}
+function nn(a){this.b=new $wnd.Set;this.a=new $wnd.Map;this.d=!!($wnd.HTMLImports&&$wnd.HTMLImports.whenReady);this.c=a;fn(this)}
+function uq(a){this.c=a;lo(Ic(ik(a,De),12),new Eq(this));wC($wnd,'offline',new Gq(this),false);wC($wnd,'online',new Iq(this),false)}
+function kC(){kC=Pi;jC=new lC('STYLESHEET',0);hC=new lC('JAVASCRIPT',1);iC=new lC('JS_MODULE',2);gC=new lC('DYNAMIC_IMPORT',3)}
+function dm(a){var b;if(Zl==null){return}b=Oc(Zl.get(a),$wnd.Set);if(b!=null){Zl.delete(a);b.forEach(Qi(zm.prototype.fb,zm,[]))}}
+function eB(a){var b;a.d=true;dB(a);a.e||tB(new jB(a));if(a.c.size!=0){b=a.c;a.c=new $wnd.Set;b.forEach(Qi(nB.prototype.fb,nB,[]))}}
+function uv(a,b,c,d){ov();lE(rI,a)?c.forEach(Qi(Nv.prototype.bb,Nv,[d])):rz(c).forEach(Qi(vv.prototype.fb,vv,[]));zx(b.b,b.c,b.a,a)}
+function et(a,b,c,d,e){var f;f={};f[nH]='mSync';f[cI]=ZC(b.d);f['feature']=Object(c);f['property']=d;f[vH]=e==null?null:e;dt(a,f)}
+function KA(a,b){var c;c=Ic(a.b.get(b),13);if(!c){c=new Uz(b,a,lE('innerHTML',b)&&a.d==1);a.b.set(b,c);Yz(a.a,new oA(a,c))}return c}
+function KD(a,b){var c=0;while(!b[c]||b[c]==''){c++}var d=b[c++];for(;c<b.length;c++){if(!b[c]||b[c]==''){continue}d+=a+b[c]}return d}
+function Xl(a){return typeof a.update==WG&&a.updateComplete instanceof Promise&&typeof a.shouldUpdate==WG&&typeof a.firstUpdated==WG}
+function TD(a){var b;b=PD(a);if(b>3.4028234663852886E38){return Infinity}else if(b<-3.4028234663852886E38){return -Infinity}return b}
+function sD(a){if(a>=48&&a<48+$wnd.Math.min(10,10)){return a-48}if(a>=97&&a<97){return a-97+10}if(a>=65&&a<65){return a-65+10}return -1}
+function mc(){if(Error.stackTraceLimit>0){$wnd.Error.stackTraceLimit=Error.stackTraceLimit=64;return true}return 'stack' in new Error}
+function vw(a){var b;b=Pc(Lz(KA(gu(a,0),'tag')));if(b==null){debugger;throw Gi(new mD('New child must have a tag'))}return JC($doc,b)}
+function sw(a){var b;if(!a.b){debugger;throw Gi(new mD('Cannot bind shadow root to a Node'))}b=gu(a.e,20);kw(a);return IA(b,new Yy(a))}
+function xl(a,b){var c,d;d=gu(a,1);if(!a.a){km(Pc(Lz(KA(gu(a,0),'tag'))),new Al(a,b));return}for(c=0;c<b.length;c++){yl(a,d,Pc(b[c]))}}
+function fu(a,b){var c,d;d=b;c=Ic(a.c.get(d),33);if(!c){c=new zA(b,a);a.c.set(d,c)}if(!Sc(c,27)){debugger;throw Gi(new lD)}return Ic(c,27)}
+function gu(a,b){var c,d;d=b;c=Ic(a.c.get(d),33);if(!c){c=new OA(b,a);a.c.set(d,c)}if(!Sc(c,41)){debugger;throw Gi(new lD)}return Ic(c,41)}
+function $E(a,b){var c,d;d=a.a.length;b.length<d&&(b=AG(new Array(d),b));for(c=0;c<d;++c){Cc(b,c,a.a[c])}b.length>d&&Cc(b,d,null);return b}
+function mE(a,b){FG(a);if(b==null){return false}if(lE(a,b)){return true}return a.length==b.length&&lE(a.toLowerCase(),b.toLowerCase())}
+function Op(){Op=Pi;Lp=new Pp('CONNECT_PENDING',0);Kp=new Pp('CONNECTED',1);Np=new Pp('DISCONNECT_PENDING',2);Mp=new Pp('DISCONNECTED',3)}
+function oq(a,b){if(a.b!=b){return}a.b=null;a.a=0;Wj('connected');Xj&&($wnd.console.log('Re-established connection to server'),undefined)}
+function ct(a,b,c,d,e){var f;f={};f[nH]='attachExistingElementById';f[cI]=ZC(b.d);f[dI]=Object(c);f[eI]=Object(d);f['attachId']=e;dt(a,f)}
+function Jk(a){Xj&&($wnd.console.log('Finished loading eager dependencies, loading lazy.'),undefined);a.forEach(Qi(nl.prototype.bb,nl,[]))}
+function Ju(a){wA(fu(a.e,24),Qi(Vu.prototype.fb,Vu,[]));du(a.e,Qi(Zu.prototype.bb,Zu,[]));a.a.forEach(Qi(Xu.prototype.bb,Xu,[a]));a.d=true}
+function Iv(a,b){if(b.e){!!b.b&&uv(rI,b.b,b.a,null)}else{uv(sI,b.b,b.a,null);zv(b.f,ad(b.j))}if(b.b){XE(a,b.b);b.b=null;b.a=null;b.i=null}}
+function RG(a){PG();var b,c,d;c=':'+a;d=OG[c];if(d!=null){return ad((FG(d),d))}d=MG[c];b=d==null?QG(a):ad((FG(d),d));SG();OG[c]=b;return b}
+function O(a){return Xc(a)?RG(a):Uc(a)?ad((FG(a),a)):Tc(a)?(FG(a),a)?1231:1237:Rc(a)?a.o():Bc(a)?LG(a):!!a&&!!a.hashCode?a.hashCode():LG(a)}
+function lk(a,b,c){if(a.a.has(b)){debugger;throw Gi(new mD((uD(b),'Registry already has a class of type '+b.i+' registered')))}a.a.set(b,c)}
+function jv(a,b){iv();var c;if(a.g.f){debugger;throw Gi(new mD('Binding state node while processing state tree changes'))}c=kv(a);c.Hb(a,b,gv)}
+function Ez(a,b,c,d,e){this.e=a;if(c==null){debugger;throw Gi(new lD)}if(d==null){debugger;throw Gi(new lD)}this.c=b;this.d=c;this.a=d;this.b=e}
+function Mq(a){Wi(a.c);Xj&&($wnd.console.debug('Sending heartbeat request...'),undefined);SB(a.d,null,'text/plain; charset=utf-8',new Rq(a))}
+function Yw(a,b){var c,d;d=KA(b,yI);_z(d.a);d.c||Sz(d,a.getAttribute(yI));c=KA(b,zI);lm(a)&&(_z(c.a),!c.c)&&!!a.style&&Sz(c,a.style.display)}
+function vl(a,b,c,d){var e,f;if(!d){f=Ic(ik(a.g.c,Vd),58);e=Ic(f.a.get(c),25);if(!e){f.b[b]=c;f.a.set(c,$D(b));return $D(b)}return e}return d}
+function jx(a,b){var c,d;while(b!=null){for(c=a.length-1;c>-1;c--){d=Ic(a[c],6);if(b.isSameNode(d.a)){return d.d}}b=xz(b.parentNode)}return -1}
+function yl(a,b,c){var d;if(wl(a.a,c)){d=Ic(a.e.get(Og),77);if(!d||!d.a.has(c)){return}Kz(KA(b,c),a.a[c]).I()}else{MA(b,c)||Sz(KA(b,c),null)}}
+function Hl(a,b,c){var d,e;e=Du(Ic(ik(a.c,Xf),10),ad((FG(b),b)));if(e.c.has(1)){d=new $wnd.Map;JA(gu(e,1),Qi(Vl.prototype.bb,Vl,[d]));c.set(b,d)}}
+function LB(a,b,c){var d,e;e=Oc(a.c.get(b),$wnd.Map);if(e==null){e=new $wnd.Map;a.c.set(b,e)}d=Mc(e.get(c));if(d==null){d=[];e.set(c,d)}return d}
+function ix(a){var b;gw==null&&(gw=new $wnd.Map);b=Lc(gw.get(a));if(b==null){b=Lc(new $wnd.Function(bI,uI,'return ('+a+')'));gw.set(a,b)}return b}
+function yr(){if($wnd.performance&&$wnd.performance.timing){return (new Date).getTime()-$wnd.performance.timing.responseStart}else{return -1}}
+function Rv(a,b,c,d){var e,f,g,h,i;i=Nc(a.ab());h=d.d;for(g=0;g<h.length;g++){cw(i,Pc(h[g]))}e=d.a;for(f=0;f<e.length;f++){Yv(i,Pc(e[f]),b,c)}}
+function tx(a,b){var c,d,e,f,g;d=xz(a).classList;g=b.d;for(f=0;f<g.length;f++){d.remove(Pc(g[f]))}c=b.a;for(e=0;e<c.length;e++){d.add(Pc(c[e]))}}
+function Bw(a,b){var c,d,e,f,g;g=fu(b.e,2);d=0;f=null;for(e=0;e<(_z(g.a),g.c.length);e++){if(d==a){return f}c=Ic(g.c[e],6);if(c.a){f=c;++d}}return f}
+function hm(a){var b,c,d,e;d=-1;b=fu(a.f,16);for(c=0;c<(_z(b.a),b.c.length);c++){e=b.c[c];if(K(a,e)){d=c;break}}if(d<0){return null}return ''+d}
+function XB(a){var b,c;if(a.indexOf('android')==-1){return}b=fC(a,a.indexOf('android ')+8,a.length);b=fC(b,0,b.indexOf(';'));c=tE(b,'\\.');aC(c)}
+function _B(a){var b,c;if(a.indexOf('os ')==-1||a.indexOf(' like mac')==-1){return}b=fC(a,a.indexOf('os ')+3,a.indexOf(' like mac'));c=tE(b,'_');aC(c)}
+function Hc(a,b){if(Xc(a)){return !!Gc[b]}else if(a.jc){return !!a.jc[b]}else if(Uc(a)){return !!Fc[b]}else if(Tc(a)){return !!Ec[b]}return false}
+function K(a,b){return Xc(a)?lE(a,b):Uc(a)?(FG(a),_c(a)===_c(b)):Tc(a)?rD(a,b):Rc(a)?a.m(b):Bc(a)?H(a,b):!!a&&!!a.equals?a.equals(b):_c(a)===_c(b)}
+function aC(a){var b,c;a.length>=1&&bC(a[0],'OS major');if(a.length>=2){b=nE(a[1],xE(45));if(b>-1){c=a[1].substr(0,b-0);bC(c,GI)}else{bC(a[1],GI)}}}
+function X(a,b,c){var d,e,f,g,h;Y(a);for(e=(a.i==null&&(a.i=zc(di,ZG,5,0,0,1)),a.i),f=0,g=e.length;f<g;++f){d=e[f];X(d,b,'\t'+c)}h=a.f;!!h&&X(h,b,c)}
+function Qu(a,b){if(!Bu(a,b)){debugger;throw Gi(new lD)}if(b==a.e){debugger;throw Gi(new mD("Root node can't be unregistered"))}a.a.delete(b.d);mu(b)}
+function Bu(a,b){if(!b){debugger;throw Gi(new mD(kI))}if(b.g!=a){debugger;throw Gi(new mD(lI))}if(b!=Du(a,b.d)){debugger;throw Gi(new mD(mI))}return true}
+function ik(a,b){if(!a.a.has(b)){debugger;throw Gi(new mD((uD(b),'Tried to lookup type '+b.i+' but no instance has been registered')))}return a.a.get(b)}
+function ex(a,b,c){var d,e;e=b.f;if(c.has(e)){debugger;throw Gi(new mD("There's already a binding for "+e))}d=new xB(new Tx(a,b));c.set(e,d);return d}
+function lu(a,b){var c;if(!(!a.a||!b)){debugger;throw Gi(new mD('StateNode already has a DOM node'))}a.a=b;c=oz(a.b);c.forEach(Qi(xu.prototype.fb,xu,[a]))}
+function bC(b,c){var d;try{return QD(b)}catch(a){a=Fi(a);if(Sc(a,7)){d=a;IE();c+' version parsing failed for: '+b+' '+d.v()}else throw Gi(a)}return -1}
+function pq(a,b){var c;if(a.a==1){$p(a,b)}else{a.d=new vq(a,b);Xi(a.d,Mz((c=gu(Ic(ik(Ic(ik(a.c,xf),35).a,Xf),10).e,9),KA(c,'reconnectInterval')),5000))}}
+function zr(){if($wnd.performance&&$wnd.performance.timing&&$wnd.performance.timing.fetchStart){return $wnd.performance.timing.fetchStart}else{return 0}}
+function Ac(a,b){var c=new Array(b);var d;switch(a){case 14:case 15:d=0;break;case 16:d=false;break;default:return c;}for(var e=0;e<b;++e){c[e]=d}return c}
+function jm(a){var b,c,d,e,f;e=null;c=gu(a.f,1);f=LA(c);for(b=0;b<f.length;b++){d=Pc(f[b]);if(K(a,Lz(KA(c,d)))){e=d;break}}if(e==null){return null}return e}
+function lc(a){gc();var b=a.e;if(b&&b.stack){var c=b.stack;var d=b+'\n';c.substring(0,d.length)==d&&(c=c.substring(d.length));return c.split('\n')}return []}
+function Ur(a){a.b=null;ws(Lz(KA(gu(Ic(ik(Ic(ik(a.c,vf),48).a,Xf),10).e,5),'pushMode')))&&!a.b&&(a.b=new qp(a.c));Ic(ik(a.c,Hf),34).b&&nt(Ic(ik(a.c,Hf),34))}
+function IB(a,b,c){var d;if(!b){throw Gi(new dE('Cannot add a handler with a null type'))}a.b>0?HB(a,new QB(a,b,c)):(d=LB(a,b,null),d.push(c));return new PB}
+function cm(a,b){var c,d,e,f,g;f=a.f;d=a.e.e;g=gm(d);if(!g){dk(zH+d.d+AH);return}c=_l((_z(a.a),a.g));if(mm(g.a)){e=im(g,d,f);e!=null&&sm(g.a,e,c);return}b[f]=c}
+function Lq(a){if(a.a>0){Yj('Scheduling heartbeat in '+a.a+' seconds');Xi(a.c,a.a*1000)}else{Xj&&($wnd.console.debug('Disabling heartbeat'),undefined);Wi(a.c)}}
+function xw(a,b,c,d,e,f){var g,h;if(!ax(a.e,b,e,f)){return}g=Nc(d.ab());if(bx(g,b,e,f,a)){if(!c){h=Ic(ik(b.g.c,Xd),50);h.a.add(b.d);Jl(h)}lu(b,g);lv(b)}c||vB()}
+function ss(a){var b,c,d,e;b=KA(gu(Ic(ik(a.a,Xf),10).e,5),'parameters');e=(_z(b.a),Ic(b.g,6));d=gu(e,6);c=new $wnd.Map;JA(d,Qi(Es.prototype.bb,Es,[c]));return c}
+function Ou(a,b){var c,d;if(!b){debugger;throw Gi(new lD)}d=b.e;c=d.e;if(Kl(Ic(ik(a.c,Xd),50),b)||!Gu(a,c)){return}et(Ic(ik(a.c,Df),32),c,d.d,b.f,(_z(b.a),b.g))}
+function cn(){var a,b,c,d;b=$doc.head.childNodes;c=b.length;for(d=0;d<c;d++){a=b.item(d);if(a.nodeType==8&&lE('Stylesheet end',a.nodeValue)){return a}}return null}
+function Xw(a,b){var c,d,e;Yw(a,b);e=KA(b,yI);_z(e.a);e.c&&Ax(Ic(ik(b.e.g.c,td),8),a,yI,(_z(e.a),e.g));c=KA(b,zI);_z(c.a);if(c.c){d=(_z(c.a),Si(c.g));CC(a.style,d)}}
+function Aj(a,b){if(!b){Xr(Ic(ik(a.a,nf),19))}else{Ns(Ic(ik(a.a,zf),16));nr(Ic(ik(a.a,lf),21),b)}wC($wnd,'pagehide',new Lj(a),false);wC($wnd,'pageshow',new Nj,false)}
+function mo(a,b){if(b.c!=a.b.c+1){throw Gi(new UD('Tried to move from state '+so(a.b)+' to '+(b.b!=null?b.b:''+b.c)+' which is not allowed'))}a.b=b;KB(a.a,new po(a))}
+function Br(a){var b;if(a==null){return null}if(!lE(a.substr(0,9),'for(;;);[')||(b=']'.length,!lE(a.substr(a.length-b,b),']'))){return null}return vE(a,9,a.length-1)}
+function Ki(b,c,d,e){Ji();var f=Hi;$moduleName=c;$moduleBase=d;Ei=e;function g(){for(var a=0;a<f.length;a++){f[a]()}}
+if(b){try{TG(g)()}catch(a){b(c,a)}}else{TG(g)()}}
+function ic(a){var b,c,d,e;b='hc';c='hb';e=$wnd.Math.min(a.length,5);for(d=e-1;d>=0;d--){if(lE(a[d].d,b)||lE(a[d].d,c)){a.length>=d+1&&a.splice(0,d+1);break}}return a}
+function bt(a,b,c,d,e,f){var g;g={};g[nH]='attachExistingElement';g[cI]=ZC(b.d);g[dI]=Object(c);g[eI]=Object(d);g['attachTagName']=e;g['attachIndex']=Object(f);dt(a,g)}
+function mm(a){var b=typeof $wnd.Polymer===WG&&$wnd.Polymer.Element&&a instanceof $wnd.Polymer.Element;var c=a.constructor.polymerElementVersion!==undefined;return b||c}
+function Qv(a,b,c,d){var e,f,g,h;h=fu(b,c);_z(h.a);if(h.c.length>0){f=Nc(a.ab());for(e=0;e<(_z(h.a),h.c.length);e++){g=Pc(h.c[e]);Yv(f,g,b,d)}}return uA(h,new Uv(a,b,d))}
+function hx(a,b){var c,d,e,f,g;c=xz(b).childNodes;for(e=0;e<c.length;e++){d=Nc(c[e]);for(f=0;f<(_z(a.a),a.c.length);f++){g=Ic(a.c[f],6);if(K(d,g.a)){return d}}}return null}
+function yE(a){var b;b=0;while(0<=(b=a.indexOf('\\',b))){HG(b+1,a.length);a.charCodeAt(b+1)==36?(a=a.substr(0,b)+'$'+uE(a,++b)):(a=a.substr(0,b)+(''+uE(a,++b)))}return a}
+function St(a){var b,c,d;if(!!a.a||!Du(a.g,a.d)){return false}if(MA(gu(a,0),hI)){d=Lz(KA(gu(a,0),hI));if(Vc(d)){b=Nc(d);c=b[nH];return lE('@id',c)||lE(iI,c)}}return false}
+function en(a,b){var c,d,e,f;ck('Loaded '+b.a);f=b.a;e=Mc(a.a.get(f));a.b.add(f);a.a.delete(f);if(e!=null&&e.length!=0){for(c=0;c<e.length;c++){d=Ic(e[c],24);!!d&&d.db(b)}}}
+function Wr(a){switch(a.d){case 0:Xj&&($wnd.console.log('Resynchronize from server requested'),undefined);a.d=1;return true;case 1:return true;case 2:default:return false;}}
+function Pu(a,b){if(a.f==b){debugger;throw Gi(new mD('Inconsistent state tree updating status, expected '+(b?'no ':'')+' updates in progress.'))}a.f=b;Jl(Ic(ik(a.c,Xd),50))}
+function qb(a){var b;if(a.c==null){b=_c(a.b)===_c(ob)?null:a.b;a.d=b==null?aH:Vc(b)?tb(Nc(b)):Xc(b)?'String':vD(M(b));a.a=a.a+': '+(Vc(b)?sb(Nc(b)):b+'');a.c='('+a.d+') '+a.a}}
+function gn(a,b,c){var d,e;d=new Cn(b);if(a.b.has(b)){!!c&&c.db(d);return}if(pn(b,c,a.a)){e=$doc.createElement(FH);e.textContent=b;e.type=sH;qn(e,new Dn(a),d);GC($doc.head,e)}}
+function vr(a){var b,c,d;for(b=0;b<a.g.length;b++){c=Ic(a.g[b],60);d=kr(c.a);if(d!=-1&&d<a.f+1){Xj&&OC($wnd.console,'Removing old message with id '+d);a.g.splice(b,1)[0];--b}}}
+function Ni(){Mi={};!Array.isArray&&(Array.isArray=function(a){return Object.prototype.toString.call(a)===VG});function b(){return (new Date).getTime()}
+!Date.now&&(Date.now=b)}
+function wr(a,b){a.j.delete(b);if(a.j.size==0){Wi(a.c);if(a.g.length!=0){Xj&&($wnd.console.log('No more response handling locks, handling pending requests.'),undefined);or(a)}}}
+function bv(a,b){var c,d,e,f,g,h;h=new $wnd.Set;e=b.length;for(d=0;d<e;d++){c=b[d];if(lE('attach',c[nH])){g=ad(YC(c[cI]));if(g!=a.e.d){f=new nu(g,a);Ku(a,f);h.add(f)}}}return h}
+function cz(a,b){var c,d,e;if(!a.c.has(7)){debugger;throw Gi(new lD)}if(az.has(a)){return}az.set(a,(pD(),true));d=gu(a,7);e=KA(d,'text');c=new xB(new iz(b,e));cu(a,new kz(a,c))}
+function $B(a){var b,c;b=a.indexOf(' crios/');if(b==-1){b=a.indexOf(' chrome/');b==-1?(b=a.indexOf(HI)+16):(b+=8);c=eC(a,b);cC(fC(a,b,b+c))}else{b+=7;c=eC(a,b);cC(fC(a,b,b+c))}}
+function Un(a){var b=document.getElementsByTagName(a);for(var c=0;c<b.length;++c){var d=b[c];d.$server.disconnected=function(){};d.parentNode.replaceChild(d.cloneNode(false),d)}}
+function lt(a,b){if(Ic(ik(a.d,De),12).b!=(Co(),Ao)){Xj&&($wnd.console.warn('Trying to invoke method on not yet started or stopped application'),undefined);return}a.c[a.c.length]=b}
+function Um(){if(typeof $wnd.Vaadin.Flow.gwtStatsEvents==UG){delete $wnd.Vaadin.Flow.gwtStatsEvents;typeof $wnd.__gwtStatsEvent==WG&&($wnd.__gwtStatsEvent=function(){return true})}}
+function jp(a){if(a.g==null){return false}if(!lE(a.g,LH)){return false}if(MA(gu(Ic(ik(Ic(ik(a.d,vf),48).a,Xf),10).e,5),'alwaysXhrToServer')){return false}a.f==(Op(),Lp);return true}
+function Hb(b,c,d){var e,f;e=Fb();try{if(S){try{return Eb(b,c,d)}catch(a){a=Fi(a);if(Sc(a,5)){f=a;Mb(f,true);return undefined}else throw Gi(a)}}else{return Eb(b,c,d)}}finally{Ib(e)}}
+function vC(a,b){var c,d;if(b.length==0){return a}c=null;d=nE(a,xE(35));if(d!=-1){c=a.substr(d);a=a.substr(0,d)}a.indexOf('?')!=-1?(a+='&'):(a+='?');a+=b;c!=null&&(a+=''+c);return a}
+function uw(a,b,c){var d;if(!b.b){debugger;throw Gi(new mD(wI+b.e.d+BH))}d=gu(b.e,0);Sz(KA(d,gI),(pD(),Hu(b.e)?true:false));_w(a,b,c);return Iz(KA(gu(b.e,0),'visible'),new Px(a,b,c))}
+function TB(b,c,d){var e,f;try{fj(b,new VB(d));b.open('GET',c,true);b.send(null)}catch(a){a=Fi(a);if(Sc(a,31)){e=a;Xj&&NC($wnd.console,e);f=e;Pn(f.v());ej(b)}else throw Gi(a)}return b}
+function bn(a){var b;b=cn();!b&&Xj&&($wnd.console.error("Expected to find a 'Stylesheet end' comment inside <head> but none was found. Appending instead."),undefined);HC($doc.head,a,b)}
+function PD(a){OD==null&&(OD=new RegExp('^\\s*[+-]?(NaN|Infinity|((\\d+\\.?\\d*)|(\\.\\d+))([eE][+-]?\\d+)?[dDfF]?)\\s*$'));if(!OD.test(a)){throw Gi(new fE(QI+a+'"'))}return parseFloat(a)}
+function wE(a){var b,c,d;c=a.length;d=0;while(d<c&&(HG(d,a.length),a.charCodeAt(d)<=32)){++d}b=c;while(b>d&&(HG(b-1,a.length),a.charCodeAt(b-1)<=32)){--b}return d>0||b<c?a.substr(d,b-d):a}
+function dn(a,b){var c,d,e,f;Pn((Ic(ik(a.c,ye),22),'Error loading '+b.a));f=b.a;e=Mc(a.a.get(f));a.a.delete(f);if(e!=null&&e.length!=0){for(c=0;c<e.length;c++){d=Ic(e[c],24);!!d&&d.cb(b)}}}
+function ft(a,b,c,d,e){var f;f={};f[nH]='publishedEventHandler';f[cI]=ZC(b.d);f['templateEventMethodName']=c;f['templateEventMethodArgs']=d;e!=-1&&(f['promise']=Object(e),undefined);dt(a,f)}
+function Zv(a,b,c,d){var e,f,g,h,i,j;if(MA(gu(d,18),c)){f=[];e=Ic(ik(d.g.c,Of),57);i=Pc(Lz(KA(gu(d,18),c)));g=Mc(Jt(e,i));for(j=0;j<g.length;j++){h=Pc(g[j]);f[j]=$v(a,b,d,h)}return f}return null}
+function av(a,b){var c;if(!('featType' in a)){debugger;throw Gi(new mD("Change doesn't contain feature type. Don't know how to populate feature"))}c=ad(YC(a[oI]));XC(a['featType'])?fu(b,c):gu(b,c)}
+function xE(a){var b,c;if(a>=65536){b=55296+(a-65536>>10&1023)&65535;c=56320+(a-65536&1023)&65535;return String.fromCharCode(b)+(''+String.fromCharCode(c))}else{return String.fromCharCode(a&65535)}}
+function Ib(a){a&&Sb((Qb(),Pb));--yb;if(yb<0){debugger;throw Gi(new mD('Negative entryDepth value at exit '+yb))}if(a){if(yb!=0){debugger;throw Gi(new mD('Depth not 0'+yb))}if(Cb!=-1){Nb(Cb);Cb=-1}}}
+function FB(a,b){var c,d,e,f;if(VC(b)==1){c=b;f=ad(YC(c[0]));switch(f){case 0:{e=ad(YC(c[1]));return d=e,Ic(a.a.get(d),6)}case 1:case 2:return null;default:throw Gi(new UD(EI+WC(c)));}}else{return null}}
+function Oq(a){this.c=new Pq(this);this.b=a;Nq(this,Ic(ik(a,td),8).d);this.d=Ic(ik(a,td),8).h;this.d=vC(this.d,'v-r=heartbeat');this.d=vC(this.d,KH+(''+Ic(ik(a,td),8).k));lo(Ic(ik(a,De),12),new Uq(this))}
+function xx(a,b,c,d,e){var f,g,h,i,j,k,l;f=false;for(i=0;i<c.length;i++){g=c[i];l=YC(g[0]);if(l==0){f=true;continue}k=new $wnd.Set;for(j=1;j<g.length;j++){k.add(g[j])}h=pv(sv(a,b,l),k,d,e);f=f|h}return f}
+function kn(a,b,c,d,e){var f,g,h;h=Lo(b);f=new Cn(h);if(a.b.has(h)){!!c&&c.db(f);return}if(pn(h,c,a.a)){g=$doc.createElement(FH);g.src=h;g.type=e;g.async=false;g.defer=d;qn(g,new Dn(a),f);GC($doc.head,g)}}
+function $v(a,b,c,d){var e,f,g,h,i;if(!lE(d.substr(0,5),bI)||lE('event.model.item',d)){return lE(d.substr(0,bI.length),bI)?(g=ew(d),h=g(b,a),i={},i[yH]=ZC(YC(h[yH])),i):_v(c.a,d)}e=ew(d);f=e(b,a);return f}
+function cC(a){var b,c,d,e;b=nE(a,xE(46));b<0&&(b=a.length);d=fC(a,0,b);bC(d,'Browser major');c=oE(a,xE(46),b+1);if(c<0){if(a.substr(b).length==0){return}c=a.length}e=rE(fC(a,b+1,c),'');bC(e,'Browser minor')}
+function Zr(a){if(Ic(ik(a.c,De),12).b!=(Co(),Ao)){Xj&&($wnd.console.warn('Trying to send RPC from not yet started or stopped application'),undefined);return}if(Ic(ik(a.c,zf),16).b||!!a.b&&!ip(a.b));else{Tr(a)}}
+function Fb(){var a;if(yb<0){debugger;throw Gi(new mD('Negative entryDepth value at entry '+yb))}if(yb!=0){a=xb();if(a-Bb>2000){Bb=a;Cb=$wnd.setTimeout(Ob,10)}}if(yb++==0){Rb((Qb(),Pb));return true}return false}
+function Ip(a){var b,c,d;if(a.a>=a.b.length){debugger;throw Gi(new lD)}if(a.a==0){c=''+a.b.length+'|';b=4095-c.length;d=c+vE(a.b,0,$wnd.Math.min(a.b.length,b));a.a+=b}else{d=Hp(a,a.a,a.a+4095);a.a+=4095}return d}
+function or(a){var b,c,d,e;if(a.g.length==0){return false}e=-1;for(b=0;b<a.g.length;b++){c=Ic(a.g[b],60);if(pr(a,kr(c.a))){e=b;break}}if(e!=-1){d=Ic(a.g.splice(e,1)[0],60);mr(a,d.a);return true}else{return false}}
+function eq(a,b){var c,d;c=b.status;Xj&&PC($wnd.console,'Heartbeat request returned '+c);if(c==403){Rn(Ic(ik(a.c,ye),22),null);d=Ic(ik(a.c,De),12);d.b!=(Co(),Bo)&&mo(d,Bo)}else if(c==404);else{bq(a,(Aq(),xq),null)}}
+function sq(a,b){var c,d;c=b.b.status;Xj&&PC($wnd.console,'Server returned '+c+' for xhr');if(c==401){Ks(Ic(ik(a.c,zf),16));Rn(Ic(ik(a.c,ye),22),'');d=Ic(ik(a.c,De),12);d.b!=(Co(),Bo)&&mo(d,Bo);return}else{bq(a,(Aq(),zq),b.a)}}
+function No(c){return JSON.stringify(c,function(a,b){if(b instanceof Node){throw 'Message JsonObject contained a dom node reference which should not be sent to the server and can cause a cyclic dependecy.'}return b})}
+function sv(a,b,c){ov();var d,e,f;e=Oc(nv.get(a),$wnd.Map);if(e==null){e=new $wnd.Map;nv.set(a,e)}f=Oc(e.get(b),$wnd.Map);if(f==null){f=new $wnd.Map;e.set(b,f)}d=Ic(f.get(c),79);if(!d){d=new rv(a,b,c);f.set(c,d)}return d}
+function YB(a){var b,c,d,e,f;f=a.indexOf('; cros ');if(f==-1){return}c=oE(a,xE(41),f);if(c==-1){return}b=c;while(b>=f&&(HG(b,a.length),a.charCodeAt(b)!=32)){--b}if(b==f){return}d=a.substr(b+1,c-(b+1));e=tE(d,'\\.');ZB(e)}
+function Lt(a,b){var c,d,e,f,g,h;if(!b){debugger;throw Gi(new lD)}for(d=(g=_C(b),g),e=0,f=d.length;e<f;++e){c=d[e];if(a.a.has(c)){debugger;throw Gi(new lD)}h=b[c];if(!(!!h&&VC(h)!=5)){debugger;throw Gi(new lD)}a.a.set(c,h)}}
+function Gu(a,b){var c;c=true;if(!b){Xj&&($wnd.console.warn(kI),undefined);c=false}else if(K(b.g,a)){if(!K(b,Du(a,b.d))){Xj&&($wnd.console.warn(mI),undefined);c=false}}else{Xj&&($wnd.console.warn(lI),undefined);c=false}return c}
+function mw(a){var b,c,d,e,f;d=fu(a.e,2);d.b&&Vw(a.b);for(f=0;f<(_z(d.a),d.c.length);f++){c=Ic(d.c[f],6);e=Ic(ik(c.g.c,Vd),58);b=El(e,c.d);if(b){Fl(e,c.d);lu(c,b);lv(c)}else{b=lv(c);xz(a.b).appendChild(b)}}return uA(d,new Xx(a))}
+function rn(b){for(var c=0;c<$doc.styleSheets.length;c++){if($doc.styleSheets[c].href===b){var d=$doc.styleSheets[c];try{var e=d.cssRules;e===undefined&&(e=d.rules);if(e===null){return 1}return e.length}catch(a){return 1}}}return -1}
+function qv(a){var b,c;if(a.f){xv(a.f);a.f=null}if(a.e){xv(a.e);a.e=null}b=Oc(nv.get(a.c),$wnd.Map);if(b==null){return}c=Oc(b.get(a.d),$wnd.Map);if(c==null){return}c.delete(a.j);if(c.size==0){b.delete(a.d);b.size==0&&nv.delete(a.c)}}
+function sn(b,c,d,e){try{var f=c.ab();if(!(f instanceof $wnd.Promise)){throw new Error('The expression "'+b+'" result is not a Promise.')}f.then(function(a){d.I()},function(a){console.error(a);e.I()})}catch(a){console.error(a);e.I()}}
+function rw(g,b,c){if(mm(c)){g.Lb(b,c)}else if(qm(c)){var d=g;try{var e=$wnd.customElements.whenDefined(c.localName);var f=new Promise(function(a){setTimeout(a,1000)});Promise.race([e,f]).then(function(){mm(c)&&d.Lb(b,c)})}catch(a){}}}
+function Ks(a){if(!a.b){throw Gi(new VD('endRequest called when no request is active'))}a.b=false;(Ic(ik(a.c,De),12).b==(Co(),Ao)&&Ic(ik(a.c,Hf),34).b||Ic(ik(a.c,nf),19).d==1)&&Zr(Ic(ik(a.c,nf),19));ho((Qb(),Pb),new Ps(a));Ls(a,new Vs)}
+function Uw(a,b,c){var d;d=Qi(py.prototype.bb,py,[]);c.forEach(Qi(ry.prototype.fb,ry,[d]));b.c.forEach(d);b.d.forEach(Qi(ty.prototype.bb,ty,[]));a.forEach(Qi(Bx.prototype.fb,Bx,[]));if(fw==null){debugger;throw Gi(new lD)}fw.delete(b.e)}
+function yx(a,b,c,d,e,f){var g,h,i,j,k,l,m,n,o,p,q;o=true;g=false;for(j=(q=_C(c),q),k=0,l=j.length;k<l;++k){i=j[k];p=c[i];n=VC(p)==1;if(!n&&!p){continue}o=false;m=!!d&&XC(d[i]);if(n&&m){h='on-'+b+':'+i;m=xx(a,h,p,e,f)}g=g|m}return o||g}
+function Oi(a,b,c){var d=Mi,h;var e=d[a];var f=e instanceof Array?e[0]:null;if(e&&!f){_=e}else{_=(h=b&&b.prototype,!h&&(h=Mi[b]),Ri(h));_.jc=c;!b&&(_.kc=Ti);d[a]=_}for(var g=3;g<arguments.length;++g){arguments[g].prototype=_}f&&(_.ic=f)}
+function bm(a,b){var c,d,e,f,g,h,i,j;c=a.a;e=a.c;i=a.d.length;f=Ic(a.e,27).e;j=gm(f);if(!j){dk(zH+f.d+AH);return}d=[];c.forEach(Qi(Rm.prototype.fb,Rm,[d]));if(mm(j.a)){g=im(j,f,null);if(g!=null){tm(j.a,g,e,i,d);return}}h=Mc(b);uz(h,e,i,d)}
+function UB(b,c,d,e,f){var g;try{fj(b,new VB(f));b.open('POST',c,true);b.setRequestHeader('Content-type',e);b.withCredentials=true;b.send(d)}catch(a){a=Fi(a);if(Sc(a,31)){g=a;Xj&&NC($wnd.console,g);f.lb(b,g);ej(b)}else throw Gi(a)}return b}
+function fm(a,b){var c,d,e;c=a;for(d=0;d<b.length;d++){e=b[d];c=em(c,ad(UC(e)))}if(c){return c}else !c?Xj&&PC($wnd.console,"There is no element addressed by the path '"+b+"'"):Xj&&PC($wnd.console,'The node addressed by path '+b+BH);return null}
+function Ar(b){var c,d;if(b==null){return null}d=Tm.kb();try{c=JSON.parse(b);ck('JSON parsing took '+(''+Wm(Tm.kb()-d,3))+'ms');return c}catch(a){a=Fi(a);if(Sc(a,7)){Xj&&NC($wnd.console,'Unable to parse JSON: '+b);return null}else throw Gi(a)}}
+function Vr(a,b,c){var d,e,f,g,h,i,j,k;i={};d=Ic(ik(a.c,lf),21).b;lE(d,'init')||(i['csrfToken']=d,undefined);i['rpc']=b;i[TH]=ZC(Ic(ik(a.c,lf),21).f);i[XH]=ZC(a.a++);if(c){for(f=(j=_C(c),j),g=0,h=f.length;g<h;++g){e=f[g];k=c[e];i[e]=k}}return i}
+function vB(){var a;if(rB){return}try{rB=true;while(qB!=null&&qB.length!=0||sB!=null&&sB.length!=0){while(qB!=null&&qB.length!=0){a=Ic(qB.splice(0,1)[0],15);a.eb()}if(sB!=null&&sB.length!=0){a=Ic(sB.splice(0,1)[0],15);a.eb()}}}finally{rB=false}}
+function Cw(a,b){var c,d,e,f,g,h;f=b.b;if(a.b){Vw(f)}else{h=a.d;for(g=0;g<h.length;g++){e=Ic(h[g],6);d=e.a;if(!d){debugger;throw Gi(new mD("Can't find element to remove"))}xz(d).parentNode==f&&xz(f).removeChild(d)}}c=a.a;c.length==0||hw(a.c,b,c)}
+function Zw(a,b){var c,d,e;d=a.f;_z(a.a);if(a.c){e=(_z(a.a),a.g);c=b[d];(c===undefined||!(_c(c)===_c(e)||c!=null&&K(c,e)||c==e))&&wB(null,new Vx(b,d,e))}else Object.prototype.hasOwnProperty.call(b,d)?(delete b[d],undefined):(b[d]=null,undefined)}
+function ep(a){var b,c;c=Io(Ic(ik(a.d,Ee),49),a.h);c=vC(c,'v-r=push');c=vC(c,KH+(''+Ic(ik(a.d,td),8).k));b=Ic(ik(a.d,lf),21).h;b!=null&&(c=vC(c,'v-pushId='+b));Xj&&($wnd.console.log('Establishing push connection'),undefined);a.c=c;a.e=gp(a,c,a.a)}
+function Ku(a,b){var c;if(b.g!=a){debugger;throw Gi(new lD)}if(b.i){debugger;throw Gi(new mD("Can't re-register a node"))}c=b.d;if(a.a.has(c)){debugger;throw Gi(new mD('Node '+c+' is already registered'))}a.a.set(c,b);a.f&&Nl(Ic(ik(a.c,Xd),50),b)}
+function HD(a){if(a.Yb()){var b=a.c;b.Zb()?(a.i='['+b.h):!b.Yb()?(a.i='[L'+b.Wb()+';'):(a.i='['+b.Wb());a.b=b.Vb()+'[]';a.g=b.Xb()+'[]';return}var c=a.f;var d=a.d;d=d.split('/');a.i=KD('.',[c,KD('$',d)]);a.b=KD('.',[c,KD('.',d)]);a.g=d[d.length-1]}
+function wt(a,b){var c,d,e;d=new Ct(a);d.a=b;Bt(d,Tm.kb());c=No(b);e=SB(vC(vC(Ic(ik(a.a,td),8).h,'v-r=uidl'),KH+(''+Ic(ik(a.a,td),8).k)),c,NH,d);Xj&&OC($wnd.console,'Sending xhr message to server: '+c);a.b&&(!Rj&&(Rj=new Tj),Rj).a.l&&Xi(new zt(a,e),250)}
+function zw(b,c,d){var e,f,g;if(!c){return -1}try{g=xz(Nc(c));while(g!=null){f=Eu(b,g);if(f){return f.d}g=xz(g.parentNode)}}catch(a){a=Fi(a);if(Sc(a,7)){e=a;Yj(xI+c+', returned by an event data expression '+d+'. Error: '+e.v())}else throw Gi(a)}return -1}
+function aw(f){var e='}p';Object.defineProperty(f,e,{value:function(a,b,c){var d=this[e].promises[a];if(d!==undefined){delete this[e].promises[a];b?d[0](c):d[1](Error('Something went wrong. Check server-side logs for more information.'))}}});f[e].promises=[]}
+function mu(a){var b,c;if(Du(a.g,a.d)){debugger;throw Gi(new mD('Node should no longer be findable from the tree'))}if(a.i){debugger;throw Gi(new mD('Node is already unregistered'))}a.i=true;c=new au;b=oz(a.h);b.forEach(Qi(tu.prototype.fb,tu,[c]));a.h.clear()}
+function hn(a,b,c){var d,e;d=new Cn(b);if(a.b.has(b)){!!c&&c.db(d);return}if(pn(b,c,a.a)){e=$doc.createElement('style');e.textContent=b;e.type='text/css';(!Rj&&(Rj=new Tj),Rj).a.j||Uj()||(!Rj&&(Rj=new Tj),Rj).a.i?Xi(new xn(a,b,d),5000):qn(e,new zn(a),d);bn(e)}}
+function kv(a){iv();var b,c,d;b=null;for(c=0;c<hv.length;c++){d=Ic(hv[c],303);if(d.Jb(a)){if(b){debugger;throw Gi(new mD('Found two strategies for the node : '+M(b)+', '+M(d)))}b=d}}if(!b){throw Gi(new UD('State node has no suitable binder strategy'))}return b}
+function JG(a,b){var c,d,e,f;a=a;c=new EE;f=0;d=0;while(d<b.length){e=a.indexOf('%s',f);if(e==-1){break}CE(c,a.substr(f,e-f));BE(c,b[d++]);f=e+2}CE(c,a.substr(f));if(d<b.length){c.a+=' [';BE(c,b[d++]);while(d<b.length){c.a+=', ';BE(c,b[d++])}c.a+=']'}return c.a}
+function KB(b,c){var d,e,f,g,h,i;try{++b.b;h=(e=MB(b,c.L()),e);d=null;for(i=0;i<h.length;i++){g=h[i];try{c.K(g)}catch(a){a=Fi(a);if(Sc(a,7)){f=a;d==null&&(d=[]);d[d.length]=f}else throw Gi(a)}}if(d!=null){throw Gi(new mb(Ic(d[0],5)))}}finally{--b.b;b.b==0&&NB(b)}}
+function Kb(g){Db();function h(a,b,c,d,e){if(!e){e=a+' ('+b+':'+c;d&&(e+=':'+d);e+=')'}var f=ib(e);Mb(f,false)}
+;function i(a){var b=a.onerror;if(b&&!g){return}a.onerror=function(){h.apply(this,arguments);b&&b.apply(this,arguments);return false}}
+i($wnd);i(window)}
+function Kz(a,b){var c,d,e;c=(_z(a.a),a.c?(_z(a.a),a.g):null);(_c(b)===_c(c)||b!=null&&K(b,c))&&(a.d=false);if(!((_c(b)===_c(c)||b!=null&&K(b,c))&&(_z(a.a),a.c))&&!a.d){d=a.e.e;e=d.g;if(Fu(e,d)){Jz(a,b);return new mA(a,e)}else{Yz(a.a,new qA(a,c,c));vB()}}return Gz}
+function VC(a){var b;if(a===null){return 5}b=typeof a;if(lE('string',b)){return 2}else if(lE('number',b)){return 3}else if(lE('boolean',b)){return 4}else if(lE(UG,b)){return Object.prototype.toString.apply(a)===VG?1:0}debugger;throw Gi(new mD('Unknown Json Type'))}
+function dv(a,b){var c,d,e,f,g;if(a.f){debugger;throw Gi(new mD('Previous tree change processing has not completed'))}try{Pu(a,true);f=bv(a,b);e=b.length;for(d=0;d<e;d++){c=b[d];if(!lE('attach',c[nH])){g=cv(a,c);!!g&&f.add(g)}}return f}finally{Pu(a,false);a.d=false}}
+function fp(a,b){if(!b){debugger;throw Gi(new lD)}switch(a.f.c){case 0:a.f=(Op(),Np);a.b=b;break;case 1:Xj&&($wnd.console.log('Closing push connection'),undefined);rp(a.c);a.f=(Op(),Mp);b.C();break;case 2:case 3:throw Gi(new VD('Can not disconnect more than once'));}}
+function kw(a){var b,c,d,e,f;c=gu(a.e,20);f=Ic(Lz(KA(c,vI)),6);if(f){b=new $wnd.Function(uI,"if ( element.shadowRoot ) { return element.shadowRoot; } else { return element.attachShadow({'mode' : 'open'});}");e=Nc(b.call(null,a.b));!f.a&&lu(f,e);d=new Fx(f,e,a.a);mw(d)}}
+function am(a,b,c){var d,e,f,g,h,i;f=b.f;if(f.c.has(1)){h=jm(b);if(h==null){return null}c.push(h)}else if(f.c.has(16)){e=hm(b);if(e==null){return null}c.push(e)}if(!K(f,a)){return am(a,f,c)}g=new DE;i='';for(d=c.length-1;d>=0;d--){CE((g.a+=i,g),Pc(c[d]));i='.'}return g.a}
+function pp(a,b){var c,d,e,f,g;if(tp()){mp(b.a)}else{f=(Ic(ik(a.d,td),8).f?(e='VAADIN/static/push/vaadinPush-min.js'):(e='VAADIN/static/push/vaadinPush.js'),e);Xj&&OC($wnd.console,'Loading '+f);d=Ic(ik(a.d,se),56);g=Ic(ik(a.d,td),8).h+f;c=new Ep(a,f,b);kn(d,g,c,false,sH)}}
+function GB(a,b){var c,d,e,f,g,h;if(VC(b)==1){c=b;h=ad(YC(c[0]));switch(h){case 0:{g=ad(YC(c[1]));d=(f=g,Ic(a.a.get(f),6)).a;return d}case 1:return e=Mc(c[1]),e;case 2:return EB(ad(YC(c[1])),ad(YC(c[2])),Ic(ik(a.c,Df),32));default:throw Gi(new UD(EI+WC(c)));}}else{return b}}
+function lr(a,b){var c,d,e,f,g;Xj&&($wnd.console.log('Handling dependencies'),undefined);c=new $wnd.Map;for(e=(sC(),Dc(xc(wh,1),ZG,42,0,[qC,pC,rC])),f=0,g=e.length;f<g;++f){d=e[f];$C(b,d.b!=null?d.b:''+d.c)&&c.set(d,b[d.b!=null?d.b:''+d.c])}c.size==0||Kk(Ic(ik(a.i,Sd),72),c)}
+function ev(a,b){var c,d,e,f,g;f=_u(a,b);if(vH in a){e=a[vH];g=e;Sz(f,g)}else if('nodeValue' in a){d=ad(YC(a['nodeValue']));c=Du(b.g,d);if(!c){debugger;throw Gi(new lD)}c.f=b;Sz(f,c)}else{debugger;throw Gi(new mD('Change should have either value or nodeValue property: '+No(a)))}}
+function np(a,b){a.g=b[MH];switch(a.f.c){case 0:a.f=(Op(),Kp);kq(Ic(ik(a.d,Oe),17));break;case 2:a.f=(Op(),Kp);if(!a.b){debugger;throw Gi(new lD)}fp(a,a.b);break;case 1:break;default:throw Gi(new VD('Got onOpen event when connection state is '+a.f+'. This should never happen.'));}}
+function QG(a){var b,c,d,e;b=0;d=a.length;e=d-4;c=0;while(c<e){b=(HG(c+3,a.length),a.charCodeAt(c+3)+(HG(c+2,a.length),31*(a.charCodeAt(c+2)+(HG(c+1,a.length),31*(a.charCodeAt(c+1)+(HG(c,a.length),31*(a.charCodeAt(c)+31*b)))))));b=b|0;c+=4}while(c<d){b=b*31+kE(a,c++)}b=b|0;return b}
+function Vo(){Ro();if(Po||!($wnd.Vaadin.Flow!=null)){Xj&&($wnd.console.warn('vaadinBootstrap.js was not loaded, skipping vaadin application configuration.'),undefined);return}Po=true;$wnd.performance&&typeof $wnd.performance.now==WG?(Tm=new Zm):(Tm=new Xm);Um();Yo((Db(),$moduleName))}
+function $b(b,c){var d,e,f,g;if(!b){debugger;throw Gi(new mD('tasks'))}for(e=0,f=b.length;e<f;e++){if(b.length!=f){debugger;throw Gi(new mD(dH+b.length+' != '+f))}g=b[e];try{g[1]?g[0].B()&&(c=Zb(c,g)):g[0].C()}catch(a){a=Fi(a);if(Sc(a,5)){d=a;Db();Mb(d,true)}else throw Gi(a)}}return c}
+function Pt(a,b){var c,d,e,f,g,h,i,j,k,l;l=Ic(ik(a.a,Xf),10);g=b.length-1;i=zc(bi,ZG,2,g+1,6,1);j=[];e=new $wnd.Map;for(d=0;d<g;d++){h=b[d];f=GB(l,h);j.push(f);i[d]='$'+d;k=FB(l,h);if(k){if(St(k)||!Rt(a,k)){bu(k,new Wt(a,b));return}e.set(f,k)}}c=b[b.length-1];i[i.length-1]=c;Qt(a,i,j,e)}
+function _w(a,b,c){var d,e;if(!b.b){debugger;throw Gi(new mD(wI+b.e.d+BH))}e=gu(b.e,0);d=b.b;if(wx(b.e)&&Hu(b.e)){Uw(a,b,c);tB(new Rx(d,e,b))}else if(Hu(b.e)){Sz(KA(e,gI),(pD(),true));Xw(d,e)}else{Yw(d,e);Ax(Ic(ik(e.e.g.c,td),8),d,yI,(pD(),oD));lm(d)&&(d.style.display='none',undefined)}}
+function W(d,b){if(b instanceof Object){try{b.__java$exception=d;if(navigator.userAgent.toLowerCase().indexOf('msie')!=-1&&$doc.documentMode<9){return}var c=d;Object.defineProperties(b,{cause:{get:function(){var a=c.u();return a&&a.s()}},suppressed:{get:function(){return c.t()}}})}catch(a){}}}
+function yj(f,b,c){var d=f;var e=$wnd.Vaadin.Flow.clients[b];e.isActive=TG(function(){return d.S()});e.getVersionInfo=TG(function(a){return {'flow':c}});e.debug=TG(function(){var a=d.a;return a.Z().Fb().Cb()});e.getNodeInfo=TG(function(a){return {element:d.O(a),javaClass:d.Q(a),styles:d.P(a)}})}
+function pv(a,b,c,d){var e;e=b.has('leading')&&!a.e&&!a.f;if(!e&&(b.has(rI)||b.has(sI))){a.b=c;a.a=d;!b.has(sI)&&(!a.e||a.i==null)&&(a.i=d);a.g=null;a.h=null}if(b.has('leading')||b.has(rI)){!a.e&&(a.e=new Bv(a));xv(a.e);yv(a.e,ad(a.j))}if(!a.f&&b.has(sI)){a.f=new Dv(a,b);zv(a.f,ad(a.j))}return e}
+function fn(a){var b,c,d,e,f,g,h,i,j,k;b=$doc;j=b.getElementsByTagName(FH);for(f=0;f<j.length;f++){c=j.item(f);k=c.src;k!=null&&k.length!=0&&a.b.add(k)}h=b.getElementsByTagName('link');for(e=0;e<h.length;e++){g=h.item(e);i=g.rel;d=g.href;(mE(GH,i)||mE('import',i))&&d!=null&&d.length!=0&&a.b.add(d)}}
+function _r(a,b,c){if(b==a.a){return}if(c){ck('Forced update of clientId to '+a.a);a.a=b;return}if(b>a.a){a.a==0?Xj&&OC($wnd.console,'Updating client-to-server id to '+b+' based on server'):dk('Server expects next client-to-server id to be '+b+' but we were going to use '+a.a+'. Will use '+b+'.');a.a=b}}
+function qn(a,b,c){a.onload=TG(function(){a.onload=null;a.onerror=null;a.onreadystatechange=null;b.db(c)});a.onerror=TG(function(){a.onload=null;a.onerror=null;a.onreadystatechange=null;b.cb(c)});a.onreadystatechange=function(){('loaded'===a.readyState||'complete'===a.readyState)&&a.onload(arguments[0])}}
+function ln(a,b,c){var d,e,f;f=Lo(b);d=new Cn(f);if(a.b.has(f)){!!c&&c.db(d);return}if(pn(f,c,a.a)){e=$doc.createElement('link');e.rel=GH;e.type='text/css';e.href=f;if((!Rj&&(Rj=new Tj),Rj).a.j||Uj()){ac((Qb(),new tn(a,f,d)),10)}else{qn(e,new Gn(a,f),d);(!Rj&&(Rj=new Tj),Rj).a.i&&Xi(new vn(a,f,d),5000)}bn(e)}}
+function $w(a,b){var c,d,e,f,g,h;c=a.f;d=b.style;_z(a.a);if(a.c){h=(_z(a.a),Pc(a.g));e=false;if(h.indexOf('!important')!=-1){f=JC($doc,b.tagName);g=f.style;g.cssText=c+': '+h+';';if(lE('important',AC(f.style,c))){DC(d,c,BC(f.style,c),'important');e=true}}e||(d.setProperty(c,h),undefined)}else{d.removeProperty(c)}}
+function Zp(a){var b,c,d,e;Nz((c=gu(Ic(ik(Ic(ik(a.c,xf),35).a,Xf),10).e,9),KA(c,RH)))!=null&&Vj('reconnectingText',Nz((d=gu(Ic(ik(Ic(ik(a.c,xf),35).a,Xf),10).e,9),KA(d,RH))));Nz((e=gu(Ic(ik(Ic(ik(a.c,xf),35).a,Xf),10).e,9),KA(e,SH)))!=null&&Vj('offlineText',Nz((b=gu(Ic(ik(Ic(ik(a.c,xf),35).a,Xf),10).e,9),KA(b,SH))))}
+function em(a,b){var c,d,e,f,g;c=xz(a).children;e=-1;for(f=0;f<c.length;f++){g=c.item(f);if(!g){debugger;throw Gi(new mD('Unexpected element type in the collection of children. DomElement::getChildren is supposed to return Element chidren only, but got '+Qc(g)))}d=g;mE('style',d.tagName)||++e;if(e==b){return g}}return null}
+function Tn(a,b,c,d,e,f){var g,h,i;if(b==null&&c==null&&d==null){Ic(ik(a.a,td),8).l?(h=Ic(ik(a.a,td),8).h+'web-component/web-component-bootstrap.js',i=vC(h,'v-r=webcomponent-resync'),RB(i,new Xn(a)),undefined):Mo(e);return}g=Qn(b,c,d,f);if(!Ic(ik(a.a,td),8).l){wC(g,'click',new co(e),false);wC($doc,'keydown',new fo(e),false)}}
+function hw(a,b,c){var d,e,f,g,h,i,j,k;j=fu(b.e,2);if(a==0){d=hx(j,b.b)}else if(a<=(_z(j.a),j.c.length)&&a>0){k=Bw(a,b);d=!k?null:xz(k.a).nextSibling}else{d=null}for(g=0;g<c.length;g++){i=c[g];h=Ic(i,6);f=Ic(ik(h.g.c,Vd),58);e=El(f,h.d);if(e){Fl(f,h.d);lu(h,e);lv(h)}else{e=lv(h);xz(b.b).insertBefore(e,d)}d=xz(e).nextSibling}}
+function Aw(b,c){var d,e,f,g,h;if(!c){return -1}try{h=xz(Nc(c));f=[];f.push(b);for(e=0;e<f.length;e++){g=Ic(f[e],6);if(h.isSameNode(g.a)){return g.d}wA(fu(g,2),Qi(Ny.prototype.fb,Ny,[f]))}h=xz(h.parentNode);return jx(f,h)}catch(a){a=Fi(a);if(Sc(a,7)){d=a;Yj(xI+c+', which was the event.target. Error: '+d.v())}else throw Gi(a)}return -1}
+function jr(a){if(a.j.size==0){dk('Gave up waiting for message '+(a.f+1)+' from the server')}else{Xj&&($wnd.console.warn('WARNING: reponse handling was never resumed, forcibly removing locks...'),undefined);a.j.clear()}if(!or(a)&&a.g.length!=0){mz(a.g);Wr(Ic(ik(a.i,nf),19));Ic(ik(a.i,zf),16).b&&Ks(Ic(ik(a.i,zf),16));Xr(Ic(ik(a.i,nf),19))}}
+function Gk(a,b,c){var d,e;e=Ic(ik(a.a,se),56);d=c==(sC(),qC);switch(b.c){case 0:if(d){return new Rk(e)}return new Wk(e);case 1:if(d){return new _k(e)}return new pl(e);case 2:if(d){throw Gi(new UD('Inline load mode is not supported for JsModule.'))}return new rl(e);case 3:return new bl;default:throw Gi(new UD('Unknown dependency type '+b));}}
+function tr(b,c){var d,e,f,g;f=Ic(ik(b.i,Xf),10);g=dv(f,c['changes']);if(!Ic(ik(b.i,td),8).f){try{d=eu(f.e);Xj&&($wnd.console.log('StateTree after applying changes:'),undefined);Xj&&OC($wnd.console,d)}catch(a){a=Fi(a);if(Sc(a,7)){e=a;Xj&&($wnd.console.error('Failed to log state tree'),undefined);Xj&&NC($wnd.console,e)}else throw Gi(a)}}uB(new Pr(g))}
+function Yv(n,k,l,m){Xv();n[k]=TG(function(c){var d=Object.getPrototypeOf(this);d[k]!==undefined&&d[k].apply(this,arguments);var e=c||$wnd.event;var f=l.Db();var g=Zv(this,e,k,l);g===null&&(g=Array.prototype.slice.call(arguments));var h;var i=-1;if(m){var j=this['}p'].promises;i=j.length;h=new Promise(function(a,b){j[i]=[a,b]})}f.Gb(l,k,g,i);return h})}
+function Fk(a,b,c){var d,e,f,g,h;f=new $wnd.Map;for(e=0;e<c.length;e++){d=c[e];h=(kC(),yo((oC(),nC),d[nH]));g=Gk(a,h,b);if(h==gC){Lk(d['url'],g)}else{switch(b.c){case 1:Lk(Io(Ic(ik(a.a,Ee),49),d['url']),g);break;case 2:f.set(Io(Ic(ik(a.a,Ee),49),d['url']),g);break;case 0:Lk(d['contents'],g);break;default:throw Gi(new UD('Unknown load mode = '+b));}}}return f}
+function tE(a,b){var c,d,e,f,g,h,i,j;c=new RegExp(b,'g');i=zc(bi,ZG,2,0,6,1);d=0;j=a;f=null;while(true){h=c.exec(j);if(h==null||j==''){i[d]=j;break}else{g=h.index;i[d]=j.substr(0,g);j=vE(j,g+h[0].length,j.length);c.lastIndex=0;if(f==j){i[d]=j.substr(0,1);j=j.substr(1)}f=j;++d}}if(a.length>0){e=i.length;while(e>0&&i[e-1]==''){--e}e<i.length&&(i.length=e)}return i}
+function $p(a,b){if(Ic(ik(a.c,De),12).b!=(Co(),Ao)){Xj&&($wnd.console.warn('Trying to reconnect after application has been stopped. Giving up'),undefined);return}if(b){Xj&&($wnd.console.log('Re-sending last message to the server...'),undefined);Yr(Ic(ik(a.c,nf),19),b)}else{Xj&&($wnd.console.log('Trying to re-establish server connection...'),undefined);Mq(Ic(ik(a.c,Ye),55))}}
+function QD(a){var b,c,d,e,f;if(a==null){throw Gi(new fE(aH))}d=a.length;e=d>0&&(HG(0,a.length),a.charCodeAt(0)==45||(HG(0,a.length),a.charCodeAt(0)==43))?1:0;for(b=e;b<d;b++){if(sD((HG(b,a.length),a.charCodeAt(b)))==-1){throw Gi(new fE(QI+a+'"'))}}f=parseInt(a,10);c=f<-2147483648;if(isNaN(f)){throw Gi(new fE(QI+a+'"'))}else if(c||f>2147483647){throw Gi(new fE(QI+a+'"'))}return f}
+function ax(a,b,c,d){var e,f,g,h,i;i=fu(a,24);for(f=0;f<(_z(i.a),i.c.length);f++){e=Ic(i.c[f],6);if(e==b){continue}if(lE((h=gu(b,0),WC(Nc(Lz(KA(h,hI))))),(g=gu(e,0),WC(Nc(Lz(KA(g,hI))))))){dk('There is already a request to attach element addressed by the '+d+". The existing request's node id='"+e.d+"'. Cannot attach the same element twice.");Nu(b.g,a,b.d,e.d,c);return false}}return true}
+function Tr(a){var b,c,d;d=Ic(ik(a.c,Hf),34);if(d.c.length==0&&a.d!=1){return}c=d.c;d.c=[];d.b=false;d.a=jt;if(c.length==0&&a.d!=1){Xj&&($wnd.console.warn('All RPCs filtered out, not sending anything to the server'),undefined);return}b={};if(a.d==1){a.d=2;Xj&&($wnd.console.log('Resynchronizing from server'),undefined);b[UH]=Object(true)}Wj('loading');Ns(Ic(ik(a.c,zf),16));Yr(a,Vr(a,c,b))}
+function wc(a,b){var c;switch(yc(a)){case 6:return Xc(b);case 7:return Uc(b);case 8:return Tc(b);case 3:return Array.isArray(b)&&(c=yc(b),!(c>=14&&c<=16));case 11:return b!=null&&Yc(b);case 12:return b!=null&&(typeof b===UG||typeof b==WG);case 0:return Hc(b,a.__elementTypeId$);case 2:return Zc(b)&&!(b.kc===Ti);case 1:return Zc(b)&&!(b.kc===Ti)||Hc(b,a.__elementTypeId$);default:return true;}}
+function tl(b,c){if(document.body.$&&document.body.$.hasOwnProperty&&document.body.$.hasOwnProperty(c)){return document.body.$[c]}else if(b.shadowRoot){return b.shadowRoot.getElementById(c)}else if(b.getElementById){return b.getElementById(c)}else if(c&&c.match('^[a-zA-Z0-9-_]*$')){return b.querySelector('#'+c)}else{return Array.from(b.querySelectorAll('[id]')).find(function(a){return a.id==c})}}
+function op(a,b){var c,d;if(!jp(a)){throw Gi(new VD('This server to client push connection should not be used to send client to server messages'))}if(a.f==(Op(),Kp)){d=No(b);ck('Sending push ('+a.g+') message to server: '+d);if(lE(a.g,LH)){c=new Jp(d);while(c.a<c.b.length){hp(a.e,Ip(c))}}else{hp(a.e,d)}return}if(a.f==Lp){jq(Ic(ik(a.d,Oe),17),b);return}throw Gi(new VD('Can not push after disconnecting'))}
+function bq(a,b,c){var d;if(Ic(ik(a.c,De),12).b!=(Co(),Ao)){return}Wj('reconnecting');if(a.b){if(Bq(b,a.b)){Xj&&PC($wnd.console,'Now reconnecting because of '+b+' failure');a.b=b}}else{a.b=b;Xj&&PC($wnd.console,'Reconnecting because of '+b+' failure')}if(a.b!=b){return}++a.a;ck('Reconnect attempt '+a.a+' for '+b);a.a>=Mz((d=gu(Ic(ik(Ic(ik(a.c,xf),35).a,Xf),10).e,9),KA(d,'reconnectAttempts')),10000)?_p(a):pq(a,c)}
+function ul(a,b,c,d){var e,f,g,h,i,j,k,l,m,n,o,p,q,r;j=null;g=xz(a.a).childNodes;o=new $wnd.Map;e=!b;i=-1;for(m=0;m<g.length;m++){q=Nc(g[m]);o.set(q,$D(m));K(q,b)&&(e=true);if(e&&!!q&&mE(c,q.tagName)){j=q;i=m;break}}if(!j){Mu(a.g,a,d,-1,c,-1)}else{p=fu(a,2);k=null;f=0;for(l=0;l<(_z(p.a),p.c.length);l++){r=Ic(p.c[l],6);h=r.a;n=Ic(o.get(h),25);!!n&&n.a<i&&++f;if(K(h,j)){k=$D(r.d);break}}k=vl(a,d,j,k);Mu(a.g,a,d,k.a,j.tagName,f)}}
+function fv(a,b){var c,d,e,f,g,h,i,j,k,l,m,n,o,p,q;n=ad(YC(a[oI]));m=fu(b,n);i=ad(YC(a['index']));pI in a?(o=ad(YC(a[pI]))):(o=0);if('add' in a){d=a['add'];c=(j=Mc(d),j);yA(m,i,o,c)}else if('addNodes' in a){e=a['addNodes'];l=e.length;c=[];q=b.g;for(h=0;h<l;h++){g=ad(YC(e[h]));f=(k=g,Ic(q.a.get(k),6));if(!f){debugger;throw Gi(new mD('No child node found with id '+g))}f.f=b;c[h]=f}yA(m,i,o,c)}else{p=m.c.splice(i,o);Yz(m.a,new Ez(m,i,p,[],false))}}
+function cv(a,b){var c,d,e,f,g,h,i;g=b[nH];e=ad(YC(b[cI]));d=(c=e,Ic(a.a.get(c),6));if(!d&&a.d){return d}if(!d){debugger;throw Gi(new mD('No attached node found'))}switch(g){case 'empty':av(b,d);break;case 'splice':fv(b,d);break;case 'put':ev(b,d);break;case pI:f=_u(b,d);Rz(f);break;case 'detach':Qu(d.g,d);d.f=null;break;case 'clear':h=ad(YC(b[oI]));i=fu(d,h);vA(i);break;default:{debugger;throw Gi(new mD('Unsupported change type: '+g))}}return d}
+function _l(a){var b,c,d,e,f;if(Sc(a,6)){e=Ic(a,6);d=null;if(e.c.has(1)){d=gu(e,1)}else if(e.c.has(16)){d=fu(e,16)}else if(e.c.has(23)){return _l(KA(gu(e,23),vH))}if(!d){debugger;throw Gi(new mD("Don't know how to convert node without map or list features"))}b=d.Rb(new vm);if(!!b&&!(yH in b)){b[yH]=ZC(e.d);rm(e,d,b)}return b}else if(Sc(a,13)){f=Ic(a,13);if(f.e.d==23){return _l((_z(f.a),f.g))}else{c={};c[f.f]=_l((_z(f.a),f.g));return c}}else{return a}}
+function gp(f,c,d){var e=f;d.url=c;d.onOpen=TG(function(a){e.ub(a)});d.onReopen=TG(function(a){e.wb(a)});d.onMessage=TG(function(a){e.tb(a)});d.onError=TG(function(a){e.sb(a)});d.onTransportFailure=TG(function(a,b){e.xb(a)});d.onClose=TG(function(a){e.rb(a)});d.onReconnect=TG(function(a,b){e.vb(a,b)});d.onClientTimeout=TG(function(a){e.qb(a)});d.headers={'X-Vaadin-LastSeenServerSyncId':function(){return e.pb()}};return $wnd.vaadinPush.atmosphere.subscribe(d)}
+function jw(a,b){var c,d,e;d=(c=gu(b,0),Nc(Lz(KA(c,hI))));e=d[nH];if(lE('inMemory',e)){lv(b);return}if(!a.b){debugger;throw Gi(new mD('Unexpected html node. The node is supposed to be a custom element'))}if(lE('@id',e)){if(Xl(a.b)){Yl(a.b,new fy(a,b,d));return}else if(!(typeof a.b.$!=cH)){$l(a.b,new hy(a,b,d));return}Ew(a,b,d,true)}else if(lE(iI,e)){if(!a.b.root){$l(a.b,new jy(a,b,d));return}Gw(a,b,d,true)}else{debugger;throw Gi(new mD('Unexpected payload type '+e))}}
+function Ot(h,e,f){var g={};g.getNode=TG(function(a){var b=e.get(a);if(b==null){throw new ReferenceError('There is no a StateNode for the given argument.')}return b});g.$appId=h.Bb().replace(/-\d+$/,'');g.registry=h.a;g.attachExistingElement=TG(function(a,b,c,d){ul(g.getNode(a),b,c,d)});g.populateModelProperties=TG(function(a,b){xl(g.getNode(a),b)});g.registerUpdatableModelProperties=TG(function(a,b){zl(g.getNode(a),b)});g.stopApplication=TG(function(){f.I()});return g}
+function Ax(a,b,c,d){var e,f,g,h,i;if(d==null||Xc(d)){Oo(b,c,Pc(d))}else{f=d;if(0==VC(f)){g=f;if(!('uri' in g)){debugger;throw Gi(new mD("Implementation error: JsonObject is recieved as an attribute value for '"+c+"' but it has no "+'uri'+' key'))}i=g['uri'];if(a.l&&!i.match(/^(?:[a-zA-Z]+:)?\/\//)){e=a.h;e=(h='/'.length,lE(e.substr(e.length-h,h),'/')?e:e+'/');xz(b).setAttribute(c,e+(''+i))}else{i==null?xz(b).removeAttribute(c):xz(b).setAttribute(c,i)}}else{Oo(b,c,Si(d))}}}
+function Fw(a,b,c){var d,e,f,g,h,i,j,k,l,m,n,o,p;p=Ic(c.e.get(Og),77);if(!p||!p.a.has(a)){return}k=tE(a,'\\.');g=c;f=null;e=0;j=k.length;for(m=k,n=0,o=m.length;n<o;++n){l=m[n];d=gu(g,1);if(!MA(d,l)&&e<j-1){Xj&&MC($wnd.console,"Ignoring property change for property '"+a+"' which isn't defined from server");return}f=KA(d,l);Sc((_z(f.a),f.g),6)&&(g=(_z(f.a),Ic(f.g,6)));++e}if(Sc((_z(f.a),f.g),6)){h=(_z(f.a),Ic(f.g,6));i=Nc(b.a[b.b]);if(!(yH in i)||h.c.has(16)){return}}Kz(f,b.a[b.b]).I()}
+function Bj(a){var b,c,d,e,f,g,h,i;this.a=new tk(this,a);T((Ic(ik(this.a,ye),22),new Jj));f=Ic(ik(this.a,Xf),10).e;gs(f,Ic(ik(this.a,rf),73));new xB(new Hs(Ic(ik(this.a,Oe),17)));h=gu(f,10);Wq(h,'first',new Zq,450);Wq(h,'second',new _q,1500);Wq(h,'third',new br,5000);i=KA(h,'theme');Iz(i,new dr);c=$doc.body;lu(f,c);jv(f,c);ck('Starting application '+a.a);b=a.a;b=sE(b,'-\\d+$','');d=a.f;e=a.g;zj(this,b,d,e,a.c);if(!d){g=a.i;yj(this,b,g);Xj&&OC($wnd.console,'Vaadin application servlet version: '+g)}Wj('loading')}
+function nr(a,b){var c,d;if(!b){throw Gi(new UD('The json to handle cannot be null'))}if((TH in b?b[TH]:-1)==-1){c=b['meta'];(!c||!(_H in c))&&Xj&&($wnd.console.error("Response didn't contain a server id. Please verify that the server is up-to-date and that the response data has not been modified in transmission."),undefined)}d=Ic(ik(a.i,De),12).b;if(d==(Co(),zo)){d=Ao;mo(Ic(ik(a.i,De),12),d)}d==Ao?mr(a,b):Xj&&($wnd.console.warn('Ignored received message because application has already been stopped'),undefined)}
+function Wb(a){var b,c,d,e,f,g,h;if(!a){debugger;throw Gi(new mD('tasks'))}f=a.length;if(f==0){return null}b=false;c=new R;while(xb()-c.a<16){d=false;for(e=0;e<f;e++){if(a.length!=f){debugger;throw Gi(new mD(dH+a.length+' != '+f))}h=a[e];if(!h){continue}d=true;if(!h[1]){debugger;throw Gi(new mD('Found a non-repeating Task'))}if(!h[0].B()){a[e]=null;b=true}}if(!d){break}}if(b){g=[];for(e=0;e<f;e++){!!a[e]&&(g[g.length]=a[e],undefined)}if(g.length>=f){debugger;throw Gi(new lD)}return g.length==0?null:g}else{return a}}
+function kx(a,b,c,d,e){var f,g,h;h=Du(e,ad(a));if(!h.c.has(1)){return}if(!fx(h,b)){debugger;throw Gi(new mD('Host element is not a parent of the node whose property has changed. This is an implementation error. Most likely it means that there are several StateTrees on the same page (might be possible with portlets) and the target StateTree should not be passed into the method as an argument but somehow detected from the host element. Another option is that host element is calculated incorrectly.'))}f=gu(h,1);g=KA(f,c);Kz(g,d).I()}
+function Qn(a,b,c,d){var e,f,g,h,i,j;h=$doc;j=h.createElement('div');j.className='v-system-error';if(a!=null){f=h.createElement('div');f.className='caption';f.textContent=a;j.appendChild(f);Xj&&NC($wnd.console,a)}if(b!=null){i=h.createElement('div');i.className='message';i.textContent=b;j.appendChild(i);Xj&&NC($wnd.console,b)}if(c!=null){g=h.createElement('div');g.className='details';g.textContent=c;j.appendChild(g);Xj&&NC($wnd.console,c)}if(d!=null){e=h.querySelector(d);!!e&&FC(Nc(rF(vF(e.shadowRoot),e)),j)}else{GC(h.body,j)}return j}
+function Xo(a,b){var c,d,e;c=dp(b,'serviceUrl');vj(a,bp(b,'webComponentMode'));if(c==null){rj(a,Lo('.'));lj(a,Lo(dp(b,IH)))}else{a.h=c;lj(a,Lo(c+(''+dp(b,IH))))}uj(a,cp(b,'v-uiId').a);nj(a,cp(b,'heartbeatInterval').a);oj(a,cp(b,'maxMessageSuspendTimeout').a);sj(a,(d=b.getConfig(JH),d?d.vaadinVersion:null));e=b.getConfig(JH);ap();tj(a,b.getConfig('sessExpMsg'));pj(a,!bp(b,'debug'));qj(a,bp(b,'requestTiming'));mj(a,b.getConfig('webcomponents'));bp(b,'devToolsEnabled');dp(b,'liveReloadUrl');dp(b,'liveReloadBackend');dp(b,'springBootLiveReloadPort')}
+function qc(a,b){var c,d,e,f,g,h,i,j,k;j='';if(b.length==0){return a.G(gH,eH,-1,-1)}k=wE(b);lE(k.substr(0,3),'at ')&&(k=k.substr(3));k=k.replace(/\[.*?\]/g,'');g=k.indexOf('(');if(g==-1){g=k.indexOf('@');if(g==-1){j=k;k=''}else{j=wE(k.substr(g+1));k=wE(k.substr(0,g))}}else{c=k.indexOf(')',g);j=k.substr(g+1,c-(g+1));k=wE(k.substr(0,g))}g=nE(k,xE(46));g!=-1&&(k=k.substr(g+1));(k.length==0||lE(k,'Anonymous function'))&&(k=eH);h=pE(j,xE(58));e=qE(j,xE(58),h-1);i=-1;d=-1;f=gH;if(h!=-1&&e!=-1){f=j.substr(0,e);i=kc(j.substr(e+1,h-(e+1)));d=kc(j.substr(h+1))}return a.G(f,k,i,d)}
+function tk(a,b){this.a=new $wnd.Map;this.b=new $wnd.Map;lk(this,yd,a);lk(this,td,b);lk(this,se,new nn(this));lk(this,Ee,new Jo(this));lk(this,Sd,new Nk(this));lk(this,ye,new Vn(this));mk(this,De,new uk);lk(this,Xf,new Ru(this));lk(this,zf,new Os(this));lk(this,lf,new xr(this));lk(this,nf,new bs(this));lk(this,Hf,new ot(this));lk(this,Df,new gt(this));lk(this,Sf,new Ut(this));mk(this,Of,new wk);mk(this,Vd,new yk);lk(this,Xd,new Pl(this));lk(this,Ye,new Oq(this));lk(this,Oe,new uq(this));lk(this,Nf,new xt(this));lk(this,vf,new vs(this));lk(this,xf,new Gs(this));lk(this,rf,new ms(this))}
+function wb(b){var c=function(a){return typeof a!=cH};var d=function(a){return a.replace(/\r\n/g,'')};if(c(b.outerHTML))return d(b.outerHTML);c(b.innerHTML)&&b.cloneNode&&$doc.createElement('div').appendChild(b.cloneNode(true)).innerHTML;if(c(b.nodeType)&&b.nodeType==3){return "'"+b.data.replace(/ /g,'\u25AB').replace(/\u00A0/,'\u25AA')+"'"}if(typeof c(b.htmlText)&&b.collapse){var e=b.htmlText;if(e){return 'IETextRange ['+d(e)+']'}else{var f=b.duplicate();f.pasteHTML('|');var g='IETextRange '+d(b.parentElement().outerHTML);f.moveStart('character',-1);f.pasteHTML('');return g}}return b.toString?b.toString():'[JavaScriptObject]'}
+function rm(a,b,c){var d,e,f;f=[];if(a.c.has(1)){if(!Sc(b,41)){debugger;throw Gi(new mD('Received an inconsistent NodeFeature for a node that has a ELEMENT_PROPERTIES feature. It should be NodeMap, but it is: '+b))}e=Ic(b,41);JA(e,Qi(Lm.prototype.bb,Lm,[f,c]));f.push(IA(e,new Hm(f,c)))}else if(a.c.has(16)){if(!Sc(b,27)){debugger;throw Gi(new mD('Received an inconsistent NodeFeature for a node that has a TEMPLATE_MODELLIST feature. It should be NodeList, but it is: '+b))}d=Ic(b,27);f.push(uA(d,new Bm(c)))}if(f.length==0){debugger;throw Gi(new mD('Node should have ELEMENT_PROPERTIES or TEMPLATE_MODELLIST feature'))}f.push(cu(a,new Fm(f)))}
+function bx(a,b,c,d,e){var f,g,h,i,j,k,l,m,n,o;l=e.e;o=Pc(Lz(KA(gu(b,0),'tag')));h=false;if(!a){h=true;Xj&&PC($wnd.console,AI+d+" is not found. The requested tag name is '"+o+"'")}else if(!(!!a&&mE(o,a.tagName))){h=true;dk(AI+d+" has the wrong tag name '"+a.tagName+"', the requested tag name is '"+o+"'")}if(h){Nu(l.g,l,b.d,-1,c);return false}if(!l.c.has(20)){return true}k=gu(l,20);m=Ic(Lz(KA(k,vI)),6);if(!m){return true}j=fu(m,2);g=null;for(i=0;i<(_z(j.a),j.c.length);i++){n=Ic(j.c[i],6);f=n.a;if(K(f,a)){g=$D(n.d);break}}if(g){Xj&&PC($wnd.console,AI+d+" has been already attached previously via the node id='"+g+"'");Nu(l.g,l,b.d,g.a,c);return false}return true}
+function Qt(b,c,d,e){var f,g,h,i,j,k,l,m,n;if(c.length!=d.length+1){debugger;throw Gi(new lD)}try{j=new ($wnd.Function.bind.apply($wnd.Function,[null].concat(c)));j.apply(Ot(b,e,new $t(b)),d)}catch(a){a=Fi(a);if(Sc(a,7)){i=a;Zj(new ek(i));Xj&&($wnd.console.error('Exception is thrown during JavaScript execution. Stacktrace will be dumped separately.'),undefined);if(!Ic(ik(b.a,td),8).f){g=new FE('[');h='';for(l=c,m=0,n=l.length;m<n;++m){k=l[m];CE((g.a+=h,g),k);h=', '}g.a+=']';f=g.a;HG(0,f.length);f.charCodeAt(0)==91&&(f=f.substr(1));kE(f,f.length-1)==93&&(f=vE(f,0,f.length-1));Xj&&NC($wnd.console,"The error has occurred in the JS code: '"+f+"'")}}else throw Gi(a)}}
+function lw(a,b,c,d){var e,f,g,h,i,j,k;g=Hu(b);i=Pc(Lz(KA(gu(b,0),'tag')));if(!(i==null||mE(c.tagName,i))){debugger;throw Gi(new mD("Element tag name is '"+c.tagName+"', but the required tag name is "+Pc(Lz(KA(gu(b,0),'tag')))))}fw==null&&(fw=nz());if(fw.has(b)){return}fw.set(b,(pD(),true));f=new Fx(b,c,d);e=[];h=[];if(g){h.push(ow(f));h.push(Qv(new Ly(f),f.e,17,false));h.push((j=gu(f.e,4),JA(j,Qi(xy.prototype.bb,xy,[f])),IA(j,new zy(f))));h.push(tw(f));h.push(mw(f));h.push(sw(f));h.push(nw(c,b));h.push(qw(12,new Hx(c),ww(e),b));h.push(qw(3,new Jx(c),ww(e),b));h.push(qw(1,new dy(c),ww(e),b));rw(a,b,c);h.push(cu(b,new vy(h,f,e)))}h.push(uw(h,f,e));k=new Gx(b);b.e.set(eg,k);uB(new Py(b))}
+function zj(k,e,f,g,h){var i=k;var j={};j.isActive=TG(function(){return i.S()});j.getByNodeId=TG(function(a){return i.O(a)});j.getNodeId=TG(function(a){return i.R(a)});j.getUIId=TG(function(){var a=i.a.V();return a.M()});j.addDomBindingListener=TG(function(a,b){i.N(a,b)});j.productionMode=f;j.poll=TG(function(){var a=i.a.X();a.yb()});j.connectWebComponent=TG(function(a){var b=i.a;var c=b.Y();var d=b.Z().Fb().d;c.zb(d,'connect-web-component',a)});g&&(j.getProfilingData=TG(function(){var a=i.a.W();var b=[a.e,a.l];null!=a.k?(b=b.concat(a.k)):(b=b.concat(-1,-1));b[b.length]=a.a;return b}));j.resolveUri=TG(function(a){var b=i.a._();return b.ob(a)});j.sendEventMessage=TG(function(a,b,c){var d=i.a.Y();d.zb(a,b,c)});j.initializing=false;j.exportedWebComponents=h;$wnd.Vaadin.Flow.clients[e]=j}
+function qp(a){var b,c,d,e;this.f=(Op(),Lp);this.d=a;lo(Ic(ik(a,De),12),new Rp(this));this.a={transport:LH,maxStreamingLength:1000000,fallbackTransport:'long-polling',contentType:NH,reconnectInterval:5000,timeout:-1,maxReconnectOnClose:10000000,trackMessageLength:true,enableProtocol:true,handleOnlineOffline:false,executeCallbackBeforeReconnect:true,messageDelimiter:String.fromCharCode(124)};this.a['logLevel']='debug';ss(Ic(ik(this.d,vf),48)).forEach(Qi(Vp.prototype.bb,Vp,[this]));c=ts(Ic(ik(this.d,vf),48));if(c==null||wE(c).length==0||lE('/',c)){this.h=OH;d=Ic(ik(a,td),8).h;if(!lE(d,'.')){e='/'.length;lE(d.substr(d.length-e,e),'/')||(d+='/');this.h=d+(''+this.h)}}else{b=Ic(ik(a,td),8).b;e='/'.length;lE(b.substr(b.length-e,e),'/')&&lE(c.substr(0,1),'/')&&(c=c.substr(1));this.h=b+(''+c)+OH}pp(this,new Xp(this))}
+function ur(a,b,c,d){var e,f,g,h,i,j,k,l,m;if(!((TH in b?b[TH]:-1)==-1||(TH in b?b[TH]:-1)==a.f)){debugger;throw Gi(new lD)}try{k=xb();i=b;if('constants' in i){e=Ic(ik(a.i,Of),57);f=i['constants'];Lt(e,f)}'changes' in i&&tr(a,i);VH in i&&uB(new Lr(a,i));ck('handleUIDLMessage: '+(xb()-k)+' ms');vB();j=b['meta'];if(j){m=Ic(ik(a.i,De),12).b;if(_H in j){if(m!=(Co(),Bo)){Rn(Ic(ik(a.i,ye),22),null);mo(Ic(ik(a.i,De),12),Bo)}}else if('appError' in j&&m!=(Co(),Bo)){g=j['appError'];Tn(Ic(ik(a.i,ye),22),g['caption'],g['message'],g['details'],g['url'],g['querySelector']);mo(Ic(ik(a.i,De),12),(Co(),Bo))}}a.e=ad(xb()-d);a.l+=a.e;if(!a.d){a.d=true;h=zr();if(h!=0){l=ad(xb()-h);Xj&&OC($wnd.console,'First response processed '+l+' ms after fetchStart')}a.a=yr()}}finally{ck(' Processing time was '+(''+a.e)+'ms');qr(b)&&Ks(Ic(ik(a.i,zf),16));wr(a,c)}}
+function Dw(a,b){var c,d,e,f,g,h,i,j,k,l,m,n,o,p,q,r,s,t,u,v,w,A,B,C,D,F,G;if(!b){debugger;throw Gi(new lD)}f=b.b;t=b.e;if(!f){debugger;throw Gi(new mD('Cannot handle DOM event for a Node'))}D=a.type;s=gu(t,4);e=Ic(ik(t.g.c,Of),57);i=Pc(Lz(KA(s,D)));if(i==null){debugger;throw Gi(new lD)}if(!Kt(e,i)){debugger;throw Gi(new lD)}j=Nc(Jt(e,i));p=(A=_C(j),A);B=new $wnd.Set;p.length==0?(g=null):(g={});for(l=p,m=0,n=l.length;m<n;++m){k=l[m];if(lE(k.substr(0,1),'}')){u=k.substr(1);B.add(u)}else if(lE(k,']')){C=Aw(t,a.target);g[']']=Object(C)}else if(lE(k.substr(0,1),']')){r=k.substr(1);h=ix(r);o=h(a,f);C=zw(t.g,o,r);g[k]=Object(C)}else{h=ix(k);o=h(a,f);g[k]=o}}d=new $wnd.Map;B.forEach(Qi(Fy.prototype.fb,Fy,[d,b]));v=new Hy(t,D,g);w=yx(f,D,j,g,v,d);if(w){c=false;q=B.size==0;q&&(c=ZE((ov(),F=new _E,G=Qi(Fv.prototype.bb,Fv,[F]),nv.forEach(G),F),v,0)!=-1);if(!c){rz(d).forEach(Qi(Dx.prototype.fb,Dx,[]));zx(v.b,v.c,v.a,null)}}}
+function Cu(a,b){if(a.b==null){a.b=new $wnd.Map;a.b.set($D(0),'elementData');a.b.set($D(1),'elementProperties');a.b.set($D(2),'elementChildren');a.b.set($D(3),'elementAttributes');a.b.set($D(4),'elementListeners');a.b.set($D(5),'pushConfiguration');a.b.set($D(6),'pushConfigurationParameters');a.b.set($D(7),'textNode');a.b.set($D(8),'pollConfiguration');a.b.set($D(9),'reconnectDialogConfiguration');a.b.set($D(10),'loadingIndicatorConfiguration');a.b.set($D(11),'classList');a.b.set($D(12),'elementStyleProperties');a.b.set($D(15),'componentMapping');a.b.set($D(16),'modelList');a.b.set($D(17),'polymerServerEventHandlers');a.b.set($D(18),'polymerEventListenerMap');a.b.set($D(19),'clientDelegateHandlers');a.b.set($D(20),'shadowRootData');a.b.set($D(21),'shadowRootHost');a.b.set($D(22),'attachExistingElementFeature');a.b.set($D(24),'virtualChildrenList');a.b.set($D(23),'basicTypeValue')}return a.b.has($D(b))?Pc(a.b.get($D(b))):'Unknown node feature: '+b}
+function mr(a,b){var c,d,e,f,g,h,i,j,k,l,m,n;j=TH in b?b[TH]:-1;e=UH in b;if(!e&&Ic(ik(a.i,nf),19).d==2){g=b;if(VH in g){d=g[VH];for(f=0;f<d.length;f++){c=d[f];if(c.length>0&&lE('window.location.reload();',c[0])){Xj&&($wnd.console.warn('Executing forced page reload while a resync request is ongoing.'),undefined);$wnd.location.reload();return}}}Xj&&($wnd.console.warn('Ignoring message from the server as a resync request is ongoing.'),undefined);return}Ic(ik(a.i,nf),19).d=0;if(e&&!pr(a,j)){ck('Received resync message with id '+j+' while waiting for '+(a.f+1));a.f=j-1;vr(a)}i=a.j.size!=0;if(i||!pr(a,j)){if(i){Xj&&($wnd.console.log('Postponing UIDL handling due to lock...'),undefined)}else{if(j<=a.f){dk(WH+j+' but have already seen '+a.f+'. Ignoring it');qr(b)&&Ks(Ic(ik(a.i,zf),16));return}ck(WH+j+' but expected '+(a.f+1)+'. Postponing handling until the missing message(s) have been received')}a.g.push(new Ir(b));if(!a.c.f){m=Ic(ik(a.i,td),8).e;Xi(a.c,m)}return}UH in b&&Ju(Ic(ik(a.i,Xf),10));l=xb();h=new I;a.j.add(h);Xj&&($wnd.console.log('Handling message from server'),undefined);Ls(Ic(ik(a.i,zf),16),new Ys);if(XH in b){k=b[XH];_r(Ic(ik(a.i,nf),19),k,UH in b)}j!=-1&&(a.f=j);if('redirect' in b){n=b['redirect']['url'];Xj&&OC($wnd.console,'redirecting to '+n);Mo(n);return}YH in b&&(a.b=b[YH]);ZH in b&&(a.h=b[ZH]);lr(a,b);a.d||Mk(Ic(ik(a.i,Sd),72));'timings' in b&&(a.k=b['timings']);Qk(new Cr);Qk(new Jr(a,b,h,l))}
+function dC(b){var c,d,e,f,g;b=b.toLowerCase();this.e=b.indexOf('gecko')!=-1&&b.indexOf('webkit')==-1&&b.indexOf(II)==-1;b.indexOf(' presto/')!=-1;this.k=b.indexOf(II)!=-1;this.l=!this.k&&b.indexOf('applewebkit')!=-1;this.b=b.indexOf(' chrome/')!=-1||b.indexOf(' crios/')!=-1||b.indexOf(HI)!=-1;this.i=b.indexOf('opera')!=-1;this.f=b.indexOf('msie')!=-1&&!this.i&&b.indexOf('webtv')==-1;this.f=this.f||this.k;this.j=!this.b&&!this.f&&b.indexOf('safari')!=-1;this.d=b.indexOf(' firefox/')!=-1;if(b.indexOf(' edge/')!=-1||b.indexOf(' edg/')!=-1||b.indexOf(JI)!=-1||b.indexOf(KI)!=-1){this.c=true;this.b=false;this.i=false;this.f=false;this.j=false;this.d=false;this.l=false;this.e=false}try{if(this.e){f=b.indexOf('rv:');if(f>=0){g=b.substr(f+3);g=sE(g,LI,'$1');this.a=TD(g)}}else if(this.l){g=uE(b,b.indexOf('webkit/')+7);g=sE(g,MI,'$1');this.a=TD(g)}else if(this.k){g=uE(b,b.indexOf(II)+8);g=sE(g,MI,'$1');this.a=TD(g);this.a>7&&(this.a=7)}else this.c&&(this.a=0)}catch(a){a=Fi(a);if(Sc(a,7)){c=a;IE();'Browser engine version parsing failed for: '+b+' '+c.v()}else throw Gi(a)}try{if(this.f){if(b.indexOf('msie')!=-1){if(this.k);else{e=uE(b,b.indexOf('msie ')+5);e=fC(e,0,nE(e,xE(59)));cC(e)}}else{f=b.indexOf('rv:');if(f>=0){g=b.substr(f+3);g=sE(g,LI,'$1');cC(g)}}}else if(this.d){d=b.indexOf(' firefox/')+9;cC(fC(b,d,d+5))}else if(this.b){$B(b)}else if(this.j){d=b.indexOf(' version/');if(d>=0){d+=9;cC(fC(b,d,d+5))}}else if(this.i){d=b.indexOf(' version/');d!=-1?(d+=9):(d=b.indexOf('opera/')+6);cC(fC(b,d,d+5))}else if(this.c){d=b.indexOf(' edge/')+6;b.indexOf(' edg/')!=-1?(d=b.indexOf(' edg/')+5):b.indexOf(JI)!=-1?(d=b.indexOf(JI)+6):b.indexOf(KI)!=-1&&(d=b.indexOf(KI)+8);cC(fC(b,d,d+8))}}catch(a){a=Fi(a);if(Sc(a,7)){c=a;IE();'Browser version parsing failed for: '+b+' '+c.v()}else throw Gi(a)}if(b.indexOf('windows ')!=-1){b.indexOf('windows phone')!=-1}else if(b.indexOf('android')!=-1){XB(b)}else if(b.indexOf('linux')!=-1);else if(b.indexOf('macintosh')!=-1||b.indexOf('mac osx')!=-1||b.indexOf('mac os x')!=-1){this.g=b.indexOf('ipad')!=-1;this.h=b.indexOf('iphone')!=-1;(this.g||this.h)&&_B(b)}else b.indexOf('; cros ')!=-1&&YB(b)}
+var UG='object',VG='[object Array]',WG='function',XG='java.lang',YG='com.google.gwt.core.client',ZG={4:1},$G='__noinit__',_G={4:1,7:1,9:1,5:1},aH='null',bH='com.google.gwt.core.client.impl',cH='undefined',dH='Working array length changed ',eH='anonymous',fH='fnStack',gH='Unknown',hH='must be non-negative',iH='must be positive',jH='com.google.web.bindery.event.shared',kH='com.vaadin.client',lH={66:1},mH={30:1},nH='type',oH={46:1},pH={24:1},qH={14:1},rH={26:1},sH='text/javascript',tH='constructor',uH='properties',vH='value',wH='com.vaadin.client.flow.reactive',xH={15:1},yH='nodeId',zH='Root node for node ',AH=' could not be found',BH=' is not an Element',CH={64:1},DH={81:1},EH={45:1},FH='script',GH='stylesheet',HH='com.vaadin.flow.shared',IH='contextRootUrl',JH='versionInfo',KH='v-uiId=',LH='websocket',MH='transport',NH='application/json; charset=UTF-8',OH='VAADIN/push',PH='com.vaadin.client.communication',QH={89:1},RH='dialogText',SH='dialogTextGaveUp',TH='syncId',UH='resynchronize',VH='execute',WH='Received message with server id ',XH='clientId',YH='Vaadin-Security-Key',ZH='Vaadin-Push-ID',_H='sessionExpired',aI='pushServletMapping',bI='event',cI='node',dI='attachReqId',eI='attachAssignedId',fI='com.vaadin.client.flow',gI='bound',hI='payload',iI='subTemplate',jI={44:1},kI='Node is null',lI='Node is not created for this tree',mI='Node id is not registered with this tree',nI='$server',oI='feat',pI='remove',qI='com.vaadin.client.flow.binding',rI='trailing',sI='intermediate',tI='elemental.util',uI='element',vI='shadowRoot',wI='The HTML node for the StateNode with id=',xI='An error occurred when Flow tried to find a state node matching the element ',yI='hidden',zI='styleDisplay',AI='Element addressed by the ',BI='dom-repeat',CI='dom-change',DI='com.vaadin.client.flow.nodefeature',EI='Unsupported complex type in ',FI='com.vaadin.client.gwt.com.google.web.bindery.event.shared',GI='OS minor',HI=' headlesschrome/',II='trident/',JI=' edga/',KI=' edgios/',LI='(\\.[0-9]+).+',MI='([0-9]+\\.[0-9]+).*',NI='com.vaadin.flow.shared.ui',OI='java.io',QI='For input string: "',RI='java.util',SI='java.util.stream',TI='Index: ',UI=', Size: ',VI='user.agent';var _,Mi,Hi,Ei=-1;$wnd.goog=$wnd.goog||{};$wnd.goog.global=$wnd.goog.global||$wnd;Ni();Oi(1,null,{},I);_.m=function J(a){return H(this,a)};_.n=function L(){return this.ic};_.o=function N(){return LG(this)};_.p=function P(){var a;return vD(M(this))+'@'+(a=O(this)>>>0,a.toString(16))};_.equals=function(a){return this.m(a)};_.hashCode=function(){return this.o()};_.toString=function(){return this.p()};var Ec,Fc,Gc;Oi(67,1,{67:1},wD);_.Ub=function xD(a){var b;b=new wD;b.e=4;a>1?(b.c=DD(this,a-1)):(b.c=this);return b};_.Vb=function CD(){uD(this);return this.b};_.Wb=function ED(){return vD(this)};_.Xb=function GD(){uD(this);return this.g};_.Yb=function ID(){return (this.e&4)!=0};_.Zb=function JD(){return (this.e&1)!=0};_.p=function MD(){return ((this.e&2)!=0?'interface ':(this.e&1)!=0?'':'class ')+(uD(this),this.i)};_.e=0;var tD=1;var Yh=zD(XG,'Object',1);var Lh=zD(XG,'Class',67);Oi(94,1,{},R);_.a=0;var cd=zD(YG,'Duration',94);var S=null;Oi(5,1,{4:1,5:1});_.r=function bb(a){return new Error(a)};_.s=function db(){return this.e};_.t=function eb(){var a;return a=Ic(gG(iG(kF((this.i==null&&(this.i=zc(di,ZG,5,0,0,1)),this.i)),new KE),RF(new aG,new $F,new cG,Dc(xc(si,1),ZG,47,0,[(VF(),TF)]))),90),$E(a,zc(Yh,ZG,1,a.a.length,5,1))};_.u=function fb(){return this.f};_.v=function gb(){return this.g};_.w=function hb(){Z(this,cb(this.r($(this,this.g))));hc(this)};_.p=function jb(){return $(this,this.v())};_.e=$G;_.j=true;var di=zD(XG,'Throwable',5);Oi(7,5,{4:1,7:1,5:1});var Ph=zD(XG,'Exception',7);Oi(9,7,_G,mb);var Zh=zD(XG,'RuntimeException',9);Oi(53,9,_G,nb);var Uh=zD(XG,'JsException',53);Oi(119,53,_G);var gd=zD(bH,'JavaScriptExceptionBase',119);Oi(31,119,{31:1,4:1,7:1,9:1,5:1},rb);_.v=function ub(){return qb(this),this.c};_.A=function vb(){return _c(this.b)===_c(ob)?null:this.b};var ob;var dd=zD(YG,'JavaScriptException',31);var ed=zD(YG,'JavaScriptObject$',0);Oi(305,1,{});var fd=zD(YG,'Scheduler',305);var yb=0,zb=false,Ab,Bb=0,Cb=-1;Oi(129,305,{});_.e=false;_.i=false;var Pb;var kd=zD(bH,'SchedulerImpl',129);Oi(130,1,{},bc);_.B=function cc(){this.a.e=true;Tb(this.a);this.a.e=false;return this.a.i=Ub(this.a)};var hd=zD(bH,'SchedulerImpl/Flusher',130);Oi(131,1,{},dc);_.B=function ec(){this.a.e&&_b(this.a.f,1);return this.a.i};var jd=zD(bH,'SchedulerImpl/Rescuer',131);var fc;Oi(315,1,{});var od=zD(bH,'StackTraceCreator/Collector',315);Oi(120,315,{},nc);_.D=function oc(a){var b={},j;var c=[];a[fH]=c;var d=arguments.callee.caller;while(d){var e=(gc(),d.name||(d.name=jc(d.toString())));c.push(e);var f=':'+e;var g=b[f];if(g){var h,i;for(h=0,i=g.length;h<i;h++){if(g[h]===d){return}}}(g||(b[f]=[])).push(d);d=d.caller}};_.F=function pc(a){var b,c,d,e;d=(gc(),a&&a[fH]?a[fH]:[]);c=d.length;e=zc($h,ZG,28,c,0,1);for(b=0;b<c;b++){e[b]=new gE(d[b],null,-1)}return e};var ld=zD(bH,'StackTraceCreator/CollectorLegacy',120);Oi(316,315,{});_.D=function rc(a){};_.G=function sc(a,b,c,d){return new gE(b,a+'@'+d,c<0?-1:c)};_.F=function tc(a){var b,c,d,e,f,g;e=lc(a);f=zc($h,ZG,28,0,0,1);b=0;d=e.length;if(d==0){return f}g=qc(this,e[0]);lE(g.d,eH)||(f[b++]=g);for(c=1;c<d;c++){f[b++]=qc(this,e[c])}return f};var nd=zD(bH,'StackTraceCreator/CollectorModern',316);Oi(121,316,{},uc);_.G=function vc(a,b,c,d){return new gE(b,a,-1)};var md=zD(bH,'StackTraceCreator/CollectorModernNoSourceMap',121);Oi(40,1,{});_.H=function bj(a){if(a!=this.d){return}this.e||(this.f=null);this.I()};_.d=0;_.e=false;_.f=null;var pd=zD('com.google.gwt.user.client','Timer',40);Oi(322,1,{});_.p=function gj(){return 'An event type'};var sd=zD(jH,'Event',322);Oi(97,1,{},ij);_.o=function jj(){return this.a};_.p=function kj(){return 'Event type'};_.a=0;var hj=0;var qd=zD(jH,'Event/Type',97);Oi(323,1,{});var rd=zD(jH,'EventBus',323);Oi(8,1,{8:1},wj);_.M=function xj(){return this.k};_.d=0;_.e=0;_.f=false;_.g=false;_.k=0;_.l=false;var td=zD(kH,'ApplicationConfiguration',8);Oi(92,1,{92:1},Bj);_.N=function Cj(a,b){bu(Du(Ic(ik(this.a,Xf),10),a),new Pj(a,b))};_.O=function Dj(a){var b;b=Du(Ic(ik(this.a,Xf),10),a);return !b?null:b.a};_.P=function Ej(a){var b,c,d,e,f;e=Du(Ic(ik(this.a,Xf),10),a);f={};if(e){d=LA(gu(e,12));for(b=0;b<d.length;b++){c=Pc(d[b]);f[c]=Lz(KA(gu(e,12),c))}}return f};_.Q=function Fj(a){var b;b=Du(Ic(ik(this.a,Xf),10),a);return !b?null:Nz(KA(gu(b,0),'jc'))};_.R=function Gj(a){var b;b=Eu(Ic(ik(this.a,Xf),10),xz(a));return !b?-1:b.d};_.S=function Hj(){var a;return Ic(ik(this.a,lf),21).a==0||Ic(ik(this.a,zf),16).b||(a=(Qb(),Pb),!!a&&a.a!=0)};var yd=zD(kH,'ApplicationConnection',92);Oi(146,1,{},Jj);_.q=function Kj(a){var b;b=a;Sc(b,3)?Pn('Assertion error: '+b.v()):Pn(b.v())};var ud=zD(kH,'ApplicationConnection/0methodref$handleError$Type',146);Oi(147,1,{},Lj);_.T=function Mj(a){$r(Ic(ik(this.a.a,nf),19))};var vd=zD(kH,'ApplicationConnection/lambda$1$Type',147);Oi(148,1,{},Nj);_.T=function Oj(a){$wnd.location.reload()};var wd=zD(kH,'ApplicationConnection/lambda$2$Type',148);Oi(149,1,lH,Pj);_.U=function Qj(a){return Ij(this.b,this.a,a)};_.b=0;var xd=zD(kH,'ApplicationConnection/lambda$3$Type',149);Oi(36,1,{},Tj);var Rj;var zd=zD(kH,'BrowserInfo',36);var Ad=BD(kH,'Command');var Xj=false;Oi(128,1,{},ek);_.I=function fk(){ak(this.a)};var Bd=zD(kH,'Console/lambda$0$Type',128);Oi(127,1,{},gk);_.q=function hk(a){bk(this.a)};var Cd=zD(kH,'Console/lambda$1$Type',127);Oi(153,1,{});_.V=function nk(){return Ic(ik(this,td),8)};_.W=function ok(){return Ic(ik(this,lf),21)};_.X=function pk(){return Ic(ik(this,rf),73)};_.Y=function qk(){return Ic(ik(this,Df),32)};_.Z=function rk(){return Ic(ik(this,Xf),10)};_._=function sk(){return Ic(ik(this,Ee),49)};var ge=zD(kH,'Registry',153);Oi(154,153,{},tk);var Gd=zD(kH,'DefaultRegistry',154);Oi(155,1,mH,uk);_.ab=function vk(){return new no};var Dd=zD(kH,'DefaultRegistry/0methodref$ctor$Type',155);Oi(156,1,mH,wk);_.ab=function xk(){return new Mt};var Ed=zD(kH,'DefaultRegistry/1methodref$ctor$Type',156);Oi(157,1,mH,yk);_.ab=function zk(){return new Gl};var Fd=zD(kH,'DefaultRegistry/2methodref$ctor$Type',157);Oi(72,1,{72:1},Nk);var Ak,Bk,Ck,Dk=0;var Sd=zD(kH,'DependencyLoader',72);Oi(196,1,oH,Rk);_.bb=function Sk(a,b){hn(this.a,a,Ic(b,24))};var Hd=zD(kH,'DependencyLoader/0methodref$inlineStyleSheet$Type',196);var me=BD(kH,'ResourceLoader/ResourceLoadListener');Oi(192,1,pH,Tk);_.cb=function Uk(a){$j("'"+a.a+"' could not be loaded.");Ok()};_.db=function Vk(a){Ok()};var Id=zD(kH,'DependencyLoader/1',192);Oi(197,1,oH,Wk);_.bb=function Xk(a,b){ln(this.a,a,Ic(b,24))};var Jd=zD(kH,'DependencyLoader/1methodref$loadStylesheet$Type',197);Oi(193,1,pH,Yk);_.cb=function Zk(a){$j(a.a+' could not be loaded.')};_.db=function $k(a){};var Kd=zD(kH,'DependencyLoader/2',193);Oi(198,1,oH,_k);_.bb=function al(a,b){gn(this.a,a,Ic(b,24))};var Ld=zD(kH,'DependencyLoader/2methodref$inlineScript$Type',198);Oi(201,1,oH,bl);_.bb=function cl(a,b){jn(a,Ic(b,24))};var Md=zD(kH,'DependencyLoader/3methodref$loadDynamicImport$Type',201);Oi(202,1,qH,dl);_.I=function el(){Ok()};var Nd=zD(kH,'DependencyLoader/4methodref$endEagerDependencyLoading$Type',202);Oi(342,$wnd.Function,{},fl);_.bb=function gl(a,b){Hk(this.a,this.b,Nc(a),Ic(b,42))};Oi(343,$wnd.Function,{},hl);_.bb=function il(a,b){Pk(this.a,Ic(a,46),Pc(b))};Oi(195,1,rH,jl);_.C=function kl(){Ik(this.a)};var Od=zD(kH,'DependencyLoader/lambda$2$Type',195);Oi(194,1,{},ll);_.C=function ml(){Jk(this.a)};var Pd=zD(kH,'DependencyLoader/lambda$3$Type',194);Oi(344,$wnd.Function,{},nl);_.bb=function ol(a,b){Ic(a,46).bb(Pc(b),(Ek(),Bk))};Oi(199,1,oH,pl);_.bb=function ql(a,b){Ek();kn(this.a,a,Ic(b,24),true,sH)};var Qd=zD(kH,'DependencyLoader/lambda$8$Type',199);Oi(200,1,oH,rl);_.bb=function sl(a,b){Ek();kn(this.a,a,Ic(b,24),true,'module')};var Rd=zD(kH,'DependencyLoader/lambda$9$Type',200);Oi(298,1,qH,Al);_.I=function Bl(){uB(new Cl(this.a,this.b))};var Td=zD(kH,'ExecuteJavaScriptElementUtils/lambda$0$Type',298);var ih=BD(wH,'FlushListener');Oi(297,1,xH,Cl);_.eb=function Dl(){xl(this.a,this.b)};var Ud=zD(kH,'ExecuteJavaScriptElementUtils/lambda$1$Type',297);Oi(58,1,{58:1},Gl);var Vd=zD(kH,'ExistingElementMap',58);Oi(50,1,{50:1},Pl);var Xd=zD(kH,'InitialPropertiesHandler',50);Oi(345,$wnd.Function,{},Rl);_.fb=function Sl(a){Ml(this.a,this.b,Kc(a))};Oi(209,1,xH,Tl);_.eb=function Ul(){Il(this.a,this.b)};var Wd=zD(kH,'InitialPropertiesHandler/lambda$1$Type',209);Oi(346,$wnd.Function,{},Vl);_.bb=function Wl(a,b){Ql(this.a,Ic(a,13),Pc(b))};var Zl;Oi(286,1,lH,vm);_.U=function wm(a){return um(a)};var Yd=zD(kH,'PolymerUtils/0methodref$createModelTree$Type',286);Oi(366,$wnd.Function,{},xm);_.fb=function ym(a){Ic(a,44).Eb()};Oi(365,$wnd.Function,{},zm);_.fb=function Am(a){Ic(a,14).I()};Oi(287,1,CH,Bm);_.gb=function Cm(a){nm(this.a,a)};var Zd=zD(kH,'PolymerUtils/lambda$1$Type',287);Oi(88,1,xH,Dm);_.eb=function Em(){cm(this.b,this.a)};var $d=zD(kH,'PolymerUtils/lambda$10$Type',88);Oi(288,1,{104:1},Fm);_.hb=function Gm(a){this.a.forEach(Qi(xm.prototype.fb,xm,[]))};var _d=zD(kH,'PolymerUtils/lambda$2$Type',288);Oi(290,1,DH,Hm);_.ib=function Im(a){om(this.a,this.b,a)};var ae=zD(kH,'PolymerUtils/lambda$4$Type',290);Oi(289,1,EH,Jm);_.jb=function Km(a){tB(new Dm(this.a,this.b))};var be=zD(kH,'PolymerUtils/lambda$5$Type',289);Oi(363,$wnd.Function,{},Lm);_.bb=function Mm(a,b){var c;pm(this.a,this.b,(c=Ic(a,13),Pc(b),c))};Oi(291,1,EH,Nm);_.jb=function Om(a){tB(new Dm(this.a,this.b))};var ce=zD(kH,'PolymerUtils/lambda$7$Type',291);Oi(292,1,xH,Pm);_.eb=function Qm(){bm(this.a,this.b)};var de=zD(kH,'PolymerUtils/lambda$8$Type',292);Oi(364,$wnd.Function,{},Rm);_.fb=function Sm(a){this.a.push(_l(a))};var Tm;Oi(112,1,{},Xm);_.kb=function Ym(){return (new Date).getTime()};var ee=zD(kH,'Profiler/DefaultRelativeTimeSupplier',112);Oi(111,1,{},Zm);_.kb=function $m(){return $wnd.performance.now()};var fe=zD(kH,'Profiler/HighResolutionTimeSupplier',111);Oi(338,$wnd.Function,{},_m);_.bb=function an(a,b){jk(this.a,Ic(a,30),Ic(b,67))};Oi(56,1,{56:1},nn);_.d=false;var se=zD(kH,'ResourceLoader',56);Oi(185,1,{},tn);_.B=function un(){var a;a=rn(this.d);if(rn(this.d)>0){en(this.b,this.c);return false}else if(a==0){dn(this.b,this.c);return true}else if(Q(this.a)>60000){dn(this.b,this.c);return false}else{return true}};var he=zD(kH,'ResourceLoader/1',185);Oi(186,40,{},vn);_.I=function wn(){this.a.b.has(this.c)||dn(this.a,this.b)};var ie=zD(kH,'ResourceLoader/2',186);Oi(190,40,{},xn);_.I=function yn(){this.a.b.has(this.c)?en(this.a,this.b):dn(this.a,this.b)};var je=zD(kH,'ResourceLoader/3',190);Oi(191,1,pH,zn);_.cb=function An(a){dn(this.a,a)};_.db=function Bn(a){en(this.a,a)};var ke=zD(kH,'ResourceLoader/4',191);Oi(61,1,{},Cn);var le=zD(kH,'ResourceLoader/ResourceLoadEvent',61);Oi(98,1,pH,Dn);_.cb=function En(a){dn(this.a,a)};_.db=function Fn(a){en(this.a,a)};var ne=zD(kH,'ResourceLoader/SimpleLoadListener',98);Oi(184,1,pH,Gn);_.cb=function Hn(a){dn(this.a,a)};_.db=function In(a){var b;if((!Rj&&(Rj=new Tj),Rj).a.b||(!Rj&&(Rj=new Tj),Rj).a.f||(!Rj&&(Rj=new Tj),Rj).a.c){b=rn(this.b);if(b==0){dn(this.a,a);return}}en(this.a,a)};var oe=zD(kH,'ResourceLoader/StyleSheetLoadListener',184);Oi(187,1,mH,Jn);_.ab=function Kn(){return this.a.call(null)};var pe=zD(kH,'ResourceLoader/lambda$0$Type',187);Oi(188,1,qH,Ln);_.I=function Mn(){this.b.db(this.a)};var qe=zD(kH,'ResourceLoader/lambda$1$Type',188);Oi(189,1,qH,Nn);_.I=function On(){this.b.cb(this.a)};var re=zD(kH,'ResourceLoader/lambda$2$Type',189);Oi(22,1,{22:1},Vn);var ye=zD(kH,'SystemErrorHandler',22);Oi(160,1,{},Xn);_.lb=function Yn(a,b){var c;c=b;Pn(c.v())};_.mb=function Zn(a){var b;ck('Received xhr HTTP session resynchronization message: '+a.responseText);kk(this.a.a);mo(Ic(ik(this.a.a,De),12),(Co(),Ao));b=Ar(Br(a.responseText));nr(Ic(ik(this.a.a,lf),21),b);uj(Ic(ik(this.a.a,td),8),b['uiId']);ho((Qb(),Pb),new ao(this))};var ve=zD(kH,'SystemErrorHandler/1',160);Oi(161,1,{},$n);_.fb=function _n(a){Un(Pc(a))};var te=zD(kH,'SystemErrorHandler/1/0methodref$recreateNodes$Type',161);Oi(162,1,{},ao);_.C=function bo(){hG(kF(Ic(ik(this.a.a.a,td),8).c),new $n)};var ue=zD(kH,'SystemErrorHandler/1/lambda$0$Type',162);Oi(158,1,{},co);_.T=function eo(a){Mo(this.a)};var we=zD(kH,'SystemErrorHandler/lambda$0$Type',158);Oi(159,1,{},fo);_.T=function go(a){Wn(this.a,a)};var xe=zD(kH,'SystemErrorHandler/lambda$1$Type',159);Oi(133,129,{},io);_.a=0;var Ae=zD(kH,'TrackingScheduler',133);Oi(134,1,{},jo);_.C=function ko(){this.a.a--};var ze=zD(kH,'TrackingScheduler/lambda$0$Type',134);Oi(12,1,{12:1},no);var De=zD(kH,'UILifecycle',12);Oi(166,322,{},po);_.K=function qo(a){Ic(a,89).nb(this)};_.L=function ro(){return oo};var oo=null;var Be=zD(kH,'UILifecycle/StateChangeEvent',166);Oi(20,1,{4:1,29:1,20:1});_.m=function vo(a){return this===a};_.o=function wo(){return LG(this)};_.p=function xo(){return this.b!=null?this.b:''+this.c};_.c=0;var Nh=zD(XG,'Enum',20);Oi(59,20,{59:1,4:1,29:1,20:1},Do);var zo,Ao,Bo;var Ce=AD(kH,'UILifecycle/UIState',59,Eo);Oi(321,1,ZG);var uh=zD(HH,'VaadinUriResolver',321);Oi(49,321,{49:1,4:1},Jo);_.ob=function Ko(a){return Io(this,a)};var Ee=zD(kH,'URIResolver',49);var Po=false,Qo;Oi(113,1,{},$o);_.C=function _o(){Wo(this.a)};var Fe=zD('com.vaadin.client.bootstrap','Bootstrapper/lambda$0$Type',113);Oi(99,1,{},qp);_.pb=function sp(){return Ic(ik(this.d,lf),21).f};_.qb=function up(a){this.f=(Op(),Mp);Tn(Ic(ik(Ic(ik(this.d,Oe),17).c,ye),22),'','Client unexpectedly disconnected. Ensure client timeout is disabled.','',null,null)};_.rb=function vp(a){this.f=(Op(),Lp);Ic(ik(this.d,Oe),17);Xj&&($wnd.console.log('Push connection closed'),undefined)};_.sb=function wp(a){this.f=(Op(),Mp);aq(Ic(ik(this.d,Oe),17),'Push connection using '+a[MH]+' failed!')};_.tb=function xp(a){var b,c;c=a['responseBody'];b=Ar(Br(c));if(!b){iq(Ic(ik(this.d,Oe),17),this,c);return}else{ck('Received push ('+this.g+') message: '+c);nr(Ic(ik(this.d,lf),21),b)}};_.ub=function yp(a){ck('Push connection established using '+a[MH]);np(this,a)};_.vb=function zp(a,b){this.f==(Op(),Kp)&&(this.f=Lp);lq(Ic(ik(this.d,Oe),17),this)};_.wb=function Ap(a){ck('Push connection re-established using '+a[MH]);np(this,a)};_.xb=function Bp(){dk('Push connection using primary method ('+this.a[MH]+') failed. Trying with '+this.a['fallbackTransport'])};var Ne=zD(PH,'AtmospherePushConnection',99);Oi(242,1,{},Cp);_.C=function Dp(){ep(this.a)};var Ge=zD(PH,'AtmospherePushConnection/0methodref$connect$Type',242);Oi(244,1,pH,Ep);_.cb=function Fp(a){mq(Ic(ik(this.a.d,Oe),17),a.a)};_.db=function Gp(a){if(tp()){ck(this.c+' loaded');mp(this.b.a)}else{mq(Ic(ik(this.a.d,Oe),17),a.a)}};var He=zD(PH,'AtmospherePushConnection/1',244);Oi(239,1,{},Jp);_.a=0;var Ie=zD(PH,'AtmospherePushConnection/FragmentedMessage',239);Oi(51,20,{51:1,4:1,29:1,20:1},Pp);var Kp,Lp,Mp,Np;var Je=AD(PH,'AtmospherePushConnection/State',51,Qp);Oi(241,1,QH,Rp);_.nb=function Sp(a){kp(this.a,a)};var Ke=zD(PH,'AtmospherePushConnection/lambda$0$Type',241);Oi(240,1,rH,Tp);_.C=function Up(){};var Le=zD(PH,'AtmospherePushConnection/lambda$1$Type',240);Oi(353,$wnd.Function,{},Vp);_.bb=function Wp(a,b){lp(this.a,Pc(a),Pc(b))};Oi(243,1,rH,Xp);_.C=function Yp(){mp(this.a)};var Me=zD(PH,'AtmospherePushConnection/lambda$3$Type',243);var Oe=BD(PH,'ConnectionStateHandler');Oi(213,1,{17:1},uq);_.a=0;_.b=null;var Ue=zD(PH,'DefaultConnectionStateHandler',213);Oi(215,40,{},vq);_.I=function wq(){this.a.d=null;$p(this.a,this.b)};var Pe=zD(PH,'DefaultConnectionStateHandler/1',215);Oi(62,20,{62:1,4:1,29:1,20:1},Cq);_.a=0;var xq,yq,zq;var Qe=AD(PH,'DefaultConnectionStateHandler/Type',62,Dq);Oi(214,1,QH,Eq);_.nb=function Fq(a){gq(this.a,a)};var Re=zD(PH,'DefaultConnectionStateHandler/lambda$0$Type',214);Oi(216,1,{},Gq);_.T=function Hq(a){_p(this.a)};var Se=zD(PH,'DefaultConnectionStateHandler/lambda$1$Type',216);Oi(217,1,{},Iq);_.T=function Jq(a){hq(this.a)};var Te=zD(PH,'DefaultConnectionStateHandler/lambda$2$Type',217);Oi(55,1,{55:1},Oq);_.a=-1;var Ye=zD(PH,'Heartbeat',55);Oi(210,40,{},Pq);_.I=function Qq(){Mq(this.a)};var Ve=zD(PH,'Heartbeat/1',210);Oi(212,1,{},Rq);_.lb=function Sq(a,b){!b?eq(Ic(ik(this.a.b,Oe),17),a):dq(Ic(ik(this.a.b,Oe),17),b);Lq(this.a)};_.mb=function Tq(a){fq(Ic(ik(this.a.b,Oe),17));Lq(this.a)};var We=zD(PH,'Heartbeat/2',212);Oi(211,1,QH,Uq);_.nb=function Vq(a){Kq(this.a,a)};var Xe=zD(PH,'Heartbeat/lambda$0$Type',211);Oi(168,1,{},Zq);_.fb=function $q(a){Vj('firstDelay',$D(Ic(a,25).a))};var Ze=zD(PH,'LoadingIndicatorConfigurator/0methodref$setFirstDelay$Type',168);Oi(169,1,{},_q);_.fb=function ar(a){Vj('secondDelay',$D(Ic(a,25).a))};var $e=zD(PH,'LoadingIndicatorConfigurator/1methodref$setSecondDelay$Type',169);Oi(170,1,{},br);_.fb=function cr(a){Vj('thirdDelay',$D(Ic(a,25).a))};var _e=zD(PH,'LoadingIndicatorConfigurator/2methodref$setThirdDelay$Type',170);Oi(171,1,EH,dr);_.jb=function er(a){Yq(Oz(Ic(a.e,13)))};var af=zD(PH,'LoadingIndicatorConfigurator/lambda$3$Type',171);Oi(172,1,EH,fr);_.jb=function gr(a){Xq(this.b,this.a,a)};_.a=0;var bf=zD(PH,'LoadingIndicatorConfigurator/lambda$4$Type',172);Oi(21,1,{21:1},xr);_.a=0;_.b='init';_.d=false;_.e=0;_.f=-1;_.h=null;_.l=0;var lf=zD(PH,'MessageHandler',21);Oi(177,1,rH,Cr);_.C=function Dr(){!wz&&$wnd.Polymer!=null&&lE($wnd.Polymer.version.substr(0,'1.'.length),'1.')&&(wz=true,Xj&&($wnd.console.log('Polymer micro is now loaded, using Polymer DOM API'),undefined),vz=new yz,undefined)};var cf=zD(PH,'MessageHandler/0methodref$updateApiImplementation$Type',177);Oi(176,40,{},Er);_.I=function Fr(){jr(this.a)};var df=zD(PH,'MessageHandler/1',176);Oi(341,$wnd.Function,{},Gr);_.fb=function Hr(a){hr(Ic(a,6))};Oi(60,1,{60:1},Ir);var ef=zD(PH,'MessageHandler/PendingUIDLMessage',60);Oi(178,1,rH,Jr);_.C=function Kr(){ur(this.a,this.d,this.b,this.c)};_.c=0;var ff=zD(PH,'MessageHandler/lambda$1$Type',178);Oi(180,1,xH,Lr);_.eb=function Mr(){uB(new Nr(this.a,this.b))};var gf=zD(PH,'MessageHandler/lambda$3$Type',180);Oi(179,1,xH,Nr);_.eb=function Or(){rr(this.a,this.b)};var hf=zD(PH,'MessageHandler/lambda$4$Type',179);Oi(182,1,xH,Pr);_.eb=function Qr(){sr(this.a)};var jf=zD(PH,'MessageHandler/lambda$5$Type',182);Oi(181,1,{},Rr);_.C=function Sr(){this.a.forEach(Qi(Gr.prototype.fb,Gr,[]))};var kf=zD(PH,'MessageHandler/lambda$6$Type',181);Oi(19,1,{19:1},bs);_.a=0;_.d=0;var nf=zD(PH,'MessageSender',19);Oi(174,1,rH,ds);_.C=function es(){Ur(this.a)};var mf=zD(PH,'MessageSender/lambda$0$Type',174);Oi(163,1,EH,hs);_.jb=function is(a){fs(this.a,a)};var of=zD(PH,'PollConfigurator/lambda$0$Type',163);Oi(73,1,{73:1},ms);_.yb=function ns(){var a;a=Ic(ik(this.b,Xf),10);Lu(a,a.e,'ui-poll',null)};_.a=null;var rf=zD(PH,'Poller',73);Oi(165,40,{},os);_.I=function ps(){var a;a=Ic(ik(this.a.b,Xf),10);Lu(a,a.e,'ui-poll',null)};var pf=zD(PH,'Poller/1',165);Oi(164,1,QH,qs);_.nb=function rs(a){js(this.a,a)};var qf=zD(PH,'Poller/lambda$0$Type',164);Oi(48,1,{48:1},vs);var vf=zD(PH,'PushConfiguration',48);Oi(223,1,EH,ys);_.jb=function zs(a){us(this.a,a)};var sf=zD(PH,'PushConfiguration/0methodref$onPushModeChange$Type',223);Oi(224,1,xH,As);_.eb=function Bs(){as(Ic(ik(this.a.a,nf),19),true)};var tf=zD(PH,'PushConfiguration/lambda$1$Type',224);Oi(225,1,xH,Cs);_.eb=function Ds(){as(Ic(ik(this.a.a,nf),19),false)};var uf=zD(PH,'PushConfiguration/lambda$2$Type',225);Oi(347,$wnd.Function,{},Es);_.bb=function Fs(a,b){xs(this.a,Ic(a,13),Pc(b))};Oi(35,1,{35:1},Gs);var xf=zD(PH,'ReconnectConfiguration',35);Oi(167,1,rH,Hs);_.C=function Is(){Zp(this.a)};var wf=zD(PH,'ReconnectConfiguration/lambda$0$Type',167);Oi(16,1,{16:1},Os);_.b=false;var zf=zD(PH,'RequestResponseTracker',16);Oi(175,1,{},Ps);_.C=function Qs(){Ms(this.a)};var yf=zD(PH,'RequestResponseTracker/lambda$0$Type',175);Oi(238,322,{},Rs);_.K=function Ss(a){bd(a);null.lc()};_.L=function Ts(){return null};var Af=zD(PH,'RequestStartingEvent',238);Oi(222,322,{},Vs);_.K=function Ws(a){Ic(a,326).a.b=false};_.L=function Xs(){return Us};var Us;var Bf=zD(PH,'ResponseHandlingEndedEvent',222);Oi(279,322,{},Ys);_.K=function Zs(a){bd(a);null.lc()};_.L=function $s(){return null};var Cf=zD(PH,'ResponseHandlingStartedEvent',279);Oi(32,1,{32:1},gt);_.zb=function ht(a,b,c){_s(this,a,b,c)};_.Ab=function it(a,b,c){var d;d={};d[nH]='channel';d[cI]=Object(a);d['channel']=Object(b);d['args']=c;dt(this,d)};var Df=zD(PH,'ServerConnector',32);Oi(34,1,{34:1},ot);_.b=false;var jt;var Hf=zD(PH,'ServerRpcQueue',34);Oi(204,1,qH,pt);_.I=function qt(){mt(this.a)};var Ef=zD(PH,'ServerRpcQueue/0methodref$doFlush$Type',204);Oi(203,1,qH,rt);_.I=function st(){kt()};var Ff=zD(PH,'ServerRpcQueue/lambda$0$Type',203);Oi(205,1,{},tt);_.C=function ut(){this.a.a.I()};var Gf=zD(PH,'ServerRpcQueue/lambda$2$Type',205);Oi(71,1,{71:1},xt);_.b=false;var Nf=zD(PH,'XhrConnection',71);Oi(221,40,{},zt);_.I=function At(){yt(this.b)&&this.a.b&&Xi(this,250)};var If=zD(PH,'XhrConnection/1',221);Oi(218,1,{},Ct);_.lb=function Dt(a,b){var c;c=new It(a,this.a);if(!b){sq(Ic(ik(this.c.a,Oe),17),c);return}else{qq(Ic(ik(this.c.a,Oe),17),c)}};_.mb=function Et(a){var b,c;ck('Server visit took '+Vm(this.b)+'ms');c=a.responseText;b=Ar(Br(c));if(!b){rq(Ic(ik(this.c.a,Oe),17),new It(a,this.a));return}tq(Ic(ik(this.c.a,Oe),17));Xj&&OC($wnd.console,'Received xhr message: '+c);nr(Ic(ik(this.c.a,lf),21),b)};_.b=0;var Jf=zD(PH,'XhrConnection/XhrResponseHandler',218);Oi(219,1,{},Ft);_.T=function Gt(a){this.a.b=true};var Kf=zD(PH,'XhrConnection/lambda$0$Type',219);Oi(220,1,{326:1},Ht);var Lf=zD(PH,'XhrConnection/lambda$1$Type',220);Oi(102,1,{},It);var Mf=zD(PH,'XhrConnectionError',102);Oi(57,1,{57:1},Mt);var Of=zD(fI,'ConstantPool',57);Oi(84,1,{84:1},Ut);_.Bb=function Vt(){return Ic(ik(this.a,td),8).a};var Sf=zD(fI,'ExecuteJavaScriptProcessor',84);Oi(207,1,lH,Wt);_.U=function Xt(a){var b;return uB(new Yt(this.a,(b=this.b,b))),pD(),true};var Pf=zD(fI,'ExecuteJavaScriptProcessor/lambda$0$Type',207);Oi(206,1,xH,Yt);_.eb=function Zt(){Pt(this.a,this.b)};var Qf=zD(fI,'ExecuteJavaScriptProcessor/lambda$1$Type',206);Oi(208,1,qH,$t);_.I=function _t(){Tt(this.a)};var Rf=zD(fI,'ExecuteJavaScriptProcessor/lambda$2$Type',208);Oi(296,1,{},au);var Tf=zD(fI,'NodeUnregisterEvent',296);Oi(6,1,{6:1},nu);_.Cb=function ou(){return eu(this)};_.Db=function pu(){return this.g};_.d=0;_.i=false;var Wf=zD(fI,'StateNode',6);Oi(334,$wnd.Function,{},ru);_.bb=function su(a,b){hu(this.a,this.b,Ic(a,33),Kc(b))};Oi(335,$wnd.Function,{},tu);_.fb=function uu(a){qu(this.a,Ic(a,104))};var xh=BD('elemental.events','EventRemover');Oi(151,1,jI,vu);_.Eb=function wu(){iu(this.a,this.b)};var Uf=zD(fI,'StateNode/lambda$2$Type',151);Oi(336,$wnd.Function,{},xu);_.fb=function yu(a){ju(this.a,Ic(a,66))};Oi(152,1,jI,zu);_.Eb=function Au(){ku(this.a,this.b)};var Vf=zD(fI,'StateNode/lambda$4$Type',152);Oi(10,1,{10:1},Ru);_.Fb=function Su(){return this.e};_.Gb=function Uu(a,b,c,d){var e;if(Gu(this,a)){e=Nc(c);ft(Ic(ik(this.c,Df),32),a,b,e,d)}};_.d=false;_.f=false;var Xf=zD(fI,'StateTree',10);Oi(339,$wnd.Function,{},Vu);_.fb=function Wu(a){du(Ic(a,6),Qi(Zu.prototype.bb,Zu,[]))};Oi(340,$wnd.Function,{},Xu);_.bb=function Yu(a,b){var c;Iu(this.a,(c=Ic(a,6),Kc(b),c))};Oi(325,$wnd.Function,{},Zu);_.bb=function $u(a,b){Tu(Ic(a,33),Kc(b))};var gv,hv;Oi(173,1,{},mv);var Yf=zD(qI,'Binder/BinderContextImpl',173);var Zf=BD(qI,'BindingStrategy');Oi(79,1,{79:1},rv);_.j=0;var nv;var ag=zD(qI,'Debouncer',79);Oi(369,$wnd.Function,{},vv);_.fb=function wv(a){Ic(a,14).I()};Oi(324,1,{});_.c=false;_.d=0;var Bh=zD(tI,'Timer',324);Oi(299,324,{},Bv);var $f=zD(qI,'Debouncer/1',299);Oi(300,324,{},Dv);var _f=zD(qI,'Debouncer/2',300);Oi(370,$wnd.Function,{},Fv);_.bb=function Gv(a,b){var c;Ev(this,(c=Oc(a,$wnd.Map),Nc(b),c))};Oi(371,$wnd.Function,{},Jv);_.fb=function Kv(a){Hv(this.a,Oc(a,$wnd.Map))};Oi(372,$wnd.Function,{},Lv);_.fb=function Mv(a){Iv(this.a,Ic(a,79))};Oi(368,$wnd.Function,{},Nv);_.bb=function Ov(a,b){tv(this.a,Ic(a,14),Pc(b))};Oi(293,1,mH,Sv);_.ab=function Tv(){return dw(this.a)};var bg=zD(qI,'ServerEventHandlerBinder/lambda$0$Type',293);Oi(294,1,CH,Uv);_.gb=function Vv(a){Rv(this.b,this.a,this.c,a)};_.c=false;var cg=zD(qI,'ServerEventHandlerBinder/lambda$1$Type',294);var Wv;Oi(245,1,{303:1},cx);_.Hb=function dx(a,b,c){lw(this,a,b,c)};_.Ib=function gx(a){return vw(a)};_.Kb=function lx(a,b){var c,d,e;d=Object.keys(a);e=new Uy(d,a,b);c=Ic(b.e.get(eg),76);!c?Tw(e.b,e.a,e.c):(c.a=e)};_.Lb=function mx(r,s){var t=this;var u=s._propertiesChanged;u&&(s._propertiesChanged=function(a,b,c){TG(function(){t.Kb(b,r)})();u.apply(this,arguments)});var v=r.Db();var w=s.ready;s.ready=function(){w.apply(this,arguments);dm(s);var q=function(){var o=s.root.querySelector(BI);if(o){s.removeEventListener(CI,q)}else{return}if(!o.constructor.prototype.$propChangedModified){o.constructor.prototype.$propChangedModified=true;var p=o.constructor.prototype._propertiesChanged;o.constructor.prototype._propertiesChanged=function(a,b,c){p.apply(this,arguments);var d=Object.getOwnPropertyNames(b);var e='items.';var f;for(f=0;f<d.length;f++){var g=d[f].indexOf(e);if(g==0){var h=d[f].substr(e.length);g=h.indexOf('.');if(g>0){var i=h.substr(0,g);var j=h.substr(g+1);var k=a.items[i];if(k&&k.nodeId){var l=k.nodeId;var m=k[j];var n=this.__dataHost;while(!n.localName||n.__dataHost){n=n.__dataHost}TG(function(){kx(l,n,j,m,v)})()}}}}}}};s.root&&s.root.querySelector(BI)?q():s.addEventListener(CI,q)}};_.Jb=function nx(a){if(a.c.has(0)){return true}return !!a.g&&K(a,a.g.e)};var fw,gw;var Jg=zD(qI,'SimpleElementBindingStrategy',245);Oi(358,$wnd.Function,{},Bx);_.fb=function Cx(a){Ic(a,44).Eb()};Oi(361,$wnd.Function,{},Dx);_.fb=function Ex(a){Ic(a,14).I()};Oi(100,1,{},Fx);var dg=zD(qI,'SimpleElementBindingStrategy/BindingContext',100);Oi(76,1,{76:1},Gx);var eg=zD(qI,'SimpleElementBindingStrategy/InitialPropertyUpdate',76);Oi(246,1,{},Hx);_.Mb=function Ix(a){Hw(this.a,a)};var fg=zD(qI,'SimpleElementBindingStrategy/lambda$0$Type',246);Oi(247,1,{},Jx);_.Mb=function Kx(a){Iw(this.a,a)};var gg=zD(qI,'SimpleElementBindingStrategy/lambda$1$Type',247);Oi(354,$wnd.Function,{},Lx);_.bb=function Mx(a,b){var c;ox(this.b,this.a,(c=Ic(a,13),Pc(b),c))};Oi(256,1,DH,Nx);_.ib=function Ox(a){px(this.b,this.a,a)};var hg=zD(qI,'SimpleElementBindingStrategy/lambda$11$Type',256);Oi(257,1,EH,Px);_.jb=function Qx(a){_w(this.c,this.b,this.a)};var ig=zD(qI,'SimpleElementBindingStrategy/lambda$12$Type',257);Oi(258,1,xH,Rx);_.eb=function Sx(){Jw(this.b,this.c,this.a)};var jg=zD(qI,'SimpleElementBindingStrategy/lambda$13$Type',258);Oi(259,1,rH,Tx);_.C=function Ux(){this.b.Mb(this.a)};var kg=zD(qI,'SimpleElementBindingStrategy/lambda$14$Type',259);Oi(260,1,rH,Vx);_.C=function Wx(){this.a[this.b]=_l(this.c)};var lg=zD(qI,'SimpleElementBindingStrategy/lambda$15$Type',260);Oi(262,1,CH,Xx);_.gb=function Yx(a){Kw(this.a,a)};var mg=zD(qI,'SimpleElementBindingStrategy/lambda$16$Type',262);Oi(261,1,xH,Zx);_.eb=function $x(){Cw(this.b,this.a)};var ng=zD(qI,'SimpleElementBindingStrategy/lambda$17$Type',261);Oi(264,1,CH,_x);_.gb=function ay(a){Lw(this.a,a)};var og=zD(qI,'SimpleElementBindingStrategy/lambda$18$Type',264);Oi(263,1,xH,by);_.eb=function cy(){Mw(this.b,this.a)};var pg=zD(qI,'SimpleElementBindingStrategy/lambda$19$Type',263);Oi(248,1,{},dy);_.Mb=function ey(a){Nw(this.a,a)};var qg=zD(qI,'SimpleElementBindingStrategy/lambda$2$Type',248);Oi(265,1,qH,fy);_.I=function gy(){Ew(this.a,this.b,this.c,false)};var rg=zD(qI,'SimpleElementBindingStrategy/lambda$20$Type',265);Oi(266,1,qH,hy);_.I=function iy(){Ew(this.a,this.b,this.c,false)};var sg=zD(qI,'SimpleElementBindingStrategy/lambda$21$Type',266);Oi(267,1,qH,jy);_.I=function ky(){Gw(this.a,this.b,this.c,false)};var tg=zD(qI,'SimpleElementBindingStrategy/lambda$22$Type',267);Oi(268,1,mH,ly);_.ab=function my(){return qx(this.a,this.b)};var ug=zD(qI,'SimpleElementBindingStrategy/lambda$23$Type',268);Oi(269,1,mH,ny);_.ab=function oy(){return rx(this.a,this.b)};var vg=zD(qI,'SimpleElementBindingStrategy/lambda$24$Type',269);Oi(355,$wnd.Function,{},py);_.bb=function qy(a,b){var c;iB((c=Ic(a,74),Pc(b),c))};Oi(356,$wnd.Function,{},ry);_.fb=function sy(a){sx(this.a,Oc(a,$wnd.Map))};Oi(357,$wnd.Function,{},ty);_.bb=function uy(a,b){var c;(c=Ic(a,44),Pc(b),c).Eb()};Oi(249,1,{104:1},vy);_.hb=function wy(a){Uw(this.c,this.b,this.a)};var wg=zD(qI,'SimpleElementBindingStrategy/lambda$3$Type',249);Oi(359,$wnd.Function,{},xy);_.bb=function yy(a,b){var c;Ow(this.a,(c=Ic(a,13),Pc(b),c))};Oi(270,1,DH,zy);_.ib=function Ay(a){Pw(this.a,a)};var xg=zD(qI,'SimpleElementBindingStrategy/lambda$31$Type',270);Oi(271,1,rH,By);_.C=function Cy(){Qw(this.b,this.a,this.c)};var yg=zD(qI,'SimpleElementBindingStrategy/lambda$32$Type',271);Oi(272,1,{},Dy);_.T=function Ey(a){Rw(this.a,a)};var zg=zD(qI,'SimpleElementBindingStrategy/lambda$33$Type',272);Oi(360,$wnd.Function,{},Fy);_.fb=function Gy(a){Sw(this.a,this.b,Pc(a))};Oi(273,1,{},Hy);_.fb=function Iy(a){zx(this.b,this.c,this.a,Pc(a))};var Ag=zD(qI,'SimpleElementBindingStrategy/lambda$35$Type',273);Oi(274,1,CH,Jy);_.gb=function Ky(a){tx(this.a,a)};var Bg=zD(qI,'SimpleElementBindingStrategy/lambda$37$Type',274);Oi(275,1,mH,Ly);_.ab=function My(){return this.a.b};var Cg=zD(qI,'SimpleElementBindingStrategy/lambda$38$Type',275);Oi(362,$wnd.Function,{},Ny);_.fb=function Oy(a){this.a.push(Ic(a,6))};Oi(251,1,xH,Py);_.eb=function Qy(){ux(this.a)};var Dg=zD(qI,'SimpleElementBindingStrategy/lambda$4$Type',251);Oi(250,1,{},Ry);_.C=function Sy(){vx(this.a)};var Eg=zD(qI,'SimpleElementBindingStrategy/lambda$5$Type',250);Oi(253,1,qH,Uy);_.I=function Vy(){Ty(this)};var Fg=zD(qI,'SimpleElementBindingStrategy/lambda$6$Type',253);Oi(252,1,mH,Wy);_.ab=function Xy(){return this.a[this.b]};var Gg=zD(qI,'SimpleElementBindingStrategy/lambda$7$Type',252);Oi(255,1,DH,Yy);_.ib=function Zy(a){tB(new $y(this.a))};var Hg=zD(qI,'SimpleElementBindingStrategy/lambda$8$Type',255);Oi(254,1,xH,$y);_.eb=function _y(){kw(this.a)};var Ig=zD(qI,'SimpleElementBindingStrategy/lambda$9$Type',254);Oi(276,1,{303:1},ez);_.Hb=function fz(a,b,c){cz(a,b)};_.Ib=function gz(a){return $doc.createTextNode('')};_.Jb=function hz(a){return a.c.has(7)};var az;var Mg=zD(qI,'TextBindingStrategy',276);Oi(277,1,rH,iz);_.C=function jz(){bz();IC(this.a,Pc(Lz(this.b)))};var Kg=zD(qI,'TextBindingStrategy/lambda$0$Type',277);Oi(278,1,{104:1},kz);_.hb=function lz(a){dz(this.b,this.a)};var Lg=zD(qI,'TextBindingStrategy/lambda$1$Type',278);Oi(333,$wnd.Function,{},pz);_.fb=function qz(a){this.a.add(a)};Oi(337,$wnd.Function,{},sz);_.bb=function tz(a,b){this.a.push(a)};var vz,wz=false;Oi(285,1,{},yz);var Ng=zD('com.vaadin.client.flow.dom','PolymerDomApiImpl',285);Oi(77,1,{77:1},zz);var Og=zD('com.vaadin.client.flow.model','UpdatableModelProperties',77);Oi(367,$wnd.Function,{},Az);_.fb=function Bz(a){this.a.add(Pc(a))};Oi(86,1,{});_.Nb=function Dz(){return this.e};var nh=zD(wH,'ReactiveValueChangeEvent',86);Oi(52,86,{52:1},Ez);_.Nb=function Fz(){return Ic(this.e,27)};_.b=false;_.c=0;var Pg=zD(DI,'ListSpliceEvent',52);Oi(13,1,{13:1,304:1},Uz);_.Ob=function Vz(a){return Xz(this.a,a)};_.b=false;_.c=false;_.d=false;var Gz;var Yg=zD(DI,'MapProperty',13);Oi(85,1,{});var mh=zD(wH,'ReactiveEventRouter',85);Oi(231,85,{},bA);_.Pb=function cA(a,b){Ic(a,45).jb(Ic(b,78))};_.Qb=function dA(a){return new eA(a)};var Rg=zD(DI,'MapProperty/1',231);Oi(232,1,EH,eA);_.jb=function fA(a){gB(this.a)};var Qg=zD(DI,'MapProperty/1/0methodref$onValueChange$Type',232);Oi(230,1,qH,gA);_.I=function hA(){Hz()};var Sg=zD(DI,'MapProperty/lambda$0$Type',230);Oi(233,1,xH,iA);_.eb=function jA(){this.a.d=false};var Tg=zD(DI,'MapProperty/lambda$1$Type',233);Oi(234,1,xH,kA);_.eb=function lA(){this.a.d=false};var Ug=zD(DI,'MapProperty/lambda$2$Type',234);Oi(235,1,qH,mA);_.I=function nA(){Qz(this.a,this.b)};var Vg=zD(DI,'MapProperty/lambda$3$Type',235);Oi(87,86,{87:1},oA);_.Nb=function pA(){return Ic(this.e,41)};var Wg=zD(DI,'MapPropertyAddEvent',87);Oi(78,86,{78:1},qA);_.Nb=function rA(){return Ic(this.e,13)};var Xg=zD(DI,'MapPropertyChangeEvent',78);Oi(33,1,{33:1});_.d=0;var Zg=zD(DI,'NodeFeature',33);Oi(27,33,{33:1,27:1,304:1},zA);_.Ob=function AA(a){return Xz(this.a,a)};_.Rb=function BA(a){var b,c,d;c=[];for(b=0;b<this.c.length;b++){d=this.c[b];c[c.length]=_l(d)}return c};_.Sb=function CA(){var a,b,c,d;b=[];for(a=0;a<this.c.length;a++){d=this.c[a];c=sA(d);b[b.length]=c}return b};_.b=false;var ah=zD(DI,'NodeList',27);Oi(282,85,{},DA);_.Pb=function EA(a,b){Ic(a,64).gb(Ic(b,52))};_.Qb=function FA(a){return new GA(a)};var _g=zD(DI,'NodeList/1',282);Oi(283,1,CH,GA);_.gb=function HA(a){gB(this.a)};var $g=zD(DI,'NodeList/1/0methodref$onValueChange$Type',283);Oi(41,33,{33:1,41:1,304:1},OA);_.Ob=function PA(a){return Xz(this.a,a)};_.Rb=function QA(a){var b;b={};this.b.forEach(Qi(aB.prototype.bb,aB,[a,b]));return b};_.Sb=function RA(){var a,b;a={};this.b.forEach(Qi($A.prototype.bb,$A,[a]));if((b=_C(a),b).length==0){return null}return a};var eh=zD(DI,'NodeMap',41);Oi(226,85,{},TA);_.Pb=function UA(a,b){Ic(a,81).ib(Ic(b,87))};_.Qb=function VA(a){return new WA(a)};var dh=zD(DI,'NodeMap/1',226);Oi(227,1,DH,WA);_.ib=function XA(a){gB(this.a)};var bh=zD(DI,'NodeMap/1/0methodref$onValueChange$Type',227);Oi(348,$wnd.Function,{},YA);_.bb=function ZA(a,b){this.a.push((Ic(a,13),Pc(b)))};Oi(349,$wnd.Function,{},$A);_.bb=function _A(a,b){NA(this.a,Ic(a,13),Pc(b))};Oi(350,$wnd.Function,{},aB);_.bb=function bB(a,b){SA(this.a,this.b,Ic(a,13),Pc(b))};Oi(74,1,{74:1});_.d=false;_.e=false;var hh=zD(wH,'Computation',74);Oi(236,1,xH,jB);_.eb=function kB(){hB(this.a)};var fh=zD(wH,'Computation/0methodref$recompute$Type',236);Oi(237,1,rH,lB);_.C=function mB(){this.a.a.C()};var gh=zD(wH,'Computation/1methodref$doRecompute$Type',237);Oi(352,$wnd.Function,{},nB);_.fb=function oB(a){yB(Ic(a,327).a)};var pB=null,qB,rB=false,sB;Oi(75,74,{74:1},xB);var jh=zD(wH,'Reactive/1',75);Oi(228,1,jI,zB);_.Eb=function AB(){yB(this)};var kh=zD(wH,'ReactiveEventRouter/lambda$0$Type',228);Oi(229,1,{327:1},BB);var lh=zD(wH,'ReactiveEventRouter/lambda$1$Type',229);Oi(351,$wnd.Function,{},CB);_.fb=function DB(a){$z(this.a,this.b,a)};Oi(101,323,{},OB);_.b=0;var rh=zD(FI,'SimpleEventBus',101);var oh=BD(FI,'SimpleEventBus/Command');Oi(280,1,{},PB);var ph=zD(FI,'SimpleEventBus/lambda$0$Type',280);Oi(281,1,{328:1},QB);var qh=zD(FI,'SimpleEventBus/lambda$1$Type',281);Oi(96,1,{},VB);_.J=function WB(a){if(a.readyState==4){if(a.status==200){this.a.mb(a);ej(a);return}this.a.lb(a,null);ej(a)}};var sh=zD('com.vaadin.client.gwt.elemental.js.util','Xhr/Handler',96);Oi(295,1,ZG,dC);_.a=-1;_.b=false;_.c=false;_.d=false;_.e=false;_.f=false;_.g=false;_.h=false;_.i=false;_.j=false;_.k=false;_.l=false;var th=zD(HH,'BrowserDetails',295);Oi(43,20,{43:1,4:1,29:1,20:1},lC);var gC,hC,iC,jC;var vh=AD(NI,'Dependency/Type',43,mC);var nC;Oi(42,20,{42:1,4:1,29:1,20:1},tC);var pC,qC,rC;var wh=AD(NI,'LoadMode',42,uC);Oi(114,1,jI,KC);_.Eb=function LC(){zC(this.b,this.c,this.a,this.d)};_.d=false;var yh=zD('elemental.js.dom','JsElementalMixinBase/Remover',114);Oi(301,1,{},aD);_.Tb=function bD(){Av(this.a)};var zh=zD(tI,'Timer/1',301);Oi(302,1,{},cD);_.Tb=function dD(){Cv(this.a)};var Ah=zD(tI,'Timer/2',302);Oi(317,1,{});var Dh=zD(OI,'OutputStream',317);Oi(318,317,{});var Ch=zD(OI,'FilterOutputStream',318);Oi(124,318,{},eD);var Eh=zD(OI,'PrintStream',124);Oi(83,1,{110:1});_.p=function gD(){return this.a};var Fh=zD(XG,'AbstractStringBuilder',83);Oi(69,9,_G,hD);var Sh=zD(XG,'IndexOutOfBoundsException',69);Oi(183,69,_G,iD);var Gh=zD(XG,'ArrayIndexOutOfBoundsException',183);Oi(125,9,_G,jD);var Hh=zD(XG,'ArrayStoreException',125);Oi(37,5,{4:1,37:1,5:1});var Oh=zD(XG,'Error',37);Oi(3,37,{4:1,3:1,37:1,5:1},lD,mD);var Ih=zD(XG,'AssertionError',3);Ec={4:1,115:1,29:1};var nD,oD;var Jh=zD(XG,'Boolean',115);Oi(117,9,_G,ND);var Kh=zD(XG,'ClassCastException',117);Oi(82,1,{4:1,82:1});var OD;var Xh=zD(XG,'Number',82);Fc={4:1,29:1,116:1,82:1};var Mh=zD(XG,'Double',116);Oi(18,9,_G,UD);var Qh=zD(XG,'IllegalArgumentException',18);Oi(38,9,_G,VD);var Rh=zD(XG,'IllegalStateException',38);Oi(25,82,{4:1,29:1,25:1,82:1},WD);_.m=function XD(a){return Sc(a,25)&&Ic(a,25).a==this.a};_.o=function YD(){return this.a};_.p=function ZD(){return ''+this.a};_.a=0;var Th=zD(XG,'Integer',25);var _D;Oi(472,1,{});Oi(65,53,_G,bE,cE,dE);_.r=function eE(a){return new TypeError(a)};var Vh=zD(XG,'NullPointerException',65);Oi(54,18,_G,fE);var Wh=zD(XG,'NumberFormatException',54);Oi(28,1,{4:1,28:1},gE);_.m=function hE(a){var b;if(Sc(a,28)){b=Ic(a,28);return this.c==b.c&&this.d==b.d&&this.a==b.a&&this.b==b.b}return false};_.o=function iE(){return iF(Dc(xc(Yh,1),ZG,1,5,[$D(this.c),this.a,this.d,this.b]))};_.p=function jE(){return this.a+'.'+this.d+'('+(this.b!=null?this.b:'Unknown Source')+(this.c>=0?':'+this.c:'')+')'};_.c=0;var $h=zD(XG,'StackTraceElement',28);Gc={4:1,110:1,29:1,2:1};var bi=zD(XG,'String',2);Oi(68,83,{110:1},DE,EE,FE);var _h=zD(XG,'StringBuilder',68);Oi(123,69,_G,GE);var ai=zD(XG,'StringIndexOutOfBoundsException',123);Oi(476,1,{});var HE;Oi(105,1,lH,KE);_.U=function LE(a){return JE(a)};var ci=zD(XG,'Throwable/lambda$0$Type',105);Oi(93,9,_G,ME);var ei=zD(XG,'UnsupportedOperationException',93);Oi(319,1,{103:1});_.$b=function NE(a){throw Gi(new ME('Add not supported on this collection'))};_.p=function OE(){var a,b,c;c=new NF;for(b=this._b();b.cc();){a=b.dc();MF(c,a===this?'(this Collection)':a==null?aH:Si(a))}return !c.a?c.c:c.e.length==0?c.a.a:c.a.a+(''+c.e)};var fi=zD(RI,'AbstractCollection',319);Oi(320,319,{103:1,90:1});_.bc=function PE(a,b){throw Gi(new ME('Add not supported on this list'))};_.$b=function QE(a){this.bc(this.ac(),a);return true};_.m=function RE(a){var b,c,d,e,f;if(a===this){return true}if(!Sc(a,39)){return false}f=Ic(a,90);if(this.a.length!=f.a.length){return false}e=new fF(f);for(c=new fF(this);c.a<c.c.a.length;){b=eF(c);d=eF(e);if(!(_c(b)===_c(d)||b!=null&&K(b,d))){return false}}return true};_.o=function SE(){return lF(this)};_._b=function TE(){return new UE(this)};var hi=zD(RI,'AbstractList',320);Oi(132,1,{},UE);_.cc=function VE(){return this.a<this.b.a.length};_.dc=function WE(){DG(this.a<this.b.a.length);return YE(this.b,this.a++)};_.a=0;var gi=zD(RI,'AbstractList/IteratorImpl',132);Oi(39,320,{4:1,39:1,103:1,90:1},_E);_.bc=function aF(a,b){GG(a,this.a.length);zG(this.a,a,b)};_.$b=function bF(a){return XE(this,a)};_._b=function cF(){return new fF(this)};_.ac=function dF(){return this.a.length};var ji=zD(RI,'ArrayList',39);Oi(70,1,{},fF);_.cc=function gF(){return this.a<this.c.a.length};_.dc=function hF(){return eF(this)};_.a=0;_.b=-1;var ii=zD(RI,'ArrayList/1',70);Oi(150,9,_G,mF);var ki=zD(RI,'NoSuchElementException',150);Oi(63,1,{63:1},sF);_.m=function tF(a){var b;if(a===this){return true}if(!Sc(a,63)){return false}b=Ic(a,63);return nF(this.a,b.a)};_.o=function uF(){return oF(this.a)};_.p=function wF(){return this.a!=null?'Optional.of('+zE(this.a)+')':'Optional.empty()'};var pF;var li=zD(RI,'Optional',63);Oi(138,1,{});_.gc=function BF(a){xF(this,a)};_.ec=function zF(){return this.c};_.fc=function AF(){return this.d};_.c=0;_.d=0;var pi=zD(RI,'Spliterators/BaseSpliterator',138);Oi(139,138,{});var mi=zD(RI,'Spliterators/AbstractSpliterator',139);Oi(135,1,{});_.gc=function HF(a){xF(this,a)};_.ec=function FF(){return this.b};_.fc=function GF(){return this.d-this.c};_.b=0;_.c=0;_.d=0;var oi=zD(RI,'Spliterators/BaseArraySpliterator',135);Oi(136,135,{},JF);_.gc=function KF(a){DF(this,a)};_.hc=function LF(a){return EF(this,a)};var ni=zD(RI,'Spliterators/ArraySpliterator',136);Oi(122,1,{},NF);_.p=function OF(){return !this.a?this.c:this.e.length==0?this.a.a:this.a.a+(''+this.e)};var qi=zD(RI,'StringJoiner',122);Oi(109,1,lH,PF);_.U=function QF(a){return a};var ri=zD('java.util.function','Function/lambda$0$Type',109);Oi(47,20,{4:1,29:1,20:1,47:1},WF);var SF,TF,UF;var si=AD(SI,'Collector/Characteristics',47,XF);Oi(284,1,{},YF);var ti=zD(SI,'CollectorImpl',284);Oi(107,1,oH,$F);_.bb=function _F(a,b){ZF(a,b)};var ui=zD(SI,'Collectors/20methodref$add$Type',107);Oi(106,1,mH,aG);_.ab=function bG(){return new _E};var vi=zD(SI,'Collectors/21methodref$ctor$Type',106);Oi(108,1,{},cG);var wi=zD(SI,'Collectors/lambda$42$Type',108);Oi(137,1,{});_.c=false;var Di=zD(SI,'TerminatableStream',137);Oi(95,137,{},kG);var Ci=zD(SI,'StreamImpl',95);Oi(140,139,{},oG);_.hc=function pG(a){return this.b.hc(new qG(this,a))};var yi=zD(SI,'StreamImpl/MapToObjSpliterator',140);Oi(142,1,{},qG);_.fb=function rG(a){nG(this.a,this.b,a)};var xi=zD(SI,'StreamImpl/MapToObjSpliterator/lambda$0$Type',142);Oi(141,1,{},tG);_.fb=function uG(a){sG(this,a)};var zi=zD(SI,'StreamImpl/ValueConsumer',141);Oi(143,1,{},wG);var Ai=zD(SI,'StreamImpl/lambda$4$Type',143);Oi(144,1,{},xG);_.fb=function yG(a){mG(this.b,this.a,a)};var Bi=zD(SI,'StreamImpl/lambda$5$Type',144);Oi(474,1,{});Oi(471,1,{});var KG=0;var MG,NG=0,OG;var TG=(Db(),Gb);var gwtOnLoad=gwtOnLoad=Ki;Ii(Ui);Li('permProps',[[[VI,'gecko1_8']],[[VI,'safari']]]);if (client) client.onScriptLoad(gwtOnLoad);})();
+};
\ No newline at end of file
@@ -0,0 +1 @@
+import "./copilot-BT9qCd9U.js";
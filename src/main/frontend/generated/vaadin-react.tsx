@@ -0,0 +1,4 @@
+import { routes } from "Frontend/generated/routes.js";
+
+(window as any).Vaadin ??= {};
+(window as any).Vaadin.routesConfig = routes;
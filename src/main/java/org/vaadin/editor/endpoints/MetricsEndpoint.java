@@ -0,0 +1,69 @@
+package org.vaadin.editor.endpoints;
+
+import java.lang.management.ManagementFactory;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.vaadin.editor.models.RenderMetrics;
+import org.vaadin.editor.presence.RenderExecutor;
+import org.vaadin.editor.ws.RenderScheduler;
+import org.vaadin.editor.ws.WebSocketController;
+
+import com.vaadin.flow.server.auth.AnonymousAllowed;
+import com.vaadin.hilla.BrowserCallable;
+
+@BrowserCallable
+@AnonymousAllowed
+public class MetricsEndpoint {
+	private final RenderExecutor renderExecutor;
+	private final RenderScheduler renderScheduler;
+	// the executors behind the websocket channels, spring registers them under these names, pools unless virtual threads are on
+	private final TaskExecutor inboundExecutor;
+	private final TaskExecutor outboundExecutor;
+
+	public MetricsEndpoint(
+		RenderExecutor renderExecutor,
+		WebSocketController webSocketController,
+		@Qualifier("clientInboundChannelExecutor") TaskExecutor inboundExecutor,
+		@Qualifier("clientOutboundChannelExecutor") TaskExecutor outboundExecutor
+	) {
+		this.renderExecutor = renderExecutor;
+		this.renderScheduler = webSocketController.getRenderScheduler();
+		this.inboundExecutor = inboundExecutor;
+		this.outboundExecutor = outboundExecutor;
+	}
+
+	public RenderMetrics getRenderMetrics() {
+		RenderMetrics metrics = new RenderMetrics();
+
+		metrics.setRenderThreads(this.renderExecutor.getThreadCount());
+		metrics.setRenderActive(this.renderExecutor.getActiveCount());
+		metrics.setInteractiveQueued(this.renderExecutor.getQueued(RenderExecutor.Lane.INTERACTIVE));
+		metrics.setSnapshotQueued(this.renderExecutor.getQueued(RenderExecutor.Lane.SNAPSHOT));
+		metrics.setInteractiveRejected(this.renderExecutor.getRejected(RenderExecutor.Lane.INTERACTIVE));
+		metrics.setSnapshotRejected(this.renderExecutor.getRejected(RenderExecutor.Lane.SNAPSHOT));
+
+		metrics.setRendersSubmitted(this.renderScheduler.getSubmitted());
+		metrics.setRendersCoalesced(this.renderScheduler.getCoalesced());
+		metrics.setRendersCompleted(this.renderScheduler.getRendered());
+		metrics.setRendersFailed(this.renderScheduler.getFailed());
+
+		metrics.setInboundQueued(getQueued(this.inboundExecutor));
+		metrics.setInboundActive(getActive(this.inboundExecutor));
+		metrics.setOutboundQueued(getQueued(this.outboundExecutor));
+		metrics.setOutboundActive(getActive(this.outboundExecutor));
+
+		metrics.setPlatformThreads(ManagementFactory.getThreadMXBean().getThreadCount());
+		return metrics;
+	}
+
+	// with virtual threads nothing waits in a queue, every message gets a thread of its own, so there is nothing to count
+	private static int getQueued(TaskExecutor executor) {
+		return executor instanceof ThreadPoolTaskExecutor pool ? pool.getThreadPoolExecutor().getQueue().size() : 0;
+	}
+
+	private static int getActive(TaskExecutor executor) {
+		return executor instanceof ThreadPoolTaskExecutor pool ? pool.getActiveCount() : 0;
+	}
+}
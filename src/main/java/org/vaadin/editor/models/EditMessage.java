@@ -0,0 +1,65 @@
+package org.vaadin.editor.models;
+
+/**
+ * <p>one change to the document, the text between start and end (EXCLUSIVE) is replaced with text</p>
+ * <p>typing inserts (start == end), deleting replaces with "", version is the version of the document the positions are in</p>
+ */
+public class EditMessage {
+	private int version;
+	private int start;
+	private int end;
+	private String text;
+	private int senderId;
+
+	public EditMessage() {
+
+	}
+
+	public EditMessage(int version, int start, int end, String text, int senderId) {
+		this.version = version;
+		this.start = start;
+		this.end = end;
+		this.text = text;
+		this.senderId = senderId;
+	}
+
+	public int getVersion() {
+		return this.version;
+	}
+
+	public int getStart() {
+		return this.start;
+	}
+
+	public int getEnd() {
+		return this.end;
+	}
+
+	public String getText() {
+		return this.text;
+	}
+
+	public int getSenderId() {
+		return this.senderId;
+	}
+
+	public void setVersion(int version) {
+		this.version = version;
+	}
+
+	public void setStart(int start) {
+		this.start = start;
+	}
+
+	public void setEnd(int end) {
+		this.end = end;
+	}
+
+	public void setText(String text) {
+		this.text = text;
+	}
+
+	public void setSenderId(int senderId) {
+		this.senderId = senderId;
+	}
+}
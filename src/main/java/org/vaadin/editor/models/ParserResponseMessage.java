@@ -2,6 +2,8 @@ package org.vaadin.editor.models;
 
 public class ParserResponseMessage {
 	private TextMessage original;
+	/** version of the document the text is from, edits made on it are sent with this version */
+	private int version;
 	private String html;
 	
 	public ParserResponseMessage() {
@@ -13,6 +15,12 @@ public class ParserResponseMessage {
 		this.html = html;
 	}
 
+	public ParserResponseMessage(TextMessage original, int version, String html) {
+		this.original = original;
+		this.version = version;
+		this.html = html;
+	}
+
 	public TextMessage getOriginal() {
 		return this.original;
 	}
@@ -21,6 +29,14 @@ public class ParserResponseMessage {
 		this.original = original;
 	}
 
+	public int getVersion() {
+		return this.version;
+	}
+
+	public void setVersion(int version) {
+		this.version = version;
+	}
+
 	public String getHtml() {
 		return this.html;
 	}
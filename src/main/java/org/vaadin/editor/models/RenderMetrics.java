@@ -0,0 +1,153 @@
+package org.vaadin.editor.models;
+
+/**
+ * <p>how much work is waiting where, the queue depths of the render executor and the websocket channels and what the render
+ *   scheduler did with the versions of the document, see MetricsEndpoint</p>
+ */
+public class RenderMetrics {
+	/** threads of the render executor */
+	private int renderThreads;
+	/** render threads running a task right now */
+	private int renderActive;
+	/** renders after edits waiting for a thread */
+	private int interactiveQueued;
+	/** whole documents for loading clients waiting for a thread */
+	private int snapshotQueued;
+	private long interactiveRejected;
+	private long snapshotRejected;
+	/** versions handed to the render scheduler */
+	private long rendersSubmitted;
+	/** versions that were skipped for a newer one */
+	private long rendersCoalesced;
+	/** versions that were rendered and broadcast */
+	private long rendersCompleted;
+	private long rendersFailed;
+	/** messages from the clients waiting for a thread */
+	private int inboundQueued;
+	private int inboundActive;
+	/** messages to the clients waiting for a thread */
+	private int outboundQueued;
+	private int outboundActive;
+	/** platform threads alive in the server, virtual threads aren't counted */
+	private int platformThreads;
+
+	public int getRenderThreads() {
+		return this.renderThreads;
+	}
+
+	public void setRenderThreads(int renderThreads) {
+		this.renderThreads = renderThreads;
+	}
+
+	public int getRenderActive() {
+		return this.renderActive;
+	}
+
+	public void setRenderActive(int renderActive) {
+		this.renderActive = renderActive;
+	}
+
+	public int getInteractiveQueued() {
+		return this.interactiveQueued;
+	}
+
+	public void setInteractiveQueued(int interactiveQueued) {
+		this.interactiveQueued = interactiveQueued;
+	}
+
+	public int getSnapshotQueued() {
+		return this.snapshotQueued;
+	}
+
+	public void setSnapshotQueued(int snapshotQueued) {
+		this.snapshotQueued = snapshotQueued;
+	}
+
+	public long getInteractiveRejected() {
+		return this.interactiveRejected;
+	}
+
+	public void setInteractiveRejected(long interactiveRejected) {
+		this.interactiveRejected = interactiveRejected;
+	}
+
+	public long getSnapshotRejected() {
+		return this.snapshotRejected;
+	}
+
+	public void setSnapshotRejected(long snapshotRejected) {
+		this.snapshotRejected = snapshotRejected;
+	}
+
+	public long getRendersSubmitted() {
+		return this.rendersSubmitted;
+	}
+
+	public void setRendersSubmitted(long rendersSubmitted) {
+		this.rendersSubmitted = rendersSubmitted;
+	}
+
+	public long getRendersCoalesced() {
+		return this.rendersCoalesced;
+	}
+
+	public void setRendersCoalesced(long rendersCoalesced) {
+		this.rendersCoalesced = rendersCoalesced;
+	}
+
+	public long getRendersCompleted() {
+		return this.rendersCompleted;
+	}
+
+	public void setRendersCompleted(long rendersCompleted) {
+		this.rendersCompleted = rendersCompleted;
+	}
+
+	public long getRendersFailed() {
+		return this.rendersFailed;
+	}
+
+	public void setRendersFailed(long rendersFailed) {
+		this.rendersFailed = rendersFailed;
+	}
+
+	public int getInboundQueued() {
+		return this.inboundQueued;
+	}
+
+	public void setInboundQueued(int inboundQueued) {
+		this.inboundQueued = inboundQueued;
+	}
+
+	public int getInboundActive() {
+		return this.inboundActive;
+	}
+
+	public void setInboundActive(int inboundActive) {
+		this.inboundActive = inboundActive;
+	}
+
+	public int getOutboundQueued() {
+		return this.outboundQueued;
+	}
+
+	public void setOutboundQueued(int outboundQueued) {
+		this.outboundQueued = outboundQueued;
+	}
+
+	public int getOutboundActive() {
+		return this.outboundActive;
+	}
+
+	public void setOutboundActive(int outboundActive) {
+		this.outboundActive = outboundActive;
+	}
+
+	public int getPlatformThreads() {
+		return this.platformThreads;
+	}
+
+	public void setPlatformThreads(int platformThreads) {
+		this.platformThreads = platformThreads;
+	}
+}
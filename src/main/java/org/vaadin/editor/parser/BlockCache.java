@@ -0,0 +1,269 @@
+package org.vaadin.editor.parser;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.vaadin.editor.text.Rope;
+import org.vaadin.editor.tokenizer.ActionType;
+import org.vaadin.editor.tokenizer.TokenBuffer;
+
+/**
+ * <p>keeps the html of blocks that were rendered before, so a document that only changed in one block only has that block rendered again</p>
+ *
+ * <p>a block is a header or a code block with the paragraph after it, see Parser.findBlockEnd(), blocks are looked up by the hash of their text
+ *   and every entry keeps the text and the tokens it was rendered from, the same text can be tokenized differently depending on the formatting
+ *   around it, so a block is only a hit when both are the same</p>
+ *
+ * <p>every hash has a bucket of up to BUCKET_SIZE entries, so blocks whose hashes collide and the same text tokenized in different ways
+ *   don't keep pushing each other out, when a bucket is full its oldest entry makes room</p>
+ *
+ * <p>blocks longer than maxBlockLength are always parsed and never copied, hashed or kept, one of them would take the room of a lot of
+ *   small blocks and it's unlikely to come back unchanged while someone is typing in it</p>
+ *
+ * <p>the least recently used buckets are dropped once the entries take up more than maxBytes, entries are counted by the size of their text,
+ *   tokens and html plus ENTRY_OVERHEAD, the cache is shared by every thread</p>
+ */
+public final class BlockCache {
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+    public static final int DEFAULT_MAX_BLOCK_LENGTH = 1 << 16;
+    /** entries kept for one hash */
+    static final int BUCKET_SIZE = 4;
+    /** about what the map entry, the key, the arrays and the strings cost on top of their contents */
+    static final int ENTRY_OVERHEAD = 160;
+
+    /** what a block was rendered from and its html, tokens are kept as 3 ints each, start relative to the block, length and type */
+    private static final class Entry {
+        final char[] text;
+        final int[] tokens;
+        final int maxNesting;
+        final String html;
+        final long bytes;
+
+        Entry(char[] text, int[] tokens, int maxNesting, String html) {
+            this.text = text;
+            this.tokens = tokens;
+            this.maxNesting = maxNesting;
+            this.html = html;
+            this.bytes = 2L * (text.length + html.length()) + 4L * tokens.length + ENTRY_OVERHEAD;
+        }
+
+        /** text holds the chars of the blocks from the token from (INCLUSIVE) to the token to (EXCLUSIVE) */
+        boolean matches(Parser parser, int from, int to, char[] text, int length) {
+            TokenBuffer tokens = parser.tokens;
+            int start = tokens.getStart(from);
+            if (this.maxNesting != parser.getMaxNesting() || this.tokens.length != 3 * (to - from)) return false;
+            if (!Arrays.equals(this.text, 0, this.text.length, text, 0, length)) return false;
+
+            for (int i = from, j = 0; i < to; i++, j += 3) {
+                if (
+                    this.tokens[j] != tokens.getStart(i) - start ||
+                    this.tokens[j + 1] != tokens.getLength(i) ||
+                    this.tokens[j + 2] != kind(tokens, i)
+                ) return false;
+            }
+            return true;
+        }
+    }
+
+    private final long maxBytes;
+    private final int maxBlockLength;
+    /** in access order, the first bucket is the least recently used one, a bucket is never changed once it's in here, it's replaced by a copy */
+    private final LinkedHashMap<Long, Entry[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes = 0;
+    private int size = 0;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BlockCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public BlockCache(long maxBytes) {
+        this(maxBytes, DEFAULT_MAX_BLOCK_LENGTH);
+    }
+
+    public BlockCache(long maxBytes, int maxBlockLength) {
+        if (maxBytes < 0) throw new IllegalArgumentException("max bytes can't be negative: " + maxBytes);
+        if (maxBlockLength < 0) throw new IllegalArgumentException("max block length can't be negative: " + maxBlockLength);
+        this.maxBytes = maxBytes;
+        this.maxBlockLength = maxBlockLength;
+    }
+
+    /** writes the html of the blocks from the token from (INCLUSIVE) to the token to (EXCLUSIVE), only the blocks that aren't cached are parsed */
+    void render(Parser parser, int from, int to, HtmlSink sink) {
+        TokenBuffer tokens = parser.tokens;
+        StringBuilder sb = null;
+        //the text of every block is copied out once, then hashed and compared from the array
+        char[] text = new char[256];
+        for (int block = from; block < to; ) {
+            int end = parser.findBlockEnd(block);
+            int textStart = tokens.getStart(block);
+            int length = tokens.getEnd(end - 1) - textStart;
+            if (length > this.maxBlockLength) {
+                this.misses.incrementAndGet();
+                parser.parseBlocks(sink, block, end);
+                block = end;
+                continue;
+            }
+            if (text.length < length) text = new char[Math.max(length, text.length * 2)];
+            getChars(tokens.getSource(), textStart, length, text);
+            long key = hash(text, length);
+
+            Entry entry = find(this.get(key), parser, block, end, text, length);
+            if (entry != null) {
+                this.hits.incrementAndGet();
+                sink.writeHtml(entry.html);
+            } else {
+                this.misses.incrementAndGet();
+                if (sb == null) sb = new StringBuilder();
+                sb.setLength(0);
+                parser.parseBlocks(new HtmlRenderer(sb), block, end);
+                String html = sb.toString();
+                this.put(key, newEntry(parser, block, end, Arrays.copyOf(text, length), html));
+                sink.writeHtml(html);
+            }
+            block = end;
+        }
+    }
+
+    /** the entry of the bucket that was rendered from the same text and tokens, null if there isn't one */
+    private static Entry find(Entry[] bucket, Parser parser, int from, int to, char[] text, int length) {
+        if (bucket == null) return null;
+        for (Entry entry : bucket) {
+            if (entry.matches(parser, from, to, text, length)) return entry;
+        }
+        return null;
+    }
+
+    private synchronized Entry[] get(long key) {
+        return this.entries.get(key);
+    }
+
+    private synchronized void put(long key, Entry entry) {
+        //a block that doesn't fit would only push out everything else
+        if (entry.bytes > this.maxBytes) return;
+
+        //another thread may have put the same block in since get(), the entries of a bucket always differ in their text or tokens
+        Entry[] old = this.entries.get(key);
+        Entry[] bucket;
+        if (old == null) {
+            bucket = new Entry[] {entry};
+        } else if (contains(old, entry)) {
+            return;
+        } else if (old.length < BUCKET_SIZE) {
+            bucket = Arrays.copyOf(old, old.length + 1);
+            bucket[old.length] = entry;
+        } else {
+            //the oldest entry of a full bucket makes room
+            bucket = Arrays.copyOfRange(old, 1, old.length + 1);
+            bucket[old.length - 1] = entry;
+            this.bytes -= old[0].bytes;
+            this.size--;
+            this.evictions.incrementAndGet();
+        }
+        this.entries.put(key, bucket);
+        this.bytes += entry.bytes;
+        this.size++;
+
+        Iterator<Entry[]> iterator = this.entries.values().iterator();
+        while (this.bytes > this.maxBytes) {
+            Entry[] evicted = iterator.next();
+            iterator.remove();
+            for (Entry e : evicted) this.bytes -= e.bytes;
+            this.size -= evicted.length;
+            this.evictions.addAndGet(evicted.length);
+        }
+    }
+
+    private static boolean contains(Entry[] bucket, Entry entry) {
+        for (Entry e : bucket) {
+            if (e.maxNesting == entry.maxNesting && Arrays.equals(e.text, entry.text) && Arrays.equals(e.tokens, entry.tokens)) return true;
+        }
+        return false;
+    }
+
+    private static Entry newEntry(Parser parser, int from, int to, char[] text, String html) {
+        TokenBuffer tokens = parser.tokens;
+        int start = tokens.getStart(from);
+        int[] packed = new int[3 * (to - from)];
+        for (int i = from, j = 0; i < to; i++, j += 3) {
+            packed[j] = tokens.getStart(i) - start;
+            packed[j + 1] = tokens.getLength(i);
+            packed[j + 2] = kind(tokens, i);
+        }
+        return new Entry(text, packed, parser.getMaxNesting(), html);
+    }
+
+    /** token type and action type in one int */
+    private static int kind(TokenBuffer tokens, int i) {
+        ActionType actionType = tokens.getActionType(i);
+        return tokens.getType(i).ordinal() << 2 | (actionType == null ? 0 : actionType.ordinal() + 1);
+    }
+
+    private static void getChars(CharSequence source, int start, int length, char[] chars) {
+        if (source instanceof String) {
+            ((String) source).getChars(start, start + length, chars, 0);
+            return;
+        }
+        if (source instanceof Rope) {
+            ((Rope) source).getChars(start, start + length, chars, 0);
+            return;
+        }
+        for (int i = 0; i < length; i++) chars[i] = source.charAt(start + i);
+    }
+
+    /**
+     * <p>only used to find the entry, the text and the tokens are compared on a hit, so a plain polynomial hash is enough</p>
+     * <p>4 chars at a time so the multiplications don't all wait on each other</p>
+     */
+    private static long hash(char[] text, int length) {
+        long hash = length;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            hash = 923521 * hash + 29791 * text[i] + 961 * text[i + 1] + 31 * text[i + 2] + text[i + 3];
+        }
+        for (; i < length; i++) {
+            hash = 31 * hash + text[i];
+        }
+        return hash;
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.bytes = 0;
+        this.size = 0;
+    }
+
+    public long getMaxBytes() {
+        return this.maxBytes;
+    }
+
+    /** blocks longer than this many chars aren't cached */
+    public int getMaxBlockLength() {
+        return this.maxBlockLength;
+    }
+
+    /** bytes taken up by the entries, counted the same way as maxBytes */
+    public synchronized long getBytes() {
+        return this.bytes;
+    }
+
+    /** the number of entries, not of buckets */
+    public synchronized int size() {
+        return this.size;
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+}
@@ -0,0 +1,151 @@
+package org.vaadin.editor.parser;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>renders a document in two phases, the document is tokenized and split into groups of whole blocks on the calling thread,
+ *   then the inline formatting of every group is parsed and rendered on its own and the pieces of html are put together in order</p>
+ *
+ * <p>big documents have their groups rendered on the common ForkJoinPool, smaller documents and machines with a single core
+ *   aren't worth the hand off to other threads and render their one group on the calling thread</p>
+ *
+ * <p>with a BlockCache, blocks that were rendered before aren't parsed again</p>
+ *
+ * <p>the tokenizer pairs formatting across the whole document, so tokenizing can't be split up without changing the output,
+ *   everything after it can, see Parser.findBlockGroups()</p>
+ */
+final class BlockRenderer {
+    private BlockRenderer() {
+        throw new Error("Utility class, only contains static methods and should not be instantiated");
+    }
+
+    static final int PARALLEL_THRESHOLD = 128 * 1024;
+    /** groups of blocks are at least this many characters, so there are a few groups for every thread on a big document */
+    static final int GROUP_LENGTH = 16 * 1024;
+
+    static boolean isWorthSplitting(CharSequence source) {
+        return source.length() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /** the same html as Parser.parseToHtml(), the cache can be null */
+    static String renderHtml(Parser parser, BlockCache cache, boolean parallel) {
+        return renderHtml(parser, cache, parallel ? GROUP_LENGTH : Integer.MAX_VALUE);
+    }
+
+    static String renderHtml(Parser parser, BlockCache cache, int groupLength) {
+        int[] groups = parser.findBlockGroups(groupLength);
+        if (groups.length == 1) {
+            if (cache == null) return parser.parseToHtml();
+
+            //one group is rendered on this thread, straight into the html
+            StringBuilder sb = new StringBuilder(parser.source.length() * 2);
+            sb.append("<html>");
+            render(parser, cache, groups, new HtmlRenderer[] {new HtmlRenderer(sb)});
+            sb.append("</html>");
+            return sb.toString();
+        }
+
+        StringBuilder[] fragments = new StringBuilder[groups.length];
+        HtmlRenderer[] renderers = new HtmlRenderer[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            fragments[i] = new StringBuilder(groupLength * 2);
+            renderers[i] = new HtmlRenderer(fragments[i]);
+        }
+        render(parser, cache, groups, renderers);
+
+        int length = "<html></html>".length();
+        for (StringBuilder fragment : fragments) length += fragment.length();
+        StringBuilder sb = new StringBuilder(length);
+        sb.append("<html>");
+        for (StringBuilder fragment : fragments) sb.append(fragment);
+        sb.append("</html>");
+        return sb.toString();
+    }
+
+    /** writes the same bytes as parsing into the renderer would, after whatever the renderer already has, the cache can be null */
+    static void renderUtf8(Parser parser, BlockCache cache, boolean parallel, Utf8HtmlRenderer renderer) {
+        renderUtf8(parser, cache, parallel ? GROUP_LENGTH : Integer.MAX_VALUE, renderer);
+    }
+
+    static void renderUtf8(Parser parser, BlockCache cache, int groupLength, Utf8HtmlRenderer renderer) {
+        int[] groups = parser.findBlockGroups(groupLength);
+        if (groups.length == 1) {
+            if (cache == null) {
+                parser.parse(renderer);
+                return;
+            }
+            //one group is rendered on this thread, straight into the renderer
+            renderer.startDocument(parser.source);
+            render(parser, cache, groups, new Utf8HtmlRenderer[] {renderer});
+            renderer.endDocument();
+            return;
+        }
+
+        Utf8HtmlRenderer[] fragments = new Utf8HtmlRenderer[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            fragments[i] = new Utf8HtmlRenderer(renderer.isJsonString());
+        }
+        render(parser, cache, groups, fragments);
+
+        renderer.startDocument(parser.source);
+        for (Utf8HtmlRenderer fragment : fragments) renderer.write(fragment);
+        renderer.endDocument();
+    }
+
+    private static void render(Parser parser, BlockCache cache, int[] groups, HtmlSink[] sinks) {
+        if (groups.length == 1) {
+            renderGroup(parser, cache, groups, 0, sinks[0]);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RenderTask(parser, cache, groups, sinks, 0, groups.length));
+    }
+
+    /** every group gets a forked parser, so groups can be rendered on any thread */
+    private static void renderGroup(Parser parser, BlockCache cache, int[] groups, int group, HtmlSink sink) {
+        int from = groups[group];
+        int to = group + 1 == groups.length ? parser.tokens.size() : groups[group + 1];
+        if (from == to) return;
+
+        Parser fork = parser.fork();
+        if (cache == null) {
+            fork.parseBlocks(sink, from, to);
+        } else {
+            cache.render(fork, from, to, sink);
+        }
+    }
+
+    /** splits the groups in half until there's one left, every group has its own sink and forked parser so nothing is shared but the tokens */
+    private static final class RenderTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Parser parser;
+        private final BlockCache cache;
+        private final int[] groups;
+        private final HtmlSink[] sinks;
+        private final int from;
+        private final int to;
+
+        RenderTask(Parser parser, BlockCache cache, int[] groups, HtmlSink[] sinks, int from, int to) {
+            this.parser = parser;
+            this.cache = cache;
+            this.groups = groups;
+            this.sinks = sinks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                renderGroup(this.parser, this.cache, this.groups, this.from, this.sinks[this.from]);
+                return;
+            }
+            int mid = (this.from + this.to) >>> 1;
+            invokeAll(
+                new RenderTask(this.parser, this.cache, this.groups, this.sinks, this.from, mid),
+                new RenderTask(this.parser, this.cache, this.groups, this.sinks, mid, this.to)
+            );
+        }
+    }
+}
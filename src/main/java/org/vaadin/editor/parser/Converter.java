@@ -0,0 +1,57 @@
+package org.vaadin.editor.parser;
+
+class Converter {
+
+    /**
+     * Pretty print the directory tree and its file names.
+     * 
+     * @param tree
+     *            parsed document.
+     * @return
+     */
+    public static String convertParseTree(SyntaxTree tree) {
+        StringBuilder sb = new StringBuilder();
+        convertParseTree(tree, sb);
+        return sb.toString();
+    }
+
+    /** appends the html to the given builder so callers can reuse one */
+    public static void convertParseTree(SyntaxTree tree, StringBuilder sb) {
+        convertParseTree(tree, SyntaxTree.ROOT_NODE, sb);
+    }
+
+    /** switches on the node's kind, the tree is never deeper than the parser's nesting limit plus the root and block */
+    private static void convertParseTree(SyntaxTree tree, int node, StringBuilder sb) {
+        byte kind = tree.getKind(node);
+        switch (kind) {
+            case SyntaxTree.TEXT:
+                HtmlEscaper.escape(tree.getSource(), tree.getStart(node), tree.getEnd(node), sb);
+                return;
+            case SyntaxTree.BREAK:
+                sb.append("<br>");
+                return;
+            case SyntaxTree.CODE:
+                sb.append("<pre><code>");
+                convertChildren(tree, node, sb);
+                sb.append("</code></pre>");
+                return;
+            case SyntaxTree.HEADER:
+                int depth = tree.getHeaderDepth(node);
+                sb.append("<h").append(depth).append('>');
+                convertChildren(tree, node, sb);
+                sb.append("</h").append(depth).append('>');
+                return;
+            default:
+                String tagName = SyntaxTree.getTagName(kind);
+                sb.append('<').append(tagName).append('>');
+                convertChildren(tree, node, sb);
+                sb.append("</").append(tagName).append('>');
+        }
+    }
+
+    private static void convertChildren(SyntaxTree tree, int node, StringBuilder sb) {
+        for (int child = tree.getFirstChild(node); child != SyntaxTree.NONE; child = tree.getNextSibling(child)) {
+            convertParseTree(tree, child, sb);
+        }
+    }
+}
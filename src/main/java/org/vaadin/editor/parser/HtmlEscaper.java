@@ -0,0 +1,66 @@
+package org.vaadin.editor.parser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>escapes user text for html, the preview puts the html straight into the page so text can't be allowed to make tags</p>
+ * <p>characters are looked up in a table, everything between two characters that need escaping is copied in one go,
+ *   so text without any of them is copied exactly like it was before and nothing is allocated either way</p>
+ * <p>every character that needs escaping is below 64, so the lookup while scanning is one bit of a long instead of an array,
+ *   the scan has its own loop so the JIT can keep it tight</p>
+ */
+final class HtmlEscaper {
+    private HtmlEscaper() {
+        throw new Error("Utility class, only contains static methods and should not be instantiated");
+    }
+
+    /** entity for each ascii character, null for characters that are written as they are, anything past ascii never needs one */
+    static final String[] ENTITIES = new String[128];
+    /** same as ENTITIES encoded as utf-8, for Utf8HtmlRenderer */
+    static final byte[][] ENTITY_BYTES = new byte[128][];
+    /** bit c is set if character c needs escaping */
+    private static final long ESCAPED_MASK;
+    /** longest entity, callers that reserve space up front need to know how much one character can turn into */
+    static final int MAX_ENTITY_LENGTH = 6;
+
+    static {
+        ENTITIES['&'] = "&amp;";
+        ENTITIES['<'] = "&lt;";
+        ENTITIES['>'] = "&gt;";
+        ENTITIES['"'] = "&quot;";
+        ENTITIES['\''] = "&#39;";
+        long mask = 0;
+        for (int c = 0; c < ENTITIES.length; c++) {
+            if (ENTITIES[c] == null) continue;
+            assert c < 64 : "the mask only has room for the first 64 characters";
+            ENTITY_BYTES[c] = ENTITIES[c].getBytes(StandardCharsets.US_ASCII);
+            mask |= 1L << c;
+        }
+        ESCAPED_MASK = mask;
+    }
+
+    static boolean needsEscaping(char c) {
+        return c < 64 && ((ESCAPED_MASK >>> c) & 1L) != 0;
+    }
+
+    /** appends source from start (INCLUSIVE) to end (EXCLUSIVE) with every character that means something in html escaped */
+    static void escape(CharSequence source, int start, int end, StringBuilder sb) {
+        int spanStart = start;
+        while (spanStart < end) {
+            int i = indexOfEscaped(source, spanStart, end);
+            sb.append(source, spanStart, i);
+            if (i == end) return;
+
+            sb.append(ENTITIES[source.charAt(i)]);
+            spanStart = i + 1;
+        }
+    }
+
+    /** index of the first character from start that needs escaping, end if there isn't one */
+    static int indexOfEscaped(CharSequence source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (needsEscaping(source.charAt(i))) return i;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,92 @@
+package org.vaadin.editor.parser;
+
+/**
+ * <p>writes html straight into a builder while the parser goes through the document, no tree is built in between</p>
+ * <p>gives exactly the same html as Converter does for the tree of the same document</p>
+ */
+final class HtmlRenderer implements HtmlSink {
+    private final StringBuilder sb;
+    /** depth of the header that is open, blocks can't be nested so one is enough */
+    private int headerDepth;
+
+    HtmlRenderer(StringBuilder sb) {
+        this.sb = sb;
+    }
+
+    @Override
+    public void writeHtml(String html) {
+        this.sb.append(html);
+    }
+
+    @Override
+    public void startDocument(CharSequence source) {
+        this.sb.append("<html>");
+    }
+
+    @Override
+    public void endDocument() {
+        this.sb.append("</html>");
+    }
+
+    @Override
+    public void enterBlock(BlockType type, int depth, int start) {
+        switch (type) {
+            case CODE:
+                this.sb.append("<pre><code>");
+                return;
+            case HEADER:
+                this.headerDepth = depth;
+                this.sb.append("<h").append(depth).append('>');
+                return;
+            default:
+                this.sb.append("<p>");
+        }
+    }
+
+    @Override
+    public void exitBlock(BlockType type, int end) {
+        switch (type) {
+            case CODE:
+                this.sb.append("</code></pre>");
+                return;
+            case HEADER:
+                this.sb.append("</h").append(this.headerDepth).append('>');
+                return;
+            default:
+                this.sb.append("</p>");
+        }
+    }
+
+    @Override
+    public void enterInline(InlineType type, int start) {
+        this.sb.append('<').append(tagName(type)).append('>');
+    }
+
+    @Override
+    public void exitInline(InlineType type, int end) {
+        this.sb.append("</").append(tagName(type)).append('>');
+    }
+
+    @Override
+    public void text(CharSequence source, int start, int end) {
+        HtmlEscaper.escape(source, start, end, this.sb);
+    }
+
+    @Override
+    public void lineBreak(int start, int end) {
+        this.sb.append("<br>");
+    }
+
+    private static String tagName(InlineType type) {
+        switch (type) {
+            case STRONG:
+                return "strong";
+            case EMPHASIS:
+                return "em";
+            case STRIKE:
+                return "strike";
+            default:
+                return "mark";
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.vaadin.editor.parser;
+
+/**
+ * <p>a renderer that can also be handed html that was rendered before, for blocks that come out of a BlockCache</p>
+ */
+interface HtmlSink extends MarkdownHandler {
+    /** writes the html of whole blocks as it is, in between the blocks the parser sends */
+    void writeHtml(String html);
+}
@@ -0,0 +1,48 @@
+package org.vaadin.editor.parser;
+
+/**
+ * <p>gets told about the structure of a document while the parser goes through it, the same way a SAX handler does for xml</p>
+ * <p>calls always come in document order and enter/exit calls are always balanced, blocks are never nested inside of each other
+ *   and inline formatting is only ever inside of a block, see Parser.parse(MarkdownHandler)</p>
+ * <p>positions are indexes into the source that was given to startDocument()</p>
+ */
+public interface MarkdownHandler {
+
+    enum BlockType {
+        PARAGRAPH,
+        HEADER,
+        CODE
+    }
+
+    enum InlineType {
+        STRONG,
+        EMPHASIS,
+        STRIKE,
+        MARK
+    }
+
+    void startDocument(CharSequence source);
+
+    void endDocument();
+
+    /**
+     * @param depth number of # of a header, 0 for every other block
+     * @param start starting index of the block in the source (INCLUSIVE)
+     */
+    void enterBlock(BlockType type, int depth, int start);
+
+    /** @param end ending index of the block in the source (EXCLUSIVE) */
+    void exitBlock(BlockType type, int end);
+
+    /** @param start starting index of the opening token in the source (INCLUSIVE) */
+    void enterInline(InlineType type, int start);
+
+    /** @param end ending index of the closing token in the source (EXCLUSIVE) */
+    void exitInline(InlineType type, int end);
+
+    /** text is never copied out of the source, it's the range start (INCLUSIVE) to end (EXCLUSIVE) */
+    void text(CharSequence source, int start, int end);
+
+    /** a line break inside of a block, start and end are the position of the break in the source */
+    void lineBreak(int start, int end);
+}
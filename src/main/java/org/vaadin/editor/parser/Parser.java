@@ -1,399 +1,391 @@
 package org.vaadin.editor.parser;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import org.vaadin.editor.parser.MarkdownHandler.BlockType;
+import org.vaadin.editor.parser.MarkdownHandler.InlineType;
 import org.vaadin.editor.tokenizer.*;
 
 
-abstract class Node<T extends Node<?>> {
-    String type;
-    String tagName; //html tag name: em, strong, etc
-    ArrayList<T> children;
+public class Parser {
 
-    String getType() {
-        return this.type;
+    CharSequence source;
+    Tokenizer tokenizer;
+    /** the parse tree, filled by parse() and reused by every parse after that */
+    SyntaxTree tree = new SyntaxTree();
+    /** every token of the source, filled once by parse() and walked with lookaheadIdx */
+    TokenBuffer tokens = new TokenBuffer();
+    private int lastTokenIdx = -1;
+    private int lookaheadIdx = 0;
+    /** the source is only tokenized by the first parse, parsing it again with another handler walks the same tokens */
+    private boolean tokenized = false;
+    /** headers inside of a code block are text instead of the start of a new block */
+    private boolean inCode = false;
+
+    /** format nodes deeper than this are left as text, see setMaxNesting() */
+    public static final int DEFAULT_MAX_NESTING = 64;
+    private int maxNesting = DEFAULT_MAX_NESTING;
+
+    /** opening tokens of the format nodes that are open */
+    private int[] formatTokens = new int[16];
+    private int formatDepth = 0;
+    /** what each format token turned out to be, TEXT_MARK, OPEN_MARK or CLOSE_MARK, only format tokens are ever set */
+    private byte[] formatMarks = new byte[64];
+    private static final byte TEXT_MARK = 0;
+    private static final byte OPEN_MARK = 1;
+    private static final byte CLOSE_MARK = 2;
+
+    private final TreeBuilder treeBuilder = new TreeBuilder(this.tree);
+    /** reused by every convertToHtml() and parseToHtml() call */
+    private final StringBuilder html = new StringBuilder();
+    private final HtmlRenderer htmlRenderer = new HtmlRenderer(this.html);
+
+    public Parser(CharSequence source) {
+        this.source = source;
+        this.tokenizer = new Tokenizer(source);
+    }
+
+    /** see fork(), the fork doesn't have a tokenizer of its own and can't be reset */
+    private Parser(Parser other) {
+        this.source = other.source;
+        this.tokens = other.tokens;
+        this.formatMarks = other.formatMarks;
+        this.maxNesting = other.maxNesting;
+        this.tokenized = true;
     }
 
-    String getTagName() {
-        return this.tagName;
+    /**
+     * <p>starts over with a new string, the parser behaves exactly like a new Parser(source) afterwards</p>
+     * <p>the tokenizer, the tree and the html buffer are reused, see ParserPool</p>
+     */
+    public void reset(CharSequence source) {
+        this.source = source;
+        this.tokenizer.reset(source);
+        this.tree.reset(source);
+        this.tokens.reset(source);
+        this.lastTokenIdx = -1;
+        this.lookaheadIdx = 0;
+        this.tokenized = false;
     }
 
-    ArrayList<T> getChildren() {
-        return this.children;
+    /**
+     * <p>how deep format nodes can be nested inside of each other, anything deeper is kept as text</p>
+     * <p>the parser doesn't recurse so any depth can be parsed, the limit keeps the tree small enough for the code that walks it</p>
+     */
+    public void setMaxNesting(int maxNesting) {
+        if (maxNesting < 0) throw new IllegalArgumentException("max nesting can't be negative: " + maxNesting);
+        this.maxNesting = maxNesting;
     }
 
-    void setChildren(ArrayList<T> children) {
-        this.children = children;
+    public int getMaxNesting() {
+        return this.maxNesting;
     }
-}
-
-abstract class ContentNode extends Node<PhrasingContent>{
-    // ArrayList<PhrasingContent> children;
-}
-
-// type FlowContent = Blockquote | Code | Heading | Html | List | ThematicBreak | Definition | Paragraph
-abstract class FlowContent extends ContentNode{
-}
-
-//type PhrasingContent = Break | Emphasis | Html | Image | ImageReference | InlineCode | Link | LinkReference | Strong | Text
-abstract class PhrasingContent extends ContentNode{
-}
-
-
-
-final class TextNode extends PhrasingContent {
-    String type = "text";
-    String value;
 
-    @Override
-    public String toString() {
-        return String.format("textnode value: %s", this.value);
+    private boolean hasLookahead() {
+        return this.lookaheadIdx < this.tokens.size();
     }
 
-    String getType() {
-        return this.type;
-    }
-}
-
-class RootNode extends Node<FlowContent>{
-    String type = "root";
-    String tagName = "html";
-    // ArrayList<FlowContent> children;
-
-    String getType() {
-        return this.type;
+    private TokenType lookaheadType() {
+        return this.tokens.getType(this.lookaheadIdx);
     }
 
-    String getTagName() {
-        return this.tagName;
+    private ActionType lookaheadActionType() {
+        return this.tokens.getActionType(this.lookaheadIdx);
     }
-}
 
-class ParagraphNode extends FlowContent {
-    String type = "paragraph";
-    String tagName = "p";
+    /**
+     * <p>moves past the lookahead, callers always check its type first</p>
+     * @return index of the eaten token in the token buffer
+     */
+    private int eat(TokenType type) {
+        assert this.hasLookahead() && this.lookaheadType() == type : String.format("tried to eat %s", type);
 
-    String getType() {
-        return this.type;
+        this.lastTokenIdx = this.lookaheadIdx;
+        this.lookaheadIdx++;
+        return this.lastTokenIdx;
     }
 
-    String getTagName() {
-        return this.tagName;
+    /**
+     * <p>public entry point for parser, builds the tree that convertToHtml() converts</p>
+     * <p>the parser itself never fails, formatting that doesn't get closed is turned back into text where it is
+     *   and the rest of the document is parsed as usual</p>
+     */
+    public void parse() {
+        this.parse(this.treeBuilder);
     }
-}
 
-final class CodeNode extends FlowContent{
-    String type = "code";
-    String tagName = "code";
+    /**
+     * <p>goes through the document and tells the handler about every block, format node, text and break in order</p>
+     *
+     * <p>the inline content of a block is gone through twice, once to find out where the block ends and which format tokens
+     *   get closed, then again to send the events, that way nothing has to be held back until an opening token turns out to be text</p>
+     */
+    public void parse(MarkdownHandler handler) {
+        handler.startDocument(this.source);
+        this.tokenize();
+        this.parseBlocks(handler, 0, this.tokens.size());
+        handler.endDocument();
+    }
+
+    /** tokenizes the source the first time it's called after a reset, the tokens are kept for every parse after that */
+    void tokenize() {
+        if (!this.tokenized) {
+            this.tokenized = true;
+            this.tokenizer.tokenize(this.tokens);
+            if (this.formatMarks.length < this.tokens.size()) {
+                this.formatMarks = new byte[Math.max(this.tokens.size(), this.formatMarks.length * 2)];
+            }
+        }
+    }
 
-    String getType() {
-        return this.type;
+    /**
+     * <p>sends the events for the blocks that start at the token from (INCLUSIVE) and end before the token to (EXCLUSIVE),
+     *   both have to be the first token of a block or the end of the tokens, see findBlockGroups()</p>
+     */
+    void parseBlocks(MarkdownHandler handler, int from, int to) {
+        this.lookaheadIdx = from;
+        this.lastTokenIdx = from - 1;
+        this.inCode = false;
+        this.formatDepth = 0;
+        while (this.lookaheadIdx < to) {
+            this.content(handler);
+        }
     }
 
-    String getTagName() {
-        return this.tagName;
+    /**
+     * <p>the block pass, finds where blocks start by only looking at the token types, no inline formatting is resolved for it</p>
+     *
+     * <p>a header or a ``` outside of a code block always starts a new block no matter what formatting is open, so the blocks
+     *   are grouped at those tokens into groups that cover at least minLength characters of the source, except for the last one</p>
+     *
+     * <p>every group can then be parsed with parseBlocks() on its own and gives exactly the events parsing the whole document would,
+     *   the tokens are still made for the whole document at once since formatting can be paired across any number of lines</p>
+     *
+     * @return index of the first token of every group, always starts with 0
+     */
+    int[] findBlockGroups(int minLength) {
+        int[] groups = new int[8];
+        int count = 1;
+        this.tokenize();
+
+        int groupStart = 0;
+        for (int i = this.findBlockEnd(0), n = this.tokens.size(); i < n; i = this.findBlockEnd(i)) {
+            int start = this.tokens.getStart(i);
+            if (start - groupStart < minLength) continue;
+            if (count == groups.length) groups = Arrays.copyOf(groups, count * 2);
+            groups[count++] = i;
+            groupStart = start;
+        }
+        return Arrays.copyOf(groups, count);
     }
-}
 
-final class HeaderNode extends FlowContent{
-    String type = "header";
-    String tagName = "h";
-    int depth;
+    /**
+     * <p>index of the token that starts the block after the one starting at the given token, or the number of tokens if it's the last one</p>
+     * <p>a block here is a header or a code block with the paragraph after it, or the paragraph at the start of the document</p>
+     */
+    int findBlockEnd(int from) {
+        boolean inCode = false;
+        for (int i = from, n = this.tokens.size(); i < n; i++) {
+            TokenType type = this.tokens.getType(i);
+            if (inCode) {
+                //the first closing ``` ends the code block, anything else in it is text
+                if (type == TokenType.CODE_BLOCK && this.tokens.getActionType(i) == ActionType.CLOSE) inCode = false;
+                continue;
+            }
+            if (type != TokenType.CODE_BLOCK && type != TokenType.HEADER) continue;
+            if (i != from) return i;
 
-    String getType() {
-        return this.type;
+            inCode = type == TokenType.CODE_BLOCK;
+        }
+        return this.tokens.size();
     }
 
-    String getTagName() {
-        return this.tagName + Integer.toString(depth);
+    /**
+     * <p>parser that shares the tokens of this one and only has its own position and format stack, so parseBlocks() can be called
+     *   on it from another thread at the same time as on this parser, as long as the blocks don't overlap</p>
+     */
+    Parser fork() {
+        return new Parser(this);
     }
-}
-
-final class StrongNode extends PhrasingContent{
-    String type = "strong";
-    String tagName = "strong";
 
-    String getType() {
-        return this.type;
+    /** parses the source and writes the html straight out without building the tree, the tree is left empty */
+    public String parseToHtml() {
+        this.html.setLength(0);
+        this.parse(this.htmlRenderer);
+        this.tree.reset(this.source);
+        return this.html.toString();
     }
 
-    String getTagName() {
-        return this.tagName;
+    private void content(MarkdownHandler handler) {
+        switch (this.lookaheadType()) {
+            case CODE_BLOCK:
+                this.code(handler);
+                return;
+            case HEADER:
+                this.header(handler);
+                return;
+            default: 
+                this.paragraph(handler);
+        }
     }
-}
 
-final class EmphasisNode extends PhrasingContent{
-    String type = "emphasis";
-    String tagName = "em";
+    private void paragraph(MarkdownHandler handler) {
+        int firstIdx = this.lookaheadIdx;
+        this.phrasingContents(null);
 
-    String getType() {
-        return this.type;
-    }
-    
-    String getTagName() {
-        return this.tagName;
+        handler.enterBlock(BlockType.PARAGRAPH, 0, this.tokens.getStart(firstIdx));
+        this.emitContents(handler, firstIdx, this.lookaheadIdx);
+        handler.exitBlock(BlockType.PARAGRAPH, this.tokens.getEnd(this.lastTokenIdx));
     }
-}
 
-final class StrikeNode extends PhrasingContent{
-    String type = "strike";
-    String tagName = "strike";
+    private void header(MarkdownHandler handler) {
+        int headerIdx = this.eat(TokenType.HEADER);
+        this.phrasingContents(TokenType.BREAK);
 
-    String getType() {
-        return this.type;
+        handler.enterBlock(BlockType.HEADER, this.tokens.getLength(headerIdx), this.tokens.getStart(headerIdx));
+        this.emitContents(handler, headerIdx + 1, this.lookaheadIdx);
+        handler.exitBlock(BlockType.HEADER, this.tokens.getEnd(this.lastTokenIdx));
     }
 
-    String getTagName() {
-        return this.tagName;
-    }
-}
-
-//highlight
-final class MarkNode extends PhrasingContent{
-    String type = "mark";
-    String tagName = "mark";
+    /** a code block that never gets closed is a paragraph that starts with the ``` as text */
+    private void code(MarkdownHandler handler) {
+        int openIdx = this.eat(TokenType.CODE_BLOCK);
+        this.inCode = true;
+        this.phrasingContents(TokenType.CODE_BLOCK);
+        this.inCode = false;
 
-    String getType() {
-        return this.type;
-    }
+        if (!this.hasLookahead()) {
+            handler.enterBlock(BlockType.PARAGRAPH, 0, this.tokens.getStart(openIdx));
+            handler.text(this.tokens.getSource(), this.tokens.getStart(openIdx), this.tokens.getEnd(openIdx));
+            this.emitContents(handler, openIdx + 1, this.lookaheadIdx);
+            handler.exitBlock(BlockType.PARAGRAPH, this.tokens.getEnd(this.lastTokenIdx));
+            return;
+        }
 
-    String getTagName() {
-        return this.tagName;
+        int closeIdx = this.eat(TokenType.CODE_BLOCK);
+        handler.enterBlock(BlockType.CODE, 0, this.tokens.getStart(openIdx));
+        this.emitContents(handler, openIdx + 1, closeIdx);
+        handler.exitBlock(BlockType.CODE, this.tokens.getEnd(closeIdx));
     }
-}
-
-public class Parser {
 
-    String string;
-    Tokenizer tokenizer;
-    RootNode root;
-    private Token lastToken;
-    private Token lookahead;
+    /**
+     * <p>moves past the inline content of a block and marks which format tokens open and close a format node</p>
+     *
+     * <p>format nodes are kept on an explicit stack instead of being parsed with a recursive call per node, so deeply nested formatting
+     *   can't overflow the thread's stack, if a new block starts, a header's line ends or the tokens run out while formatting is
+     *   still open, the opening tokens just keep their text mark</p>
+     *
+     * @param endType BREAK for headers, they always end at the end of their line, the closing CODE_BLOCK for code blocks which only
+     *   ends them when no formatting is open, null for paragraphs which only end where the next block starts
+     */
+    private void phrasingContents(TokenType endType) {
+        while (this.hasLookahead()) {
+            if (endType == TokenType.BREAK && this.lookaheadType() == TokenType.BREAK) {
+                break;
+            } else if (this.formatDepth == 0) {
+                if (this.endsContents(endType)) break;
+            } else if (this.isClosing(this.tokens.getType(this.formatTokens[this.formatDepth - 1]))) {
+                this.closeFormat();
+                continue;
+            } else if (this.endsBlock()) {
+                this.formatDepth = 0;
+                continue;
+            }
 
-    public Parser(String string) {
-        this.string = string;
-        this.tokenizer = new Tokenizer(string);
+            TokenType type = this.lookaheadType();
+            if (isFormat(type)) {
+                this.openFormat();
+            } else {
+                this.eat(type);
+            }
+        }
+        //whatever is still open stays text
+        this.formatDepth = 0;
     }
 
-    private Token eat(TokenType type) throws Exception {
-        Token token = this.lookahead;
-
-        if (token == null) {
-            throw new Exception("tried to eat null lookahead");
+    /** sends the events for the tokens from (INCLUSIVE) to (EXCLUSIVE), after phrasingContents() went over them */
+    private void emitContents(MarkdownHandler handler, int from, int to) {
+        CharSequence source = this.tokens.getSource();
+        for (int i = from; i < to; i++) {
+            TokenType type = this.tokens.getType(i);
+            if (type == TokenType.BREAK) {
+                //code blocks naturally create visual breaks, don't need to manually insert any so we discard user breaks
+                if (i > 0 && this.tokens.getType(i - 1) == TokenType.CODE_BLOCK) continue;
+                handler.lineBreak(this.tokens.getStart(i), this.tokens.getEnd(i));
+            } else if (isFormat(type) && this.formatMarks[i] == OPEN_MARK) {
+                handler.enterInline(inlineType(type), this.tokens.getStart(i));
+            } else if (isFormat(type) && this.formatMarks[i] == CLOSE_MARK) {
+                handler.exitInline(inlineType(type), this.tokens.getEnd(i));
+            } else {
+                //text, format tokens that didn't get closed, and inside of code blocks headers and other code block tokens
+                handler.text(source, this.tokens.getStart(i), this.tokens.getEnd(i));
+            }
         }
+    }
 
-        if (token.type != type) {
-            throw new Exception(String.format("types do not match: %s != %s", token.type, type));
-        }
+    /** checks if the block ends at the lookahead, see phrasingContents() */
+    private boolean endsContents(TokenType endType) {
+        if (endType == TokenType.CODE_BLOCK) return this.isClosing(TokenType.CODE_BLOCK);
+        return this.endsBlock();
+    }
 
-        this.lastToken = this.lookahead;
-        this.lookahead = this.tokenizer.getNextToken();
-        return token;
+    /** checks if the lookahead is the token that closes a node of the given type */
+    private boolean isClosing(TokenType type) {
+        return this.hasLookahead() && this.lookaheadType() == type && this.lookaheadActionType() == ActionType.CLOSE;
     }
 
-    /** public entry point for parser */
-    public void parse() {
-        //if the parser or tokenizer fails at any point, just send the user's raw text back to them
-        try {
-            this.lookahead = this.tokenizer.getNextToken();
-            this.root = this.start();
-        } catch (Exception e) {
-            TextNode text = new TextNode();
-            text.value = this.string.replaceAll("\n", "<br>");
-            text.children = null;
-
-            ParagraphNode paragraph = new ParagraphNode();
-            ArrayList<PhrasingContent> paragraphChildren = new ArrayList<>();
-            paragraphChildren.add(text);
-            paragraph.setChildren(paragraphChildren);
-
-            RootNode root = new RootNode();
-            ArrayList<FlowContent> rootChildren = new ArrayList<>();
-            rootChildren.add(paragraph);
-            root.setChildren(rootChildren);
-
-            this.root = root;
-        }
+    /** headers and code blocks start a new block, so any formatting that is still open can't be closed anymore, inside of code blocks headers are text */
+    private boolean endsBlock() {
+        TokenType type = this.lookaheadType();
+        return type == TokenType.CODE_BLOCK || (type == TokenType.HEADER && !this.inCode);
     }
 
-    /** actual parser recursive logic */
-    private RootNode start() throws Exception {
-        RootNode root = new RootNode();
-        ArrayList<FlowContent> contents = new ArrayList<>();
-        while (this.lookahead != null) {
-            FlowContent content = this.content();
-            contents.add(content);
+    /** eats the format token and pushes it, it stays text unless it gets closed */
+    private void openFormat() {
+        if (this.formatDepth == this.formatTokens.length) {
+            this.formatTokens = Arrays.copyOf(this.formatTokens, this.formatDepth * 2);
         }
-        root.setChildren(contents);
-        return root;
+        int openIdx = this.eat(this.lookaheadType());
+        this.formatMarks[openIdx] = TEXT_MARK;
+        this.formatTokens[this.formatDepth++] = openIdx;
     }
 
-    private FlowContent content() throws Exception {
-        switch (this.lookahead.type) {
-            case CODE_BLOCK:
-                return this.code();
-            case HEADER:
-                return this.header();
-            default: 
-                return this.paragraph();
+    /**
+     * <p>pops the format node on top of the stack and marks both of its tokens</p>
+     * <p>nodes nested deeper than maxNesting stay text on both ends so the tree never gets deeper than that</p>
+     */
+    private void closeFormat() {
+        int openIdx = this.formatTokens[--this.formatDepth];
+        int closeIdx = this.eat(this.tokens.getType(openIdx));
+
+        if (this.formatDepth >= this.maxNesting) {
+            this.formatMarks[closeIdx] = TEXT_MARK;
+            return;
         }
+        this.formatMarks[openIdx] = OPEN_MARK;
+        this.formatMarks[closeIdx] = CLOSE_MARK;
     }
 
-    private ParagraphNode paragraph() throws Exception {
-        ParagraphNode paragraph = new ParagraphNode();
-        ArrayList<PhrasingContent> contents = new ArrayList<>();
-        while (
-            this.lookahead != null && 
-            (this.lookahead.type != TokenType.CODE_BLOCK && this.lookahead.type != TokenType.HEADER)
-        ) {
-            PhrasingContent content = this.phrasingContent();
-            contents.add(content);
-        }
-        paragraph.children = contents;
-        return paragraph;
-    }
-
-    private HeaderNode header() throws Exception {
-        String value = this.eat(TokenType.HEADER).value;
-        int depth = value.length();
-
-        HeaderNode header = new HeaderNode();
-        header.depth = depth;
-        ArrayList<PhrasingContent> contents = new ArrayList<>();
-        while (
-            this.lookahead != null && this.lookahead.type != TokenType.BREAK
-        ) {
-            PhrasingContent content = this.phrasingContent();
-            contents.add(content);
-        }
-        header.children = contents;
-        return header;
-    }
-
-    private CodeNode code() throws Exception {
-        this.eat(TokenType.CODE_BLOCK);
-        CodeNode code = new CodeNode();
-        ArrayList<PhrasingContent> contents = new ArrayList<>();
-        while (
-            this.lookahead != null && 
-            (this.lookahead.type != TokenType.CODE_BLOCK || this.lookahead.actionType != ActionType.CLOSE)
-        ) {
-            PhrasingContent content = this.phrasingContent();
-            contents.add(content);
-        }
-        code.children = contents;
-        this.eat(TokenType.CODE_BLOCK);
-        return code;
+    private static boolean isFormat(TokenType type) {
+        return type == TokenType.BOLD || type == TokenType.ITALICS || type == TokenType.STRIKETHROUGH || type == TokenType.HIGHLIGHT;
     }
 
-    private PhrasingContent phrasingContent() throws Exception {
-        switch (this.lookahead.type) {
-            case BREAK:
-                //code blocks naturally create visual breaks, don't need to manually insert any so we discard user breaks
-                if (lastToken != null && lastToken.type == TokenType.CODE_BLOCK) {
-                    this.eat(TokenType.BREAK);
-                    return this.phrasingContent();
-                }
-                return this.br();
-            case TEXT:
-                return this.text();
+    private static InlineType inlineType(TokenType type) {
+        switch (type) {
             case BOLD:
-                return this.strong();
+                return InlineType.STRONG;
             case ITALICS:
-                return this.emphasis();
+                return InlineType.EMPHASIS;
             case STRIKETHROUGH:
-                return this.strikethrough();
-            case HIGHLIGHT:
-                return this.mark();
+                return InlineType.STRIKE;
             default:
-                throw new Exception("token is not handled yet");
-        }
-    }
-
-    private TextNode br() throws Exception {
-        this.eat(TokenType.BREAK);
-        TextNode text = new TextNode();
-        text.value = "<br>";
-        text.children = null;
-        return text;
-    }
-
-    /** reminder for myself to put while loop since multiple text tokens can happen */
-    private TextNode text() throws Exception {
-        TextNode text = new TextNode();
-        text.value = this.eat(TokenType.TEXT).value;
-        text.children = null;
-        return text;
-    }
-
-    private StrongNode strong() throws Exception {
-        this.eat(TokenType.BOLD);
-        StrongNode node = new StrongNode();
-        ArrayList<PhrasingContent> contents = new ArrayList<>();
-        while (
-            this.lookahead != null && 
-            //continue recursing if the next token is not bold OR not closing
-            //if the next token is bold AND closing, that means we dont need to recurse further and can close the bold tag
-            (this.lookahead.type != TokenType.BOLD || this.lookahead.actionType != ActionType.CLOSE)
-        ) {
-            PhrasingContent content = this.phrasingContent();
-            contents.add(content);
-        }
-        this.eat(TokenType.BOLD);
-        node.children = contents;
-        return node;
-    }
-
-    private EmphasisNode emphasis() throws Exception {
-        this.eat(TokenType.ITALICS);
-        EmphasisNode node = new EmphasisNode();
-        ArrayList<PhrasingContent> contents = new ArrayList<>();
-        while (
-            this.lookahead != null && 
-            //continue recursing if the next token is not italics OR not closing
-            (this.lookahead.type != TokenType.ITALICS || this.lookahead.actionType != ActionType.CLOSE)
-        ) {
-            PhrasingContent content = this.phrasingContent();
-            contents.add(content);
-        }
-        this.eat(TokenType.ITALICS);
-        node.children = contents;
-        return node;
-    }
-
-    private StrikeNode strikethrough() throws Exception {
-        this.eat(TokenType.STRIKETHROUGH);
-        StrikeNode node = new StrikeNode();
-        ArrayList<PhrasingContent> contents = new ArrayList<>();
-        while (
-            this.lookahead != null && 
-            (this.lookahead.type != TokenType.STRIKETHROUGH || this.lookahead.actionType != ActionType.CLOSE)
-        ) {
-            PhrasingContent content = this.phrasingContent();
-            contents.add(content);
+                return InlineType.MARK;
         }
-        this.eat(TokenType.STRIKETHROUGH);
-        node.children = contents;
-        return node;
-    }
-
-    private MarkNode mark() throws Exception {
-        this.eat(TokenType.HIGHLIGHT);
-        MarkNode node = new MarkNode();
-        ArrayList<PhrasingContent> contents = new ArrayList<>();
-        while (
-            this.lookahead != null && 
-            (this.lookahead.type != TokenType.HIGHLIGHT || this.lookahead.actionType != ActionType.CLOSE)
-        ) {
-            PhrasingContent content = this.phrasingContent();
-            contents.add(content);
-        }
-        this.eat(TokenType.HIGHLIGHT);
-        node.children = contents;
-        return node;
     }
 
     public String convertToHtml() {
-        return Converter.convertParseTree(this.root);
+        this.html.setLength(0);
+        Converter.convertParseTree(this.tree, this.html);
+        return this.html.toString();
     }
 
     public static void main(String[] args) {
@@ -402,124 +394,7 @@ public class Parser {
         Parser parser = new Parser("* hi\n* lol");
         parser.parse();
 
-        System.out.println(PrintTree.printParseTree(parser.root));
+        System.out.println(PrintTree.printParseTree(parser.tree));
         System.out.println(parser.convertToHtml());
     }
 }
-
-class Converter {
-
-    /**
-     * Pretty print the directory tree and its file names.
-     * 
-     * @param root
-     *            must be a folder.
-     * @return
-     */
-    public static String convertParseTree(RootNode root) {
-        int indent = 0;
-        StringBuilder sb = new StringBuilder();
-        convertParseTree(root, indent, sb);
-        return sb.toString();
-    }
-    
-    private static <T extends Node<?>> void convertParseTree(Node<T> node, int indent, StringBuilder sb) {
-        
-        if (node.getTagName() == "code") {
-            printTag("pre", indent, "OPEN", sb);
-            printTag(node.getTagName(), indent, "OPEN", sb);
-        } else {
-            printTag(node.getTagName(), indent, "OPEN", sb);
-        }
-
-        for (T child : node.children) {
-            if (child instanceof TextNode) {
-                printNode(child, indent + 1, sb);
-            } else {
-                convertParseTree(child, indent + 1, sb);
-            }
-        }
-
-        if (node.getTagName() == "code") {
-            printTag(node.getTagName(), indent, "CLOSE", sb);
-            printTag("pre", indent, "CLOSE", sb);
-        } else {
-            printTag(node.getTagName(), indent, "CLOSE", sb);
-        }
-    }
-
-    private static <T extends Node<?>> void printTag(String tagName, int indent, String type, StringBuilder sb) {
-        String typeStr = type == "OPEN" ? "<" : "</";
-        // sb.append(getIndentString(indent));
-        sb.append(typeStr);
-        sb.append(tagName);
-        sb.append(">");
-        // sb.append("\n");
-    }
-    
-    private static <T extends Node<?>> void printNode(Node<T> node, int indent, StringBuilder sb) {
-        // sb.append(getIndentString(indent));
-        sb.append(((TextNode)node).value);
-        // sb.append("\n");
-    }
-    
-    // private static String getIndentString(int indent) {
-    //     StringBuilder sb = new StringBuilder();
-    //     for (int i = 0; i < indent; i++) {
-    //         sb.append("  ");
-    //     }
-    //     return sb.toString();
-    // }
-}
-
-
-class PrintTree {
-
-    /**
-     * Pretty print the directory tree and its file names.
-     * 
-     * @param root
-     *            must be a folder.
-     * @return
-     */
-    public static String printParseTree(RootNode root) {
-        int indent = 0;
-        StringBuilder sb = new StringBuilder();
-        printParseTree(root, indent, sb);
-        return sb.toString();
-    }
-
-    private static <T extends Node<?>> void printParseTree(Node<T> node, int indent,
-            StringBuilder sb) {
-        sb.append(getIndentString(indent));
-        sb.append("+--");
-        sb.append(node.getType());
-        sb.append("/");
-        sb.append("\n");
-        for (T child : node.children) {
-            if (child instanceof TextNode) {
-                printNode(child, indent + 1, sb);
-            } else {
-                printParseTree(child, indent + 1, sb);
-            }
-        }
-
-    }
-
-    private static <T extends Node<?>> void printNode(Node<T> node, int indent, StringBuilder sb) {
-        sb.append(getIndentString(indent));
-        sb.append("+--");
-        String value = ((TextNode)node).value;
-        if (value.equals("\n")) value = "\\n";
-        sb.append(node.getType() + ": " + "\"" + value + "\"");
-        sb.append("\n");
-    }
-
-    private static String getIndentString(int indent) {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < indent; i++) {
-            sb.append("|  ");
-        }
-        return sb.toString();
-    }
-}
@@ -0,0 +1,91 @@
+package org.vaadin.editor.parser;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>parsers are reset for every document and handed back instead of making a new parser, tokenizer and html buffer each time,
+ *   up to MAX_IDLE of them are kept for whichever thread needs one next</p>
+ * <p>they aren't kept per thread since with virtual threads every message gets a new thread that is gone afterwards, a thread local
+ *   would make a new parser for every message, the queue costs a couple of atomic operations per document on platform threads too</p>
+ * <p>documents bigger than MAX_POOLED_LENGTH get a throwaway parser so a single huge message doesn't keep huge buffers alive on the thread</p>
+ * <p>documents of at least BlockRenderer.PARALLEL_THRESHOLD characters have their inline formatting parsed and rendered on several threads</p>
+ * <p>blocks that didn't change since the last time they were rendered come out of a BlockCache shared by every thread, its size is
+ *   set with the editor.blockCache.maxBytes system property, 0 turns it off</p>
+ */
+public final class ParserPool {
+    private ParserPool() {
+        throw new Error("Utility class, only contains static methods and should not be instantiated");
+    }
+
+    static final int MAX_POOLED_LENGTH = 1 << 20;
+    /** parsers kept while nobody uses them, more than that are only around while they're used */
+    static final int MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+
+    private static final ConcurrentLinkedQueue<Parser> parsers = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger idleCount = new AtomicInteger();
+
+    private static volatile BlockCache blockCache = createBlockCache(Long.getLong("editor.blockCache.maxBytes", BlockCache.DEFAULT_MAX_BYTES));
+
+    /** parses the source and converts it to html with a pooled parser */
+    public static String convertToHtml(CharSequence source) {
+        Parser parser = acquire(source);
+        //the html is written while parsing, no tree is built for it
+        String html = BlockRenderer.renderHtml(parser, blockCache, BlockRenderer.isWorthSplitting(source));
+        release(parser, source);
+        return html;
+    }
+
+    /** writes the html of the source into the renderer, the same as parse() but big documents are rendered in parallel and blocks are cached */
+    public static void writeHtml(CharSequence source, Utf8HtmlRenderer renderer) {
+        Parser parser = acquire(source);
+        BlockRenderer.renderUtf8(parser, blockCache, BlockRenderer.isWorthSplitting(source), renderer);
+        release(parser, source);
+    }
+
+    /** parses the source with a pooled parser and sends every event to the handler, see Utf8HtmlRenderer */
+    public static void parse(CharSequence source, MarkdownHandler handler) {
+        Parser parser = acquire(source);
+        parser.parse(handler);
+        release(parser, source);
+    }
+
+    /** the cache convertToHtml() and writeHtml() use, null when caching is turned off */
+    public static BlockCache getBlockCache() {
+        return blockCache;
+    }
+
+    /** replaces the cache with an empty one that holds up to maxBytes, 0 turns caching off */
+    public static void setBlockCacheSize(long maxBytes) {
+        blockCache = createBlockCache(maxBytes);
+    }
+
+    private static BlockCache createBlockCache(long maxBytes) {
+        return maxBytes == 0 ? null : new BlockCache(maxBytes);
+    }
+
+    /** a pooled parser reset to the source, or a throwaway one for documents bigger than MAX_POOLED_LENGTH */
+    private static Parser acquire(CharSequence source) {
+        if (source.length() > MAX_POOLED_LENGTH) return new Parser(source);
+
+        Parser parser = parsers.poll();
+        if (parser == null) return new Parser(source);
+        idleCount.decrementAndGet();
+        parser.reset(source);
+        return parser;
+    }
+
+    /**
+     * <p>the tokens point into the source, drop them so the source can be collected, then the parser goes back if there's room,
+     *   throwaway parsers for big documents never do</p>
+     */
+    private static void release(Parser parser, CharSequence source) {
+        parser.reset("");
+        if (source.length() > MAX_POOLED_LENGTH) return;
+        if (idleCount.incrementAndGet() > MAX_IDLE) {
+            idleCount.decrementAndGet();
+            return;
+        }
+        parsers.offer(parser);
+    }
+}
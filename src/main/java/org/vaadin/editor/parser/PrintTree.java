@@ -0,0 +1,53 @@
+package org.vaadin.editor.parser;
+
+class PrintTree {
+
+    /**
+     * Pretty print the directory tree and its file names.
+     * 
+     * @param tree
+     *            parsed document.
+     * @return
+     */
+    public static String printParseTree(SyntaxTree tree) {
+        int indent = 0;
+        StringBuilder sb = new StringBuilder();
+        printParseTree(tree, SyntaxTree.ROOT_NODE, indent, sb);
+        return sb.toString();
+    }
+
+    private static void printParseTree(SyntaxTree tree, int node, int indent,
+            StringBuilder sb) {
+        byte kind = tree.getKind(node);
+        if (kind == SyntaxTree.TEXT || kind == SyntaxTree.BREAK) {
+            printNode(tree, node, indent, sb);
+            return;
+        }
+
+        sb.append(getIndentString(indent));
+        sb.append("+--");
+        sb.append(SyntaxTree.getType(kind));
+        sb.append("/");
+        sb.append("\n");
+        for (int child = tree.getFirstChild(node); child != SyntaxTree.NONE; child = tree.getNextSibling(child)) {
+            printParseTree(tree, child, indent + 1, sb);
+        }
+    }
+
+    private static void printNode(SyntaxTree tree, int node, int indent, StringBuilder sb) {
+        sb.append(getIndentString(indent));
+        sb.append("+--");
+        String value = tree.getKind(node) == SyntaxTree.BREAK ? "<br>" : tree.getValue(node);
+        if (value.equals("\n")) value = "\\n";
+        sb.append("text: " + "\"" + value + "\"");
+        sb.append("\n");
+    }
+
+    private static String getIndentString(int indent) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < indent; i++) {
+            sb.append("|  ");
+        }
+        return sb.toString();
+    }
+}
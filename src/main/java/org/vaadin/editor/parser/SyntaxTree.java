@@ -0,0 +1,186 @@
+package org.vaadin.editor.parser;
+
+import java.util.Arrays;
+
+/**
+ * <p>the parse tree of a document kept in parallel arrays instead of one object per node</p>
+ * <p>node i is kinds[i], its children are linked through firstChildren[i] and nextSiblings[], and it covers starts[i] to ends[i]
+ *   of the source, text nodes don't copy anything out of the source, node 0 is always the root</p>
+ * <p>the blocks, the children of the root, are also kept in an array in order, they never overlap so the block at an offset
+ *   is found with a binary search instead of walking the tree, see findBlock()</p>
+ * <p>like TokenBuffer the arrays are kept by reset() so parsing the next document into the same tree doesn't allocate
+ *   unless it has more nodes than any document before it</p>
+ */
+final class SyntaxTree {
+    static final byte ROOT = 0;
+    static final byte PARAGRAPH = 1;
+    static final byte CODE = 2;
+    static final byte HEADER = 3;
+    static final byte STRONG = 4;
+    static final byte EMPHASIS = 5;
+    static final byte STRIKE = 6;
+    static final byte MARK = 7;
+    static final byte TEXT = 8;
+    static final byte BREAK = 9;
+
+    /** index of the root node */
+    static final int ROOT_NODE = 0;
+    /** stands in for a missing child or sibling */
+    static final int NONE = -1;
+
+    private static final String[] TYPES = {"root", "paragraph", "code", "header", "strong", "emphasis", "strike", "mark", "text", "break"};
+    /** html tag name of each kind, headers get their depth added and text doesn't have one */
+    private static final String[] TAG_NAMES = {"html", "p", "code", "h", "strong", "em", "strike", "mark", null, null};
+
+    private CharSequence source = "";
+    private byte[] kinds;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] starts;
+    private int[] ends;
+    private int size = 0;
+    /** nodes of the root's children */
+    private int[] blocks = new int[16];
+    private int blockCount = 0;
+
+    SyntaxTree() {
+        this(64);
+    }
+
+    SyntaxTree(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.kinds = new byte[capacity];
+        this.firstChildren = new int[capacity];
+        this.nextSiblings = new int[capacity];
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.reset("");
+    }
+
+    /** removes every node except for an empty root that covers the whole source */
+    void reset(CharSequence source) {
+        this.source = source;
+        this.size = 0;
+        this.blockCount = 0;
+        this.add(NONE, NONE, ROOT, 0, source.length());
+    }
+
+    /**
+     * <p>adds a node right after previous, or as the first child of parent when previous is NONE</p>
+     * @return index of the new node
+     */
+    int add(int parent, int previous, byte kind, int start, int end) {
+        if (this.size == this.kinds.length) {
+            int capacity = this.size * 2;
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+            this.firstChildren = Arrays.copyOf(this.firstChildren, capacity);
+            this.nextSiblings = Arrays.copyOf(this.nextSiblings, capacity);
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.ends = Arrays.copyOf(this.ends, capacity);
+        }
+        int node = this.size++;
+        this.kinds[node] = kind;
+        this.firstChildren[node] = NONE;
+        this.nextSiblings[node] = NONE;
+        this.starts[node] = start;
+        this.ends[node] = end;
+
+        if (previous != NONE) {
+            this.nextSiblings[previous] = node;
+        } else if (parent != NONE) {
+            this.firstChildren[parent] = node;
+        }
+        if (parent == ROOT_NODE) {
+            if (this.blockCount == this.blocks.length) this.blocks = Arrays.copyOf(this.blocks, this.blockCount * 2);
+            this.blocks[this.blockCount++] = node;
+        }
+        return node;
+    }
+
+    void setEnd(int node, int end) {
+        this.ends[node] = end;
+    }
+
+    /** text the nodes point into */
+    CharSequence getSource() {
+        return this.source;
+    }
+
+    /** number of nodes, including the root */
+    int size() {
+        return this.size;
+    }
+
+    byte getKind(int node) {
+        return this.kinds[node];
+    }
+
+    int getFirstChild(int node) {
+        return this.firstChildren[node];
+    }
+
+    int getNextSibling(int node) {
+        return this.nextSiblings[node];
+    }
+
+    /** starting index of the node in the source (INCLUSIVE) */
+    int getStart(int node) {
+        return this.starts[node];
+    }
+
+    /** ending index of the node in the source (EXCLUSIVE) */
+    int getEnd(int node) {
+        return this.ends[node];
+    }
+
+    /** number of children of the root */
+    int getBlockCount() {
+        return this.blockCount;
+    }
+
+    /** node of the root's i-th child */
+    int getBlock(int i) {
+        return this.blocks[i];
+    }
+
+    /**
+     * <p>index of the block the offset is in, see getBlock(), in O(log n) for n blocks</p>
+     * <p>characters that aren't in any block, like the backslash of an escape in front of a header, count as part of the block before them</p>
+     * @return -1 if the offset is before the first block
+     */
+    int findBlock(int offset) {
+        //last block that starts at or before the offset
+        int low = 0;
+        int high = this.blockCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (this.starts[this.blocks[mid]] <= offset) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    String getValue(int node) {
+        return this.source.subSequence(this.starts[node], this.ends[node]).toString();
+    }
+
+    /** headers start with their run of #, so the depth is read back out of the source instead of being stored for every node */
+    int getHeaderDepth(int node) {
+        int depth = 0;
+        for (int i = this.starts[node], end = this.ends[node]; i < end && this.source.charAt(i) == '#'; i++) {
+            depth++;
+        }
+        return depth;
+    }
+
+    static String getType(byte kind) {
+        return TYPES[kind];
+    }
+
+    static String getTagName(byte kind) {
+        return TAG_NAMES[kind];
+    }
+}
@@ -0,0 +1,100 @@
+package org.vaadin.editor.parser;
+
+import java.util.Arrays;
+
+/** builds a SyntaxTree out of the parser's events, this is what Parser.parse() uses */
+final class TreeBuilder implements MarkdownHandler {
+    private final SyntaxTree tree;
+    /** nodes that were entered but not exited yet and the last child each of them has so far, the root is always at the bottom */
+    private int[] parents = new int[16];
+    private int[] lastChildren = new int[16];
+    private int depth = 0;
+
+    TreeBuilder(SyntaxTree tree) {
+        this.tree = tree;
+    }
+
+    @Override
+    public void startDocument(CharSequence source) {
+        this.tree.reset(source);
+        this.depth = 0;
+        this.push(SyntaxTree.ROOT_NODE);
+    }
+
+    @Override
+    public void endDocument() {
+        this.depth = 0;
+    }
+
+    @Override
+    public void enterBlock(BlockType type, int depth, int start) {
+        this.push(this.add(blockKind(type), start, start));
+    }
+
+    @Override
+    public void exitBlock(BlockType type, int end) {
+        this.tree.setEnd(this.parents[--this.depth], end);
+    }
+
+    @Override
+    public void enterInline(InlineType type, int start) {
+        this.push(this.add(inlineKind(type), start, start));
+    }
+
+    @Override
+    public void exitInline(InlineType type, int end) {
+        this.tree.setEnd(this.parents[--this.depth], end);
+    }
+
+    @Override
+    public void text(CharSequence source, int start, int end) {
+        this.add(SyntaxTree.TEXT, start, end);
+    }
+
+    @Override
+    public void lineBreak(int start, int end) {
+        this.add(SyntaxTree.BREAK, start, end);
+    }
+
+    /** adds a node after the last child of the node that is open */
+    private int add(byte kind, int start, int end) {
+        int top = this.depth - 1;
+        int node = this.tree.add(this.parents[top], this.lastChildren[top], kind, start, end);
+        this.lastChildren[top] = node;
+        return node;
+    }
+
+    private void push(int node) {
+        if (this.depth == this.parents.length) {
+            this.parents = Arrays.copyOf(this.parents, this.depth * 2);
+            this.lastChildren = Arrays.copyOf(this.lastChildren, this.depth * 2);
+        }
+        this.parents[this.depth] = node;
+        this.lastChildren[this.depth] = SyntaxTree.NONE;
+        this.depth++;
+    }
+
+    private static byte blockKind(BlockType type) {
+        switch (type) {
+            case HEADER:
+                return SyntaxTree.HEADER;
+            case CODE:
+                return SyntaxTree.CODE;
+            default:
+                return SyntaxTree.PARAGRAPH;
+        }
+    }
+
+    private static byte inlineKind(InlineType type) {
+        switch (type) {
+            case STRONG:
+                return SyntaxTree.STRONG;
+            case EMPHASIS:
+                return SyntaxTree.EMPHASIS;
+            case STRIKE:
+                return SyntaxTree.STRIKE;
+            default:
+                return SyntaxTree.MARK;
+        }
+    }
+}
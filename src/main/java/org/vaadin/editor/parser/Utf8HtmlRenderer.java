@@ -0,0 +1,278 @@
+package org.vaadin.editor.parser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.vaadin.editor.text.Rope;
+
+/**
+ * <p>writes the html as utf-8 bytes while the parser goes through the document, gives the same html as HtmlRenderer without
+ *   ever making a String of it</p>
+ *
+ * <p>tags are written from byte arrays that were encoded once up front, text is copied out of the source a chunk at a time and
+ *   encoded from there, so a Rope is read a leaf at a time instead of walking down it for every char, the bytes are kept in one
+ *   array that is reused after reset() so they can be handed to a websocket frame or an OutputStream as they are</p>
+ *
+ * <p>text in the html is escaped the same way HtmlEscaper does it, in the same pass that encodes it</p>
+ *
+ * <p>with jsonString on, everything written is escaped to go in between the quotes of a json string, so the html can be written
+ *   right into a json message without encoding it a second time</p>
+ */
+public final class Utf8HtmlRenderer implements HtmlSink {
+    private static final byte[] HTML_OPEN = ascii("<html>");
+    private static final byte[] HTML_CLOSE = ascii("</html>");
+    private static final byte[] P_OPEN = ascii("<p>");
+    private static final byte[] P_CLOSE = ascii("</p>");
+    private static final byte[] CODE_OPEN = ascii("<pre><code>");
+    private static final byte[] CODE_CLOSE = ascii("</code></pre>");
+    private static final byte[] H_OPEN = ascii("<h");
+    private static final byte[] H_CLOSE = ascii("</h");
+    private static final byte[] BR = ascii("<br>");
+    /** indexed by InlineType.ordinal() */
+    private static final byte[][] INLINE_OPEN = {ascii("<strong>"), ascii("<em>"), ascii("<strike>"), ascii("<mark>")};
+    private static final byte[][] INLINE_CLOSE = {ascii("</strong>"), ascii("</em>"), ascii("</strike>"), ascii("</mark>")};
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    /** a buffer that grew bigger than this for one huge document isn't kept around by reset() */
+    static final int MAX_RETAINED_CAPACITY = 1 << 22;
+    /** how many chars of the source are copied out at once for encoding them */
+    static final int CHUNK_LENGTH = 1024;
+
+    private final boolean jsonString;
+    private byte[] bytes = new byte[1024];
+    private int size = 0;
+    private final char[] chunk = new char[CHUNK_LENGTH];
+    private int headerDepth;
+
+    public Utf8HtmlRenderer() {
+        this(false);
+    }
+
+    public Utf8HtmlRenderer(boolean jsonString) {
+        this.jsonString = jsonString;
+    }
+
+    boolean isJsonString() {
+        return this.jsonString;
+    }
+
+    /** copies everything another renderer wrote, for putting the blocks rendered on other threads together, see BlockRenderer */
+    void write(Utf8HtmlRenderer other) {
+        this.ensureCapacity(other.size);
+        System.arraycopy(other.bytes, 0, this.bytes, this.size, other.size);
+        this.size += other.size;
+    }
+
+    /** removes everything that was written, the array is kept for the next document */
+    public void reset() {
+        if (this.bytes.length > MAX_RETAINED_CAPACITY) this.bytes = new byte[1024];
+        this.size = 0;
+    }
+
+    /** number of bytes written since the last reset() */
+    public int size() {
+        return this.size;
+    }
+
+    /** read only view of the bytes written so far, only valid until the next reset() */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(this.bytes, 0, this.size).asReadOnlyBuffer();
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.bytes, this.size);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(this.bytes, 0, this.size);
+    }
+
+    /** writes characters that are known to be ascii and don't need escaping as they are, for the text around the html */
+    public void writeAscii(String ascii) {
+        this.ensureCapacity(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            this.bytes[this.size++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    /** writes any text encoded as utf-8, and escaped when jsonString is on, the text isn't escaped for html */
+    public void writeText(CharSequence source, int start, int end) {
+        this.encode(source, start, end, false);
+    }
+
+    /** writes html that was already rendered, the same as writeText() since the html doesn't need escaping again */
+    @Override
+    public void writeHtml(String html) {
+        this.encode(html, 0, html.length(), false);
+    }
+
+    private void encode(CharSequence source, int start, int end, boolean escapeHtml) {
+        char[] chunk = this.chunk;
+        while (start < end) {
+            int length = Math.min(end - start, chunk.length);
+            getChars(source, start, start + length, chunk);
+            //a surrogate pair isn't split between two chunks, its high half is left for the next one
+            if (start + length < end && Character.isHighSurrogate(chunk[length - 1])) length--;
+            this.encode(chunk, length, escapeHtml);
+            start += length;
+        }
+    }
+
+    private void encode(char[] chars, int end, boolean escapeHtml) {
+        //an escaped character (a json escape or an html entity) takes at most 6 bytes and any other char at most 3, a surrogate pair is 4 bytes for 2 chars
+        this.ensureCapacity(end * Math.max(6, HtmlEscaper.MAX_ENTITY_LENGTH));
+        byte[] bytes = this.bytes;
+        int size = this.size;
+        for (int i = 0; i < end; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                byte[] entity = escapeHtml ? HtmlEscaper.ENTITY_BYTES[c] : null;
+                if (entity != null) {
+                    //entities don't have anything in them that json would need to escape
+                    System.arraycopy(entity, 0, bytes, size, entity.length);
+                    size += entity.length;
+                } else if (this.jsonString && (c < 0x20 || c == '"' || c == '\\')) {
+                    size = escape(c, bytes, size);
+                } else {
+                    bytes[size++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                bytes[size++] = (byte) (0xc0 | (c >> 6));
+                bytes[size++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1])) {
+                int codePoint = Character.toCodePoint(c, chars[++i]);
+                bytes[size++] = (byte) (0xf0 | (codePoint >> 18));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                bytes[size++] = (byte) (0x80 | (codePoint & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                //half of a pair can't be encoded, String.getBytes() does the same
+                bytes[size++] = '?';
+            } else {
+                bytes[size++] = (byte) (0xe0 | (c >> 12));
+                bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                bytes[size++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        this.size = size;
+    }
+
+    private static void getChars(CharSequence source, int start, int end, char[] chars) {
+        if (source instanceof String) {
+            ((String) source).getChars(start, end, chars, 0);
+            return;
+        }
+        if (source instanceof Rope) {
+            ((Rope) source).getChars(start, end, chars, 0);
+            return;
+        }
+        for (int i = start; i < end; i++) chars[i - start] = source.charAt(i);
+    }
+
+    private static int escape(char c, byte[] bytes, int size) {
+        bytes[size++] = '\\';
+        switch (c) {
+            case '"':
+            case '\\':
+                bytes[size++] = (byte) c;
+                return size;
+            case '\n':
+                bytes[size++] = 'n';
+                return size;
+            case '\r':
+                bytes[size++] = 'r';
+                return size;
+            case '\t':
+                bytes[size++] = 't';
+                return size;
+            default:
+                bytes[size++] = 'u';
+                bytes[size++] = '0';
+                bytes[size++] = '0';
+                bytes[size++] = HEX[c >> 4];
+                bytes[size++] = HEX[c & 0xf];
+                return size;
+        }
+    }
+
+    @Override
+    public void startDocument(CharSequence source) {
+        this.write(HTML_OPEN);
+    }
+
+    @Override
+    public void endDocument() {
+        this.write(HTML_CLOSE);
+    }
+
+    @Override
+    public void enterBlock(BlockType type, int depth, int start) {
+        switch (type) {
+            case CODE:
+                this.write(CODE_OPEN);
+                return;
+            case HEADER:
+                this.headerDepth = depth;
+                this.write(H_OPEN);
+                this.writeAscii(Integer.toString(depth));
+                this.writeAscii(">");
+                return;
+            default:
+                this.write(P_OPEN);
+        }
+    }
+
+    @Override
+    public void exitBlock(BlockType type, int end) {
+        switch (type) {
+            case CODE:
+                this.write(CODE_CLOSE);
+                return;
+            case HEADER:
+                this.write(H_CLOSE);
+                this.writeAscii(Integer.toString(this.headerDepth));
+                this.writeAscii(">");
+                return;
+            default:
+                this.write(P_CLOSE);
+        }
+    }
+
+    @Override
+    public void enterInline(InlineType type, int start) {
+        this.write(INLINE_OPEN[type.ordinal()]);
+    }
+
+    @Override
+    public void exitInline(InlineType type, int end) {
+        this.write(INLINE_CLOSE[type.ordinal()]);
+    }
+
+    @Override
+    public void text(CharSequence source, int start, int end) {
+        this.encode(source, start, end, true);
+    }
+
+    @Override
+    public void lineBreak(int start, int end) {
+        this.write(BR);
+    }
+
+    private void write(byte[] tag) {
+        this.ensureCapacity(tag.length);
+        System.arraycopy(tag, 0, this.bytes, this.size, tag.length);
+        this.size += tag.length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (this.size + extra <= this.bytes.length) return;
+        this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + extra));
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
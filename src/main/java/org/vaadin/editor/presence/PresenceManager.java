@@ -1,21 +1,44 @@
 package org.vaadin.editor.presence;
 
 import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.vaadin.editor.models.ParserResponseMessage;
 import org.vaadin.editor.models.TextMessage;
-import org.vaadin.editor.parser.Parser;
+import org.vaadin.editor.parser.ParserPool;
 
 import com.vaadin.flow.server.auth.AnonymousAllowed;
 import com.vaadin.hilla.BrowserCallable;
+import com.vaadin.hilla.exception.EndpointException;
 
 @BrowserCallable
 @AnonymousAllowed
 public class PresenceManager {
+	private static final Logger logger = LoggerFactory.getLogger(PresenceManager.class);
+
 	private static HashSet<String> users = new HashSet<>();
-	private static String globalText = "";
+	private static final SharedDocument document = new SharedDocument();
 	private static int userCount = 0;
 
+	private final RenderExecutor renderExecutor;
+	/** how long loading the document waits for its html before the client is told to try again */
+	private final long snapshotTimeoutMillis;
+
+	public PresenceManager(
+		RenderExecutor renderExecutor,
+		@Value("${editor.render.snapshot-timeout-ms:10000}") long snapshotTimeoutMillis
+	) {
+		this.renderExecutor = renderExecutor;
+		this.snapshotTimeoutMillis = snapshotTimeoutMillis;
+	}
+
 	public static HashSet<String> getUsers() {
 		return users;
 	}
@@ -29,12 +52,12 @@ public class PresenceManager {
 		users.remove(sessionId);
 	}
 
-	public static void setGlobalText(String text) {
-		globalText = text;
+	public static SharedDocument getDocument() {
+		return document;
 	}
 
 	public static String getGlobalText() {
-		return globalText;
+		return document.getText();
 	}
 
 	public int generateUserId() {
@@ -42,13 +65,43 @@ public class PresenceManager {
 	}
 
 	public ParserResponseMessage getInitialText(int userId) {
-		String text = PresenceManager.getGlobalText();
-		System.out.println("user " + userId + " connected, sending text: '" + text + "'");
+		// the text and its version have to be read together, the client's edits are made on that version
+		SharedDocument.Snapshot snapshot = document.getSnapshot();
+		String text = snapshot.getText().toString();
+		int version = snapshot.getVersion();
+		logger.debug("user {} connected, sending version {} ({} characters)", userId, version, text.length());
 		TextMessage message = new TextMessage(text, userId);
-		Parser parser = new Parser(text);
-		parser.parse();
-		ParserResponseMessage response = new ParserResponseMessage(message, parser.convertToHtml());
+		ParserResponseMessage response = new ParserResponseMessage(message, version, this.renderHtml(text));
 
 		return response;
 	}
+
+	/**
+	 * <p>loading the whole document waits behind the renders after edits, so a client connecting never holds up the people typing</p>
+	 * <p>the html is only ever rendered on the render executor, when its snapshot lane is full or the render doesn't finish in time
+	 *   the client gets an error and asks again later, rendering it here would get around the bound on the renders</p>
+	 */
+	private String renderHtml(String text) {
+		CompletableFuture<String> html;
+		try {
+			html = this.renderExecutor.submit(RenderExecutor.Lane.SNAPSHOT, () -> ParserPool.convertToHtml(text));
+		} catch (RejectedExecutionException e) {
+			throw new EndpointException("too many clients are loading the document, try again later");
+		}
+
+		try {
+			return html.get(this.snapshotTimeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			// a render that didn't start yet is skipped
+			html.cancel(false);
+			throw new EndpointException("loading the document took too long, try again later");
+		} catch (InterruptedException e) {
+			html.cancel(false);
+			Thread.currentThread().interrupt();
+			throw new EndpointException("loading the document was interrupted");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
 }
@@ -0,0 +1,164 @@
+package org.vaadin.editor.presence;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <p>the threads every document is parsed and rendered on, so a huge document never holds up the threads that handle messages</p>
+ *
+ * <p>the work waits in one queue ordered by lane, a thread always takes the oldest task of the first lane that has one, so the
+ *   html after an edit never waits behind a client loading the whole document</p>
+ *
+ * <p>every lane holds at most queueCapacity tasks, more than that is rejected instead of piling up, the render scheduler only ever
+ *   queues one task per document so the interactive lane only fills up when the threads can't keep up at all</p>
+ */
+public final class RenderExecutor {
+	/** the lanes in the order they're taken from */
+	public enum Lane {
+		/** the html after an edit, someone is waiting to see what they typed */
+		INTERACTIVE,
+		/** the whole document for a client that connected or fell behind */
+		SNAPSHOT
+	}
+
+	private final ThreadPoolExecutor pool;
+	private final int queueCapacity;
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicInteger[] queued = new AtomicInteger[Lane.values().length];
+	private final AtomicLong[] completed = new AtomicLong[Lane.values().length];
+	private final AtomicLong[] rejected = new AtomicLong[Lane.values().length];
+
+	public RenderExecutor(int threads, int queueCapacity) {
+		this(threads, queueCapacity, daemonThreads());
+	}
+
+	/**
+	 * <p>the threads are made by the given factory, with virtual threads the pool still only runs this many tasks at once, the lanes
+	 *   and the bound stay the same, only a task that blocks doesn't hold on to a platform thread</p>
+	 */
+	public RenderExecutor(int threads, int queueCapacity, ThreadFactory threadFactory) {
+		if (threads < 1) throw new IllegalArgumentException("threads has to be at least 1: " + threads);
+		if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity has to be at least 1: " + queueCapacity);
+		this.queueCapacity = queueCapacity;
+		for (int i = 0; i < this.queued.length; i++) {
+			this.queued[i] = new AtomicInteger();
+			this.completed[i] = new AtomicLong();
+			this.rejected[i] = new AtomicLong();
+		}
+
+		this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), threadFactory);
+	}
+
+	private static ThreadFactory daemonThreads() {
+		AtomicInteger threadCount = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "render-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * <p>runs the task on one of the render threads once every task in a lane before it was taken</p>
+	 * @throws RejectedExecutionException when the lane is full or the executor was shut down
+	 */
+	public void execute(Lane lane, Runnable task) {
+		AtomicInteger queued = this.queued[lane.ordinal()];
+		if (queued.incrementAndGet() > this.queueCapacity) {
+			queued.decrementAndGet();
+			this.rejected[lane.ordinal()].incrementAndGet();
+			throw new RejectedExecutionException(lane + " lane is full (" + this.queueCapacity + " tasks)");
+		}
+		try {
+			this.pool.execute(new Task(lane, this.sequence.getAndIncrement(), task));
+		} catch (RejectedExecutionException e) {
+			queued.decrementAndGet();
+			this.rejected[lane.ordinal()].incrementAndGet();
+			throw e;
+		}
+	}
+
+	/**
+	 * <p>same as execute(), the future completes with what the task returned or what it threw</p>
+	 * <p>a future that was cancelled before its task started skips the task, nobody is waiting for it anymore</p>
+	 */
+	public <T> CompletableFuture<T> submit(Lane lane, Supplier<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		this.execute(lane, () -> {
+			if (future.isDone()) return;
+			try {
+				future.complete(task.get());
+			} catch (RuntimeException | Error e) {
+				future.completeExceptionally(e);
+			}
+		});
+		return future;
+	}
+
+	/** tasks in the lane that didn't start yet */
+	public int getQueued(Lane lane) {
+		return this.queued[lane.ordinal()].get();
+	}
+
+	public long getCompleted(Lane lane) {
+		return this.completed[lane.ordinal()].get();
+	}
+
+	public long getRejected(Lane lane) {
+		return this.rejected[lane.ordinal()].get();
+	}
+
+	/** threads that are running a task right now */
+	public int getActiveCount() {
+		return this.pool.getActiveCount();
+	}
+
+	public int getThreadCount() {
+		return this.pool.getMaximumPoolSize();
+	}
+
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	/** lets the queued tasks finish but doesn't take any new ones */
+	public void shutdown() {
+		this.pool.shutdown();
+	}
+
+	/** a task in the queue, lanes in order and the tasks of a lane in the order they came in */
+	private final class Task implements Runnable, Comparable<Task> {
+		private final Lane lane;
+		private final long sequence;
+		private final Runnable task;
+
+		Task(Lane lane, long sequence, Runnable task) {
+			this.lane = lane;
+			this.sequence = sequence;
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			RenderExecutor.this.queued[this.lane.ordinal()].decrementAndGet();
+			try {
+				this.task.run();
+			} finally {
+				RenderExecutor.this.completed[this.lane.ordinal()].incrementAndGet();
+			}
+		}
+
+		@Override
+		public int compareTo(Task other) {
+			if (this.lane != other.lane) return Integer.compare(this.lane.ordinal(), other.lane.ordinal());
+			return Long.compare(this.sequence, other.sequence);
+		}
+	}
+}
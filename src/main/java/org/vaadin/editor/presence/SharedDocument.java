@@ -0,0 +1,130 @@
+package org.vaadin.editor.presence;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import org.vaadin.editor.models.EditMessage;
+import org.vaadin.editor.text.Rope;
+
+/**
+ * <p>the text everyone is editing, it only changes through edits and every edit gives it a new version</p>
+ *
+ * <p>a client makes an edit on the version it has, by the time the edit gets here other edits may have been applied,
+ *   so the edit is moved past each of them first, see transform(), the last MAX_HISTORY edits are kept for that</p>
+ *
+ * <p>the text is a Rope so an edit doesn't copy the whole document, every version is a Snapshot that never changes, edits are
+ *   applied one at a time but reading the current snapshot never waits for them</p>
+ */
+public class SharedDocument {
+	/** an edit made on a version older than this many edits ago can't be moved anymore, it's dropped */
+	static final int MAX_HISTORY = 1024;
+
+	/** replaced with a new one by every edit */
+	private volatile Snapshot snapshot = new Snapshot(Rope.EMPTY, 0);
+	/** the edits that made the last versions, oldest first, every edit is the one that was applied, only used while holding the lock */
+	private final ArrayDeque<EditMessage> history = new ArrayDeque<>();
+
+	/** the text and the version it's at, they always go together */
+	public Snapshot getSnapshot() {
+		return this.snapshot;
+	}
+
+	public String getText() {
+		return this.snapshot.getText().toString();
+	}
+
+	public int getVersion() {
+		return this.snapshot.getVersion();
+	}
+
+	/**
+	 * <p>moves the edit past the edits that were applied since its version and applies it</p>
+	 *
+	 * <p>an edit more than MAX_HISTORY versions behind or made on a version the document doesn't have yet can't be moved, applying
+	 *   it anyway would put it somewhere the sender never meant, so it's dropped and the sender has to start over from the current text</p>
+	 *
+	 * @return the edit as it was applied, its version is the version it was applied to, the document is at the version after it,
+	 *   null if the edit was dropped
+	 */
+	public synchronized EditMessage apply(EditMessage edit) {
+		String editText = edit.getText() == null ? "" : edit.getText();
+		EditMessage applied = new EditMessage(edit.getVersion(), edit.getStart(), edit.getEnd(), editText, edit.getSenderId());
+
+		Snapshot current = this.snapshot;
+		Rope text = current.getText();
+		int version = current.getVersion();
+		int behind = version - edit.getVersion();
+		if (behind < 0 || behind > this.history.size()) return null;
+
+		Iterator<EditMessage> edits = this.history.iterator();
+		for (int i = this.history.size() - behind; i > 0; i--) {
+			edits.next();
+		}
+		while (edits.hasNext()) {
+			applied = transform(applied, edits.next(), false);
+		}
+
+		//positions outside of the text are kept inside of it
+		int start = Math.max(0, Math.min(applied.getStart(), text.length()));
+		int end = Math.max(start, Math.min(applied.getEnd(), text.length()));
+		applied = new EditMessage(version, start, end, applied.getText(), edit.getSenderId());
+
+		this.snapshot = new Snapshot(text.replace(start, end, applied.getText()), version + 1);
+		this.history.addLast(applied);
+		if (this.history.size() > MAX_HISTORY) this.history.removeFirst();
+		return applied;
+	}
+
+	/**
+	 * <p>the edit moved so it does the same thing after the other edit was applied first, both have to be made on the same text</p>
+	 *
+	 * <p>when the edits don't overlap the edit stays where it is if it's in front of the other one, otherwise it moves by how much
+	 *   longer or shorter the other edit made the text, an insert at the start or the end of what the other edit replaced is next to it</p>
+	 *
+	 * <p>when they do overlap, or both insert at the same place, the edit replaces everything either of them replaced, the other edit's
+	 *   text included, with both texts, the one from the edit that's first in front, so applying the edit after the other one or the other
+	 *   one moved past the edit after the edit gives the same text</p>
+	 *
+	 * <p>the client does the same thing in editor.tsx, to move the edits it didn't get back yet past the ones from other clients</p>
+	 */
+	static EditMessage transform(EditMessage edit, EditMessage other, boolean first) {
+		String text = edit.getText() == null ? "" : edit.getText();
+		String otherText = other.getText() == null ? "" : other.getText();
+		int start = edit.getStart();
+		int end = edit.getEnd();
+		int otherStart = other.getStart();
+		int otherEnd = other.getEnd();
+		int shift = otherText.length() - (otherEnd - otherStart);
+
+		boolean samePlace = start == end && otherStart == otherEnd && start == otherStart;
+		if (!samePlace && end <= otherStart) {
+			return new EditMessage(edit.getVersion() + 1, start, end, text, edit.getSenderId());
+		}
+		if (!samePlace && otherEnd <= start) {
+			return new EditMessage(edit.getVersion() + 1, start + shift, end + shift, text, edit.getSenderId());
+		}
+
+		int newEnd = end > otherEnd ? end + shift : otherStart + otherText.length();
+		String newText = first ? text + otherText : otherText + text;
+		return new EditMessage(edit.getVersion() + 1, Math.min(start, otherStart), newEnd, newText, edit.getSenderId());
+	}
+
+	/** one version of the document, the text shares everything the edits after it didn't change with the versions after it */
+	public static final class Snapshot {
+		private final Rope text;
+		private final int version;
+
+		Snapshot(Rope text, int version) {
+			this.text = text;
+			this.version = version;
+		}
+
+		public Rope getText() {
+			return this.text;
+		}
+
+		public int getVersion() {
+			return this.version;
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package org.vaadin.editor.text;
+
+/**
+ * <p>text that never changes, kept as a balanced tree of short pieces instead of one array, editing it makes a new rope that
+ *   shares every piece the edit didn't touch with the old one, so an edit is O(log n) instead of copying the whole text</p>
+ *
+ * <p>a leaf holds at most MAX_LEAF characters, a node holds the text of its left child followed by its right child, the heights
+ *   of the two children of a node never differ by more than 1 (the same as an AVL tree) so a rope is never deeper than about
+ *   1.44 log2 of its number of leaves</p>
+ *
+ * <p>since a rope never changes any number of threads can read it while a new one is being made out of it, charAt() is O(log n),
+ *   getChars() copies a range in one pass for readers that go through all of it like the tokenizer</p>
+ */
+public final class Rope implements CharSequence {
+    /** leaves are joined together as long as they fit in this many characters, so typing doesn't leave a leaf for every character */
+    static final int MAX_LEAF = 512;
+
+    public static final Rope EMPTY = new Rope("");
+
+    /** text of a leaf, null for a node */
+    private final String leaf;
+    private final Rope left;
+    private final Rope right;
+    private final int length;
+    /** 0 for a leaf */
+    private final int height;
+    /** the whole text once toString() was called, racy like String.hash, every thread makes the same string */
+    private String string;
+
+    private Rope(String leaf) {
+        this.leaf = leaf;
+        this.left = null;
+        this.right = null;
+        this.length = leaf.length();
+        this.height = 0;
+        this.string = leaf;
+    }
+
+    private Rope(Rope left, Rope right) {
+        this.leaf = null;
+        this.left = left;
+        this.right = right;
+        this.length = left.length + right.length;
+        this.height = Math.max(left.height, right.height) + 1;
+    }
+
+    public static Rope of(CharSequence text) {
+        if (text instanceof Rope) return (Rope) text;
+        if (text.length() == 0) return EMPTY;
+        return build(text.toString(), 0, text.length());
+    }
+
+    /** splits the text in half until the pieces fit in a leaf, the halves get the same number of leaves give or take one */
+    private static Rope build(String text, int start, int end) {
+        if (end - start <= MAX_LEAF) return new Rope(text.substring(start, end));
+        int leaves = (end - start + MAX_LEAF - 1) / MAX_LEAF;
+        int mid = start + (leaves / 2) * MAX_LEAF;
+        return new Rope(build(text, start, mid), build(text, mid, end));
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    /** height of the tree, 0 for a single leaf */
+    int height() {
+        return this.height;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException(String.format("index %d out of bounds for length %d", index, this.length));
+        }
+        Rope rope = this;
+        while (rope.leaf == null) {
+            if (index < rope.left.length) {
+                rope = rope.left;
+            } else {
+                index -= rope.left.length;
+                rope = rope.right;
+            }
+        }
+        return rope.leaf.charAt(index);
+    }
+
+    /** copies the characters between start (INCLUSIVE) and end (EXCLUSIVE) into dst, the same as String.getChars() */
+    public void getChars(int start, int end, char[] dst, int dstStart) {
+        this.checkRange(start, end);
+        this.copy(start, end, dst, dstStart);
+    }
+
+    private void copy(int start, int end, char[] dst, int dstStart) {
+        if (start == end) return;
+        if (this.leaf != null) {
+            this.leaf.getChars(start, end, dst, dstStart);
+            return;
+        }
+        int leftLength = this.left.length;
+        if (start < leftLength) this.left.copy(start, Math.min(end, leftLength), dst, dstStart);
+        if (end > leftLength) this.right.copy(Math.max(start, leftLength) - leftLength, end - leftLength, dst, dstStart + Math.max(0, leftLength - start));
+    }
+
+    /** the text between start (INCLUSIVE) and end (EXCLUSIVE), shares the leaves with this rope except for the two at the ends */
+    @Override
+    public Rope subSequence(int start, int end) {
+        this.checkRange(start, end);
+        return this.slice(start, end);
+    }
+
+    private Rope slice(int start, int end) {
+        if (start == 0 && end == this.length) return this;
+        if (start == end) return EMPTY;
+        if (this.leaf != null) return new Rope(this.leaf.substring(start, end));
+
+        int leftLength = this.left.length;
+        if (end <= leftLength) return this.left.slice(start, end);
+        if (start >= leftLength) return this.right.slice(start - leftLength, end - leftLength);
+        return join(this.left.slice(start, leftLength), this.right.slice(0, end - leftLength));
+    }
+
+    /** the text between start (INCLUSIVE) and end (EXCLUSIVE) replaced with text, in O(log n + text.length()) */
+    public Rope replace(int start, int end, CharSequence text) {
+        this.checkRange(start, end);
+        return join(join(this.slice(0, start), of(text)), this.slice(end, this.length));
+    }
+
+    public Rope insert(int offset, CharSequence text) {
+        return this.replace(offset, offset, text);
+    }
+
+    public Rope delete(int start, int end) {
+        return this.replace(start, end, "");
+    }
+
+    public Rope append(CharSequence text) {
+        return join(this, of(text));
+    }
+
+    @Override
+    public String toString() {
+        String string = this.string;
+        if (string == null) {
+            char[] chars = new char[this.length];
+            this.copy(0, this.length, chars, 0);
+            string = new String(chars);
+            this.string = string;
+        }
+        return string;
+    }
+
+    private void checkRange(int start, int end) {
+        if (start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException(String.format("begin %d, end %d, length %d", start, end, this.length));
+        }
+    }
+
+    /**
+     * <p>the text of a followed by the text of b, in O(difference of their heights)</p>
+     * <p>the shorter one goes down the side of the taller one until the heights match, the nodes on the way back up are
+     *   rotated where they got out of balance, a short leaf goes all the way down so it can be joined with the leaf next to it</p>
+     */
+    private static Rope join(Rope a, Rope b) {
+        if (a.length == 0) return b;
+        if (b.length == 0) return a;
+        if (a.leaf != null && b.leaf != null) {
+            return a.length + b.length <= MAX_LEAF ? new Rope(a.leaf + b.leaf) : new Rope(a, b);
+        }
+        if (a.height > b.height + 1 || (b.leaf != null && b.length < MAX_LEAF)) {
+            if (a.leaf == null) return balance(a.left, join(a.right, b));
+        }
+        if (b.height > a.height + 1 || (a.leaf != null && a.length < MAX_LEAF)) {
+            if (b.leaf == null) return balance(join(a, b.left), b.right);
+        }
+        return new Rope(a, b);
+    }
+
+    /** a node of left and right, rotated when one of them is 2 taller than the other */
+    private static Rope balance(Rope left, Rope right) {
+        if (left.height > right.height + 1) {
+            if (left.left.height >= left.right.height) return new Rope(left.left, new Rope(left.right, right));
+            return new Rope(new Rope(left.left, left.right.left), new Rope(left.right.right, right));
+        }
+        if (right.height > left.height + 1) {
+            if (right.right.height >= right.left.height) return new Rope(new Rope(left, right.left), right.right);
+            return new Rope(new Rope(left, right.left.left), new Rope(right.left.right, right.right));
+        }
+        return new Rope(left, right);
+    }
+}
@@ -0,0 +1,63 @@
+package org.vaadin.editor.tokenizer;
+
+/**
+ * <p>finds the next character that the tokenizer has to stop at, everything in between is plain text that can be skipped</p>
+ *
+ * <p>those characters are the escape character, line breaks and the delimiter symbols, # isn't one of them since it only means something
+ *   right after a line break and the tokenizer already stops there</p>
+ *
+ * <p>the vectorized scanner compares a whole vector of characters at once, it's only used when it was compiled in (mvn -Pvector, it's in
+ *   src/vector/java) and the jdk.incubator.vector module was added to the JVM (--add-modules jdk.incubator.vector), otherwise or when the
+ *   org.vaadin.editor.tokenizer.vector property is false the scalar one is used, both give the exact same results</p>
+ */
+abstract class CharScanner {
+    static final String VECTOR_PROPERTY = "org.vaadin.editor.tokenizer.vector";
+
+    /** special[c] is true for every character the tokenizer has to stop at */
+    private static final boolean[] SPECIAL = new boolean[128];
+    static {
+        for (char c : new char[] {'\\', '\n', '*', '_', '~', '=', '`'}) SPECIAL[c] = true;
+    }
+
+    static final CharScanner SCALAR = new ScalarCharScanner();
+    /** the scanner the tokenizer uses */
+    static final CharScanner INSTANCE = load();
+
+    /** index of the first special character between from (INCLUSIVE) and to (EXCLUSIVE), to if there isn't one */
+    abstract int indexOfSpecial(char[] chars, int from, int to);
+
+    static boolean isSpecial(char c) {
+        return c < 128 && SPECIAL[c];
+    }
+
+    /** the vectorized scanner, null if it wasn't compiled in or the vector module isn't available */
+    static CharScanner vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return null;
+
+        try {
+            CharScanner scanner = (CharScanner) Class.forName("org.vaadin.editor.tokenizer.VectorCharScanner").getDeclaredConstructor().newInstance();
+            //the vector classes are only linked once they're used, so it's used once here to make sure it actually works
+            char[] sample = "plain text that is longer than a vector *".toCharArray();
+            if (scanner.indexOfSpecial(sample, 0, sample.length) != SCALAR.indexOfSpecial(sample, 0, sample.length)) return null;
+            return scanner;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static CharScanner load() {
+        if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))) return SCALAR;
+        CharScanner vector = vector();
+        return vector != null ? vector : SCALAR;
+    }
+}
+
+final class ScalarCharScanner extends CharScanner {
+    @Override
+    int indexOfSpecial(char[] chars, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (CharScanner.isSpecial(chars[i])) return i;
+        }
+        return to;
+    }
+}
@@ -1,24 +1,52 @@
 package org.vaadin.editor.tokenizer;
 
+/**
+ * <p>a token doesn't own its text, it points at a range of the source it was tokenized from</p>
+ * <p>the value is only turned into a string when someone asks for it, consumers that just need to copy the text
+ *   should use appendTo() instead</p>
+ */
 public class Token {
     public TokenType type;
-    public String value;
     /** only initialized for format tokens since those are the ones that need opening/closing context */
     public ActionType actionType;
+    /** text the token points into */
+    public CharSequence source;
+    /** starting index of the token in the source (INCLUSIVE) */
+    public int start;
+    public int length;
 
-    public Token(TokenType type, String value, ActionType actionType) {
+    public Token(TokenType type, CharSequence source, int start, int length, ActionType actionType) {
         this.type = type;
-        this.value = value;
+        this.source = source;
+        this.start = start;
+        this.length = length;
         this.actionType = actionType;
     }
 
+    public Token(TokenType type, String value, ActionType actionType) {
+        this(type, value, 0, value.length(), actionType);
+    }
+
     public Token(TokenType type, String value) {
-        this.type = type;
-        this.value = value;
+        this(type, value, 0, value.length(), null);
+    }
+
+    /** ending index of the token in the source (EXCLUSIVE) */
+    public int getEnd() {
+        return this.start + this.length;
+    }
+
+    public String getValue() {
+        return this.source.subSequence(this.start, this.getEnd()).toString();
+    }
+
+    /** copies the token's text without creating an intermediate string */
+    public void appendTo(StringBuilder sb) {
+        sb.append(this.source, this.start, this.getEnd());
     }
 
     @Override
     public String toString() {
-        return String.format("{type: %s, value: %s, actionType: %s}", type, value, actionType);
+        return String.format("{type: %s, value: %s, actionType: %s}", type, getValue(), actionType);
     }
 }
@@ -0,0 +1,112 @@
+package org.vaadin.editor.tokenizer;
+
+import java.util.Arrays;
+
+/**
+ * <p>all the tokens of a string kept in parallel arrays instead of one Token object per token</p>
+ * <p>token i is made of types[i], actionTypes[i], starts[i] and lengths[i], so walking the tokens just reads through a few arrays
+ *   and any token can be looked at as many times as needed, in any order</p>
+ * <p>a buffer is meant to be filled by Tokenizer.tokenize() over and over, reset() keeps the arrays so refilling it doesn't allocate
+ *   unless a string has more tokens than any string before it</p>
+ */
+public final class TokenBuffer {
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+    private static final ActionType[] ACTION_TYPES = ActionType.values();
+    /** action types are stored as ordinal + 1 so tokens without one can be stored as 0 */
+    private static final byte NO_ACTION_TYPE = 0;
+
+    private CharSequence source;
+    private byte[] types;
+    private byte[] actionTypes;
+    private int[] starts;
+    private int[] lengths;
+    private int size = 0;
+
+    public TokenBuffer() {
+        this(64);
+    }
+
+    public TokenBuffer(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.types = new byte[capacity];
+        this.actionTypes = new byte[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.source = "";
+    }
+
+    /** removes every token, the arrays are kept for the next string */
+    public void reset(CharSequence source) {
+        this.source = source;
+        this.size = 0;
+    }
+
+    void add(TokenType type, int start, int length, ActionType actionType) {
+        if (this.size == this.types.length) {
+            int capacity = this.size * 2;
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.actionTypes = Arrays.copyOf(this.actionTypes, capacity);
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.lengths = Arrays.copyOf(this.lengths, capacity);
+        }
+        this.types[this.size] = (byte) type.ordinal();
+        this.actionTypes[this.size] = actionType == null ? NO_ACTION_TYPE : (byte) (actionType.ordinal() + 1);
+        this.starts[this.size] = start;
+        this.lengths[this.size] = length;
+        this.size++;
+    }
+
+    /** text the tokens point into */
+    public CharSequence getSource() {
+        return this.source;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public TokenType getType(int i) {
+        return TOKEN_TYPES[this.types[this.checkIndex(i)]];
+    }
+
+    /** null for tokens that aren't format tokens, same as Token.actionType */
+    public ActionType getActionType(int i) {
+        byte actionType = this.actionTypes[this.checkIndex(i)];
+        return actionType == NO_ACTION_TYPE ? null : ACTION_TYPES[actionType - 1];
+    }
+
+    /** starting index of the token in the source (INCLUSIVE) */
+    public int getStart(int i) {
+        return this.starts[this.checkIndex(i)];
+    }
+
+    public int getLength(int i) {
+        return this.lengths[this.checkIndex(i)];
+    }
+
+    /** ending index of the token in the source (EXCLUSIVE) */
+    public int getEnd(int i) {
+        return this.getStart(i) + this.getLength(i);
+    }
+
+    public String getValue(int i) {
+        return this.source.subSequence(this.getStart(i), this.getEnd(i)).toString();
+    }
+
+    /** copies the token's text without creating an intermediate string */
+    public void appendTo(int i, StringBuilder sb) {
+        sb.append(this.source, this.getStart(i), this.getEnd(i));
+    }
+
+    /** makes a Token object for code that still needs one */
+    public Token getToken(int i) {
+        return new Token(this.getType(i), this.source, this.getStart(i), this.getLength(i), this.getActionType(i));
+    }
+
+    private int checkIndex(int i) {
+        if (i < 0 || i >= this.size) {
+            throw new IndexOutOfBoundsException(String.format("token %d out of bounds for %d tokens", i, this.size));
+        }
+        return i;
+    }
+}
@@ -0,0 +1,110 @@
+package org.vaadin.editor.tokenizer;
+
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * <p>hands out the tokens of a tokenizer one at a time up to a fence position, see Tokenizer.stream() and Tokenizer.spliterator()</p>
+ *
+ * <p>formatting can be open across any number of lines, so the state the tokenizer has at the start of a line can't be known without
+ *   tokenizing everything before it, the first split runs a second tokenizer over the rest of the string that only keeps a checkpoint
+ *   at the start of a line every MIN_SPLIT_LENGTH characters or so, no tokens are made for that pass</p>
+ *
+ * <p>splitting picks the checkpoint closest to the middle, the first half keeps going with the tokenizer it already has and the second half
+ *   gets a copy restored from the checkpoint, so both halves give exactly the tokens the whole string would have</p>
+ *
+ * <p>the extra pass makes splitting only worth it when the stream does more with each token than making it</p>
+ */
+final class TokenSpliterator implements Spliterator<Token> {
+    /** pieces shorter than this aren't worth handing to another thread */
+    static final int MIN_SPLIT_LENGTH = 4096;
+
+    private Tokenizer tokenizer;
+    /** position the tokens stop at (EXCLUSIVE), always the end of the string or the start of a line */
+    private final int fence;
+    /** sorted by cursor, made on the first split and shared with every spliterator split off after that */
+    private ArrayList<Tokenizer.Checkpoint> splitPoints;
+
+    TokenSpliterator(Tokenizer tokenizer, int fence, ArrayList<Tokenizer.Checkpoint> splitPoints) {
+        this.tokenizer = tokenizer;
+        this.fence = fence;
+        this.splitPoints = splitPoints;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Token> action) {
+        if (this.tokenizer.getCursor() >= this.fence) return false;
+        action.accept(this.tokenizer.getNextToken());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Token> action) {
+        Tokenizer tokenizer = this.tokenizer;
+        while (tokenizer.getCursor() < this.fence) {
+            action.accept(tokenizer.getNextToken());
+        }
+    }
+
+    @Override
+    public Spliterator<Token> trySplit() {
+        int cursor = this.tokenizer.getCursor();
+        if (this.fence - cursor < MIN_SPLIT_LENGTH * 2) return null;
+        if (this.splitPoints == null) this.splitPoints = findSplitPoints(this.tokenizer, this.fence);
+
+        Tokenizer.Checkpoint splitPoint = this.findSplitPoint(cursor + (this.fence - cursor) / 2);
+        if (splitPoint == null || splitPoint.cursor <= cursor || splitPoint.cursor >= this.fence) return null;
+
+        //the first half is the one that already has the state, so it keeps the tokenizer
+        TokenSpliterator prefix = new TokenSpliterator(this.tokenizer, splitPoint.cursor, this.splitPoints);
+        this.tokenizer = this.tokenizer.copy(splitPoint);
+        return prefix;
+    }
+
+    /** checkpoint closest to the given position, null if there aren't any */
+    private Tokenizer.Checkpoint findSplitPoint(int pos) {
+        int low = 0;
+        int high = this.splitPoints.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (this.splitPoints.get(mid).cursor < pos) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        //low is the first checkpoint at or after pos, the one before it might be closer
+        if (low == this.splitPoints.size()) return low == 0 ? null : this.splitPoints.get(low - 1);
+        if (low == 0) return this.splitPoints.get(0);
+
+        Tokenizer.Checkpoint before = this.splitPoints.get(low - 1);
+        Tokenizer.Checkpoint after = this.splitPoints.get(low);
+        return pos - before.cursor <= after.cursor - pos ? before : after;
+    }
+
+    /** tokenizes up to the fence without making any tokens and saves a checkpoint at the first line start after every MIN_SPLIT_LENGTH characters */
+    private static ArrayList<Tokenizer.Checkpoint> findSplitPoints(Tokenizer tokenizer, int fence) {
+        ArrayList<Tokenizer.Checkpoint> splitPoints = new ArrayList<>();
+        Tokenizer scout = tokenizer.copy(tokenizer.checkpoint());
+        int next = scout.getCursor() + MIN_SPLIT_LENGTH;
+        while (scout.getCursor() < fence && scout.advance()) {
+            if (scout.getTokenType() != TokenType.BREAK || scout.getCursor() < next) continue;
+
+            splitPoints.add(scout.checkpoint());
+            next = scout.getCursor() + MIN_SPLIT_LENGTH;
+        }
+        return splitPoints;
+    }
+
+    /** number of characters left, more than the number of tokens left but close enough to split by */
+    @Override
+    public long estimateSize() {
+        return this.fence - this.tokenizer.getCursor();
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+}
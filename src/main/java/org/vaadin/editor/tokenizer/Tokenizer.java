@@ -1,12 +1,11 @@
 package org.vaadin.editor.tokenizer;
 
 import java.util.ArrayList;
-// import java.util.Arrays;
-import java.util.Optional;
-import java.util.Stack;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.vaadin.editor.text.Rope;
 
 /**
  * container of helper functions that aren't tied to any class instance since they dont require state, just passed in variables
@@ -17,18 +16,53 @@ final class TokenizerUtils {
         throw new Error("Utility class, only contains static methods and should not be instantiated");
     }
 
-    // Method to check if a character is a Unicode punctuation character
-    public static boolean isUnicodePunctuation(char ch) {
-        int type = Character.getType(ch);
-        return type == Character.CONNECTOR_PUNCTUATION ||
-               type == Character.DASH_PUNCTUATION ||
-               type == Character.START_PUNCTUATION ||
-               type == Character.END_PUNCTUATION ||
-               type == Character.INITIAL_QUOTE_PUNCTUATION ||
-               type == Character.FINAL_QUOTE_PUNCTUATION ||
-               type == Character.OTHER_PUNCTUATION ||
-               type == Character.MATH_SYMBOL ||
-               type == Character.MODIFIER_SYMBOL;
+    private static final byte WHITESPACE = 1;
+    private static final byte PUNCTUATION = 2;
+
+    /**
+     * <p>whitespace and punctuation flags for every character in the basic multilingual plane, so flank detection is one array load per character</p>
+     * <p>characters outside of it (emoji and the like) are rare enough to be looked up with Character.getType() every time</p>
+     */
+    private static final byte[] BMP_CLASSES = new byte[Character.MAX_VALUE + 1];
+    static {
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            BMP_CLASSES[c] = classify(c);
+        }
+    }
+
+    private static byte classify(int codePoint) {
+        //0 is for start of line and end of line characters
+        if (codePoint == 0 || codePoint == '\t' || codePoint == '\n' || codePoint == '\f' || codePoint == '\r') return WHITESPACE;
+
+        //unicode whitespace and punctuation as defined by the commonmark spec, punctuation is every P (punctuation) and S (symbol) category,
+        //that includes ascii symbols like $ and ^ which used to count as letters, and whitespace includes no-break and ideographic spaces
+        switch (Character.getType(codePoint)) {
+            case Character.SPACE_SEPARATOR:
+                return WHITESPACE;
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+            case Character.MATH_SYMBOL:
+            case Character.CURRENCY_SYMBOL:
+            case Character.MODIFIER_SYMBOL:
+            case Character.OTHER_SYMBOL:
+                return PUNCTUATION;
+            default:
+                return 0;
+        }
+    }
+
+    private static byte getCharClass(int codePoint) {
+        return codePoint <= Character.MAX_VALUE ? BMP_CLASSES[codePoint] : classify(codePoint);
+    }
+
+    /** takes a code point so characters made of two chars, like emoji, are classified as a whole */
+    public static boolean isUnicodePunctuation(int codePoint) {
+        return getCharClass(codePoint) == PUNCTUATION;
     }
 
     // Method to check if a character is an ASCII punctuation character
@@ -48,10 +82,18 @@ final class TokenizerUtils {
             type == TokenType.CODE_BLOCK;
     }
 
+    /** values() makes a new copy of the array every time it's called */
+    private static final TokenType[] TOKEN_TYPES = TokenType.values();
+
     public static TokenType getTokenType(String tokenValue) {
-        for (TokenType tokenType : TokenType.values()) {
+        return getTokenType(tokenValue, 0, tokenValue.length());
+    }
+
+    /** same as getTokenType(String) but for a range of the source, so no string has to be created to look up the type */
+    static TokenType getTokenType(CharSequence source, int start, int length) {
+        for (TokenType tokenType : TOKEN_TYPES) {
             for (String symbol : tokenType.symbols) {
-                if (symbol.equals(tokenValue)) {
+                if (symbol.length() == length && regionMatches(symbol, source, start)) {
                     return tokenType;
                 }
             }
@@ -61,13 +103,75 @@ final class TokenizerUtils {
         return TokenType.TEXT;
     }
 
-    static boolean isWhiteSpace(char c) {
-        return
-            c == 0 || //for start of line and end of line characters
-            c == ' ' ||
-            c == '\n' ||
-            c == '\r' ||
-            c == '\t';
+    /** same as getTokenType(CharSequence, int, int) for the chars the tokenizer copied the source into */
+    static TokenType getTokenType(char[] chars, int start, int length) {
+        for (TokenType tokenType : TOKEN_TYPES) {
+            for (String symbol : tokenType.symbols) {
+                if (symbol.length() == length && regionMatches(symbol, chars, start)) {
+                    return tokenType;
+                }
+            }
+        }
+        return TokenType.TEXT;
+    }
+
+    private static boolean regionMatches(String symbol, char[] chars, int start) {
+        for (int i = 0; i < symbol.length(); i++) {
+            if (chars[start + i] != symbol.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean regionMatches(String symbol, CharSequence source, int start) {
+        for (int i = 0; i < symbol.length(); i++) {
+            if (source.charAt(start + i) != symbol.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /** characters that can make up a delimiter run */
+    static boolean isDelimiterChar(char c) {
+        return c == '*' || c == '_' || c == '~' || c == '=' || c == '`';
+    }
+
+    /** number of different delimiter symbols, used to size per symbol lookup tables */
+    static final int DELIMITER_SYMBOL_COUNT = 5;
+
+    /** index of a delimiter symbol in per symbol lookup tables */
+    static int getDelimiterSymbolIndex(char c) {
+        switch (c) {
+            case '*': return 0;
+            case '_': return 1;
+            case '~': return 2;
+            case '=': return 3;
+            case '`': return 4;
+            default: return -1;
+        }
+    }
+
+    /**
+     * <p>checks if a run of the given symbol and length can ever be turned into a token</p>
+     * <p>***, ~~, == and ``` are the longest runs allowed, ~, = and `` don't represent anything</p>
+     */
+    static boolean isValidRun(char symbol, int length) {
+        switch (symbol) {
+            case '*':
+                return length >= 1 && length <= 3;
+            case '_':
+                return length >= 1;
+            case '~':
+            case '=':
+                return length == 2;
+            case '`':
+                return length == 3;
+            default:
+                return false;
+        }
+    }
+
+    /** takes a code point like isUnicodePunctuation() */
+    static boolean isWhiteSpace(int codePoint) {
+        return getCharClass(codePoint) == WHITESPACE;
     }
 }
 
@@ -91,7 +195,8 @@ enum FlankDirection {
  * </p>
  */
 class DelimRun {
-    public String value;
+    /** every character of a run is the same symbol */
+    public char symbol;
     public ActionType actionType;
     public FlankDirection flankDir;
     /** starting index of the run (INCLUSIVE) */
@@ -100,47 +205,143 @@ class DelimRun {
     public int end;
     public int length;
 
-    public DelimRun(String value, FlankDirection flankDir, int start, int end) {
-        this.value = value;
+    /** index of the previous run with the same symbol, -1 if this is the first one */
+    public int prevSameSymbolIdx = -1;
+    /** total open length minus total close length of all runs with this symbol, up to and including this run */
+    public int balance;
+    /**
+     * <p>index of the run that balances out the open and close counts of this symbol when counting from this run</p>
+     * <p>-1 if the counts never balance out, which means the symbols starting at this run can't be formatted</p>
+     */
+    public int closingRunIdx = -1;
+
+    public DelimRun(char symbol, FlankDirection flankDir, int start, int end) {
+        this.reset(symbol, flankDir, start, end);
+    }
+
+    /** lets a run be reused for a different part of the string, everything that gets worked out later is cleared */
+    public void reset(char symbol, FlankDirection flankDir, int start, int end) {
+        this.symbol = symbol;
         this.flankDir = flankDir;
         this.start = start;
         this.end = end;
         this.length = end - start;
+        this.actionType = null;
+        this.prevSameSymbolIdx = -1;
+        this.balance = 0;
+        this.closingRunIdx = -1;
     }
 
-    /**
-     * <p>a delimiter run symbol is the minimum number of characters needed to represent a token value</p>
-     * <p>important to note that symbols are not directly associated with token types, the "*" symbol can be for both italics or bold</p>
-     */
-    public final static String[] symbols = {"*", "_", "~~", "==", "```"};
+    /** how much this run changes the balance of its symbol, open runs add to it and close runs take away from it */
+    public int getBalanceChange() {
+        if (this.actionType == ActionType.OPEN) return this.length;
+        if (this.actionType == ActionType.CLOSE) return -this.length;
+        return 0;
+    }
 
-    public String getTokenSymbol() {
-        for (String s : DelimRun.symbols) {
-            if (this.value.contains(s)) return s;
+    @Override
+    public String toString() {
+        return String.format("{value: %s, actionType: %s, flankDir: %s, start: %d, end: %d}", String.valueOf(symbol).repeat(length), actionType, flankDir, start, end);
+    }
+}
+
+/**
+ * <p>stack of tokens kept as parallel arrays so pushing and popping doesn't make any objects</p>
+ * <p>only the tokenizer's own state uses this, tokens handed out to callers are still Tokens or TokenBuffer entries</p>
+ */
+final class TokenStack {
+    private TokenType[] types = new TokenType[8];
+    private ActionType[] actionTypes = new ActionType[8];
+    private int[] starts = new int[8];
+    private int[] lengths = new int[8];
+    private int size = 0;
+
+    void push(TokenType type, int start, int length, ActionType actionType) {
+        if (this.size == this.types.length) {
+            int capacity = this.size * 2;
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.actionTypes = Arrays.copyOf(this.actionTypes, capacity);
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.lengths = Arrays.copyOf(this.lengths, capacity);
         }
+        this.types[this.size] = type;
+        this.actionTypes[this.size] = actionType;
+        this.starts[this.size] = start;
+        this.lengths[this.size] = length;
+        this.size++;
+    }
 
-        return null;
+    void pop() {
+        this.size--;
     }
 
-    @Override
-    public String toString() {
-        return String.format("{value: %s, actionType: %s, flankDir: %s, start: %d, end: %d}", value, actionType, flankDir, start, end);
+    TokenType peekType() {
+        return this.types[this.size - 1];
+    }
+
+    ActionType peekActionType() {
+        return this.actionTypes[this.size - 1];
+    }
+
+    int peekStart() {
+        return this.starts[this.size - 1];
+    }
+
+    int peekLength() {
+        return this.lengths[this.size - 1];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    void clear() {
+        this.size = 0;
+    }
+
+    TokenStack copy() {
+        TokenStack copy = new TokenStack();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    void copyFrom(TokenStack other) {
+        this.types = Arrays.copyOf(other.types, Math.max(8, other.size));
+        this.actionTypes = Arrays.copyOf(other.actionTypes, this.types.length);
+        this.starts = Arrays.copyOf(other.starts, this.types.length);
+        this.lengths = Arrays.copyOf(other.lengths, this.types.length);
+        this.size = other.size;
     }
 }
 
 public class Tokenizer {
 
-    private Stack<Token> scheduledTokens = new Stack<>();
+    private TokenStack scheduledTokens = new TokenStack();
 
     private int curRunIdx;
     /** 
      * delimiter runs that have been preprocessed and filtered,
      * guaranteed to eventually construct formatting tokens NOT text tokens
      */
-    private ArrayList<DelimRun> runs;
+    private ArrayList<DelimRun> runs = new ArrayList<>();
+    /** runs from before the last reset, they get reused instead of making new ones */
+    private ArrayList<DelimRun> spareRuns = new ArrayList<>();
 
-    public String string;
-    private String slicedString;
+    /**
+     * <p>position index built alongside the runs, one entry per character of the string plus one for the end of the string</p>
+     * <p>runIdxAt[pos] is the index of the first run that ends after pos, or runs.size() if there are no runs left</p>
+     * <p>pos is inside that run if the run starts at or before pos, otherwise pos is in between runs</p>
+     */
+    private int[] runIdxAt;
+
+    public CharSequence source;
+    /** copy of the source so it can be scanned without going through charAt() for every character, can be longer than the source */
+    private char[] chars = new char[0];
+    private final CharScanner scanner;
     private int cursor = 0;
 
     /**
@@ -155,306 +356,448 @@ public class Tokenizer {
      * for ***hello***, the first context will be bold, the second will be italics which will be represented as *hello*
      * all 3 tokenValues: *, hello, and * will get popped from the stack once the context is over so that we know the outer context is bold
      */
-    private Stack<String> contextStack = new Stack<>();
-
-    public Tokenizer(String string) {
-        this.string = string;
-
-        Pattern textPattern = Pattern.compile("(_+|\\*+|~+|=+|`+)");
-        Matcher matcher = textPattern.matcher(this.string);
-        this.runs = matcher
-            .results()
-            .map(matchResult -> {
-                String value = matchResult.group();
-                int start = matchResult.start();
-                int end = matchResult.end();
-                FlankDirection flankDir;
-
-                //beginning and end of string treated as whitespace
-                char prevChar = start-1 < 0 ? ' ' : string.charAt(start-1);
-                char nextChar = end > string.length() - 1 ? ' ' : string.charAt(end); //end is inclusive which is why we dont do end+1
-
-                //flank algorithms taken directly from commonmark spec
-
-                // boolean isLeftFlanking = 
-                //     !TokenizerUtils.isWhiteSpace(nextChar) && 
-                //     (!TokenizerUtils.isUnicodePunctuation(nextChar) ? true : TokenizerUtils.isWhiteSpace(prevChar) || TokenizerUtils.isUnicodePunctuation(prevChar));
-
-                boolean isLeftFlanking;
-                boolean isRightFlanking;
-                if (TokenType.CODE_BLOCK.contains(value)) { //custom case only for code blocks
-                    isLeftFlanking = TokenizerUtils.isWhiteSpace(prevChar) || TokenizerUtils.isUnicodePunctuation(prevChar);
-                    isRightFlanking = TokenizerUtils.isWhiteSpace(nextChar) || TokenizerUtils.isUnicodePunctuation(nextChar);
-                } else {
-                    isLeftFlanking = 
-                        !TokenizerUtils.isWhiteSpace(nextChar) && 
-                        (!TokenizerUtils.isUnicodePunctuation(nextChar) ? true : TokenizerUtils.isWhiteSpace(prevChar) || TokenizerUtils.isUnicodePunctuation(prevChar));
-
-                    isRightFlanking = 
-                        !TokenizerUtils.isWhiteSpace(prevChar) &&
-                        (!TokenizerUtils.isUnicodePunctuation(prevChar) ? true : TokenizerUtils.isWhiteSpace(nextChar) || TokenizerUtils.isUnicodePunctuation(nextChar));
-                }
-                
-                // boolean isRightFlanking = 
-                //     !TokenizerUtils.isWhiteSpace(prevChar) &&
-                //     (!TokenizerUtils.isUnicodePunctuation(prevChar) ? true : TokenizerUtils.isWhiteSpace(nextChar) || TokenizerUtils.isUnicodePunctuation(nextChar));
-
-                if (isLeftFlanking && isRightFlanking) {
-                    flankDir = FlankDirection.BOTH;
-                } else if (isLeftFlanking) {
-                    flankDir = FlankDirection.LEFT;
-                } else if (isRightFlanking) {
-                    flankDir = FlankDirection.RIGHT;
-                } else {
-                    flankDir = FlankDirection.NEITHER;
-                }
-                return new DelimRun(value, flankDir, start, end);
-            })
-            .collect(Collectors.toCollection(ArrayList<DelimRun>::new));
-
-
-        // System.out.println(this.string);
+    private TokenStack contextStack = new TokenStack();
 
-        // System.out.println("before");
-        // System.out.println(String.join("\n", this.runs.stream().map(r -> r.toString()).toArray(String[]::new)));
-        // System.out.println();
-
-        /**
-         * Pre-processing and filtering
-         */
+    /** the token advance() last moved over */
+    private TokenType tokenType;
+    private int tokenStart;
+    private int tokenLength;
+    private ActionType tokenActionType;
 
-        this.preprocessEscapeChars();
+    /**
+     * <p>everything the tokenizer needs to pick up tokenizing from a position without starting over</p>
+     * <p>taken at the start of lines, see TokenSpliterator</p>
+     */
+    static final class Checkpoint {
+        int cursor;
+        int curRunIdx;
+        boolean balanced;
+        TokenStack contextStack;
+        TokenStack scheduledTokens;
+    }
 
-        this.runs = this.runs.stream()
-        // filter out runs that cannot be converted into tokens
-        .filter(run -> {
-            String symbol = run.getTokenSymbol();
-            if (
-                (symbol == null) ||
-                (symbol.equals("*") && run.length > 3) ||
-                ((symbol.equals("~~") || symbol.equals("==")) && run.length > 2) ||
-                (symbol.equals("```") && run.length > 3)
-            ) {
-                return false;
-            }
+    /** buffers kept between resets so tokenizing another string doesn't have to allocate them again */
+    private int[][] openCounts = new int[TokenizerUtils.DELIMITER_SYMBOL_COUNT][4];
+    private int[][] runIdxWithBalance = new int[TokenizerUtils.DELIMITER_SYMBOL_COUNT][0];
 
-            return true;
-        }).collect(Collectors.toCollection(ArrayList<DelimRun>::new));
+    public Tokenizer(CharSequence source) {
+        this(source, CharScanner.INSTANCE);
+    }
 
-        this.assignActionTypes();
+    Tokenizer(CharSequence source, CharScanner scanner) {
+        this.scanner = scanner;
+        this.reset(source);
+    }
 
-        // System.out.println();
-        // System.out.println("after");
-        // System.out.println(String.join("\n", this.runs.stream().map(r -> r.toString()).toArray(String[]::new)));
-        // System.out.println();
+    /**
+     * <p>tokenizer for the same string that shares the runs and the rest of what was scanned with the other tokenizer, see copy()</p>
+     * <p>the shared runs are never changed by tokenizing, so both can be used at the same time as long as neither gets reset</p>
+     */
+    private Tokenizer(Tokenizer other) {
+        this.scanner = other.scanner;
+        this.source = other.source;
+        this.chars = other.chars;
+        this.runs = other.runs;
+        this.runIdxAt = other.runIdxAt;
     }
 
-    private void assignActionTypes() {
-        ArrayList<DelimRun> openRuns = new ArrayList<>();
+    /**
+     * <p>starts over with a new string, the tokenizer behaves exactly like a new Tokenizer(source) afterwards</p>
+     * <p>the run list and the other buffers are kept and reused, so a tokenizer that is reset for every message allocates a lot less than making new ones</p>
+     */
+    public void reset(CharSequence source) {
+        this.source = source;
+        this.copyChars();
+        this.cursor = 0;
+        this.curRunIdx = 0;
+        this.balanced = true;
+        this.scheduledTokens.clear();
+        this.contextStack.clear();
+        this.tokenType = null;
+        this.tokenActionType = null;
+
+        //added one by one since addAll() copies the list into a new array first
+        for (int i = 0; i < this.runs.size(); i++) this.spareRuns.add(this.runs.get(i));
+        this.runs.clear();
+
+        this.scanRuns();
+        this.resolveClosingRuns();
+    }
 
-        for (int i = 0; i < this.runs.size(); i++) {
-            DelimRun run = this.runs.get(i);
-            // System.out.format("BEFORE: %s\n", run);
-            switch (run.flankDir) {
-                case LEFT:
-                    run.actionType = ActionType.OPEN;
-                    openRuns.add(run);
-                    break;
-                case RIGHT:
-                    run.actionType = ActionType.CLOSE;
-                    break;
-                case BOTH:
-                    Optional<DelimRun> openMatch = openRuns.stream()
-                        .filter(r -> run.value.equals(r.value))
-                        .findFirst();
-                    if (openMatch.isPresent()) {
-                        run.actionType = ActionType.CLOSE;
-                        //once open run has been matched, you remove it from openRuns so it doesn't get matched again
-                        openRuns.remove(openMatch.get());
-                    } else {
-                        run.actionType = ActionType.OPEN;
-                        openRuns.add(run);
-                    }
-                    break;
-                case NEITHER:
-                    break;
-            }
-            // System.out.format("AFTER: %s\n", run);
-            // System.out.println();
+    private void copyChars() {
+        int n = this.source.length();
+        if (this.chars.length < n) this.chars = new char[n];
+        if (this.source instanceof String) {
+            ((String) this.source).getChars(0, n, this.chars, 0);
+        } else if (this.source instanceof Rope) {
+            //a leaf at a time instead of walking down the rope for every char
+            ((Rope) this.source).getChars(0, n, this.chars, 0);
+        } else {
+            for (int i = 0; i < n; i++) this.chars[i] = this.source.charAt(i);
         }
     }
 
     /**
-     * <p>when a symbol is escaped, it's treated as a normal text character instead of an actual formatting symbol</p>
+     * <p>single linear pass over the string that builds the list of delimiter runs</p>
      * 
-     * <p>runs are only used for helping the tokenizer handle formatting symbols,
-     *   therefore we need to loop through the string and modify the runs based on if they contain any escaped symbols</p>
+     * <p>every run is discovered, unescaped, given a flank direction, validated and assigned an action type in the same pass,
+     *   so the string is only ever looked at once and runs that can't become tokens are never added to the list</p>
      * 
+     * <p>when a symbol is escaped, it's treated as a normal text character instead of an actual formatting symbol</p>
      * <p>if theres an even number of escape characters before a symbol, that means they escape each other and the symbol should act as a formatting symbol</p>
      * <p>if theres an odd number of escape characters before a symbol, that means theres always one escape character left to pair with the symbol and make it normal text</p>
      */
-    private void preprocessEscapeChars() {
-        if (!this.hasRuns()) return;
-
+    private void scanRuns() {
+        //number of unmatched open runs for every symbol and length, *** is openCounts[0][3]
+        int[][] openCounts = this.openCounts;
+        for (int[] counts : openCounts) Arrays.fill(counts, 0);
+        char[] chars = this.chars;
+        int n = this.source.length();
+        //number of backslashes directly before the current character
         int escapeCount = 0;
-        int runIdx = 0;
-        for (int i = 0, n = this.string.length(); i < n; i++) {
-            if (runIdx < this.runs.size() && i >= this.runs.get(runIdx).end) {
-                runIdx++;
+        if (this.runIdxAt == null || this.runIdxAt.length < n + 1) this.runIdxAt = new int[n + 1];
+        //every position before this one already has its run index
+        int indexedPos = 0;
+
+        int i = 0;
+        while (i < n) {
+            //skip straight to the next character that can be an escape or part of a run
+            int next = this.scanner.indexOfSpecial(chars, i, n);
+            if (next != i) {
+                escapeCount = 0;
+                i = next;
+                if (i == n) break;
             }
-            
-            char curChar = this.string.charAt(i);
+
+            char curChar = chars[i];
             if (curChar == '\\') {
                 escapeCount++;
+                i++;
                 continue;
             }
-            
-            // if (!TokenizerUtils.isFormatToken(TokenizerUtils.getTokenType(String.valueOf(curChar)))) continue;
-            if (curChar != '*' && curChar != '_' && curChar != '~' && curChar != '=' && curChar != '`') continue;
-            // System.out.format("%d, %d\n", i, this.runs.get(runIdx).start);
-            
-            if (escapeCount % 2 != 0) {
-                DelimRun run = this.runs.get(runIdx);
-                if (run.length == 1) {
-                    this.runs.remove(runIdx);
-                    run = null;
-                } else {
-                    run.value = run.value.substring(1);
-                    run.start++;
-                    run.length--;
-                    //we only care about first symbol of the run, once that symbol has been processed we can skip the rest of the run in the string
-                    i += run.length;
-                }
+
+            if (!TokenizerUtils.isDelimiterChar(curChar)) {
                 escapeCount = 0;
+                i++;
+                continue;
             }
+
+            //a run is every adjacent copy of the same symbol
+            int start = i;
+            int end = i + 1;
+            while (end < n && chars[end] == curChar) end++;
+
+            //an escaped run loses its first symbol, the rest of the run can still be used for formatting
+            int runStart = escapeCount % 2 != 0 ? start + 1 : start;
+            escapeCount = 0;
+            i = end;
+
+            if (!TokenizerUtils.isValidRun(curChar, end - runStart)) continue;
+
+            //flank direction is based on the characters surrounding the whole run, escaped symbol included
+            FlankDirection flankDir = this.getFlankDirection(curChar == '`' && end - start == 3, start, end);
+            DelimRun run;
+            if (this.spareRuns.isEmpty()) {
+                run = new DelimRun(curChar, flankDir, runStart, end);
+            } else {
+                run = this.spareRuns.remove(this.spareRuns.size() - 1);
+                run.reset(curChar, flankDir, runStart, end);
+            }
+            this.assignActionType(run, openCounts);
+            this.runs.add(run);
+
+            int runIdx = this.runs.size() - 1;
+            for (; indexedPos < end; indexedPos++) this.runIdxAt[indexedPos] = runIdx;
         }
-    }
 
-    private boolean hasRuns() {
-        return this.runs.size() > 0;
+        for (int runIdx = this.runs.size(); indexedPos <= n; indexedPos++) this.runIdxAt[indexedPos] = runIdx;
     }
 
-    private DelimRun getCurDelimiterRun() {
-        if (!this.hasRuns()) return null;
-        return this.runs.get(this.curRunIdx);
-    }
+    private FlankDirection getFlankDirection(boolean isCodeBlock, int start, int end) {
+        //beginning and end of string treated as whitespace
+        //the characters are read as code points, an emoji before a run is two chars and only the pair tells what it is
+        int prevChar = start-1 < 0 ? ' ' : Character.codePointBefore(this.chars, start);
+        int nextChar = end > this.source.length() - 1 ? ' ' : Character.codePointAt(this.chars, end, this.source.length()); //end is exclusive which is why we dont do end+1
+
+        //flank algorithms taken directly from commonmark spec
+        boolean isLeftFlanking;
+        boolean isRightFlanking;
+        if (isCodeBlock) { //custom case only for code blocks
+            isLeftFlanking = TokenizerUtils.isWhiteSpace(prevChar) || TokenizerUtils.isUnicodePunctuation(prevChar);
+            isRightFlanking = TokenizerUtils.isWhiteSpace(nextChar) || TokenizerUtils.isUnicodePunctuation(nextChar);
+        } else {
+            isLeftFlanking = 
+                !TokenizerUtils.isWhiteSpace(nextChar) && 
+                (!TokenizerUtils.isUnicodePunctuation(nextChar) ? true : TokenizerUtils.isWhiteSpace(prevChar) || TokenizerUtils.isUnicodePunctuation(prevChar));
 
-    private DelimRun getRunAtPos(int pos) {
-        for (DelimRun run : this.runs) {
-            if (pos >= run.start && pos < run.end) {
-                return run;
-            }
+            isRightFlanking = 
+                !TokenizerUtils.isWhiteSpace(prevChar) &&
+                (!TokenizerUtils.isUnicodePunctuation(prevChar) ? true : TokenizerUtils.isWhiteSpace(nextChar) || TokenizerUtils.isUnicodePunctuation(nextChar));
         }
 
-        return null;
+        if (isLeftFlanking && isRightFlanking) {
+            return FlankDirection.BOTH;
+        } else if (isLeftFlanking) {
+            return FlankDirection.LEFT;
+        } else if (isRightFlanking) {
+            return FlankDirection.RIGHT;
+        } else {
+            return FlankDirection.NEITHER;
+        }
     }
 
-    private ArrayList<DelimRun> getRunEquivalenceGroup() {
-        if (this.curRunIdx >= this.runs.size() - 1) return null;
-        ArrayList<DelimRun> group = new ArrayList<>();
+    /**
+     * <p>runs that flank both ways close the earliest unmatched open run with the same value, otherwise they open a new one</p>
+     * <p>only the number of unmatched open runs matters for that, so they are counted per symbol and length instead of kept in a list</p>
+     * @param openCounts number of open runs that haven't been matched yet by a run that flanks both ways
+     */
+    private void assignActionType(DelimRun run, int[][] openCounts) {
+        int symbolIdx = TokenizerUtils.getDelimiterSymbolIndex(run.symbol);
+        //underscore runs don't have a length limit
+        if (run.length >= openCounts[symbolIdx].length) {
+            openCounts[symbolIdx] = Arrays.copyOf(openCounts[symbolIdx], run.length + 1);
+        }
+        int[] counts = openCounts[symbolIdx];
+
+        switch (run.flankDir) {
+            case LEFT:
+                run.actionType = ActionType.OPEN;
+                counts[run.length]++;
+                break;
+            case RIGHT:
+                run.actionType = ActionType.CLOSE;
+                break;
+            case BOTH:
+                if (counts[run.length] > 0) {
+                    run.actionType = ActionType.CLOSE;
+                    //once open run has been matched, it can't get matched again
+                    counts[run.length]--;
+                } else {
+                    run.actionType = ActionType.OPEN;
+                    counts[run.length]++;
+                }
+                break;
+            case NEITHER:
+                break;
+        }
+    }
 
-        int openCount = 0;
-        int closeCount = 0;
-        int i = this.curRunIdx;
-        DelimRun startRun = this.getCurDelimiterRun();
+    /**
+     * <p>finds the closing run of every run with two linear passes over the runs</p>
+     * 
+     * <p>a run is closed by the first later run with the same symbol where the open and close counts since the starting run even out,
+     *   for **1 *2* 3** the first ** is closed by the last **, the * in front of the 2 is closed by the * after it</p>
+     * 
+     * <p>that is the first later run whose balance (open minus close count of the symbol so far) is the same as the balance right before the starting run,
+     *   so going backwards and remembering the latest run seen for every balance of every symbol gives each run its closing run right away</p>
+     */
+    private void resolveClosingRuns() {
+        int symbolCount = TokenizerUtils.DELIMITER_SYMBOL_COUNT;
+        int[] balances = new int[symbolCount];
+        int[] totalLengths = new int[symbolCount];
+        int[] lastRunIdx = new int[symbolCount];
+        Arrays.fill(lastRunIdx, -1);
 
-        do {
+        for (int i = 0; i < this.runs.size(); i++) {
             DelimRun run = this.runs.get(i);
+            int symbolIdx = TokenizerUtils.getDelimiterSymbolIndex(run.symbol);
 
-            //equivalence group can only contain runs with matching symbols, so only asterisks for example
-            if (startRun.getTokenSymbol().equals(run.getTokenSymbol())) {
-                if (run.actionType == ActionType.OPEN) openCount += run.length;
-                if (run.actionType == ActionType.CLOSE) closeCount += run.length;
-                group.add(run);
-            }
-            i++;
-        } while (i < this.runs.size() && (group.size() < 2 || openCount != closeCount));
+            run.prevSameSymbolIdx = lastRunIdx[symbolIdx];
+            lastRunIdx[symbolIdx] = i;
+            balances[symbolIdx] += run.getBalanceChange();
+            run.balance = balances[symbolIdx];
+            totalLengths[symbolIdx] += run.length;
+        }
 
-        //run equivalence group could not be found because all runs were searched and the counts still arent equal
-        if (i == this.runs.size() && openCount != closeCount) {
-            return null;
+        //a balance is always between -totalLength and totalLength, so it's shifted by totalLength to be used as an index
+        int[][] runIdxWithBalance = this.runIdxWithBalance;
+        for (int symbolIdx = 0; symbolIdx < symbolCount; symbolIdx++) {
+            int size = totalLengths[symbolIdx] * 2 + 1;
+            if (runIdxWithBalance[symbolIdx].length < size) runIdxWithBalance[symbolIdx] = new int[size];
+            Arrays.fill(runIdxWithBalance[symbolIdx], 0, size, -1);
         }
 
-        return group;
+        for (int i = this.runs.size() - 1; i >= 0; i--) {
+            DelimRun run = this.runs.get(i);
+            int symbolIdx = TokenizerUtils.getDelimiterSymbolIndex(run.symbol);
+            int offset = totalLengths[symbolIdx];
+            int balanceBefore = run.balance - run.getBalanceChange();
+
+            run.closingRunIdx = runIdxWithBalance[symbolIdx][balanceBefore + offset];
+            runIdxWithBalance[symbolIdx][run.balance + offset] = i;
+        }
     }
 
-    private String getTextTokenValue() {
-        int slicePos = 0;
-        //loop through string instead of sliced string so indexes are accurate for the getRunAtPos() calls
-        for (int i = this.cursor; i < this.string.length(); i++) {
-            char curChar = this.string.charAt(i);
+    /** the run the cursor is in, or the next run after the cursor if it's in between runs */
+    private DelimRun getCurDelimiterRun() {
+        if (this.curRunIdx >= this.runs.size()) return null;
+        return this.runs.get(this.curRunIdx);
+    }
 
+    private DelimRun getRunAtPos(int pos) {
+        int runIdx = this.runIdxAt[pos];
+        if (runIdx >= this.runs.size()) return null;
+
+        DelimRun run = this.runs.get(runIdx);
+        return pos >= run.start ? run : null;
+    }
+
+    /**
+     * <p>the run that balances out the open and close counts of the symbols starting at the given run</p>
+     * <p>null if the counts never balance out, in that case the symbols aren't balanced and have to be treated as text</p>
+     */
+    private DelimRun getClosingRun(DelimRun run) {
+        if (run.closingRunIdx == -1) return null;
+        return this.runs.get(run.closingRunIdx);
+    }
+
+    Checkpoint checkpoint() {
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.cursor = this.cursor;
+        //curRunIdx isn't updated after the last token, so it's looked up again
+        checkpoint.curRunIdx = this.runIdxAt[this.cursor];
+        checkpoint.balanced = this.balanced;
+        checkpoint.contextStack = this.contextStack.copy();
+        checkpoint.scheduledTokens = this.scheduledTokens.copy();
+        return checkpoint;
+    }
+
+    /** puts the tokenizer back in the state of the checkpoint, the checkpoint has to come from a tokenizer of the same source */
+    void restore(Checkpoint checkpoint) {
+        this.cursor = checkpoint.cursor;
+        this.curRunIdx = checkpoint.curRunIdx;
+        this.balanced = checkpoint.balanced;
+
+        this.contextStack.copyFrom(checkpoint.contextStack);
+        this.scheduledTokens.copyFrom(checkpoint.scheduledTokens);
+    }
+
+    private int getTextTokenLength() {
+        int n = this.source.length();
+        int i = this.cursor;
+        while (true) {
+            //everything before the next special character is text for sure
+            i = this.scanner.indexOfSpecial(this.chars, i, n);
+            if (i == n) break;
+
+            //the other special characters are delimiter symbols, those only end the text if they're part of a run
+            char curChar = this.chars[i];
             if (
                 curChar == '\\' ||
                 curChar == '\n' ||
-                ((curChar == '*' || curChar == '_') && this.balanced && this.getRunAtPos(i) != null) ||
-                (curChar == '~' && this.balanced && this.getRunAtPos(i) != null) ||
-                (curChar == '=' && this.balanced && this.getRunAtPos(i) != null) ||
-                (curChar == '`' && this.balanced && this.getRunAtPos(i) != null)
+                (this.balanced && this.getRunAtPos(i) != null)
             ) break;
 
-            slicePos++;
+            i++;
         }
-        return this.slicedString.substring(0, slicePos);
+        return i - this.cursor;
     }
 
-    private String getHeaderTokenValue() {
-        int slicePos = 0;
+    private int getHeaderTokenLength() {
+        int length = 0;
 
-        for (int i = 0; i < this.slicedString.length(); i++) {
-            char curChar = this.slicedString.charAt(i);
+        for (int i = this.cursor, n = this.source.length(); i < n; i++) {
+            char curChar = this.chars[i];
 
             if (curChar != '#') break;
 
-            slicePos++;
+            length++;
         }
         
-        return this.slicedString.substring(0, slicePos);
+        return length;
     }
 
     public boolean hasMoreTokens() {
-        return this.cursor != this.string.length();
+        return this.cursor != this.source.length();
+    }
+
+    /** sets the token that advance() just moved over and updates the state for the next one */
+    private void setToken(TokenType type, int start, int length, ActionType actionType) {
+        this.tokenType = type;
+        this.tokenStart = start;
+        this.tokenLength = length;
+        this.tokenActionType = actionType;
+        this.updateState();
     }
 
-    private void updateState(TokenType tokenType, String tokenValue, ActionType actionType) {
+    private void updateState() {
         if (!this.hasMoreTokens()) return;
 
-        //if new token value is the same as the last token value on the stack, that means the context has ended and needs to be removed
-        if (this.contextStack.size() != 0 && tokenValue.equals(this.contextStack.peek()) && actionType == ActionType.CLOSE) {
+        //closing tokens are always made from the value on top of the stack, that means the context has ended and needs to be removed
+        if (this.contextStack.size() != 0 && this.tokenActionType == ActionType.CLOSE) {
             this.contextStack.pop();
         } else {
-            if (this.balanced && TokenizerUtils.isFormatToken(tokenType)) this.contextStack.push(tokenValue.toString());
+            if (this.balanced && TokenizerUtils.isFormatToken(this.tokenType)) {
+                this.contextStack.push(this.tokenType, this.tokenStart, this.tokenLength, this.tokenActionType);
+            }
         }
 
         /**
          * if cursor has made it past the current run,
-         * we don't know how many runs the cursor has passed, so we keep incrementing the run index until we "catch up" to the cursor
+         * we don't know how many runs the cursor has passed, so we jump straight to the run the cursor is in or before
          */
-        while (
-            this.curRunIdx < this.runs.size() && //safety check
-            this.cursor >= this.getCurDelimiterRun().end
-        ) {
-            this.curRunIdx++;
+        this.curRunIdx = this.runIdxAt[this.cursor];
+    }
+
+    /**
+     * <p>closes the context on top of the stack with a token of the same type and length at the cursor</p>
+     * <p>only a run with enough of it left for a token of that type can close it, otherwise the run closes something that isn't on top,
+     *   like the ** in **a ~~b** c~~, the rest of the run is text then and the context stays open</p>
+     */
+    private boolean closeContext(DelimRun run) {
+        int start = this.cursor;
+        int length = this.contextStack.peekLength();
+        if (start + length > run.end || TokenizerUtils.getTokenType(this.chars, start, length) != this.contextStack.peekType()) {
+            this.cursor = run.end;
+            this.setToken(TokenType.TEXT, start, run.end - start, null);
+            return true;
         }
+        this.cursor += length;
+        this.setToken(this.contextStack.peekType(), start, length, ActionType.CLOSE);
+        return true;
     }
 
-    public Token getNextToken() {
-        if (!this.hasMoreTokens()) return null;
+    public TokenType getTokenType() {
+        return this.tokenType;
+    }
+
+    public int getTokenStart() {
+        return this.tokenStart;
+    }
+
+    public int getTokenLength() {
+        return this.tokenLength;
+    }
+
+    public ActionType getTokenActionType() {
+        return this.tokenActionType;
+    }
+
+    /**
+     * <p>the same as getNextToken() without making a Token object</p>
+     * <p>after it returns true, the token it moved over can be read with getTokenType(), getTokenStart(), getTokenLength() and getTokenActionType()</p>
+     * @return false if there are no tokens left
+     */
+    public boolean advance() {
+        if (!this.hasMoreTokens()) return false;
         if (this.scheduledTokens.size() != 0) {
-            Token token = this.scheduledTokens.pop();
-            this.cursor += token.value.length();
-            this.updateState(token.type, token.value, token.actionType);
-            return token;
+            TokenType type = this.scheduledTokens.peekType();
+            int start = this.scheduledTokens.peekStart();
+            int length = this.scheduledTokens.peekLength();
+            ActionType actionType = this.scheduledTokens.peekActionType();
+            this.scheduledTokens.pop();
+            this.cursor += length;
+            this.setToken(type, start, length, actionType);
+            return true;
         }
 
         TokenType tokenType = null;
-        String tokenValue = null;
+        int tokenStart = this.cursor;
+        int tokenLength = 0;
         ActionType actionType = null;
-        //gets the part of the string that hasnt been tokenized yet
-        this.slicedString = this.string.substring(this.cursor);
+        int remaining = this.source.length() - this.cursor;
         
-        char startChar = this.slicedString.charAt(0);
-        String startCharAsStr = String.valueOf(startChar);
+        char startChar = this.chars[this.cursor];
         switch (startChar) {
             /*
              *  raw: \\ => str: "\\\\" => render: \
@@ -463,34 +806,35 @@ public class Tokenizer {
              *  raw: \g => str: "\\g" => render: \g
              */
             case '\\':
-                if (this.slicedString.length() >= 2) {
-                    char nextChar = this.slicedString.charAt(1); //Example: the "a" in \a
+                if (remaining >= 2) {
+                    char nextChar = this.chars[this.cursor + 1]; //Example: the "a" in \a
                     if (TokenizerUtils.isASCIIPunctuation(nextChar)) {
                         tokenType = TokenType.TEXT;
-                        tokenValue = this.slicedString.substring(1, 2);
+                        tokenStart = this.cursor + 1;
+                        tokenLength = 1;
                         this.cursor += 2;
                     } else {
                         tokenType = TokenType.TEXT;
-                        tokenValue = this.slicedString.substring(0, 2);
+                        tokenLength = 2;
                         this.cursor += 2;
                     }
                 } else {
                     tokenType = TokenType.TEXT;
-                    tokenValue = this.slicedString.substring(0, 1);
+                    tokenLength = 1;
                     this.cursor += 1;
                 }
                 break;
             case '#': {
-                String headerTokenValue = this.getHeaderTokenValue();
+                int headerTokenLength = this.getHeaderTokenLength();
                 //headers can only be at the start of a line AND 6 or less characters long for h1 - h6
                 boolean isHeader = 
-                (this.cursor == 0 || this.string.charAt(this.cursor - 1) == '\n') &&
-                headerTokenValue.length() <= 6;
+                (this.cursor == 0 || this.chars[this.cursor - 1] == '\n') &&
+                headerTokenLength <= 6;
 
                 if (isHeader) {
                     tokenType = TokenType.HEADER;
-                    tokenValue = headerTokenValue;
-                    this.cursor += tokenValue.length();
+                    tokenLength = headerTokenLength;
+                    this.cursor += tokenLength;
                 }
                 break;
             }
@@ -499,20 +843,15 @@ public class Tokenizer {
                 if (curRun == null) break;
                 if (this.getRunAtPos(this.cursor) == null) break;
 
-                if (this.balanced && !this.contextStack.empty() && curRun.actionType == ActionType.CLOSE) {
-                    String value = this.contextStack.peek();
-                    Token token = new Token(TokenizerUtils.getTokenType(value), value, ActionType.CLOSE);
-                    this.cursor += token.value.length();
-                    this.updateState(token.type, token.value, token.actionType);
-                    return token;
+                if (this.balanced && !this.contextStack.isEmpty() && curRun.actionType == ActionType.CLOSE) {
+                    return this.closeContext(curRun);
                 }
 
-                ArrayList<DelimRun> eqGroup = this.getRunEquivalenceGroup();
-                this.balanced = eqGroup != null;
+                this.balanced = this.getClosingRun(curRun) != null;
 
                 if (this.balanced) {
                     tokenType = TokenType.CODE_BLOCK;
-                    tokenValue = "```";
+                    tokenLength = 3;
                     actionType = ActionType.OPEN;
                     this.cursor += 3;
                 }
@@ -523,20 +862,15 @@ public class Tokenizer {
                 if (curRun == null) break;
                 if (this.getRunAtPos(this.cursor) == null) break;
 
-                if (this.balanced && !this.contextStack.empty() && curRun.actionType == ActionType.CLOSE) {
-                    String value = this.contextStack.peek();
-                    Token token = new Token(TokenizerUtils.getTokenType(value), value, ActionType.CLOSE);
-                    this.cursor += token.value.length();
-                    this.updateState(token.type, token.value, token.actionType);
-                    return token;
+                if (this.balanced && !this.contextStack.isEmpty() && curRun.actionType == ActionType.CLOSE) {
+                    return this.closeContext(curRun);
                 }
 
-                ArrayList<DelimRun> eqGroup = this.getRunEquivalenceGroup();
-                this.balanced = eqGroup != null;
+                this.balanced = this.getClosingRun(curRun) != null;
 
                 if (this.balanced) {
                     tokenType = TokenType.HIGHLIGHT;
-                    tokenValue = "==";
+                    tokenLength = 2;
                     actionType = ActionType.OPEN;
                     this.cursor += 2;
                 }
@@ -547,20 +881,15 @@ public class Tokenizer {
                 if (curRun == null) break;
                 if (this.getRunAtPos(this.cursor) == null) break;
 
-                if (this.balanced && !this.contextStack.empty() && curRun.actionType == ActionType.CLOSE) {
-                    String value = this.contextStack.peek();
-                    Token token = new Token(TokenizerUtils.getTokenType(value), value, ActionType.CLOSE);
-                    this.cursor += token.value.length();
-                    this.updateState(token.type, token.value, ActionType.CLOSE);
-                    return token;
+                if (this.balanced && !this.contextStack.isEmpty() && curRun.actionType == ActionType.CLOSE) {
+                    return this.closeContext(curRun);
                 }
 
-                ArrayList<DelimRun> eqGroup = this.getRunEquivalenceGroup();
-                this.balanced = eqGroup != null;
+                this.balanced = this.getClosingRun(curRun) != null;
 
                 if (this.balanced) {
                     tokenType = TokenType.STRIKETHROUGH;
-                    tokenValue = "~~";
+                    tokenLength = 2;
                     actionType = ActionType.OPEN;
                     this.cursor += 2;
                 }
@@ -571,68 +900,110 @@ public class Tokenizer {
                 DelimRun curRun = this.getCurDelimiterRun();
                 if (curRun == null) break;
 
-                if (this.balanced && !this.contextStack.empty() && curRun.actionType == ActionType.CLOSE) {
-                    String value = this.contextStack.peek();
-                    Token token = new Token(TokenizerUtils.getTokenType(value), value, ActionType.CLOSE);
-                    this.cursor += token.value.length();
-                    this.updateState(token.type, token.value, token.actionType);
-                    return token;
+                if (this.balanced && !this.contextStack.isEmpty() && curRun.actionType == ActionType.CLOSE) {
+                    return this.closeContext(curRun);
                 }
                 
-                ArrayList<DelimRun> eqGroup = this.getRunEquivalenceGroup();
-                this.balanced = eqGroup != null;
+                DelimRun lastRun = this.getClosingRun(curRun);
+                this.balanced = lastRun != null;
 
                 /*
                  * if balanced, symbols can get processed as their proper token types such as italics and bold
                  * if not balanced, all symbols need to be processed as text
                  */
-                if (eqGroup != null) {//weird java thing, using this.balanced here causes linter warnings from the compiler
-                    DelimRun lastRun = eqGroup.get(eqGroup.size() - 1);
-                    if (curRun.length == 3) {// ***1** 2*
+                if (lastRun != null) {//weird java thing, using this.balanced here causes linter warnings from the compiler
+                    //the run is made of the same symbol all the way through, so any part of it can be pointed at for a token value
+                    //only the part from the cursor on is left, the start of the run can already be used up closing something
+                    int runLeft = curRun.end - this.cursor;
+                    if (this.cursor < curRun.start) {
+                        //the cursor is on symbols that were too many to be a run, they're used up as if they were the run after them
+                        runLeft = 0;
+                        while (runLeft < curRun.length && this.cursor + runLeft < curRun.start && this.chars[this.cursor + runLeft] == this.chars[this.cursor]) {
+                            runLeft++;
+                        }
+                    }
+                    if (runLeft == 3) {// ***1** 2*
 
-                        if (lastRun.length == 3) {// ***1*** => **, *, 1***
+                        if (lastRun.length >= 3) {// ***1*** => **, *, 1***
                             tokenType = TokenType.BOLD;
-                            tokenValue = startCharAsStr.repeat(2);
+                            tokenLength = 2;
 
-                            this.scheduledTokens.push(
-                                new Token(TokenType.ITALICS, startCharAsStr, ActionType.OPEN)
-                            );
+                            this.scheduledTokens.push(TokenType.ITALICS, this.cursor + 2, 1, ActionType.OPEN);
                         } else {
-                            tokenType = TokenizerUtils.getTokenType(lastRun.value);
-                            tokenValue = lastRun.value;
+                            tokenType = TokenizerUtils.getTokenType(this.chars, this.cursor, lastRun.length);
+                            tokenLength = lastRun.length;
 
-                            DelimRun penultimateRun = eqGroup.get(eqGroup.size() - 2);
+                            //the inner token gets whatever the outer one left of the run
                             this.scheduledTokens.push(
-                                new Token(TokenizerUtils.getTokenType(penultimateRun.value), penultimateRun.value, ActionType.OPEN)
+                                TokenizerUtils.getTokenType(this.chars, this.cursor + tokenLength, 3 - tokenLength), this.cursor + tokenLength, 3 - tokenLength, ActionType.OPEN
                             );
                         }
                     } else {
-                        tokenType = TokenizerUtils.getTokenType(curRun.value);
-                        tokenValue = curRun.value;
+                        tokenType = TokenizerUtils.getTokenType(this.chars, this.cursor, runLeft);
+                        tokenLength = runLeft;
                     }
                     actionType = ActionType.OPEN;
-                    this.cursor += tokenValue.length();
+                    this.cursor += tokenLength;
                 }
                 break;
             }
             case '\n': {
                 tokenType = TokenType.BREAK;
-                tokenValue = "\n";
+                tokenLength = 1;
                 this.cursor += 1;
             }
         }
 
         if (tokenType == null) {//no "special" token was found which means the upcoming characters must be a text token
-            String text = this.getTextTokenValue();
             tokenType = TokenType.TEXT;
-            tokenValue = text;
-            this.cursor += text.length();
+            tokenLength = this.getTextTokenLength();
+            this.cursor += tokenLength;
         }
 
-        assert tokenValue != null;
-        this.updateState(tokenType, tokenValue, actionType);
+        this.setToken(tokenType, tokenStart, tokenLength, actionType);
+        return true;
+    }
+
+    public Token getNextToken() {
+        if (!this.advance()) return null;
+        return new Token(this.tokenType, this.source, this.tokenStart, this.tokenLength, this.tokenActionType);
+    }
+
+    /**
+     * <p>lazy stream of the tokens that are left, tokens are only made as the stream asks for them so a stream that stops early
+     *   (findFirst(), anyMatch(), limit()) doesn't tokenize the rest of the string</p>
+     * <p>the stream uses this tokenizer, it shouldn't be advanced or reset until the stream is done with it</p>
+     */
+    public Stream<Token> stream() {
+        return StreamSupport.stream(this.spliterator(), false);
+    }
 
-        return new Token(tokenType, tokenValue, actionType);
+    /**
+     * <p>spliterator over the tokens that are left, it splits at the start of lines and the second half picks up with the exact state
+     *   the tokenizer has there, so a parallel stream gives the same tokens in the same order as tokenizing the string from start to end</p>
+     * @see TokenSpliterator
+     */
+    public Spliterator<Token> spliterator() {
+        return new TokenSpliterator(this, this.source.length(), null);
+    }
+
+    /** new tokenizer that picks up from the checkpoint, it shares the runs with this one */
+    Tokenizer copy(Checkpoint checkpoint) {
+        Tokenizer tokenizer = new Tokenizer(this);
+        tokenizer.restore(checkpoint);
+        return tokenizer;
+    }
+
+    int getCursor() {
+        return this.cursor;
+    }
+
+    /** tokenizes the rest of the string into the buffer, the buffer is cleared first */
+    public void tokenize(TokenBuffer buffer) {
+        buffer.reset(this.source);
+        while (this.advance()) {
+            buffer.add(this.tokenType, this.tokenStart, this.tokenLength, this.tokenActionType);
+        }
     }
 
     public static void main(String[] args) {
@@ -685,18 +1056,16 @@ public class Tokenizer {
         // Tokenizer tokenizer = new Tokenizer("***1* 2* 3*");
         // Tokenizer tokenizer = new Tokenizer("***1** 2*");
         // Tokenizer tokenizer = new Tokenizer("*******1* 2*** 3***");
-        // ArrayList<DelimRun> eqGroup = tokenizer.getRunEquivalenceGroup();
-        // if (eqGroup != null) {
-        //     System.out.println(Arrays.toString(eqGroup.stream().map(r -> r.value).toArray()));
-        // }
+        // DelimRun closingRun = tokenizer.getClosingRun(tokenizer.getCurDelimiterRun());
+        // System.out.println(closingRun);
 
-        // System.out.println(tokenizer.string);
+        // System.out.println(tokenizer.source);
         // System.out.println(tokenizer.getCurDelimiterRun());
         // System.out.println(tokenizer.getNextDelimiterRun());
 
         Token token;
         while((token = tokenizer.getNextToken()) != null) {
-            System.out.printf("%s(%s): %s\n", token.type, token.actionType, token.value);
+            System.out.printf("%s(%s): %s\n", token.type, token.actionType, token.getValue());
         }
         // System.out.println(tokenizer.getNextToken().value);
         // System.out.println(tokenizer.getNextToken().value);
@@ -0,0 +1,112 @@
+package org.vaadin.editor.ws;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.vaadin.editor.models.EditMessage;
+import org.vaadin.editor.parser.ParserPool;
+import org.vaadin.editor.parser.Utf8HtmlRenderer;
+
+/**
+ * <p>writes the json of an applied edit, the html of a version or a resync straight to utf-8 bytes, the html is rendered right into the json string</p>
+ * <p>there are no model classes for them, the shape of every message is written down on its method, the html never becomes
+ *   a String and isn't encoded a second time on the way to the websocket frame</p>
+ */
+final class ParserResponseWriter {
+	private ParserResponseWriter() {
+		throw new Error("Utility class, only contains static methods and should not be instantiated");
+	}
+
+	/** buffers kept while nobody writes into them, more than that are only around while they're used */
+	static final int MAX_IDLE = 2 * Runtime.getRuntime().availableProcessors();
+
+	// every message is written into a pooled buffer and only the finished message is copied out of it, the buffers aren't kept per
+	// thread since with virtual threads every message is handled on a new thread, see ParserPool
+	private static final ConcurrentLinkedQueue<Utf8HtmlRenderer> renderers = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger idleCount = new AtomicInteger();
+
+	/**
+	 * <p>{"edit":{"version":..,"start":..,"end":..,"text":"..","senderId":..},"version":..}, every client applies the edit
+	 *   to the text of the version before it, the text of the document isn't sent</p>
+	 * @param edit the edit as it was applied
+	 * @param version version of the document after the edit
+	 */
+	static byte[] write(EditMessage edit, int version) {
+		Utf8HtmlRenderer renderer = acquire();
+
+		String text = edit.getText() == null ? "" : edit.getText();
+		renderer.writeAscii("{\"edit\":{\"version\":");
+		renderer.writeAscii(Integer.toString(edit.getVersion()));
+		renderer.writeAscii(",\"start\":");
+		renderer.writeAscii(Integer.toString(edit.getStart()));
+		renderer.writeAscii(",\"end\":");
+		renderer.writeAscii(Integer.toString(edit.getEnd()));
+		renderer.writeAscii(",\"text\":\"");
+		renderer.writeText(text, 0, text.length());
+		renderer.writeAscii("\",\"senderId\":");
+		renderer.writeAscii(Integer.toString(edit.getSenderId()));
+		renderer.writeAscii("},\"version\":");
+		renderer.writeAscii(Integer.toString(version));
+		renderer.writeAscii("}");
+
+		return finish(renderer);
+	}
+
+	/**
+	 * <p>{"version":..,"html":".."}, the clients show it if they don't have the html of a newer version</p>
+	 * @param version version of the document the text is from
+	 * @param content text of the document, only its html is written
+	 */
+	static byte[] writeRender(int version, CharSequence content) {
+		Utf8HtmlRenderer renderer = acquire();
+
+		renderer.writeAscii("{\"version\":");
+		renderer.writeAscii(Integer.toString(version));
+		renderer.writeAscii(",\"html\":\"");
+		ParserPool.writeHtml(content, renderer);
+		renderer.writeAscii("\"}");
+
+		return finish(renderer);
+	}
+
+	/**
+	 * <p>{"senderId":..,"version":..}, the sender gets the text of the document again</p>
+	 * @param senderId client whose edit was dropped
+	 * @param version version of the document when it was dropped
+	 */
+	static byte[] writeResync(int senderId, int version) {
+		Utf8HtmlRenderer renderer = acquire();
+
+		renderer.writeAscii("{\"senderId\":");
+		renderer.writeAscii(Integer.toString(senderId));
+		renderer.writeAscii(",\"version\":");
+		renderer.writeAscii(Integer.toString(version));
+		renderer.writeAscii("}");
+
+		return finish(renderer);
+	}
+
+	private static Utf8HtmlRenderer acquire() {
+		Utf8HtmlRenderer renderer = renderers.poll();
+		if (renderer == null) return new Utf8HtmlRenderer(true);
+		idleCount.decrementAndGet();
+		renderer.reset();
+		return renderer;
+	}
+
+	/**
+	 * <p>copies the message out and hands the buffer back if there's room</p>
+	 * <p>the copy can't be skipped by sending a slice of the buffer, the stomp handler only takes a byte[] payload of the exact length
+	 *   and sends it later on the outbound channel, by then the buffer is writing another message</p>
+	 */
+	private static byte[] finish(Utf8HtmlRenderer renderer) {
+		byte[] json = renderer.toByteArray();
+		renderer.reset();
+		if (idleCount.incrementAndGet() > MAX_IDLE) {
+			idleCount.decrementAndGet();
+		} else {
+			renderers.offer(renderer);
+		}
+		return json;
+	}
+}
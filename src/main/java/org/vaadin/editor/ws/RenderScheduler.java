@@ -0,0 +1,157 @@
+package org.vaadin.editor.ws;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vaadin.editor.presence.RenderExecutor;
+import org.vaadin.editor.presence.SharedDocument;
+
+/**
+ * <p>renders the snapshots of one document, only ever one at a time and only the newest one</p>
+ *
+ * <p>while a render is running or waiting, a newer snapshot replaces the one that was waiting, so a burst of edits ends up as
+ *   one render of the last of them instead of one for every keystroke</p>
+ *
+ * <p>a render starts at most once every maxDelay, a snapshot that comes in while nothing is running is rendered right away if the
+ *   last render started longer than maxDelay ago, otherwise once it has been that long, so it never waits longer than maxDelay
+ *   plus the render in front of it and a document never takes more than one render every maxDelay</p>
+ *
+ * <p>the renders run in the interactive lane of the RenderExecutor, the timer only waits out the delay and hands them over, when
+ *   the lane is full the timer tries again after maxDelay (at least MIN_RETRY_DELAY_MILLIS), so the newest snapshot still gets
+ *   rendered once the executor catches up even if nobody edits anymore</p>
+ */
+public final class RenderScheduler {
+	private static final Logger logger = LoggerFactory.getLogger(RenderScheduler.class);
+	/** how long a rejected render waits before it's tried again when maxDelay is shorter than that */
+	static final long MIN_RETRY_DELAY_MILLIS = 10;
+
+	private final RenderExecutor executor;
+	private final ScheduledExecutorService timer;
+	private final long maxDelayNanos;
+	private final long retryDelayNanos;
+	private final Consumer<SharedDocument.Snapshot> renderer;
+
+	/** the newest snapshot that wasn't rendered yet, null if there isn't one */
+	private SharedDocument.Snapshot pending;
+	/** a render is running or scheduled, there is never more than one */
+	private boolean scheduled = false;
+	private long lastStart;
+	/** the last start was rejected, only the first rejection in a row is logged */
+	private boolean retrying = false;
+
+	private long submitted = 0;
+	private long coalesced = 0;
+	private long rendered = 0;
+	private long failed = 0;
+
+	RenderScheduler(RenderExecutor executor, ScheduledExecutorService timer, long maxDelayMillis, Consumer<SharedDocument.Snapshot> renderer) {
+		if (maxDelayMillis < 0) throw new IllegalArgumentException("maxDelayMillis can't be negative: " + maxDelayMillis);
+		this.executor = executor;
+		this.timer = timer;
+		this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+		this.retryDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxDelayMillis, MIN_RETRY_DELAY_MILLIS));
+		this.renderer = renderer;
+		this.lastStart = System.nanoTime() - this.maxDelayNanos;
+	}
+
+	/** renders the snapshot unless a newer one comes in before it's its turn */
+	synchronized void submit(SharedDocument.Snapshot snapshot) {
+		this.submitted++;
+		if (this.pending != null) this.coalesced++;	// the waiting one is never rendered
+		this.pending = snapshot;
+		if (!this.scheduled) {
+			this.scheduled = true;
+			this.schedule();
+		}
+	}
+
+	private void schedule() {
+		long delay = this.lastStart + this.maxDelayNanos - System.nanoTime();
+		if (delay > 0) {
+			this.startLater(delay);
+		} else {
+			this.start();
+		}
+	}
+
+	private void startLater(long delayNanos) {
+		try {
+			this.timer.schedule(this::start, delayNanos, TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			// the timer only stops when the application does, nothing is rendered anymore
+			synchronized (this) {
+				this.scheduled = false;
+			}
+		}
+	}
+
+	private void start() {
+		try {
+			this.executor.execute(RenderExecutor.Lane.INTERACTIVE, this::run);
+			synchronized (this) {
+				this.retrying = false;
+			}
+		} catch (RejectedExecutionException e) {
+			// the snapshot stays pending and scheduled stays set, the timer tries again so the last edit isn't left without html
+			boolean first;
+			synchronized (this) {
+				first = !this.retrying;
+				this.retrying = true;
+			}
+			if (first) logger.warn("couldn't start rendering the document, trying again every {} ms: {}", TimeUnit.NANOSECONDS.toMillis(this.retryDelayNanos), e.getMessage());
+			this.startLater(this.retryDelayNanos);
+		}
+	}
+
+	private void run() {
+		SharedDocument.Snapshot snapshot;
+		synchronized (this) {
+			snapshot = this.pending;
+			this.pending = null;
+			this.lastStart = System.nanoTime();
+		}
+
+		try {
+			this.renderer.accept(snapshot);
+			synchronized (this) {
+				this.rendered++;
+			}
+		} catch (RuntimeException e) {
+			// the next snapshot still has to be rendered, one that failed is skipped
+			synchronized (this) {
+				this.failed++;
+			}
+			logger.error("rendering version {} failed", snapshot.getVersion(), e);
+		} finally {
+			synchronized (this) {
+				if (this.pending != null) {
+					this.schedule();
+				} else {
+					this.scheduled = false;
+				}
+			}
+		}
+	}
+
+	/** snapshots that were handed to submit() */
+	public synchronized long getSubmitted() {
+		return this.submitted;
+	}
+
+	/** snapshots that were replaced by a newer one before they were rendered */
+	public synchronized long getCoalesced() {
+		return this.coalesced;
+	}
+
+	public synchronized long getRendered() {
+		return this.rendered;
+	}
+
+	public synchronized long getFailed() {
+		return this.failed;
+	}
+}
@@ -1,18 +1,47 @@
 package org.vaadin.editor.ws;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.vaadin.editor.presence.RenderExecutor;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer {
+	// the same switch spring boot uses for tomcat, with it every message gets its own virtual thread instead of waiting for a pool (needs java 21)
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreads;
+
+	// the threads that handle messages from the clients, nothing is parsed on them anymore so they only have to keep up with the messages
+	@Value("${editor.ws.inbound.core-pool-size:4}")
+	private int inboundCorePoolSize;
+	@Value("${editor.ws.inbound.max-pool-size:8}")
+	private int inboundMaxPoolSize;
+	@Value("${editor.ws.inbound.queue-capacity:1000}")
+	private int inboundQueueCapacity;
+
+	// the threads that write the broadcasts to every client
+	@Value("${editor.ws.outbound.core-pool-size:4}")
+	private int outboundCorePoolSize;
+	@Value("${editor.ws.outbound.max-pool-size:8}")
+	private int outboundMaxPoolSize;
+	@Value("${editor.ws.outbound.queue-capacity:1000}")
+	private int outboundQueueCapacity;
+
 	@Override
 	public void configureMessageBroker(MessageBrokerRegistry config) {
 		config.enableSimpleBroker("/broadcasts");	// where messages from the server will be broadcast to
 		config.setApplicationDestinationPrefixes("/app");	// where messages TO the server should be sent
+		config.setPreservePublishOrder(true);	// edits have to reach every client in the order of their versions
 	}
 
 	@Override
@@ -20,4 +49,52 @@ public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer
 		// the endpoint that will be waiting to create new connections
 		registry.addEndpoint("/create-ws-connection");
 	}
+
+	// the pools only grow past the core size once the queue is full
+	// an inbound message that doesn't fit anymore is handled on the thread that read it off the websocket instead of being dropped,
+	// a dropped edit would leave its sender waiting for it forever, this way a client that sends too much is slowed down instead
+	@Override
+	public void configureClientInboundChannel(ChannelRegistration registration) {
+		if (this.virtualThreads) {
+			registration.executor(new VirtualThreadTaskExecutor("ws-inbound-"));
+			return;
+		}
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("clientInboundChannel-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		registration.taskExecutor(executor)
+			.corePoolSize(this.inboundCorePoolSize)
+			.maxPoolSize(this.inboundMaxPoolSize)
+			.queueCapacity(this.inboundQueueCapacity);
+	}
+
+	// a broadcast that doesn't fit is written on the thread that sent it instead of being dropped, a dropped edit shows up as a gap
+	// in the versions but a dropped html doesn't, the preview would stay on old html until the next edit
+	// that slows down whatever sent it, the edits and the render threads, until the outbound threads catch up
+	@Override
+	public void configureClientOutboundChannel(ChannelRegistration registration) {
+		if (this.virtualThreads) {
+			registration.executor(new VirtualThreadTaskExecutor("ws-outbound-"));
+			return;
+		}
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("clientOutboundChannel-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		registration.taskExecutor(executor)
+			.corePoolSize(this.outboundCorePoolSize)
+			.maxPoolSize(this.outboundMaxPoolSize)
+			.queueCapacity(this.outboundQueueCapacity);
+	}
+
+	/** the threads every document is parsed and rendered on, see RenderExecutor */
+	@Bean(destroyMethod = "shutdown")
+	public RenderExecutor renderExecutor(
+		@Value("${editor.render.threads:2}") int threads,
+		@Value("${editor.render.queue-capacity:64}") int queueCapacity
+	) {
+		if (this.virtualThreads) {
+			return new RenderExecutor(threads, queueCapacity, new VirtualThreadTaskExecutor("render-").getVirtualThreadFactory());
+		}
+		return new RenderExecutor(threads, queueCapacity);
+	}
 }
@@ -1,31 +1,96 @@
 package org.vaadin.editor.ws;
 
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Controller;
-import org.vaadin.editor.models.ParserResponseMessage;
-import org.vaadin.editor.models.TextMessage;
+import org.springframework.util.MimeTypeUtils;
+import org.vaadin.editor.models.EditMessage;
 import org.vaadin.editor.presence.PresenceManager;
-import org.vaadin.editor.parser.Parser;
+import org.vaadin.editor.presence.RenderExecutor;
+import org.vaadin.editor.presence.SharedDocument;
 
 
 @Controller
 public class WebSocketController {
+	private final SimpMessagingTemplate messagingTemplate;
+	/** only waits out the delay between renders, the renders themselves run on the render executor */
+	private final ScheduledExecutorService renderTimer;
+	/** renders the html of the document on the render executor, only the newest version during a burst of edits */
+	private final RenderScheduler renderScheduler;
+
+	public WebSocketController(
+		SimpMessagingTemplate messagingTemplate,
+		RenderExecutor renderExecutor,
+		@Value("${editor.render.max-delay-ms:50}") long renderMaxDelayMillis
+	) {
+		this.messagingTemplate = messagingTemplate;
+		this.renderTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "render-timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.renderScheduler = new RenderScheduler(renderExecutor, this.renderTimer, renderMaxDelayMillis, this::broadcastHtml);
+	}
+
+	/** renders that are still waiting for their delay are dropped, nobody is left to send them to */
+	@PreDestroy
+	public void shutdown() {
+		this.renderTimer.shutdownNow();
+	}
 
-	@MessageMapping("/update")
-	@SendTo("/broadcasts/updates")	// anything returned will be broadcast to this endpoint
-	public ParserResponseMessage onTextUpdate(TextMessage text) throws Exception {
-		String content = text.getContent();
+	public RenderScheduler getRenderScheduler() {
+		return this.renderScheduler;
+	}
+
+	/** a change to the document, only the edit is sent around instead of the whole text */
+	@MessageMapping("/edit")
+	public void onEdit(EditMessage edit) {
+		this.applyAndBroadcast(edit);
+	}
 
-		PresenceManager.setGlobalText(content);
+	/**
+	 * <p>edits are applied and broadcast one at a time, so the clients get them in the order of their versions</p>
+	 * <p>the broker keeps that order on the way out, see WebSocketConfiguration</p>
+	 * <p>the html isn't rendered here, the new version is handed to the render scheduler which skips it if another edit comes in first</p>
+	 * <p>an edit the document can't move to its version is dropped, the sender is told to get the text again instead</p>
+	 */
+	private synchronized void applyAndBroadcast(EditMessage edit) {
+		SharedDocument document = PresenceManager.getDocument();
+		EditMessage applied = document.apply(edit);
+		if (applied == null) {
+			this.send("/broadcasts/resync", ParserResponseWriter.writeResync(edit.getSenderId(), document.getVersion()));
+			return;
+		}
+		// nothing else applies edits while this runs, so the snapshot is the one right after the edit
+		SharedDocument.Snapshot snapshot = document.getSnapshot();
 
-		System.out.println(PresenceManager.getGlobalText());
+		this.send("/broadcasts/updates", ParserResponseWriter.write(applied, snapshot.getVersion()));
+		this.renderScheduler.submit(snapshot);
+	}
+
+	/** the html of a version of the document, the clients show it if they don't have the html of a newer one */
+	private void broadcastHtml(SharedDocument.Snapshot snapshot) {
+		// the html is rendered straight out of the rope, the tokenizer and the renderer copy it out a leaf at a time
+		this.send("/broadcasts/html", ParserResponseWriter.writeRender(snapshot.getVersion(), snapshot.getText()));
+	}
 
-		Parser parser = new Parser(content);
-		parser.parse();
-		String html = parser.convertToHtml();
-		ParserResponseMessage response = new ParserResponseMessage(text, html);
+	private void send(String destination, byte[] json) {
+		// the json is written as bytes by ParserResponseWriter, sending the bytes as they are skips the message converters
+		SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+		headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+		headers.setLeaveMutable(true);
+		Message<byte[]> response = MessageBuilder.createMessage(json, headers.getMessageHeaders());
 
-		return response;	// broadcast to /broadcasts/updates
+		this.messagingTemplate.send(destination, response);
 	}
 }
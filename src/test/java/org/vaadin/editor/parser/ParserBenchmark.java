@@ -0,0 +1,314 @@
+package org.vaadin.editor.parser;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>small standalone benchmark for the whole markdown to html pipeline, run it with the main method (it is not picked up as a unit test)</p>
+ * <p>compares making a new parser for every message, like the websocket controller used to, with the thread's pooled parser</p>
+ */
+public class ParserBenchmark {
+
+    /** messages as they come in while someone is typing, every message is the whole document */
+    static String[] buildMessages(int length) {
+        return buildMessages(length, "");
+    }
+
+    /** same as buildMessages(length) with the given text in front of every message */
+    static String[] buildMessages(int length, String prefix) {
+        String[] lines = {
+            "just some plain text that somebody typed into the editor",
+            "**bold** and *italics* and ~~strike~~ and ==highlight==",
+            "# a header",
+            "***1*** *2* **1 *2* *3* 4**",
+        };
+        StringBuilder sb = new StringBuilder(length + 64);
+        int i = 0;
+        while (sb.length() < length) {
+            sb.append(lines[i++ % lines.length]);
+            sb.append('\n');
+        }
+        String document = sb.toString();
+
+        //every message is one more character of the document
+        String[] messages = new String[200];
+        for (int m = 0; m < messages.length; m++) {
+            messages[m] = prefix + document.substring(0, document.length() - messages.length + m);
+        }
+        return messages;
+    }
+
+    static String newParser(String message) {
+        Parser parser = new Parser(message);
+        parser.parse();
+        return parser.convertToHtml();
+    }
+
+    static String pooledParser(String message) {
+        return ParserPool.convertToHtml(message);
+    }
+
+    /** bytes allocated by the current thread per message, and nanoseconds per message */
+    static long[] measure(String[] messages, boolean pooled) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long sink = 0;
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (String message : messages) {
+            sink += (pooled ? pooledParser(message) : newParser(message)).length();
+        }
+        long elapsed = System.nanoTime() - start;
+        long after = threads.getThreadAllocatedBytes(threadId);
+
+        if (sink == 42) System.out.print("");
+        return new long[] {(after - before) / messages.length, elapsed / messages.length};
+    }
+
+    /**
+     * <p>html as utf-8 bytes, once through the pooled String and getBytes() and once written straight to bytes</p>
+     * @return bytes allocated per message and nanoseconds per message for {string, bytes}
+     */
+    static long[] measureBytes(String[] messages) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Utf8HtmlRenderer renderer = new Utf8HtmlRenderer();
+        long sink = 0;
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (String message : messages) {
+            sink += pooledParser(message).getBytes(StandardCharsets.UTF_8).length;
+        }
+        long stringElapsed = System.nanoTime() - start;
+        long stringAllocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        start = System.nanoTime();
+        for (String message : messages) {
+            renderer.reset();
+            ParserPool.parse(message, renderer);
+            sink += renderer.size();
+        }
+        long bytesElapsed = System.nanoTime() - start;
+        long bytesAllocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        if (sink == 42) System.out.print("");
+        return new long[] {
+            stringAllocated / messages.length, stringElapsed / messages.length,
+            bytesAllocated / messages.length, bytesElapsed / messages.length
+        };
+    }
+
+    /**
+     * <p>what escaping costs compared to copying the text as it is, measured over the whole message so it's the most it could cost</p>
+     * @return nanoseconds per message for {escaping, plain copy, whole pooled render}
+     */
+    static long[] measureEscaping(String[] messages) {
+        StringBuilder sb = new StringBuilder();
+        long sink = 0;
+
+        long start = System.nanoTime();
+        for (String message : messages) {
+            sb.setLength(0);
+            HtmlEscaper.escape(message, 0, message.length(), sb);
+            sink += sb.length();
+        }
+        long escaped = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (String message : messages) {
+            sb.setLength(0);
+            sb.append(message, 0, message.length());
+            sink += sb.length();
+        }
+        long copied = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (String message : messages) {
+            sink += pooledParser(message).length();
+        }
+        long rendered = System.nanoTime() - start;
+
+        if (sink == 42) System.out.print("");
+        return new long[] {escaped / messages.length, copied / messages.length, rendered / messages.length};
+    }
+
+    /**
+     * <p>big documents through one parser and through BlockRenderer, tokenizing is timed on its own since it's the part
+     *   that stays on one thread</p>
+     * @return nanoseconds per message for {tokenizing, sequential render, parallel render}
+     */
+    static long[] measureParallel(String[] messages) {
+        Parser parser = new Parser("");
+        long sink = 0;
+
+        long start = System.nanoTime();
+        for (String message : messages) {
+            parser.reset(message);
+            parser.tokenize();
+            sink += parser.tokens.size();
+        }
+        long tokenized = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (String message : messages) {
+            parser.reset(message);
+            sink += parser.parseToHtml().length();
+        }
+        long sequential = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (String message : messages) {
+            parser.reset(message);
+            sink += BlockRenderer.renderHtml(parser, null, true).length();
+        }
+        long parallel = System.nanoTime() - start;
+
+        if (sink == 42) System.out.print("");
+        return new long[] {tokenized / messages.length, sequential / messages.length, parallel / messages.length};
+    }
+
+    /**
+     * <p>the pooled parser with the block cache turned off and on, only the block that is being typed in changes between messages</p>
+     * @return nanoseconds per message for {no cache, cache} and the hits per 1000 blocks
+     */
+    static long[] measureCache(String[] messages) {
+        long sink = 0;
+
+        ParserPool.setBlockCacheSize(0);
+        long start = System.nanoTime();
+        for (String message : messages) {
+            sink += pooledParser(message).length();
+        }
+        long uncached = System.nanoTime() - start;
+
+        ParserPool.setBlockCacheSize(BlockCache.DEFAULT_MAX_BYTES);
+        BlockCache cache = ParserPool.getBlockCache();
+        start = System.nanoTime();
+        for (String message : messages) {
+            sink += pooledParser(message).length();
+        }
+        long cached = System.nanoTime() - start;
+
+        if (sink == 42) System.out.print("");
+        return new long[] {uncached / messages.length, cached / messages.length, 1000 * cache.getHits() / (cache.getHits() + cache.getMisses())};
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = {1_000, 10_000, 100_000};
+
+        for (int size : sizes) {
+            String[] messages = buildMessages(size);
+            //warmup
+            for (int i = 0; i < 5; i++) {
+                measure(messages, false);
+                measure(messages, true);
+            }
+
+            long[] fresh = measure(messages, false);
+            long[] pooled = measure(messages, true);
+            System.out.printf(
+                "%8d chars: new parser %10d bytes/msg %8.1f us/msg, pooled %10d bytes/msg %8.1f us/msg%n",
+                messages[messages.length - 1].length(),
+                fresh[0], fresh[1] / 1000.0,
+                pooled[0], pooled[1] / 1000.0
+            );
+        }
+
+        //bold that is only closed after a header, the parser has to recover from that on every message
+        for (int size : sizes) {
+            String[] messages = buildMessages(size, "**open\n# header\nclose** ");
+            for (int i = 0; i < 5; i++) {
+                measure(messages, true);
+            }
+
+            long[] pooled = measure(messages, true);
+            System.out.printf(
+                "%8d chars: unclosed bold, pooled %10d bytes/msg %8.1f us/msg%n",
+                messages[messages.length - 1].length(),
+                pooled[0], pooled[1] / 1000.0
+            );
+        }
+
+        //what the websocket controller needs, the html as utf-8
+        for (int size : sizes) {
+            String[] messages = buildMessages(size);
+            for (int i = 0; i < 5; i++) {
+                measureBytes(messages);
+            }
+
+            long[] elapsed = measureBytes(messages);
+            System.out.printf(
+                "%8d chars: string to utf-8 %10d bytes/msg %8.1f us/msg, utf-8 renderer %10d bytes/msg %8.1f us/msg%n",
+                messages[messages.length - 1].length(),
+                elapsed[0], elapsed[1] / 1000.0,
+                elapsed[2], elapsed[3] / 1000.0
+            );
+        }
+
+        //text with a few characters that need escaping in it
+        for (int size : sizes) {
+            String[] messages = buildMessages(size, "if a < b && c > d then \"quote\" it's\n");
+            for (int i = 0; i < 5; i++) {
+                measureEscaping(messages);
+            }
+
+            long[] elapsed = measureEscaping(messages);
+            System.out.printf(
+                "%8d chars: escaping %8.1f us/msg, plain copy %8.1f us/msg, render %8.1f us/msg, escaping overhead %5.2f%%%n",
+                messages[messages.length - 1].length(),
+                elapsed[0] / 1000.0, elapsed[1] / 1000.0, elapsed[2] / 1000.0,
+                100.0 * (elapsed[0] - elapsed[1]) / elapsed[2]
+            );
+        }
+
+        //formatting nested thousands of levels deep, this used to overflow the stack
+        for (int depth : new int[] {100, 1_000, 10_000}) {
+            String[] messages = buildMessages(1_000, "~~a ==b ".repeat(depth) + "c== d~~ ".repeat(depth));
+            for (int i = 0; i < 5; i++) {
+                measure(messages, true);
+            }
+
+            long[] pooled = measure(messages, true);
+            System.out.printf(
+                "%8d deep: nested formatting, pooled %10d bytes/msg %8.1f us/msg%n",
+                depth * 2,
+                pooled[0], pooled[1] / 1000.0
+            );
+        }
+
+        //typing into a document with a header every few lines
+        for (int size : sizes) {
+            String[] messages = buildMessages(size);
+            for (int i = 0; i < 5; i++) {
+                measureCache(messages);
+            }
+
+            long[] elapsed = measureCache(messages);
+            System.out.printf(
+                "%8d chars: no block cache %8.1f us/msg, block cache %8.1f us/msg, %5.1f%% of blocks cached%n",
+                messages[messages.length - 1].length(),
+                elapsed[0] / 1000.0, elapsed[1] / 1000.0, elapsed[2] / 10.0
+            );
+        }
+
+        //documents big enough for BlockRenderer, it can only go faster than one parser with more than one core
+        System.out.printf("%d cores, common pool parallelism %d%n", Runtime.getRuntime().availableProcessors(), ForkJoinPool.getCommonPoolParallelism());
+        for (int size : new int[] {200_000, 500_000}) {
+            String[] messages = buildMessages(size, "```\nsome code\n```\n");
+            for (int i = 0; i < 3; i++) {
+                measureParallel(messages);
+            }
+
+            long[] elapsed = measureParallel(messages);
+            System.out.printf(
+                "%8d chars: tokenizing %8.1f us/msg, sequential %8.1f us/msg, parallel %8.1f us/msg%n",
+                messages[messages.length - 1].length(),
+                elapsed[0] / 1000.0, elapsed[1] / 1000.0, elapsed[2] / 1000.0
+            );
+        }
+    }
+}
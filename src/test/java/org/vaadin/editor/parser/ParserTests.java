@@ -0,0 +1,253 @@
+package org.vaadin.editor.parser;
+
+import org.junit.Test;
+import org.junit.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.vaadin.editor.text.Rope;
+
+public class ParserTests {
+
+    /** checks the html from the tree and the html written while parsing */
+    public void assertHtml(String markdown, String expectedHtml) {
+        Parser parser = new Parser(markdown);
+        parser.parse();
+        Assert.assertEquals(expectedHtml, parser.convertToHtml());
+        Assert.assertEquals(expectedHtml, parser.parseToHtml());
+    }
+
+    @Test
+    public void formatting() {
+        this.assertHtml("**bold** *italics*", "<html><p><strong>bold</strong> <em>italics</em></p></html>");
+        this.assertHtml("# **header**", "<html><h1> <strong>header</strong></h1></html>");
+        this.assertHtml("```\ncode\n```", "<html><pre><code>code<br></code></pre></html>");
+    }
+
+    @Test
+    public void tree() {
+        Parser parser = new Parser("**a** b\n# c");
+        parser.parse();
+        SyntaxTree tree = parser.tree;
+
+        int paragraph = tree.getFirstChild(SyntaxTree.ROOT_NODE);
+        Assert.assertEquals(SyntaxTree.PARAGRAPH, tree.getKind(paragraph));
+        int strong = tree.getFirstChild(paragraph);
+        Assert.assertEquals(SyntaxTree.STRONG, tree.getKind(strong));
+        Assert.assertEquals("**a**", tree.getValue(strong));
+        Assert.assertEquals("a", tree.getValue(tree.getFirstChild(strong)));
+        Assert.assertEquals(" b", tree.getValue(tree.getNextSibling(strong)));
+
+        int header = tree.getNextSibling(paragraph);
+        Assert.assertEquals(SyntaxTree.HEADER, tree.getKind(header));
+        Assert.assertEquals("# c", tree.getValue(header));
+        Assert.assertEquals(1, tree.getHeaderDepth(header));
+        Assert.assertEquals(SyntaxTree.NONE, tree.getNextSibling(header));
+
+        //the same parser and tree are reused for the next document
+        parser.reset("*x*");
+        parser.parse();
+        Assert.assertEquals("<html><p><em>x</em></p></html>", parser.convertToHtml());
+    }
+
+    @Test
+    public void escaping() {
+        this.assertHtml("<script>alert('x')</script>", "<html><p>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;</p></html>");
+        this.assertHtml("**a & \"b\"**", "<html><p><strong>a &amp; &quot;b&quot;</strong></p></html>");
+        this.assertHtml("```\n<b>\n```", "<html><pre><code>&lt;b&gt;<br></code></pre></html>");
+    }
+
+    @Test
+    public void recovery() {
+        //formatting that is still open when a new block starts is turned back into text, the blocks after it keep their formatting
+        this.assertHtml(
+            "**open\n# header\nclose** rest *x*",
+            "<html><p>**open<br></p><h1> header</h1><p><br>close** rest <em>x</em></p></html>"
+        );
+        this.assertHtml(
+            "*open\n```\ncode\n```\nclose* y",
+            "<html><p>*open<br></p><pre><code>code<br></code></pre><p>close* y</p></html>"
+        );
+
+        //a header ends at the end of its line even with formatting still open, what didn't get closed by then is text
+        this.assertHtml("# Title **a *b** c*\nmore\nlines", "<html><h1> Title **a *b** c*</h1><p><br>more<br>lines</p></html>");
+
+        //a code block that never gets closed
+        this.assertHtml("```\ncode *x*", "<html><p>```<br>code *x*</p></html>");
+
+        //headers inside of code blocks are text
+        this.assertHtml("```\n# not a header\n```", "<html><pre><code># not a header<br></code></pre></html>");
+    }
+
+    @Test
+    public void deepNesting() {
+        //used to overflow the stack with one recursive call per format node
+        int depth = 20_000;
+        Parser parser = new Parser("~~a ==b ".repeat(depth) + "c== d~~ ".repeat(depth));
+        parser.parse();
+        String html = parser.convertToHtml();
+
+        //anything past the nesting limit stays text
+        int pairs = Parser.DEFAULT_MAX_NESTING / 2;
+        String inner = "~~a ==b ".repeat(depth - pairs) + "c== d~~ ".repeat(depth - pairs);
+        String expected = "<html><p>" + "<strike>a <mark>b ".repeat(pairs) + inner + "c</mark> d</strike> ".repeat(pairs) + "</p></html>";
+        Assert.assertEquals(expected, html);
+    }
+
+    @Test
+    public void maxNesting() {
+        Parser parser = new Parser("**a *b ~~c~~ d* e**");
+        parser.setMaxNesting(2);
+        parser.parse();
+        Assert.assertEquals("<html><p><strong>a <em>b ~~c~~ d</em> e</strong></p></html>", parser.convertToHtml());
+
+        parser = new Parser("**a *b* c**");
+        parser.setMaxNesting(0);
+        parser.parse();
+        Assert.assertEquals("<html><p>**a *b* c**</p></html>", parser.convertToHtml());
+    }
+
+    @Test
+    public void utf8() {
+        Random random = new Random(15);
+        String alphabet = "*_~=`#\n ab<&\"\u00e9\u4eca\ud83d\ude00\ud83d";
+        Utf8HtmlRenderer renderer = new Utf8HtmlRenderer();
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(40); j > 0; j--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            Parser parser = new Parser(sb.toString());
+            renderer.reset();
+            parser.parse(renderer);
+            Assert.assertArrayEquals(parser.parseToHtml().getBytes(StandardCharsets.UTF_8), renderer.toByteArray());
+        }
+    }
+
+    @Test
+    public void utf8Rope() {
+        //long enough for several chunks, with surrogate pairs landing on the chunk boundaries
+        Random random = new Random(16);
+        String alphabet = "*_\n ab<\u00e9\ud83d\ude00";
+        for (int i = 0; i < 200; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(3 * Utf8HtmlRenderer.CHUNK_LENGTH); j > 0; j--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            sb.insert(random.nextInt(sb.length() + 1), "\ud83d\ude00".repeat(Utf8HtmlRenderer.CHUNK_LENGTH));
+            String markdown = sb.toString();
+            Utf8HtmlRenderer renderer = new Utf8HtmlRenderer();
+            new Parser(Rope.of(markdown)).parse(renderer);
+            Assert.assertArrayEquals(new Parser(markdown).parseToHtml().getBytes(StandardCharsets.UTF_8), renderer.toByteArray());
+        }
+    }
+
+    @Test
+    public void utf8JsonString() {
+        Utf8HtmlRenderer renderer = new Utf8HtmlRenderer(true);
+        new Parser("say \"**hi**\" \\ \t\u0001 \u00e9").parse(renderer);
+        Assert.assertEquals(
+            "<html><p>say &quot;<strong>hi</strong>&quot; \\\\ \\t\\u0001 \u00e9</p></html>",
+            new String(renderer.toByteArray(), StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    public void neverThrows() {
+        Random random = new Random(321);
+        String alphabet = "*_~=`#\\\n\n ab";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(40); j > 0; j--) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            Parser parser = new Parser(sb.toString());
+            parser.parse();
+            Assert.assertEquals(parser.convertToHtml(), parser.parseToHtml());
+        }
+    }
+
+    @Test
+    public void parallel() {
+        //formatting paired across headers and code blocks and unclosed code blocks, every block is its own group
+        Random random = new Random(17);
+        String[] lines = {"# a **header**", "some *text* here", "**open", "close**", "```", "a ``` b", "~~x ==y== x~~", ""};
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(30); j > 0; j--) {
+                sb.append(lines[random.nextInt(lines.length)]).append('\n');
+            }
+            String markdown = sb.toString();
+            String expected = new Parser(markdown).parseToHtml();
+            Assert.assertEquals(expected, BlockRenderer.renderHtml(new Parser(markdown), null, 1));
+
+            Utf8HtmlRenderer renderer = new Utf8HtmlRenderer();
+            BlockRenderer.renderUtf8(new Parser(markdown), null, 1, renderer);
+            Assert.assertEquals(expected, new String(renderer.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void blockCache() {
+        BlockCache cache = new BlockCache();
+        String[] markdown = {
+            "intro\n# one\ntext\n```\ncode\n```\n# two\nmore",
+            "intro\n# one\ntext\n```\ncode\n```\n# two\nmore!",
+            //the same "# one\ntext**" block, once with the ** closing the ** from the intro and once as text
+            "**intro\n# one\ntext**",
+            "intro\n# one\ntext**",
+        };
+        for (String document : markdown) {
+            Assert.assertEquals(new Parser(document).parseToHtml(), BlockRenderer.renderHtml(new Parser(document), cache, false));
+        }
+        //only "# two\nmore!" changed in the second document, and only "intro\n" is the same in the last one
+        Assert.assertEquals(4, cache.getHits());
+        Assert.assertEquals(8, cache.getMisses());
+        //both ways of tokenizing "# one\ntext**" share a hash and are kept next to each other
+        Assert.assertEquals(new Parser(markdown[2]).parseToHtml(), BlockRenderer.renderHtml(new Parser(markdown[2]), cache, false));
+        Assert.assertEquals(6, cache.getHits());
+
+        //blocks that are too long are always parsed and never kept
+        BlockCache shortBlocks = new BlockCache(BlockCache.DEFAULT_MAX_BYTES, 10);
+        for (int i = 0; i < 2; i++) {
+            String document = "short\n# a much longer block";
+            Assert.assertEquals(new Parser(document).parseToHtml(), BlockRenderer.renderHtml(new Parser(document), shortBlocks, false));
+        }
+        Assert.assertEquals(1, shortBlocks.size());
+        Assert.assertEquals(1, shortBlocks.getHits());
+
+        BlockCache small = new BlockCache(BlockCache.ENTRY_OVERHEAD * 3);
+        for (int i = 0; i < 100; i++) {
+            String document = "# header " + i + "\nsome **text**";
+            Assert.assertEquals(new Parser(document).parseToHtml(), BlockRenderer.renderHtml(new Parser(document), small, false));
+            Assert.assertTrue(small.getBytes() <= small.getMaxBytes());
+        }
+        Assert.assertTrue(small.getEvictions() > 90);
+    }
+
+    @Test
+    public void blockIndex() {
+        Random random = new Random(20);
+        String[] lines = {"# a **header**", "some *text* here", "\\# escaped", "**open", "close**", "```", ""};
+        for (int i = 0; i < 500; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                sb.append(lines[random.nextInt(lines.length)]).append('\n');
+            }
+            String markdown = sb.toString();
+            Parser parser = new Parser(markdown);
+            parser.parse();
+            SyntaxTree tree = parser.tree;
+
+            for (int offset = 0; offset <= markdown.length(); offset++) {
+                //the last block that starts at or before the offset, found by going through all of them
+                int expected = -1;
+                for (int block = 0; block < tree.getBlockCount() && tree.getStart(tree.getBlock(block)) <= offset; block++) {
+                    expected = block;
+                }
+                Assert.assertEquals(markdown, expected, tree.findBlock(offset));
+            }
+        }
+    }
+}
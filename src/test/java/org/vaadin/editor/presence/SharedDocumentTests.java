@@ -0,0 +1,46 @@
+package org.vaadin.editor.presence;
+
+import org.junit.Test;
+import org.junit.Assert;
+
+import org.vaadin.editor.models.EditMessage;
+
+public class SharedDocumentTests {
+
+	@Test
+	public void transformsOlderEdits() {
+		SharedDocument document = new SharedDocument();
+		document.apply(new EditMessage(0, 0, 0, "ac", 1));
+		document.apply(new EditMessage(1, 0, 0, ">", 1));
+		//made on "ac" without knowing about the ">" in front of it
+		EditMessage applied = document.apply(new EditMessage(1, 1, 1, "b", 2));
+
+		Assert.assertEquals(2, applied.getVersion());
+		Assert.assertEquals(2, applied.getStart());
+		Assert.assertEquals(">abc", document.getText());
+		Assert.assertEquals(3, document.getVersion());
+	}
+
+	@Test
+	public void dropsEditsThatCantBeMoved() {
+		SharedDocument document = new SharedDocument();
+		document.apply(new EditMessage(0, 0, 0, "text", 1));
+
+		//a version the document doesn't have yet
+		Assert.assertNull(document.apply(new EditMessage(2, 0, 0, "x", 2)));
+		Assert.assertEquals("text", document.getText());
+		Assert.assertEquals(1, document.getVersion());
+
+		//more than MAX_HISTORY versions behind
+		for (int i = 0; i < SharedDocument.MAX_HISTORY; i++) {
+			document.apply(new EditMessage(document.getVersion(), 0, 0, "", 1));
+		}
+		Assert.assertNull(document.apply(new EditMessage(0, 0, 0, "x", 2)));
+		Assert.assertEquals("text", document.getText());
+		Assert.assertEquals(SharedDocument.MAX_HISTORY + 1, document.getVersion());
+
+		//exactly MAX_HISTORY versions behind can still be moved
+		Assert.assertNotNull(document.apply(new EditMessage(1, 4, 4, "!", 2)));
+		Assert.assertEquals("text!", document.getText());
+	}
+}
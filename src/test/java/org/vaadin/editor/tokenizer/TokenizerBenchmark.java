@@ -0,0 +1,259 @@
+package org.vaadin.editor.tokenizer;
+
+import java.lang.management.ManagementFactory;
+import java.util.stream.Stream;
+
+/**
+ * <p>small standalone benchmark for the tokenizer, run it with the main method (it is not picked up as a unit test)</p>
+ * <p>each document is tokenized repeatedly after a warmup so the JIT has a chance to compile the hot paths</p>
+ */
+public class TokenizerBenchmark {
+
+    /** mixed document with a bit of everything */
+    private static final String[] LINES = {
+        "just some plain text that somebody typed into the editor",
+        "**bold** and *italics* and ~~strike~~ and ==highlight==",
+        "***1*** *2* **1 *2* *3* 4**",
+        "\\*escaped\\* text with a \\\\ backslash",
+        "# a header",
+        "unbalanced **bold and *italics",
+    };
+
+    /** text where almost every word contains a delimiter run that ends up being text */
+    private static final String[] DELIMITER_LINES = {
+        "snake_case_names with_lots_of underscores_in_them and a*b*c*d math ",
+        "x_1 = y_2 * z_3 ~ w_4 __init__ a_b_c_d_e_f_g_h_i_j_k_l_m_n_o_p ",
+    };
+
+    /** long paragraphs with hardly any formatting, what most documents look like */
+    private static final String[] PROSE_LINES = {
+        "Most of what people write is plain prose, sentence after sentence of words with spaces and the odd comma or period in between them. "
+            + "Every one of these characters used to be looked at on its own, one comparison after another, before the text token could end.",
+        "Once in a while a paragraph has a **bold** word in it, but that's about it.",
+    };
+
+    /** same kind of formatting as LINES, but around emoji and cjk text, flank detection has to look at surrogate pairs here */
+    private static final String[] EMOJI_LINES = {
+        "\u4eca\u65e5\u306f**\u3044\u3044\u5929\u6c17**\u3067\u3059\u306d \ud83d\ude00*\"\u697d\u3057\u3044\"*",
+        "\ud83c\udf89 ~~\u53e4\u3044~~ ==\u65b0\u3057\u3044== \ud83d\ude80\u3000*\u6c34*\u3000\ud83d\udc4d",
+        "\u6f22\u5b57\u3068\u304b\u306a\u3060\u3051\u306e\u6587\u7ae0\u3002",
+    };
+
+    /** openers that never get closed, every one of them used to rescan the rest of the document */
+    private static final String[] UNBALANCED_LINES = {
+        "*a *a *a *a *a *a *a *a **b **b **b **b ~~c ~~c ==d ==d ",
+    };
+
+    static String buildDocument(int length) {
+        return buildDocument(LINES, length);
+    }
+
+    static String buildDocument(String[] lines, int length) {
+        StringBuilder sb = new StringBuilder(length + 64);
+        int i = 0;
+        while (sb.length() < length) {
+            sb.append(lines[i++ % lines.length]);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** construction only, this is where the delimiter runs get scanned and classified */
+    static long construct(String document, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Tokenizer tokenizer = new Tokenizer(document);
+            sink += tokenizer.hasMoreTokens() ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return elapsed / iterations;
+    }
+
+    /** construction plus pulling every token out of the tokenizer */
+    static long tokenize(String document, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Tokenizer tokenizer = new Tokenizer(document);
+            while (tokenizer.getNextToken() != null) {
+                sink++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return elapsed / iterations;
+    }
+
+    /** construction plus tokenizing into a reused token buffer */
+    static long tokenizeIntoBuffer(String document, int iterations) {
+        TokenBuffer buffer = new TokenBuffer();
+        Tokenizer tokenizer = new Tokenizer("");
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            tokenizer.reset(document);
+            tokenizer.tokenize(buffer);
+            sink += buffer.size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return elapsed / iterations;
+    }
+
+    /** bytes allocated by the current thread while tokenizing the document once, divided by the number of tokens */
+    static double bytesPerToken(String document) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        Tokenizer tokenizer = new Tokenizer(document);
+        long tokens = 0;
+        while (tokenizer.getNextToken() != null) {
+            tokens++;
+        }
+        long after = threads.getThreadAllocatedBytes(threadId);
+        return (double) (after - before) / tokens;
+    }
+
+    /** same as bytesPerToken() but with a tokenizer and buffer that were already used for the document a few times */
+    static double bytesPerBufferedToken(String document) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        TokenBuffer buffer = new TokenBuffer();
+        Tokenizer tokenizer = new Tokenizer(document);
+        for (int i = 0; i < 10; i++) {
+            tokenizer.reset(document);
+            tokenizer.tokenize(buffer);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        tokenizer.reset(document);
+        tokenizer.tokenize(buffer);
+        long after = threads.getThreadAllocatedBytes(threadId);
+        return (double) (after - before) / buffer.size();
+    }
+
+    /** construction plus tokenizing into a reused buffer with the given scanner */
+    static long tokenizeWith(CharScanner scanner, String document, int iterations) {
+        TokenBuffer buffer = new TokenBuffer();
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Tokenizer tokenizer = new Tokenizer(document, scanner);
+            tokenizer.tokenize(buffer);
+            sink += buffer.size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return elapsed / iterations;
+    }
+
+    /** only compares anything when the JVM was started with --add-modules jdk.incubator.vector */
+    static void compareScanners(String[] lines) {
+        CharScanner vector = CharScanner.vector();
+        if (vector == null) {
+            System.out.println("    vector scanner not available, start the JVM with --add-modules jdk.incubator.vector");
+            return;
+        }
+
+        for (int size : new int[] {1_000, 10_000, 100_000}) {
+            String document = buildDocument(lines, size);
+            int iterations = Math.max(1, iterationsFor(size) / 5);
+            //the vector code needs a lot more warmup before the JIT turns it into actual vector instructions
+            for (int i = 0; i < 5; i++) {
+                tokenizeWith(CharScanner.SCALAR, document, iterations);
+                tokenizeWith(vector, document, iterations);
+            }
+
+            System.out.printf(
+                "%8d chars: scalar scanner %10.1f us/doc, vector scanner %10.1f us/doc%n",
+                document.length(),
+                tokenizeWith(CharScanner.SCALAR, document, iterations) / 1000.0,
+                tokenizeWith(vector, document, iterations) / 1000.0
+            );
+        }
+    }
+
+    /** counts the words in the text tokens with a stream, the kind of work a parallel stream is meant for */
+    static long countWords(String document, int iterations, boolean parallel) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Stream<Token> tokens = new Tokenizer(document).stream();
+            if (parallel) tokens = tokens.parallel();
+            sink += tokens
+                .filter(token -> token.type == TokenType.TEXT)
+                .mapToLong(token -> token.getValue().split("\\s+").length)
+                .sum();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return elapsed / iterations;
+    }
+
+    static void compareStreams(String[] lines) {
+        for (int size : new int[] {10_000, 100_000, 1_000_000}) {
+            String document = buildDocument(lines, size);
+            int iterations = Math.max(1, iterationsFor(size) / 10);
+            countWords(document, iterations, false);
+            countWords(document, iterations, true);
+
+            System.out.printf(
+                "%8d chars: word count stream %10.1f us/doc, parallel stream %10.1f us/doc (%d cpus)%n",
+                document.length(),
+                countWords(document, iterations, false) / 1000.0,
+                countWords(document, iterations, true) / 1000.0,
+                Runtime.getRuntime().availableProcessors()
+            );
+        }
+    }
+
+    static int iterationsFor(int length) {
+        return Math.max(5, 2_000_000 / length);
+    }
+
+    public static void main(String[] args) {
+        System.out.println("mixed:");
+        run(LINES);
+        System.out.println("delimiter heavy:");
+        run(DELIMITER_LINES);
+        System.out.println("unbalanced:");
+        run(UNBALANCED_LINES);
+        System.out.println("emoji and cjk:");
+        run(EMOJI_LINES);
+
+        System.out.println("mixed, streams:");
+        compareStreams(LINES);
+
+        System.out.println("prose, scanners:");
+        compareScanners(PROSE_LINES);
+        System.out.println("markup heavy, scanners:");
+        compareScanners(DELIMITER_LINES);
+    }
+
+    static void run(String[] lines) {
+        int[] sizes = {1_000, 10_000, 100_000};
+
+        for (int size : sizes) {
+            String document = buildDocument(lines, size);
+            int iterations = iterationsFor(size);
+            //warmup
+            construct(document, iterations);
+            tokenize(document, Math.max(1, iterations / 10));
+
+            tokenizeIntoBuffer(document, Math.max(1, iterations / 10));
+
+            System.out.printf(
+                "%8d chars: construct %10.1f us/doc, tokenize %10.1f us/doc, %10.1f bytes/token, buffer %10.1f us/doc, %6.1f bytes/token%n",
+                document.length(),
+                construct(document, iterations) / 1000.0,
+                tokenize(document, Math.max(1, iterations / 10)) / 1000.0,
+                bytesPerToken(document),
+                tokenizeIntoBuffer(document, Math.max(1, iterations / 10)) / 1000.0,
+                bytesPerBufferedToken(document)
+            );
+        }
+    }
+}
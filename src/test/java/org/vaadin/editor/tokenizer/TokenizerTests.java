@@ -2,6 +2,13 @@ package org.vaadin.editor.tokenizer;
 // package org;
 import org.junit.Test;
 import org.junit.Assert;
+import org.junit.Assume;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import org.vaadin.editor.text.Rope;
 
 public class TokenizerTests {
 
@@ -15,7 +22,7 @@ public class TokenizerTests {
             receivedToken = tokenizer.getNextToken();
             Token expectedToken = expectedTokens[i];
             Assert.assertEquals(receivedToken.type, expectedToken.type);
-            Assert.assertEquals(receivedToken.value, expectedToken.value);
+            Assert.assertEquals(receivedToken.getValue(), expectedToken.getValue());
         }
     }
 
@@ -26,7 +33,7 @@ public class TokenizerTests {
             receivedToken = tokenizer.getNextToken();
             String expectedTokenValue = expectedTokenValues[i];
             Assert.assertEquals(receivedToken.type, TokenizerUtils.getTokenType(expectedTokenValue));
-            Assert.assertEquals(receivedToken.value, expectedTokenValue);
+            Assert.assertEquals(receivedToken.getValue(), expectedTokenValue);
         }
     }
 
@@ -172,6 +179,10 @@ public class TokenizerTests {
 
         String[] expectedTokenValues3 = {"\\", "*", "emphasis", "*"};
         this.assertTokenizedString("\\\\*emphasis*", expectedTokenValues3);
+
+        //escapes only apply to the character directly after the backslash
+        String[] expectedTokenValues4 = {"\\a", " ", "*", "b", "*"};
+        this.assertTokenizedString("\\a *b*", expectedTokenValues4);
     }
 
     @Test
@@ -208,6 +219,40 @@ public class TokenizerTests {
 
         String[] expectedTokenValues10 = {"0", "~~", "1", "~~", "2", "~~", "3", "~~", "4"};
         this.assertTokenizedString("0~~1~~2~~3~~4", expectedTokenValues10);
+
+        //a run surrounded by spaces can't be closed by anything, even if other symbols come after it
+        String[] expectedTokenValues11 = {"a ", "* b ~~c~~"};
+        this.assertTokenizedString("a * b ~~c~~", expectedTokenValues11);
+    }
+
+    @Test
+    public void unicode() {
+        //letters from other scripts act like any other letter
+        String[] expectedTokenValues = {"\u4e2d", "*", "\u6587", "*", "\u5b57"};
+        this.assertTokenizedString("\u4e2d*\u6587*\u5b57", expectedTokenValues);
+
+        //an emoji is a symbol, so a run after it can open even if punctuation comes next
+        String[] expectedTokenValues1 = {"\ud83d\ude00", "*", "\"foo\"", "*"};
+        this.assertTokenizedString("\ud83d\ude00*\"foo\"*", expectedTokenValues1);
+
+        //a letter can't do the same
+        String[] expectedTokenValues2 = {"a", "*\"foo\"*"};
+        this.assertTokenizedString("a*\"foo\"*", expectedTokenValues2);
+
+        //emoji inside of the formatting
+        String[] expectedTokenValues3 = {"**", "\ud83d\ude00", "**", " ", "~~", "\ud83c\udf89 ok", "~~"};
+        this.assertTokenizedString("**\ud83d\ude00** ~~\ud83c\udf89 ok~~", expectedTokenValues3);
+
+        //the ideographic space is whitespace, so a run followed by it can't open
+        String[] expectedTokenValues4 = {"*\u3000a*"};
+        this.assertTokenizedString("*\u3000a*", expectedTokenValues4);
+
+        //ascii symbols count as punctuation too, so $ works like the emoji, before it counted as a letter like the "a" above
+        String[] expectedTokenValues5 = {"$", "*", "\"foo\"", "*"};
+        this.assertTokenizedString("$*\"foo\"*", expectedTokenValues5);
+        //and a run between punctuation and $ can close
+        String[] expectedTokenValues6 = {"*", "\"foo\"", "*", "$"};
+        this.assertTokenizedString("*\"foo\"*$", expectedTokenValues6);
     }
 
     /**
@@ -252,6 +297,11 @@ public class TokenizerTests {
             new Tokenizer("***1* 2* 3*"),
             new Tokenizer("***1** 2*"),
             new Tokenizer("*******1* 2*** 3***"),
+            new Tokenizer("*\n~"),
+            new Tokenizer(" *a\na#a~ ~*`#="),
+            new Tokenizer("__\n_=_*"),
+            new Tokenizer("** *~*_"),
+            new Tokenizer("**\n*a*_"),
         };
 
         for (Tokenizer tokenizer : tokenizers) {
@@ -261,4 +311,213 @@ public class TokenizerTests {
             }
         }
     }
+
+    /**
+     * every token has to be inside of the string and a formatting token has to be exactly one of the symbols of its type,
+     *   no matter how the delimiters are mixed up
+     */
+    @Test
+    public void randomDelimiters() {
+        Random random = new Random(321);
+        String[] alphabets = {"*_~=`#\\\n ab", "*_*_* \na=~"};
+        TokenBuffer buffer = new TokenBuffer();
+        for (int doc = 0; doc < 50_000; doc++) {
+            String source = randomString(random, alphabets[doc % alphabets.length], random.nextInt(30));
+            new Tokenizer(source).tokenize(buffer);
+            int end = 0;
+            for (int i = 0; i < buffer.size(); i++) {
+                int start = buffer.getStart(i);
+                int length = buffer.getLength(i);
+                //the backslash of an escape isn't part of any token, otherwise the tokens are back to back
+                Assert.assertTrue(source, start == end || start == end + 1 && source.charAt(end) == '\\');
+                Assert.assertTrue(source, length > 0);
+                end = start + length;
+
+                TokenType type = buffer.getType(i);
+                if (type == TokenType.TEXT || type == TokenType.BREAK || type == TokenType.HEADER) continue;
+                Assert.assertEquals(source, type, TokenizerUtils.getTokenType(source.substring(start, end)));
+            }
+            Assert.assertTrue(source, end == source.length() || end + 1 == source.length() && source.charAt(end) == '\\');
+        }
+    }
+
+    /**
+     * a tokenizer that gets reset has to give the same tokens as a new one, no matter what it tokenized before
+     */
+    @Test
+    public void reset() {
+        String[] sources = {
+            "**1 *2* *3* 4**",
+            "",
+            "a * b ~~c~~",
+            "***1*** *2*\n# header\n```\ncode\n```",
+            "__a__ _b_ ==c== \\*d*",
+            "**unbalanced *italics",
+        };
+
+        Tokenizer reused = new Tokenizer("");
+        for (int round = 0; round < 2; round++) {
+            for (String source : sources) {
+                reused.reset(source);
+                Tokenizer fresh = new Tokenizer(source);
+
+                Token expected;
+                while ((expected = fresh.getNextToken()) != null) {
+                    Token received = reused.getNextToken();
+                    Assert.assertEquals(source, expected.type, received.type);
+                    Assert.assertEquals(source, expected.actionType, received.actionType);
+                    Assert.assertEquals(source, expected.getValue(), received.getValue());
+                }
+                Assert.assertNull(source, reused.getNextToken());
+            }
+        }
+    }
+
+    /**
+     * tokenizing into a buffer has to give the same tokens as getNextToken(), also when the buffer is reused for another string
+     */
+    @Test
+    public void tokenBuffer() {
+        String[] sources = {
+            "***1*** *2*\n# header\n```\ncode\n```",
+            "a * b ~~c~~",
+            "",
+            "**1 *2* *3* 4**",
+        };
+
+        TokenBuffer buffer = new TokenBuffer(1);
+        for (String source : sources) {
+            new Tokenizer(source).tokenize(buffer);
+            Tokenizer tokenizer = new Tokenizer(source);
+
+            int i = 0;
+            Token expected;
+            while ((expected = tokenizer.getNextToken()) != null) {
+                Assert.assertEquals(source, expected.type, buffer.getType(i));
+                Assert.assertEquals(source, expected.actionType, buffer.getActionType(i));
+                Assert.assertEquals(source, expected.start, buffer.getStart(i));
+                Assert.assertEquals(source, expected.getValue(), buffer.getValue(i));
+                i++;
+            }
+            Assert.assertEquals(source, i, buffer.size());
+        }
+    }
+
+    /**
+     * the vectorized scanner has to find the same characters as the scalar one, only runs when the vector module was added to the JVM
+     */
+    @Test
+    public void vectorScanner() {
+        CharScanner vector = CharScanner.vector();
+        Assume.assumeNotNull(vector);
+
+        Random random = new Random(321);
+        String alphabet = "*_~=`#\\\n abcdefghijklmnopqrstuvwxyz\u00e9\u4e2d";
+        for (int doc = 0; doc < 2000; doc++) {
+            //mostly plain text so whole vectors get skipped
+            char[] chars = randomString(random, random.nextInt(4) == 0 ? alphabet : alphabet.substring(8), random.nextInt(200)).toCharArray();
+            if (chars.length != 0 && random.nextBoolean()) chars[random.nextInt(chars.length)] = alphabet.charAt(random.nextInt(8));
+
+            for (int from = 0; from <= chars.length; from += 1 + random.nextInt(8)) {
+                int to = from + random.nextInt(chars.length - from + 1);
+                Assert.assertEquals(CharScanner.SCALAR.indexOfSpecial(chars, from, to), vector.indexOfSpecial(chars, from, to));
+            }
+
+            String source = new String(chars);
+            Tokenizer scalarTokenizer = new Tokenizer(source, CharScanner.SCALAR);
+            Tokenizer vectorTokenizer = new Tokenizer(source, vector);
+            Token expected;
+            while ((expected = scalarTokenizer.getNextToken()) != null) {
+                Token received = vectorTokenizer.getNextToken();
+                Assert.assertEquals(source, expected.type, received.type);
+                Assert.assertEquals(source, expected.getValue(), received.getValue());
+            }
+            Assert.assertNull(source, vectorTokenizer.getNextToken());
+        }
+    }
+
+    @Test
+    public void rope() {
+        Random random = new Random(321);
+        String alphabet = "*_~=`#\\\n\n ab";
+        String source = randomString(random, alphabet, 5000);
+        Rope rope = Rope.of(source);
+
+        for (int edit = 0; edit < 200; edit++) {
+            int start = random.nextInt(source.length() + 1);
+            int end = start + random.nextInt(Math.min(40, source.length() - start) + 1);
+            String inserted = randomString(random, alphabet, random.nextInt(random.nextBoolean() ? 4 : 1200));
+            source = source.substring(0, start) + inserted + source.substring(end);
+            rope = rope.replace(start, end, inserted);
+            Assert.assertEquals(source, rope.toString());
+
+            //the rope has to give the same tokens as the string it holds, the tokenizer copies it out a leaf at a time
+            if (edit % 20 != 0) continue;
+            Tokenizer expected = new Tokenizer(source);
+            Tokenizer received = new Tokenizer(rope);
+            Token token;
+            while ((token = expected.getNextToken()) != null) {
+                Token other = received.getNextToken();
+                Assert.assertNotNull(other);
+                Assert.assertEquals(token.toString(), other.toString());
+                Assert.assertEquals(token.start, other.start);
+            }
+            Assert.assertNull(received.getNextToken());
+
+            int from = random.nextInt(source.length() + 1);
+            int to = from + random.nextInt(source.length() - from + 1);
+            Assert.assertEquals(source.substring(from, to), rope.subSequence(from, to).toString());
+        }
+    }
+
+    @Test
+    public void stream() {
+        //the stream stops tokenizing once it found what it was looking for
+        Tokenizer tokenizer = new Tokenizer("*intro*\n# header\n" + "**more** text\n".repeat(1000));
+        Token header = tokenizer.stream().filter(token -> token.type == TokenType.HEADER).findFirst().orElse(null);
+        Assert.assertNotNull(header);
+        Assert.assertEquals("#", header.getValue());
+        Assert.assertTrue(tokenizer.hasMoreTokens());
+
+        String[] lines = {
+            "**bold** and *italics* and ~~strike~~ and ==highlight==",
+            "***1*** *2* **1 *2* *3* 4**",
+            "\\*escaped\\* text with a \\\\ backslash\\",
+            "# a header",
+            "unbalanced **bold and *italics",
+            "**bold that goes",
+            "over two lines**",
+            "```",
+            "code *block*",
+            "```",
+            "stray **** stars *",
+        };
+        Random random = new Random(321);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 100_000) {
+            sb.append(lines[random.nextInt(lines.length)]).append('\n');
+        }
+        String source = sb.toString();
+
+        Spliterator<Token> spliterator = new Tokenizer(source).spliterator();
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.NONNULL));
+        Assert.assertNotNull(spliterator.trySplit());
+
+        //splitting never changes the tokens, not even when formatting is open across the split
+        List<Token> expected = new Tokenizer(source).stream().collect(Collectors.toList());
+        List<Token> received = new Tokenizer(source).stream().parallel().collect(Collectors.toList());
+        Assert.assertEquals(expected.size(), received.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).toString(), received.get(i).toString());
+            Assert.assertEquals(expected.get(i).start, received.get(i).start);
+        }
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,276 @@
+package org.vaadin.editor.ws;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * <p>load test for a running server, run it with the main method (it is not picked up as a unit test)</p>
+ *
+ * <p>opens more and more websocket connections that mostly sit there like people reading along, while a few of them keep typing,
+ *   after every step it prints how long an edit took to come back and what the server's MetricsEndpoint says, most of all how
+ *   many platform threads it's using</p>
+ *
+ * <p>start the server once as it is and once with -Pvirtual-threads and compare the two, the arguments are the server's url,
+ *   the connection counts of the steps and the number of typing connections, for example
+ *   http://localhost:8080 100,250,500,1000 10</p>
+ */
+public class ConnectionBenchmark {
+	private static final Pattern SENDER = Pattern.compile("\"senderId\":(-?\\d+)");
+	private static final Pattern VERSION = Pattern.compile("\\},\"version\":(\\d+)");
+	private static final Pattern RESYNC_VERSION = Pattern.compile("\"version\":(\\d+)");
+	/** sender ids of the typing connections, far away from the ids the server hands out */
+	private static final int FIRST_SENDER = 1_000_000;
+	/** tomcat's client allocates a buffer this big for every connection up front */
+	private static final int MAX_MESSAGE_SIZE = 256 << 10;
+	/** an edit that didn't come back after this long is counted as lost and the connection types again */
+	private static final long EDIT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+	/** json that stays bytes both ways, the byte array converter only takes application/octet-stream and the server wants json */
+	static final class JsonBytesConverter extends AbstractMessageConverter {
+		JsonBytesConverter() {
+			super(MimeTypeUtils.APPLICATION_JSON);
+		}
+
+		@Override
+		protected boolean supports(Class<?> clazz) {
+			return clazz == byte[].class;
+		}
+
+		@Override
+		protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+			return message.getPayload();
+		}
+
+		@Override
+		protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+			return payload;
+		}
+	}
+
+	/** one connection, it keeps track of the newest version so its edits are made on it */
+	static final class Connection extends StompSessionHandlerAdapter {
+		final int senderId;
+		volatile StompSession session;
+		volatile int version = 0;
+		/** when the edit that's on its way was sent, 0 if there isn't one */
+		volatile long sentAt = 0;
+		final ConcurrentLinkedQueue<Long> roundTrips;
+		final AtomicInteger lost;
+
+		Connection(int senderId, ConcurrentLinkedQueue<Long> roundTrips, AtomicInteger lost) {
+			this.senderId = senderId;
+			this.roundTrips = roundTrips;
+			this.lost = lost;
+		}
+
+		@Override
+		public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+			this.session = session;
+			session.subscribe("/broadcasts/updates", new StompFrameHandler() {
+				@Override
+				public Type getPayloadType(StompHeaders headers) {
+					return byte[].class;
+				}
+
+				@Override
+				public void handleFrame(StompHeaders headers, Object payload) {
+					Connection.this.onUpdate(new String((byte[]) payload, StandardCharsets.UTF_8));
+				}
+			});
+			// the server dropped an edit it couldn't move, start over at its version like the editor does
+			session.subscribe("/broadcasts/resync", new StompFrameHandler() {
+				@Override
+				public Type getPayloadType(StompHeaders headers) {
+					return byte[].class;
+				}
+
+				@Override
+				public void handleFrame(StompHeaders headers, Object payload) {
+					Connection.this.onResync(new String((byte[]) payload, StandardCharsets.UTF_8));
+				}
+			});
+			// the html isn't looked at, it only has to be delivered like it would be to a browser
+			session.subscribe("/broadcasts/html", new StompFrameHandler() {
+				@Override
+				public Type getPayloadType(StompHeaders headers) {
+					return byte[].class;
+				}
+
+				@Override
+				public void handleFrame(StompHeaders headers, Object payload) {
+
+				}
+			});
+		}
+
+		void onUpdate(String json) {
+			Matcher version = VERSION.matcher(json);
+			if (version.find()) this.version = Math.max(this.version, Integer.parseInt(version.group(1)));
+
+			Matcher sender = SENDER.matcher(json);
+			long sentAt = this.sentAt;
+			if (sentAt != 0 && sender.find() && Integer.parseInt(sender.group(1)) == this.senderId) {
+				this.roundTrips.add(System.nanoTime() - sentAt);
+				this.sentAt = 0;
+			}
+		}
+
+		void onResync(String json) {
+			Matcher sender = SENDER.matcher(json);
+			if (!sender.find() || Integer.parseInt(sender.group(1)) != this.senderId) return;
+
+			Matcher version = RESYNC_VERSION.matcher(json);
+			if (version.find()) this.version = Math.max(this.version, Integer.parseInt(version.group(1)));
+			if (this.sentAt != 0) {
+				this.lost.incrementAndGet();
+				this.sentAt = 0;
+			}
+		}
+
+		/**
+		 * <p>types one character at the start of the document, like the editor only one edit is on its way at a time</p>
+		 * <p>an edit that never came back, because the server dropped the frame, doesn't keep the connection from typing forever</p>
+		 */
+		void type() {
+			StompSession session = this.session;
+			if (session == null || !session.isConnected()) return;
+			long sentAt = this.sentAt;
+			if (sentAt != 0) {
+				if (System.nanoTime() - sentAt < EDIT_TIMEOUT_NANOS) return;
+				this.lost.incrementAndGet();
+			}
+
+			StompHeaders headers = new StompHeaders();
+			headers.setDestination("/app/edit");
+			headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+			String edit = "{\"version\":" + this.version + ",\"start\":0,\"end\":0,\"text\":\"x\",\"senderId\":" + this.senderId + "}";
+			this.sentAt = System.nanoTime();
+			try {
+				session.send(headers, edit.getBytes(StandardCharsets.UTF_8));
+			} catch (RuntimeException e) {
+				// the server closed the connection, it just doesn't type anymore
+				this.lost.incrementAndGet();
+				this.sentAt = 0;
+			}
+		}
+	}
+
+	static String getMetrics(HttpClient http, String url) {
+		// hilla wants the csrf token in a cookie and a header, any token does as long as both are the same
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url + "/connect/MetricsEndpoint/getRenderMetrics"))
+			.header("Content-Type", "application/json")
+			.header("Cookie", "csrfToken=benchmark")
+			.header("X-CSRF-Token", "benchmark")
+			.POST(HttpRequest.BodyPublishers.ofString("{}"))
+			.build();
+		try {
+			return http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+		} catch (Exception e) {
+			return "metrics unavailable: " + e;
+		}
+	}
+
+	/** 50th and 99th percentile in milliseconds */
+	static String percentiles(List<Long> nanos) {
+		if (nanos.isEmpty()) return "no edits came back";
+		long[] sorted = nanos.stream().mapToLong(Long::longValue).sorted().toArray();
+		return String.format(
+			"%d edits, p50 %.2f ms, p99 %.2f ms",
+			sorted.length, sorted[sorted.length / 2] / 1e6, sorted[Math.min(sorted.length - 1, sorted.length * 99 / 100)] / 1e6
+		);
+	}
+
+	public static void main(String[] args) throws Exception {
+		String url = args.length > 0 ? args[0] : "http://localhost:8080";
+		int[] steps = args.length > 1 ? Arrays.stream(args[1].split(",")).mapToInt(Integer::parseInt).toArray() : new int[] {100, 250, 500, 1000};
+		int typists = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		String wsUrl = url.replaceFirst("^http", "ws") + "/create-ws-connection";
+
+		// every typed character makes the html of the whole document bigger, tomcat's client closes a session after a message over 8 kB
+		// and the stomp client over 64 kB, a browser takes it whatever the size, stomp is sent in text frames so only those need more
+		WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+		container.setDefaultMaxTextMessageBufferSize(MAX_MESSAGE_SIZE);
+		WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient(container));
+		stompClient.setInboundMessageSizeLimit(MAX_MESSAGE_SIZE);
+		stompClient.setMessageConverter(new JsonBytesConverter());
+		HttpClient http = HttpClient.newHttpClient();
+
+		List<Connection> connections = new ArrayList<>();
+		// how long the edits of the typing connections took to come back, for the current step
+		ConcurrentLinkedQueue<Long> roundTrips = new ConcurrentLinkedQueue<>();
+		AtomicInteger failed = new AtomicInteger();
+		// edits of the typing connections that never came back or were dropped by the server, for the current step
+		AtomicInteger lost = new AtomicInteger();
+		System.out.println("url: " + wsUrl + ", typing connections: " + typists);
+
+		for (int step : steps) {
+			long start = System.nanoTime();
+			List<CompletableFuture<StompSession>> connecting = new ArrayList<>();
+			while (connections.size() < step) {
+				Connection connection = new Connection(FIRST_SENDER + connections.size(), roundTrips, lost);
+				connections.add(connection);
+				connecting.add(stompClient.connectAsync(wsUrl, connection).exceptionally(e -> {
+					failed.incrementAndGet();
+					return null;
+				}));
+			}
+			for (CompletableFuture<StompSession> future : connecting) {
+				try {
+					future.get(30, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					failed.incrementAndGet();
+				}
+			}
+			long connectMillis = (System.nanoTime() - start) / 1_000_000;
+
+			// the first few connections type a character every 50 ms for 5 seconds while everyone else reads along
+			roundTrips.clear();
+			lost.set(0);
+			List<Connection> typing = connections.subList(0, Math.min(typists, connections.size()));
+			for (long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5); System.nanoTime() < end; ) {
+				for (Connection connection : typing) {
+					connection.type();
+				}
+				Thread.sleep(50);
+			}
+			Thread.sleep(500);
+
+			System.out.println();
+			System.out.println(String.format("%d connections (%d failed), connected in %d ms", connections.size(), failed.get(), connectMillis));
+			System.out.println("  round trip: " + percentiles(new ArrayList<>(roundTrips)) + ", " + lost.get() + " lost");
+			System.out.println("  server: " + getMetrics(http, url));
+		}
+
+		for (Connection connection : connections) {
+			if (connection.session != null && connection.session.isConnected()) connection.session.disconnect();
+		}
+		stompClient.stop();
+	}
+}
@@ -0,0 +1,43 @@
+package org.vaadin.editor.tokenizer;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * <p>CharScanner that compares as many characters at once as the cpu's vectors fit, see CharScanner for when it's used</p>
+ * <p>never reference this class directly, it can only be loaded when the jdk.incubator.vector module is there</p>
+ */
+final class VectorCharScanner extends CharScanner {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    /** in markup heavy text the next special character is usually only a few characters away, not worth loading a vector for */
+    private static final int SCALAR_PROBE_LENGTH = 8;
+
+    @Override
+    int indexOfSpecial(char[] chars, int from, int to) {
+        int i = from;
+        for (int probeEnd = Math.min(to, from + SCALAR_PROBE_LENGTH); i < probeEnd; i++) {
+            if (CharScanner.isSpecial(chars[i])) return i;
+        }
+
+        int bound = i + SPECIES.loopBound(to - i);
+        for (; i < bound; i += SPECIES.length()) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, chars, i);
+            VectorMask<Short> special = v.eq((short) '\\')
+                .or(v.eq((short) '\n'))
+                .or(v.eq((short) '*'))
+                .or(v.eq((short) '_'))
+                .or(v.eq((short) '~'))
+                .or(v.eq((short) '='))
+                .or(v.eq((short) '`'));
+            if (special.anyTrue()) return i + special.firstTrue();
+        }
+
+        //whatever is left doesn't fill a whole vector
+        for (; i < to; i++) {
+            if (CharScanner.isSpecial(chars[i])) return i;
+        }
+        return to;
+    }
+}